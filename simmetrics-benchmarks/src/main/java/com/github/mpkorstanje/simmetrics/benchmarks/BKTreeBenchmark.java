@@ -0,0 +1,106 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.search.BKTree;
+import com.github.mpkorstanje.simmetrics.search.Neighbor;
+
+/**
+ * Benchmarks range queries on a BK-tree against a scan of the dictionary that
+ * measures the bounded distance to every record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BKTreeBenchmark {
+
+	@Param({ "10000", "100000" })
+	public int size;
+
+	@Param({ "1", "2" })
+	public float maxDistance;
+
+	private final StringDistance distance = new Levenshtein();
+
+	private BKTree tree;
+
+	private List<String> dictionary;
+
+	private String[] queries;
+
+	private int query;
+
+	@Setup
+	public void setUp() {
+		dictionary = new ArrayList<>(size);
+		int round = 0;
+		while (dictionary.size() < size) {
+			final String[][] pairs = Inputs.pairs(8, 1, "words", 0.0, false);
+			for (int i = 0; i < Inputs.PAIRS && dictionary.size() < size; i++) {
+				dictionary.add(pairs[0][i] + round);
+			}
+			round++;
+		}
+		queries = Inputs.pairs(8, 1, "words", 0.0, false)[1];
+		for (int i = 0; i < queries.length; i++) {
+			queries[i] = queries[i] + i;
+		}
+		tree = BKTree.create(distance, dictionary);
+	}
+
+	@Benchmark
+	public List<Neighbor> search() {
+		return tree.search(queries[query++ & (Inputs.PAIRS - 1)], maxDistance);
+	}
+
+	@Benchmark
+	public int scan() {
+		final String q = queries[query++ & (Inputs.PAIRS - 1)];
+		int matches = 0;
+		for (String record : dictionary) {
+			if (distance.distance(q, record, maxDistance) <= maxDistance) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+
+}
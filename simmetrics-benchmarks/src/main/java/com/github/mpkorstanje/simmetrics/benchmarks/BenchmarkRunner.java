@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the benchmarks with the JMH command line interface.
+ * <p>
+ * The GC profiler is always enabled so the allocation rate is reported along
+ * side the throughput of each benchmark.
+ */
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+		// Utility class
+	}
+
+	public static void main(String[] args) throws Exception {
+		final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+		if (!isProfilerRequested(arguments)) {
+			arguments.add(0, "-prof");
+			arguments.add(1, "gc");
+		}
+		Main.main(arguments.toArray(new String[0]));
+	}
+
+	private static boolean isProfilerRequested(List<String> arguments) {
+		for (int i = 0; i < arguments.size() - 1; i++) {
+			if ("-prof".equals(arguments.get(i)) && arguments.get(i + 1).startsWith("gc")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
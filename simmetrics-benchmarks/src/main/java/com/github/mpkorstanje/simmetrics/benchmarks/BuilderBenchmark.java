@@ -0,0 +1,213 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+import static com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.with;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.removeDiacritics;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.replaceNonWord;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.toLowerCase;
+import static com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers.qGram;
+import static com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers.whitespace;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.builders.StringDistanceBuilder;
+import com.github.mpkorstanje.simmetrics.caches.CaffeineCache;
+import com.github.mpkorstanje.simmetrics.caches.Caches;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.Dice;
+import com.github.mpkorstanje.simmetrics.metrics.EuclideanDistance;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.metrics.SimonWhite;
+import com.github.mpkorstanje.simmetrics.metrics.SmithWaterman;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+import com.github.mpkorstanje.simmetrics.tokenizers.TokenDictionary;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Benchmarks metrics composed by the {@code StringMetricBuilder} and
+ * {@code StringDistanceBuilder}. Includes the cost of simplification,
+ * tokenization, filtering and caching.
+ * <p>
+ * The builder compiles and fuses lower-casing, non-word replacement and
+ * tokenization. The unfused pipeline is composed by hand for comparison.
+ * <p>
+ * Because the benchmark cycles through a small number of inputs the cached
+ * pipelines measure the cost of a cache hit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuilderBenchmark {
+
+	@Param({
+			"simplifyLevenshtein",
+			"cacheStringsLevenshtein",
+			"simplifyTokenizeCosine",
+			"cacheTokensCosine",
+			"cacheInternedTokensCosine",
+			"fusedWordQGramsCosine",
+			"unfusedWordQGramsCosine",
+			"chainTokenizersSimonWhite",
+			"filterTransformDice",
+			"distanceSimplifyTokenizeJaccard",
+			"distanceCacheTokensEuclidean",
+			"simplifySmithWaterman",
+			"cacheResultsSmithWaterman"
+	})
+	public String pipeline;
+
+	@Param({ "16", "64", "256" })
+	public int length;
+
+	@Param({ "latin1" })
+	public String alphabet;
+
+	@Param({ "0.0", "0.1" })
+	public double nonBmp;
+
+	private StringMetric metric;
+
+	private String[] a;
+
+	private String[] b;
+
+	private int index;
+
+	@Setup
+	public void setUp() {
+		metric = create(pipeline);
+		String[][] pairs = Inputs.pairs(length, 1, alphabet, nonBmp, false);
+		a = pairs[0];
+		b = pairs[1];
+	}
+
+	@Benchmark
+	public float compare() {
+		final int i = index++ & (Inputs.PAIRS - 1);
+		return metric.compare(a[i], b[i]);
+	}
+
+	static StringMetric create(String pipeline) {
+		switch (pipeline) {
+		case "simplifyLevenshtein":
+			return with(new Levenshtein())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.simplify(removeDiacritics())
+					.build();
+		case "cacheStringsLevenshtein":
+			return with(new Levenshtein())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.simplify(removeDiacritics())
+					.cacheStrings(CacheBuilder.newBuilder().maximumSize(2 * Inputs.PAIRS).build())
+					.build();
+		case "simplifyTokenizeCosine":
+			return with(new CosineSimilarity<String>())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.simplify(replaceNonWord())
+					.tokenize(qGram(3))
+					.build();
+		case "cacheTokensCosine":
+			return with(new CosineSimilarity<String>())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.simplify(replaceNonWord())
+					.tokenize(qGram(3))
+					.cacheTokens(CacheBuilder.newBuilder().maximumSize(2 * Inputs.PAIRS).build())
+					.build();
+		case "cacheInternedTokensCosine":
+			return with(new CosineSimilarity<String>())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.simplify(replaceNonWord())
+					.tokenize(qGram(3))
+					.cacheTokens(Caches.guava(CacheBuilder.newBuilder().maximumSize(2 * Inputs.PAIRS).build()),
+							TokenDictionary.create())
+					.build();
+		case "fusedWordQGramsCosine":
+			return with(new CosineSimilarity<String>())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.simplify(replaceNonWord())
+					.tokenize(whitespace())
+					.tokenize(qGram(2))
+					.build();
+		case "unfusedWordQGramsCosine": {
+			final Simplifier simplifier = Simplifiers.chain(toLowerCase(Locale.ENGLISH), replaceNonWord());
+			final Tokenizer tokenizer = Tokenizers.chain(whitespace(), qGram(2));
+			final CosineSimilarity<String> cosine = new CosineSimilarity<>();
+			return (x, y) -> cosine.compare(tokenizer.tokenizeToMultiset(simplifier.simplify(x)),
+					tokenizer.tokenizeToMultiset(simplifier.simplify(y)));
+		}
+		case "chainTokenizersSimonWhite":
+			return with(new SimonWhite<String>())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.tokenize(whitespace())
+					.tokenize(qGram(2))
+					.build();
+		case "filterTransformDice":
+			return with(new Dice<String>())
+					.tokenize(whitespace())
+					.filter(token -> token.length() > 2)
+					.transform(token -> token.toLowerCase(Locale.ENGLISH))
+					.build();
+		case "distanceSimplifyTokenizeJaccard":
+			return StringDistanceBuilder.with(new Jaccard<String>())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.tokenize(qGram(2))
+					.build()::distance;
+		case "distanceCacheTokensEuclidean":
+			return StringDistanceBuilder.with(new EuclideanDistance<String>())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.tokenize(qGram(2))
+					.cacheTokens(CacheBuilder.newBuilder().maximumSize(2 * Inputs.PAIRS).build())
+					.build()::distance;
+		case "simplifySmithWaterman":
+			return with(new SmithWaterman())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.build();
+		case "cacheResultsSmithWaterman":
+			return with(new SmithWaterman())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.cacheResults(CaffeineCache.pairsWeighedByLength(4L * Inputs.PAIRS * 256))
+					.build();
+		default:
+			throw new IllegalArgumentException("Unknown pipeline: " + pipeline);
+		}
+	}
+
+}
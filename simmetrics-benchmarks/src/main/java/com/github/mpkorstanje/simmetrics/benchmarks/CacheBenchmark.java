@@ -0,0 +1,123 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import static com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.with;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.toLowerCase;
+import static com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers.qGram;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.caches.Caches;
+import com.github.mpkorstanje.simmetrics.caches.CaffeineCache;
+import com.github.mpkorstanje.simmetrics.caches.ComputingCache;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Benchmarks the caches of the {@code StringMetricBuilder} under concurrent
+ * access. All threads share one metric and cycle through a small number of
+ * inputs so nearly every lookup is a cache hit.
+ * <p>
+ * Runs with 32 threads by default, override with {@code -t}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(32)
+@Fork(1)
+public class CacheBenchmark {
+
+	@Param({ "guava", "caffeine" })
+	public String cache;
+
+	@Param({ "strings", "tokens" })
+	public String stage;
+
+	@Param({ "64" })
+	public int length;
+
+	private StringMetric metric;
+
+	private String[] a;
+
+	private String[] b;
+
+	@State(Scope.Thread)
+	public static class Cursor {
+		int index;
+	}
+
+	@Setup
+	public void setUp() {
+		final String[][] pairs = Inputs.pairs(length, 1, "latin1", 0.0, false);
+		a = pairs[0];
+		b = pairs[1];
+		if ("strings".equals(stage)) {
+			metric = with(new Jaccard<String>())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.cacheStrings(this.<String> create())
+					.tokenize(qGram(3))
+					.build();
+		} else {
+			metric = with(new Jaccard<String>())
+					.simplify(toLowerCase(Locale.ENGLISH))
+					.tokenize(qGram(3))
+					.cacheTokens(this.<Set<String>> create())
+					.build();
+		}
+	}
+
+	private <V> ComputingCache<String, V> create() {
+		switch (cache) {
+		case "guava":
+			return Caches.guava(CacheBuilder.newBuilder().maximumSize(2 * Inputs.PAIRS).<String, V> build());
+		case "caffeine":
+			return CaffeineCache.weighedByLength(2L * Inputs.PAIRS * length);
+		default:
+			throw new IllegalArgumentException("Unknown cache: " + cache);
+		}
+	}
+
+	@Benchmark
+	public float compare(Cursor cursor) {
+		final int i = cursor.index++ & (Inputs.PAIRS - 1);
+		return metric.compare(a[i], b[i]);
+	}
+
+}
@@ -0,0 +1,314 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.ListDistance;
+import com.github.mpkorstanje.simmetrics.ListMetric;
+import com.github.mpkorstanje.simmetrics.Metric;
+import com.github.mpkorstanje.simmetrics.MultisetMetric;
+import com.github.mpkorstanje.simmetrics.metrics.BlockDistance;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.Dice;
+import com.github.mpkorstanje.simmetrics.metrics.EuclideanDistance;
+import com.github.mpkorstanje.simmetrics.metrics.GeneralizedJaccard;
+import com.github.mpkorstanje.simmetrics.metrics.GeneralizedOverlapCoefficient;
+import com.github.mpkorstanje.simmetrics.metrics.HammingDistance;
+import com.github.mpkorstanje.simmetrics.metrics.HashedBlockDistance;
+import com.github.mpkorstanje.simmetrics.metrics.HashedCosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.HashedDice;
+import com.github.mpkorstanje.simmetrics.metrics.HashedEuclideanDistance;
+import com.github.mpkorstanje.simmetrics.metrics.HashedGeneralizedJaccard;
+import com.github.mpkorstanje.simmetrics.metrics.HashedJaccard;
+import com.github.mpkorstanje.simmetrics.metrics.HashedOverlapCoefficient;
+import com.github.mpkorstanje.simmetrics.metrics.HashedSimonWhite;
+import com.github.mpkorstanje.simmetrics.metrics.Identity;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.Level2;
+import com.github.mpkorstanje.simmetrics.metrics.OverlapCoefficient;
+import com.github.mpkorstanje.simmetrics.metrics.SimonWhite;
+import com.github.mpkorstanje.simmetrics.metrics.SmithWatermanGotoh;
+import com.github.mpkorstanje.simmetrics.metrics.TanimotoCoefficient;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedSet;
+import com.github.mpkorstanje.simmetrics.tokenizers.NormedMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.TokenDictionary;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+import com.google.common.collect.Multiset;
+
+/**
+ * Benchmarks the list, set and multiset metrics on pre-tokenized input. This
+ * isolates the cost of the metric from the cost of tokenization.
+ * <p>
+ * The {@code lengthRatio} skews the size of the collections being compared.
+ * The order in which set operations are applied depends on the relative size
+ * of the operands.
+ * <p>
+ * The {@code interned} cases tokenize into sorted id arrays of a shared
+ * {@link TokenDictionary} so the set metrics intersect by merging. The
+ * {@code normed} cases compute the norm of each multiset in advance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionMetricBenchmark {
+
+	@Param({
+			"blockDistance",
+			"cosineSimilarity",
+			"dice",
+			"euclideanDistance",
+			"generalizedJaccard",
+			"generalizedOverlapCoefficient",
+			"hammingDistance",
+			"hashedBlockDistance",
+			"hashedCosineSimilarity",
+			"hashedDice",
+			"hashedEuclideanDistance",
+			"hashedGeneralizedJaccard",
+			"hashedJaccard",
+			"hashedOverlapCoefficient",
+			"hashedSimonWhite",
+			"identity",
+			"internedCosineSimilarity",
+			"internedDice",
+			"internedEuclideanDistance",
+			"internedGeneralizedJaccard",
+			"internedJaccard",
+			"internedSimonWhite",
+			"jaccard",
+			"level2",
+			"normedCosineSimilarity",
+			"normedEuclideanDistance",
+			"overlapCoefficient",
+			"simonWhite",
+			"tanimotoCoefficient"
+	})
+	public String metric;
+
+	@Param({ "16", "64", "256" })
+	public int length;
+
+	@Param({ "1", "8" })
+	public int lengthRatio;
+
+	@Param({ "dna", "words" })
+	public String alphabet;
+
+	@Param({ "0.0", "0.1" })
+	public double nonBmp;
+
+	private Comparison comparison;
+
+	private int index;
+
+	@Setup
+	public void setUp() {
+		final String[][] pairs = Inputs.pairs(length, lengthRatio, alphabet, nonBmp, false);
+		comparison = create(metric, Tokenizers.qGram(3), pairs[0], pairs[1]);
+	}
+
+	@Benchmark
+	public float compare() {
+		return comparison.compare(index++ & (Inputs.PAIRS - 1));
+	}
+
+	private interface Comparison {
+		float compare(int i);
+	}
+
+	private static Comparison create(String metric, Tokenizer tokenizer, String[] a, String[] b) {
+		switch (metric) {
+		case "blockDistance":
+			return multisets(new BlockDistance<>(), tokenizer, a, b);
+		case "cosineSimilarity":
+			return multisets(new CosineSimilarity<>(), tokenizer, a, b);
+		case "dice":
+			return sets(new Dice<>(), tokenizer, a, b);
+		case "euclideanDistance":
+			return multisets(new EuclideanDistance<>(), tokenizer, a, b);
+		case "generalizedJaccard":
+			return multisets(new GeneralizedJaccard<>(), tokenizer, a, b);
+		case "generalizedOverlapCoefficient":
+			return multisets(new GeneralizedOverlapCoefficient<>(), tokenizer, a, b);
+		case "hammingDistance":
+			return hamming(HammingDistance.forList(), tokenizer, a, b);
+		case "hashedBlockDistance":
+			return hashedMultisets(new HashedBlockDistance(), tokenizer, a, b);
+		case "hashedCosineSimilarity":
+			return hashedMultisets(new HashedCosineSimilarity(), tokenizer, a, b);
+		case "hashedDice":
+			return hashedSets(new HashedDice(), tokenizer, a, b);
+		case "hashedEuclideanDistance":
+			return hashedMultisets(new HashedEuclideanDistance(), tokenizer, a, b);
+		case "hashedGeneralizedJaccard":
+			return hashedMultisets(new HashedGeneralizedJaccard(), tokenizer, a, b);
+		case "hashedJaccard":
+			return hashedSets(new HashedJaccard(), tokenizer, a, b);
+		case "hashedOverlapCoefficient":
+			return hashedSets(new HashedOverlapCoefficient(), tokenizer, a, b);
+		case "hashedSimonWhite":
+			return hashedMultisets(new HashedSimonWhite(), tokenizer, a, b);
+		case "identity":
+			return sets(new Identity<>(), tokenizer, a, b);
+		case "internedCosineSimilarity":
+			return multisets(new CosineSimilarity<>(), interning(tokenizer), a, b);
+		case "internedDice":
+			return sets(new Dice<>(), interning(tokenizer), a, b);
+		case "internedEuclideanDistance":
+			return multisets(new EuclideanDistance<>(), interning(tokenizer), a, b);
+		case "internedGeneralizedJaccard":
+			return multisets(new GeneralizedJaccard<>(), interning(tokenizer), a, b);
+		case "internedJaccard":
+			return sets(new Jaccard<>(), interning(tokenizer), a, b);
+		case "internedSimonWhite":
+			return multisets(new SimonWhite<>(), interning(tokenizer), a, b);
+		case "jaccard":
+			return sets(new Jaccard<>(), tokenizer, a, b);
+		case "level2":
+			return lists(new Level2(new SmithWatermanGotoh()), tokenizer, a, b);
+		case "normedCosineSimilarity":
+			return normedMultisets(new CosineSimilarity<>(), tokenizer, a, b);
+		case "normedEuclideanDistance":
+			return normedMultisets(new EuclideanDistance<>(), tokenizer, a, b);
+		case "overlapCoefficient":
+			return sets(new OverlapCoefficient<>(), tokenizer, a, b);
+		case "simonWhite":
+			return multisets(new SimonWhite<>(), tokenizer, a, b);
+		case "tanimotoCoefficient":
+			return sets(new TanimotoCoefficient<>(), tokenizer, a, b);
+		default:
+			throw new IllegalArgumentException("Unknown metric: " + metric);
+		}
+	}
+
+	private static Tokenizer interning(Tokenizer tokenizer) {
+		return Tokenizers.interning(tokenizer, TokenDictionary.create());
+	}
+
+	private static Comparison sets(Metric<Set<String>> metric, Tokenizer tokenizer, String[] a, String[] b) {
+		@SuppressWarnings("unchecked")
+		final Set<String>[] as = new Set[a.length];
+		@SuppressWarnings("unchecked")
+		final Set<String>[] bs = new Set[b.length];
+		for (int i = 0; i < a.length; i++) {
+			as[i] = tokenizer.tokenizeToSet(a[i]);
+			bs[i] = tokenizer.tokenizeToSet(b[i]);
+		}
+		return i -> metric.compare(as[i], bs[i]);
+	}
+
+	private static Comparison multisets(MultisetMetric<String> metric, Tokenizer tokenizer, String[] a,
+			String[] b) {
+		@SuppressWarnings("unchecked")
+		final Multiset<String>[] as = new Multiset[a.length];
+		@SuppressWarnings("unchecked")
+		final Multiset<String>[] bs = new Multiset[b.length];
+		for (int i = 0; i < a.length; i++) {
+			as[i] = tokenizer.tokenizeToMultiset(a[i]);
+			bs[i] = tokenizer.tokenizeToMultiset(b[i]);
+		}
+		return i -> metric.compare(as[i], bs[i]);
+	}
+
+	private static Comparison normedMultisets(MultisetMetric<String> metric, Tokenizer tokenizer, String[] a,
+			String[] b) {
+		@SuppressWarnings("unchecked")
+		final Multiset<String>[] as = new Multiset[a.length];
+		@SuppressWarnings("unchecked")
+		final Multiset<String>[] bs = new Multiset[b.length];
+		for (int i = 0; i < a.length; i++) {
+			as[i] = NormedMultiset.of(tokenizer.tokenizeToMultiset(a[i]));
+			bs[i] = NormedMultiset.of(tokenizer.tokenizeToMultiset(b[i]));
+		}
+		return i -> metric.compare(as[i], bs[i]);
+	}
+
+	private static Comparison hashedSets(Metric<HashedSet> metric, Tokenizer tokenizer, String[] a, String[] b) {
+		final HashedSet[] as = new HashedSet[a.length];
+		final HashedSet[] bs = new HashedSet[b.length];
+		for (int i = 0; i < a.length; i++) {
+			as[i] = tokenizer.tokenizeToHashedSet(a[i]);
+			bs[i] = tokenizer.tokenizeToHashedSet(b[i]);
+		}
+		return i -> metric.compare(as[i], bs[i]);
+	}
+
+	private static Comparison hashedMultisets(Metric<HashedMultiset> metric, Tokenizer tokenizer, String[] a,
+			String[] b) {
+		final HashedMultiset[] as = new HashedMultiset[a.length];
+		final HashedMultiset[] bs = new HashedMultiset[b.length];
+		for (int i = 0; i < a.length; i++) {
+			as[i] = tokenizer.tokenizeToHashedMultiset(a[i]);
+			bs[i] = tokenizer.tokenizeToHashedMultiset(b[i]);
+		}
+		return i -> metric.compare(as[i], bs[i]);
+	}
+
+	private static Comparison lists(ListMetric<String> metric, Tokenizer tokenizer, String[] a, String[] b) {
+		@SuppressWarnings("unchecked")
+		final List<String>[] as = new List[a.length];
+		@SuppressWarnings("unchecked")
+		final List<String>[] bs = new List[b.length];
+		for (int i = 0; i < a.length; i++) {
+			as[i] = tokenizer.tokenizeToList(a[i]);
+			bs[i] = tokenizer.tokenizeToList(b[i]);
+		}
+		return i -> metric.compare(as[i], bs[i]);
+	}
+
+	private static Comparison hamming(ListDistance<String> distance, Tokenizer tokenizer, String[] a,
+			String[] b) {
+		// Hamming distance is only defined for lists of equal size
+		@SuppressWarnings("unchecked")
+		final List<String>[] as = new List[a.length];
+		@SuppressWarnings("unchecked")
+		final List<String>[] bs = new List[b.length];
+		for (int i = 0; i < a.length; i++) {
+			List<String> aTokens = tokenizer.tokenizeToList(a[i]);
+			List<String> bTokens = tokenizer.tokenizeToList(b[i]);
+			int size = Math.min(aTokens.size(), bTokens.size());
+			as[i] = aTokens.subList(0, size);
+			bs[i] = bTokens.subList(0, size);
+		}
+		return i -> distance.distance(as[i], bs[i]);
+	}
+
+}
@@ -0,0 +1,174 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates reproducible benchmark inputs.
+ * <p>
+ * Inputs are generated in pairs. The second string of each pair is a mutation
+ * of the first so metrics are exercised on similar rather than random strings.
+ * The amount of input outside the Basic Multilingual Plane can be controlled
+ * to exercise the code point handling of metrics, simplifiers and tokenizers.
+ */
+final class Inputs {
+
+	/**
+	 * Number of pairs generated. Benchmarks cycle through the pairs to avoid
+	 * measuring a single, perfectly predicted input. Must be a power of two.
+	 */
+	static final int PAIRS = 16;
+
+	private static final long SEED = 0x5EED_CAFEL;
+
+	// Fraction of code points that is substituted, inserted or deleted
+	private static final double MUTATION_RATE = 0.2;
+
+	// Gothic letters, U+10330 to U+1034A
+	private static final int NON_BMP_START = 0x10330;
+	private static final int NON_BMP_END = 0x1034A;
+
+	private Inputs() {
+		// Utility class
+	}
+
+	/**
+	 * Returns the code points of a named alphabet.
+	 * <ul>
+	 * <li>{@code binary} two letters
+	 * <li>{@code dna} four letters
+	 * <li>{@code words} lower case letters and spaces
+	 * <li>{@code latin1} upper and lower case letters with diacritics,
+	 * punctuation and spaces
+	 * </ul>
+	 */
+	static int[] alphabet(String name) {
+		switch (name) {
+		case "binary":
+			return "ab".codePoints().toArray();
+		case "dna":
+			return "ACGT".codePoints().toArray();
+		case "words":
+			return "abcdefghijklmnopqrstuvwxyz     ".codePoints().toArray();
+		case "latin1":
+			return "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ÀÉÎÕÜàéîõüçñß.,;:!?-'   "
+					.codePoints().toArray();
+		default:
+			throw new IllegalArgumentException("Unknown alphabet: " + name);
+		}
+	}
+
+	/**
+	 * Generates {@link #PAIRS} pairs of strings. Returns an array of two arrays
+	 * holding the first and second elements of the pairs.
+	 *
+	 * @param length
+	 *            length of the first string in code points
+	 * @param lengthRatio
+	 *            length of the second string relative to the first
+	 * @param alphabet
+	 *            name of the alphabet to use
+	 * @param nonBmp
+	 *            fraction of code points outside the Basic Multilingual Plane
+	 * @param preserveLength
+	 *            when true only substitutions are used to mutate strings
+	 * @return two arrays of {@link #PAIRS} strings
+	 */
+	static String[][] pairs(int length, int lengthRatio, String alphabet, double nonBmp, boolean preserveLength) {
+		checkArgument(length >= 0);
+		checkArgument(lengthRatio >= 1);
+		checkArgument(0.0 <= nonBmp && nonBmp <= 1.0);
+
+		final int[] codePoints = alphabet(alphabet);
+		final SplittableRandom random = new SplittableRandom(SEED);
+		final String[] a = new String[PAIRS];
+		final String[] b = new String[PAIRS];
+
+		for (int i = 0; i < PAIRS; i++) {
+			a[i] = random(random, codePoints, length, nonBmp);
+			String mutated = mutate(random, codePoints, a[i], nonBmp, preserveLength);
+			StringBuilder longer = new StringBuilder(mutated);
+			for (int r = 1; r < lengthRatio; r++) {
+				longer.append(mutate(random, codePoints, a[i], nonBmp, preserveLength));
+			}
+			b[i] = longer.toString();
+		}
+
+		return new String[][] { a, b };
+	}
+
+	/**
+	 * Generates {@link #PAIRS} strings.
+	 *
+	 * @param length
+	 *            length of the strings in code points
+	 * @param alphabet
+	 *            name of the alphabet to use
+	 * @param nonBmp
+	 *            fraction of code points outside the Basic Multilingual Plane
+	 * @return an array of {@link #PAIRS} strings
+	 */
+	static String[] strings(int length, String alphabet, double nonBmp) {
+		return pairs(length, 1, alphabet, nonBmp, true)[0];
+	}
+
+	private static String random(SplittableRandom random, int[] alphabet, int length, double nonBmp) {
+		final StringBuilder builder = new StringBuilder(length * 2);
+		for (int i = 0; i < length; i++) {
+			builder.appendCodePoint(next(random, alphabet, nonBmp));
+		}
+		return builder.toString();
+	}
+
+	private static String mutate(SplittableRandom random, int[] alphabet, String input, double nonBmp,
+			boolean preserveLength) {
+		final StringBuilder builder = new StringBuilder(input.length() * 2);
+		input.codePoints().forEach(codePoint -> {
+			if (random.nextDouble() >= MUTATION_RATE) {
+				builder.appendCodePoint(codePoint);
+				return;
+			}
+
+			switch (preserveLength ? 0 : random.nextInt(3)) {
+			case 0: // Substitute
+				builder.appendCodePoint(next(random, alphabet, nonBmp));
+				break;
+			case 1: // Insert
+				builder.appendCodePoint(codePoint);
+				builder.appendCodePoint(next(random, alphabet, nonBmp));
+				break;
+			default: // Delete
+				break;
+			}
+		});
+		return builder.toString();
+	}
+
+	private static int next(SplittableRandom random, int[] alphabet, double nonBmp) {
+		if (nonBmp > 0.0 && random.nextDouble() < nonBmp) {
+			return random.nextInt(NON_BMP_START, NON_BMP_END + 1);
+		}
+		return alphabet[random.nextInt(alphabet.length)];
+	}
+
+}
@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import static com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.with;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.search.InvertedIndex;
+import com.github.mpkorstanje.simmetrics.search.Match;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+/**
+ * Benchmarks threshold and top k queries on an inverted index against a
+ * scan of the corpus that compares the query with every record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvertedIndexBenchmark {
+
+	@Param({ "1000", "100000" })
+	public int size;
+
+	@Param({ "16" })
+	public int length;
+
+	private StringMetric metric;
+
+	private InvertedIndex index;
+
+	private List<String> corpus;
+
+	private String[] queries;
+
+	private int query;
+
+	@Setup
+	public void setUp() {
+		final Tokenizer tokenizer = Tokenizers.qGramWithPadding(3);
+		metric = with(new Jaccard<String>()).tokenize(tokenizer).build();
+		corpus = new ArrayList<>(size);
+		while (corpus.size() < size) {
+			final String[][] pairs = Inputs.pairs(length, 1, "words", 0.0, false);
+			for (int i = 0; i < Inputs.PAIRS && corpus.size() < size; i++) {
+				corpus.add(pairs[0][i] + corpus.size());
+			}
+		}
+		queries = Inputs.pairs(length, 1, "words", 0.0, false)[1];
+		index = InvertedIndex.create(new Jaccard<>(), tokenizer, corpus);
+	}
+
+	@Benchmark
+	public List<Match> above() {
+		return index.above(queries[query++ & (Inputs.PAIRS - 1)], 0.5f);
+	}
+
+	@Benchmark
+	public List<Match> topK() {
+		return index.topK(queries[query++ & (Inputs.PAIRS - 1)], 10);
+	}
+
+	@Benchmark
+	public int scan() {
+		final String q = queries[query++ & (Inputs.PAIRS - 1)];
+		int matches = 0;
+		for (String record : corpus) {
+			if (metric.compare(q, record) >= 0.5f) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+
+}
@@ -0,0 +1,135 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import static com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.with;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.toLowerCase;
+import static com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers.qGramWithPadding;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.caches.MappedTokenCache;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Benchmarks the {@link MappedTokenCache} against tokenizing every input and
+ * against a heap cache. All inputs are written to the file so every lookup in
+ * the mapped cache is a hit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappedTokenCacheBenchmark {
+
+	@Param({ "none", "guava", "mapped" })
+	public String cache;
+
+	@Param({ "16", "64", "256" })
+	public int length;
+
+	private StringMetric metric;
+
+	private String[] a;
+
+	private String[] b;
+
+	private Path file;
+
+	private int index;
+
+	@Setup
+	public void setUp() throws IOException {
+		final String[][] pairs = Inputs.pairs(length, 1, "latin1", 0.0, false);
+		a = pairs[0];
+		b = pairs[1];
+
+		final Simplifier simplifier = toLowerCase(Locale.ENGLISH);
+		final Tokenizer tokenizer = qGramWithPadding(3);
+		switch (cache) {
+		case "none":
+			metric = with(new CosineSimilarity<String>())
+					.simplify(simplifier)
+					.tokenize(tokenizer)
+					.build();
+			break;
+		case "guava":
+			metric = with(new CosineSimilarity<String>())
+					.simplify(simplifier)
+					.tokenize(tokenizer)
+					.cacheTokens(CacheBuilder.newBuilder().maximumSize(2 * Inputs.PAIRS).build())
+					.build();
+			break;
+		case "mapped":
+			final List<String> inputs = new ArrayList<>(Arrays.asList(a));
+			inputs.addAll(Arrays.asList(b));
+			file = Files.createTempFile("simmetrics", ".tokens");
+			MappedTokenCache.write(file, simplifier, tokenizer, inputs);
+			metric = with(new CosineSimilarity<String>())
+					.simplify(simplifier)
+					.tokenize(tokenizer)
+					.cacheTokens(MappedTokenCache.openMultisets(file, simplifier, tokenizer))
+					.build();
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown cache: " + cache);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		if (file != null) {
+			Files.delete(file);
+		}
+	}
+
+	@Benchmark
+	public float compare() {
+		final int i = index++ & (Inputs.PAIRS - 1);
+		return metric.compare(a[i], b[i]);
+	}
+
+}
@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.search.MinHash;
+import com.github.mpkorstanje.simmetrics.search.MinHashIndex;
+import com.github.mpkorstanje.simmetrics.search.SimilarityJoin;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+/**
+ * Benchmarks finding similar pairs with a MinHash index against an exact
+ * Jaccard self join.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinHashIndexBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int size;
+
+	@Param({ "0.5", "0.8" })
+	public float threshold;
+
+	private final Tokenizer tokenizer = Tokenizers.qGramWithPadding(3);
+
+	private final MinHash minHash = MinHash.create(64, 42);
+
+	private List<String> corpus;
+
+	@Setup
+	public void setUp() {
+		corpus = new ArrayList<>(size);
+		while (corpus.size() < size) {
+			final String[][] pairs = Inputs.pairs(32, 1, "words", 0.0, false);
+			for (int i = 0; i < Inputs.PAIRS && corpus.size() < size; i++) {
+				corpus.add(pairs[0][i] + corpus.size());
+				corpus.add(pairs[1][i] + corpus.size());
+			}
+		}
+	}
+
+	@Benchmark
+	public long selfJoin() {
+		final LongAdder pairs = new LongAdder();
+		SimilarityJoin.selfJoin(new Jaccard<>(), tokenizer, corpus, threshold, (i, j, similarity) -> pairs.increment());
+		return pairs.sum();
+	}
+
+	@Benchmark
+	public long minHashIndex() {
+		final MinHashIndex index = MinHashIndex.create(new Jaccard<>(), tokenizer, minHash, 16, corpus);
+		final LongAdder pairs = new LongAdder();
+		index.forEachPair(threshold, (i, j, similarity) -> pairs.increment());
+		return pairs.sum();
+	}
+
+}
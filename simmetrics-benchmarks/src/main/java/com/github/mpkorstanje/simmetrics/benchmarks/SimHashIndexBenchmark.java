@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.SimilarityMatrix;
+import com.github.mpkorstanje.simmetrics.search.SimHash;
+import com.github.mpkorstanje.simmetrics.search.SimHashIndex;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+/**
+ * Benchmarks finding similar pairs with a SimHash index against comparing all
+ * pairs with the exact cosine similarity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimHashIndexBenchmark {
+
+	@Param({ "1000", "4000" })
+	public int size;
+
+	@Param({ "0.8", "0.9" })
+	public float threshold;
+
+	@Param({ "5", "8", "16" })
+	public int blocks;
+
+	private final Tokenizer tokenizer = Tokenizers.qGramWithPadding(3);
+
+	private final SimHash simHash = SimHash.create(64, 42);
+
+	private StringMetric metric;
+
+	private List<String> corpus;
+
+	@Setup
+	public void setUp() {
+		metric = StringMetricBuilder.with(new CosineSimilarity<String>()).tokenize(tokenizer).build();
+		corpus = new ArrayList<>(size);
+		while (corpus.size() < size) {
+			final String[][] pairs = Inputs.pairs(32, 1, "words", 0.0, false);
+			for (int i = 0; i < Inputs.PAIRS && corpus.size() < size; i++) {
+				corpus.add(pairs[0][i] + corpus.size());
+				corpus.add(pairs[1][i] + corpus.size());
+			}
+		}
+	}
+
+	@Benchmark
+	public long allPairs() {
+		final LongAdder pairs = new LongAdder();
+		SimilarityMatrix.forEachPair(metric, corpus, threshold, (i, j, similarity) -> pairs.increment());
+		return pairs.sum();
+	}
+
+	@Benchmark
+	public long simHashIndex() {
+		final SimHashIndex index = SimHashIndex.create(tokenizer, simHash, blocks, corpus);
+		final LongAdder pairs = new LongAdder();
+		index.forEachPair(threshold, (i, j, similarity) -> pairs.increment());
+		return pairs.sum();
+	}
+
+}
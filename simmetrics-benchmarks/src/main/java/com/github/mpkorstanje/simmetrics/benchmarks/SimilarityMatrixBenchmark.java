@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.SimilarityMatrix;
+
+/**
+ * Benchmarks the all pairs similarity of a list of strings against a nested
+ * loop over {@code compare}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimilarityMatrixBenchmark {
+
+	@Param({ "jaro", "levenshtein", "qGramsDistance" })
+	public String metric;
+
+	@Param({ "256", "1024" })
+	public int size;
+
+	@Param({ "16", "64" })
+	public int length;
+
+	private StringMetric stringMetric;
+
+	private List<String> strings;
+
+	@Setup
+	public void setUp() {
+		stringMetric = StringMetricBenchmark.create(metric);
+		strings = new ArrayList<>(size);
+		while (strings.size() < size) {
+			final String[][] pairs = Inputs.pairs(length, 1, "words", 0.0, false);
+			for (int i = 0; i < Inputs.PAIRS && strings.size() < size; i++) {
+				strings.add(pairs[0][i] + strings.size());
+				strings.add(pairs[1][i] + strings.size());
+			}
+		}
+	}
+
+	@Benchmark
+	public float[] nestedLoop() {
+		final int n = strings.size();
+		final float[] similarities = new float[n * (n - 1) / 2];
+		int k = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				similarities[k++] = stringMetric.compare(strings.get(i), strings.get(j));
+			}
+		}
+		return similarities;
+	}
+
+	@Benchmark
+	public SimilarityMatrix compute() {
+		return SimilarityMatrix.compute(stringMetric, strings);
+	}
+
+	@Benchmark
+	public long forEachPair() {
+		final LongAdder pairs = new LongAdder();
+		SimilarityMatrix.forEachPair(stringMetric, strings, 0.7f, (i, j, similarity) -> pairs.increment());
+		return pairs.sum();
+	}
+
+}
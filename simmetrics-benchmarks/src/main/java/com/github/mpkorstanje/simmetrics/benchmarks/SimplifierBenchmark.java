@@ -0,0 +1,118 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+import java.text.Normalizer.Form;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+
+/**
+ * Benchmarks the simplifiers in {@link Simplifiers}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimplifierBenchmark {
+
+	@Param({
+			"chain",
+			"normalize",
+			"removeAll",
+			"removeDiacritics",
+			"removeNonWord",
+			"replaceAll",
+			"replaceNonWord",
+			"toLowerCase",
+			"toUpperCase"
+	})
+	public String simplifier;
+
+	@Param({ "16", "64", "256" })
+	public int length;
+
+	@Param({ "latin1" })
+	public String alphabet;
+
+	@Param({ "0.0", "0.1" })
+	public double nonBmp;
+
+	private Simplifier instance;
+
+	private String[] inputs;
+
+	private int index;
+
+	@Setup
+	public void setUp() {
+		instance = create(simplifier);
+		inputs = Inputs.strings(length, alphabet, nonBmp);
+	}
+
+	@Benchmark
+	public String simplify() {
+		return instance.simplify(inputs[index++ & (Inputs.PAIRS - 1)]);
+	}
+
+	static Simplifier create(String simplifier) {
+		switch (simplifier) {
+		case "chain":
+			return Simplifiers.chain(
+					Simplifiers.toLowerCase(Locale.ENGLISH),
+					Simplifiers.removeDiacritics(),
+					Simplifiers.replaceNonWord());
+		case "normalize":
+			return Simplifiers.normalize(Form.NFD);
+		case "removeAll":
+			return Simplifiers.removeAll("[aeiou]");
+		case "removeDiacritics":
+			return Simplifiers.removeDiacritics();
+		case "removeNonWord":
+			return Simplifiers.removeNonWord();
+		case "replaceAll":
+			return Simplifiers.replaceAll("[aeiou]", "_");
+		case "replaceNonWord":
+			return Simplifiers.replaceNonWord();
+		case "toLowerCase":
+			return Simplifiers.toLowerCase(Locale.ENGLISH);
+		case "toUpperCase":
+			return Simplifiers.toUpperCase(Locale.ENGLISH);
+		default:
+			throw new IllegalArgumentException("Unknown simplifier: " + simplifier);
+		}
+	}
+
+}
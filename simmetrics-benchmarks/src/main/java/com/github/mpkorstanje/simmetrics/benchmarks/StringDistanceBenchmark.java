@@ -0,0 +1,162 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.metrics.StringDistances;
+
+/**
+ * Benchmarks every distance in {@link StringDistances}. Distances that operate
+ * on tokens are composed by the {@code StringDistanceBuilder} and include the
+ * cost of tokenization.
+ * <p>
+ * Because the Hamming distance is only defined for strings of equal length all
+ * pairs are mutated by substitution only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringDistanceBenchmark {
+
+	@Param({
+			"blockDistance",
+			"cosineSimilarity",
+			"damerauLevenshtein",
+			"dice",
+			"euclideanDistance",
+			"generalizedJaccard",
+			"hammingDistance",
+			"identity",
+			"jaccard",
+			"jaro",
+			"jaroWinkler",
+			"levenshtein",
+			"levenshteinReusableBuffers",
+			"longestCommonSubsequence",
+			"longestCommonSubstring",
+			"overlapCoefficient",
+			"qGramsDistance",
+			"simonWhite"
+	})
+	public String distance;
+
+	@Param({ "16", "64", "256" })
+	public int length;
+
+	@Param({ "dna", "words" })
+	public String alphabet;
+
+	@Param({ "0.0", "0.1" })
+	public double nonBmp;
+
+	private StringDistance stringDistance;
+
+	private float maxDistance;
+
+	private String[] a;
+
+	private String[] b;
+
+	private int index;
+
+	@Setup
+	public void setUp() {
+		stringDistance = create(distance);
+		String[][] pairs = Inputs.pairs(length, 1, alphabet, nonBmp, true);
+		a = pairs[0];
+		b = pairs[1];
+		// About half of the mutations
+		maxDistance = length * 0.1f;
+	}
+
+	@Benchmark
+	public float distance() {
+		final int i = index++ & (Inputs.PAIRS - 1);
+		return stringDistance.distance(a[i], b[i]);
+	}
+
+	@Benchmark
+	public float boundedDistance() {
+		final int i = index++ & (Inputs.PAIRS - 1);
+		return stringDistance.distance(a[i], b[i], maxDistance);
+	}
+
+	static StringDistance create(String distance) {
+		switch (distance) {
+		case "blockDistance":
+			return StringDistances.blockDistance();
+		case "cosineSimilarity":
+			return StringDistances.cosineSimilarity();
+		case "damerauLevenshtein":
+			return StringDistances.damerauLevenshtein();
+		case "dice":
+			return StringDistances.dice();
+		case "euclideanDistance":
+			return StringDistances.euclideanDistance();
+		case "generalizedJaccard":
+			return StringDistances.generalizedJaccard();
+		case "hammingDistance":
+			return StringDistances.hammingDistance();
+		case "identity":
+			return StringDistances.identity();
+		case "jaccard":
+			return StringDistances.jaccard();
+		case "jaro":
+			return StringDistances.jaro();
+		case "jaroWinkler":
+			return StringDistances.jaroWinkler();
+		case "levenshtein":
+			return StringDistances.levenshtein();
+		case "levenshteinReusableBuffers":
+			return Levenshtein.createWithReusableBuffers();
+		case "longestCommonSubsequence":
+			return StringDistances.longestCommonSubsequence();
+		case "longestCommonSubstring":
+			return StringDistances.longestCommonSubstring();
+		case "overlapCoefficient":
+			return StringDistances.overlapCoefficient();
+		case "qGramsDistance":
+			return StringDistances.qGramsDistance();
+		case "simonWhite":
+			return StringDistances.simonWhite();
+		default:
+			throw new IllegalArgumentException("Unknown distance: " + distance);
+		}
+	}
+
+}
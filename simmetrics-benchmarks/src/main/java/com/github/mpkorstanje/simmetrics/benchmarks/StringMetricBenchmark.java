@@ -0,0 +1,186 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.CodePoints;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.metrics.StringMetrics;
+
+/**
+ * Benchmarks every metric in {@link StringMetrics}. Metrics that operate on
+ * tokens are composed by the {@code StringMetricBuilder} and include the cost
+ * of tokenization.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringMetricBenchmark {
+
+	@Param({
+			"blockDistance",
+			"cosineSimilarity",
+			"damerauLevenshtein",
+			"dice",
+			"euclideanDistance",
+			"generalizedJaccard",
+			"identity",
+			"jaccard",
+			"jaro",
+			"jaroWinkler",
+			"levenshtein",
+			"levenshteinReusableBuffers",
+			"level2SmithWatermanGotoh",
+			"longestCommonSubSequence",
+			"longestCommonSubstring",
+			"needlemanWunch",
+			"overlapCoefficient",
+			"qGramsDistance",
+			"simonWhite",
+			"smithWaterman",
+			"smithWatermanGotoh"
+	})
+	public String metric;
+
+	@Param({ "16", "64", "256" })
+	public int length;
+
+	@Param({ "dna", "words" })
+	public String alphabet;
+
+	@Param({ "0.0", "0.1" })
+	public double nonBmp;
+
+	private StringMetric stringMetric;
+
+	private String[] a;
+
+	private String[] b;
+
+	private CodePoints[] aCodePoints;
+
+	private CodePoints[] bCodePoints;
+
+	private List<String> candidates;
+
+	private int index;
+
+	@Setup
+	public void setUp() {
+		stringMetric = create(metric);
+		String[][] pairs = Inputs.pairs(length, 1, alphabet, nonBmp, false);
+		a = pairs[0];
+		b = pairs[1];
+		aCodePoints = new CodePoints[a.length];
+		bCodePoints = new CodePoints[b.length];
+		for (int i = 0; i < a.length; i++) {
+			aCodePoints[i] = CodePoints.of(a[i]);
+			bCodePoints[i] = CodePoints.of(b[i]);
+		}
+		candidates = Arrays.asList(b);
+	}
+
+	@Benchmark
+	public float compare() {
+		final int i = index++ & (Inputs.PAIRS - 1);
+		return stringMetric.compare(a[i], b[i]);
+	}
+
+	@Benchmark
+	public float compareCodePoints() {
+		final int i = index++ & (Inputs.PAIRS - 1);
+		return stringMetric.compare(aCodePoints[i], bCodePoints[i]);
+	}
+
+	@Benchmark
+	public float[] compareAll() {
+		final int i = index++ & (Inputs.PAIRS - 1);
+		return stringMetric.compareAll(a[i], candidates);
+	}
+
+	static StringMetric create(String metric) {
+		switch (metric) {
+		case "blockDistance":
+			return StringMetrics.blockDistance();
+		case "cosineSimilarity":
+			return StringMetrics.cosineSimilarity();
+		case "damerauLevenshtein":
+			return StringMetrics.damerauLevenshtein();
+		case "dice":
+			return StringMetrics.dice();
+		case "euclideanDistance":
+			return StringMetrics.euclideanDistance();
+		case "generalizedJaccard":
+			return StringMetrics.generalizedJaccard();
+		case "identity":
+			return StringMetrics.identity();
+		case "jaccard":
+			return StringMetrics.jaccard();
+		case "jaro":
+			return StringMetrics.jaro();
+		case "jaroWinkler":
+			return StringMetrics.jaroWinkler();
+		case "levenshtein":
+			return StringMetrics.levenshtein();
+		case "levenshteinReusableBuffers":
+			return Levenshtein.createWithReusableBuffers();
+		case "level2SmithWatermanGotoh":
+			return StringMetrics.level2SmithWatermanGotoh();
+		case "longestCommonSubSequence":
+			return StringMetrics.longestCommonSubSequence();
+		case "longestCommonSubstring":
+			return StringMetrics.longestCommonSubstring();
+		case "needlemanWunch":
+			return StringMetrics.needlemanWunch();
+		case "overlapCoefficient":
+			return StringMetrics.overlapCoefficient();
+		case "qGramsDistance":
+			return StringMetrics.qGramsDistance();
+		case "simonWhite":
+			return StringMetrics.simonWhite();
+		case "smithWaterman":
+			return StringMetrics.smithWaterman();
+		case "smithWatermanGotoh":
+			return StringMetrics.smithWatermanGotoh();
+		default:
+			throw new IllegalArgumentException("Unknown metric: " + metric);
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedSet;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+import com.google.common.collect.Multiset;
+
+/**
+ * Benchmarks the tokenizers in {@link Tokenizers}. Each tokenizer is measured
+ * when tokenizing to a list, set and multiset and to their hashed
+ * counterparts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+
+	@Param({
+			"chain",
+			"filter",
+			"pattern",
+			"qGram2",
+			"qGram3",
+			"qGramWithFilter3",
+			"qGramWithPadding3",
+			"transform",
+			"whitespace"
+	})
+	public String tokenizer;
+
+	@Param({ "16", "64", "256" })
+	public int length;
+
+	@Param({ "words", "latin1" })
+	public String alphabet;
+
+	@Param({ "0.0", "0.1" })
+	public double nonBmp;
+
+	private Tokenizer instance;
+
+	private String[] inputs;
+
+	private int index;
+
+	@Setup
+	public void setUp() {
+		instance = create(tokenizer);
+		inputs = Inputs.strings(length, alphabet, nonBmp);
+	}
+
+	@Benchmark
+	public List<String> tokenizeToList() {
+		return instance.tokenizeToList(inputs[index++ & (Inputs.PAIRS - 1)]);
+	}
+
+	@Benchmark
+	public Set<String> tokenizeToSet() {
+		return instance.tokenizeToSet(inputs[index++ & (Inputs.PAIRS - 1)]);
+	}
+
+	@Benchmark
+	public Multiset<String> tokenizeToMultiset() {
+		return instance.tokenizeToMultiset(inputs[index++ & (Inputs.PAIRS - 1)]);
+	}
+
+	@Benchmark
+	public HashedSet tokenizeToHashedSet() {
+		return instance.tokenizeToHashedSet(inputs[index++ & (Inputs.PAIRS - 1)]);
+	}
+
+	@Benchmark
+	public HashedMultiset tokenizeToHashedMultiset() {
+		return instance.tokenizeToHashedMultiset(inputs[index++ & (Inputs.PAIRS - 1)]);
+	}
+
+	static Tokenizer create(String tokenizer) {
+		switch (tokenizer) {
+		case "chain":
+			return Tokenizers.chain(Tokenizers.whitespace(), Tokenizers.qGram(2));
+		case "filter":
+			return Tokenizers.filter(Tokenizers.qGram(2), token -> !token.contains(" "));
+		case "pattern":
+			return Tokenizers.pattern("\\s+");
+		case "qGram2":
+			return Tokenizers.qGram(2);
+		case "qGram3":
+			return Tokenizers.qGram(3);
+		case "qGramWithFilter3":
+			return Tokenizers.qGramWithFilter(3);
+		case "qGramWithPadding3":
+			return Tokenizers.qGramWithPadding(3);
+		case "transform":
+			return Tokenizers.transform(Tokenizers.whitespace(), String::toUpperCase);
+		case "whitespace":
+			return Tokenizers.whitespace();
+		default:
+			throw new IllegalArgumentException("Unknown tokenizer: " + tokenizer);
+		}
+	}
+
+}
@@ -0,0 +1,148 @@
+/*-
+ * #%L
+ * Simmetrics - Caffeine Caches
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.caches;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.cache.CacheStats;
+
+/**
+ * A computing cache backed by a Caffeine cache.
+ * <p>
+ * Caffeine reads without locking and admits entries with a W-TinyLFU policy.
+ * Under many concurrent threads it scales better than the segmented Guava
+ * cache. Values are computed at most once per key, other threads asking for
+ * the same key wait for the computation.
+ * <p>
+ * Use {@link #weighedByLength(long)} or {@link #pairsWeighedByLength(long)} to
+ * bound the cache by the total length of the cached strings rather than by the
+ * number of entries. To collect
+ * statistics a cache passed to {@link #of(Cache)} must be built with
+ * {@link Caffeine#recordStats()}.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <K>
+ *            type of the key
+ * @param <V>
+ *            type of the value
+ */
+public final class CaffeineCache<K, V> implements ComputingCache<K, V> {
+
+	private final Cache<K, V> cache;
+
+	private CaffeineCache(Cache<K, V> cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Returns a computing cache backed by a Caffeine cache.
+	 *
+	 * @param cache
+	 *            the cache to adapt
+	 * @param <K>
+	 *            type of the key
+	 * @param <V>
+	 *            type of the value
+	 * @return a computing cache
+	 */
+	public static <K, V> CaffeineCache<K, V> of(Cache<K, V> cache) {
+		return new CaffeineCache<>(requireNonNull(cache));
+	}
+
+	/**
+	 * Returns a computing cache that holds at most the given number of
+	 * characters of input and records statistics. An entry weighs the length
+	 * of its key. The simplified strings and tokens derived from an input are
+	 * proportional in size to it.
+	 *
+	 * @param maximumWeight
+	 *            the maximum total length of the cached keys
+	 * @param <V>
+	 *            type of the value
+	 * @return a computing cache weighed by the length of its keys
+	 */
+	public static <V> CaffeineCache<String, V> weighedByLength(long maximumWeight) {
+		checkArgument(maximumWeight >= 0, "maximumWeight may not be negative");
+		final Cache<String, V> cache = Caffeine.newBuilder()
+				.maximumWeight(maximumWeight)
+				.<String, V> weigher((key, value) -> key.length())
+				.recordStats()
+				.build();
+		return new CaffeineCache<>(cache);
+	}
+
+	/**
+	 * Returns a computing cache for the results of comparisons that holds at
+	 * most the given number of characters of input and records statistics.
+	 * An entry weighs the combined length of the strings in its pair.
+	 *
+	 * @param maximumWeight
+	 *            the maximum total length of the cached pairs
+	 * @return a computing cache weighed by the length of its pairs
+	 * @see StringPair#length()
+	 */
+	public static CaffeineCache<StringPair, Float> pairsWeighedByLength(long maximumWeight) {
+		checkArgument(maximumWeight >= 0, "maximumWeight may not be negative");
+		final Cache<StringPair, Float> cache = Caffeine.newBuilder()
+				.maximumWeight(maximumWeight)
+				.<StringPair, Float> weigher((key, value) -> key.length())
+				.recordStats()
+				.build();
+		return new CaffeineCache<>(cache);
+	}
+
+	@Override
+	public V get(K key, Function<? super K, ? extends V> function) {
+		return cache.get(key, function);
+	}
+
+	@Override
+	public CacheStats getStats() {
+		final com.github.benmanes.caffeine.cache.stats.CacheStats stats = cache.stats();
+		return new CacheStats(
+				stats.hitCount(),
+				stats.missCount(),
+				stats.loadSuccessCount(),
+				stats.loadFailureCount(),
+				stats.totalLoadTime(),
+				stats.evictionCount());
+	}
+
+	/**
+	 * Returns the underlying Caffeine cache.
+	 *
+	 * @return the underlying cache
+	 */
+	public Cache<K, V> getCache() {
+		return cache;
+	}
+
+	@Override
+	public String toString() {
+		return "CaffeineCache [" + cache + "]";
+	}
+
+}
@@ -0,0 +1,152 @@
+/*-
+ * #%L
+ * Simmetrics - Caffeine Caches
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.caches;
+
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.toLowerCase;
+import static com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers.whitespace;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.google.common.cache.CacheStats;
+
+class CaffeineCacheTest {
+
+	@Test
+	void computesOnce() {
+		final CaffeineCache<String, String> cache = CaffeineCache.of(Caffeine.newBuilder().recordStats().build());
+		final AtomicInteger computed = new AtomicInteger();
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals("abc", cache.get("ABC", key -> {
+				computed.incrementAndGet();
+				return key.toLowerCase();
+			}));
+		}
+
+		assertEquals(1, computed.get());
+		final CacheStats stats = cache.getStats();
+		assertEquals(2, stats.hitCount());
+		assertEquals(1, stats.missCount());
+		assertEquals(1, stats.loadSuccessCount());
+		assertEquals(2.0 / 3.0, stats.hitRate(), 1e-9);
+		assertEquals(0, stats.loadExceptionCount());
+	}
+
+	@Test
+	void computesOnceConcurrently() throws Exception {
+		final CaffeineCache<String, String> cache = CaffeineCache.weighedByLength(1000);
+		final AtomicInteger computed = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<String>> futures = new ArrayList<>();
+			for (int i = 0; i < 64; i++) {
+				futures.add(executor.submit(() -> cache.get("ABC", key -> {
+					computed.incrementAndGet();
+					return key.toLowerCase();
+				})));
+			}
+			for (Future<String> future : futures) {
+				assertEquals("abc", future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(1, computed.get());
+	}
+
+	@Test
+	void weighedByLength() {
+		final CaffeineCache<String, String> cache = CaffeineCache.weighedByLength(10);
+		for (int i = 0; i < 100; i++) {
+			cache.get("key-" + i, String::toUpperCase);
+		}
+		cache.getCache().cleanUp();
+
+		assertTrue(cache.getCache().estimatedSize() <= 2);
+		assertTrue(cache.getStats().evictionCount() >= 98);
+		assertEquals(100, cache.getStats().missCount());
+	}
+
+	@Test
+	void pairsWeighedByLength() {
+		final CaffeineCache<StringPair, Float> cache = CaffeineCache.pairsWeighedByLength(10);
+		for (int i = 0; i < 100; i++) {
+			cache.get(StringPair.of("a", "b-" + i), pair -> 0.5f);
+		}
+		cache.getCache().cleanUp();
+
+		assertTrue(cache.getCache().estimatedSize() <= 2);
+		assertEquals(100, cache.getStats().missCount());
+	}
+
+	@Test
+	void cachesResults() {
+		final CaffeineCache<StringPair, Float> results = CaffeineCache.pairsWeighedByLength(1000);
+		final StringMetric metric = StringMetricBuilder.with(new Levenshtein())
+				.cacheResults(results)
+				.build();
+
+		assertEquals(metric.compare("kitten", "sitting"), metric.compare("sitting", "kitten"), 0.0f);
+		assertEquals(1, results.getStats().hitCount());
+	}
+
+	@Test
+	void rejectsInvalidArguments() {
+		assertThrows(NullPointerException.class, () -> CaffeineCache.of(null));
+		assertThrows(IllegalArgumentException.class, () -> CaffeineCache.weighedByLength(-1));
+		assertThrows(IllegalArgumentException.class, () -> CaffeineCache.pairsWeighedByLength(-1));
+	}
+
+	@Test
+	void usedByBuilder() {
+		final CaffeineCache<String, String> strings = CaffeineCache.weighedByLength(1000);
+		final CaffeineCache<String, Set<String>> tokens = CaffeineCache.weighedByLength(1000);
+
+		final StringMetric metric = StringMetricBuilder.with(new Jaccard<String>())
+				.simplify(toLowerCase())
+				.cacheStrings(strings)
+				.tokenize(whitespace())
+				.cacheTokens(tokens)
+				.build();
+
+		assertEquals(0.5f, metric.compare("A B C", "a b d"), 0.0001f);
+		assertEquals(0.5f, metric.compare("A B C", "a b d"), 0.0001f);
+
+		assertEquals(2, strings.getStats().hitCount());
+		assertEquals(2, tokens.getStats().hitCount());
+	}
+
+}
@@ -0,0 +1,160 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+/**
+ * The code points of a string. Metrics compare strings by code point rather
+ * than by {@code char} value. Decoding the code points of a string takes time
+ * proportional to its length. When one string is compared against many others
+ * it can be decoded once, up front, and compared by its code points instead.
+ * <p>
+ * Two code point sequences are equal when they contain the same code points in
+ * the same order, i.e. when the strings they were created from are equal. The
+ * hash code is computed once.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see StringMetric#compare(CodePoints, CodePoints)
+ * @see StringDistance#distance(CodePoints, CodePoints)
+ */
+public final class CodePoints {
+
+	private final String string;
+
+	private final int[] codePoints;
+
+	private final int hash;
+
+	private CodePoints(String string, int[] codePoints) {
+		this.string = string;
+		this.codePoints = codePoints;
+		this.hash = Arrays.hashCode(codePoints);
+	}
+
+	/**
+	 * Decodes the code points of a string.
+	 * 
+	 * @param string
+	 *            the string to decode
+	 * @return the code points of the string
+	 * @throws NullPointerException
+	 *             when string is null
+	 */
+	public static CodePoints of(String string) {
+		requireNonNull(string);
+		return new CodePoints(string, string.codePoints().toArray());
+	}
+
+	/**
+	 * Returns the number of code points.
+	 * 
+	 * @return the number of code points
+	 */
+	public int length() {
+		return codePoints.length;
+	}
+
+	/**
+	 * Returns true if there are no code points.
+	 * 
+	 * @return true if there are no code points
+	 */
+	public boolean isEmpty() {
+		return codePoints.length == 0;
+	}
+
+	/**
+	 * Returns the code point at the given index. Unlike
+	 * {@link String#codePointAt(int)} the index counts code points rather than
+	 * {@code char} values.
+	 * 
+	 * @param index
+	 *            the index of the code point
+	 * @return the code point at the index
+	 * @throws IndexOutOfBoundsException
+	 *             when the index is negative or not less than the length
+	 */
+	public int codePointAt(int index) {
+		return codePoints[index];
+	}
+
+	/**
+	 * Copies code points into the destination array.
+	 * 
+	 * @param srcBegin
+	 *            index of the first code point to copy
+	 * @param srcEnd
+	 *            index after the last code point to copy
+	 * @param dst
+	 *            the destination array
+	 * @param dstBegin
+	 *            the start offset in the destination array
+	 * @throws IndexOutOfBoundsException
+	 *             when copying would cause access of data outside array bounds
+	 * @see String#getChars(int, int, char[], int)
+	 */
+	public void getCodePoints(int srcBegin, int srcEnd, int[] dst, int dstBegin) {
+		if (srcBegin < 0 || srcEnd > codePoints.length || srcBegin > srcEnd) {
+			throw new IndexOutOfBoundsException("srcBegin " + srcBegin + ", srcEnd " + srcEnd + ", length " + codePoints.length);
+		}
+		System.arraycopy(codePoints, srcBegin, dst, dstBegin, srcEnd - srcBegin);
+	}
+
+	/**
+	 * Returns a copy of the code points.
+	 * 
+	 * @return a copy of the code points
+	 */
+	public int[] toArray() {
+		return codePoints.clone();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof CodePoints)) {
+			return false;
+		}
+		final CodePoints other = (CodePoints) o;
+		return hash == other.hash && Arrays.equals(codePoints, other.codePoints);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	/**
+	 * Returns the string these code points were decoded from.
+	 * 
+	 * @return the string these code points were decoded from
+	 */
+	@Override
+	public String toString() {
+		return string;
+	}
+
+}
@@ -67,4 +67,29 @@ public interface Distance<T> {
 	 */
 	float distance(T a, T b);
 
+	/**
+	 * Measures the distance between a and b when it does not exceed
+	 * {@code maxDistance}. When the distance does exceed {@code maxDistance}
+	 * {@link Float#POSITIVE_INFINITY} is returned instead.
+	 * <p>
+	 * Implementations may use the bound to stop the computation as soon as the
+	 * distance is known to exceed it. The default implementation computes the
+	 * full distance.
+	 * 
+	 * @param a
+	 *            object a to compare
+	 * @param b
+	 *            object b to compare
+	 * @param maxDistance
+	 *            the largest distance of interest
+	 * @return the distance between a and b or {@code Float.POSITIVE_INFINITY}
+	 *         when it exceeds {@code maxDistance}
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	default float distance(T a, T b, float maxDistance) {
+		final float distance = distance(a, b);
+		return distance <= maxDistance ? distance : Float.POSITIVE_INFINITY;
+	}
+
 }
@@ -0,0 +1,45 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics;
+
+/**
+ * Consumer of similar pairs of indexed strings. Used by all pairs similarity
+ * computations to stream the pairs they find.
+ * <p>
+ * Implementations may be invoked concurrently when the computation runs in
+ * parallel.
+ * 
+ * @see com.github.mpkorstanje.simmetrics.metrics.SimilarityMatrix#forEachPair
+ * @see com.github.mpkorstanje.simmetrics.search.SimilarityJoin
+ */
+@FunctionalInterface
+public interface PairConsumer {
+	/**
+	 * Accepts a pair of strings and their similarity.
+	 * 
+	 * @param i
+	 *            index of the first string
+	 * @param j
+	 *            index of the second string, always greater than i
+	 * @param similarity
+	 *            similarity of the strings
+	 */
+	void accept(int i, int j, float similarity);
+}
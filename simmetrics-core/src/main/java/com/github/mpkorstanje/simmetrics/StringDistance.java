@@ -60,4 +60,48 @@ public interface StringDistance extends Distance<String> {
 	 */
 	@Override
 	float distance(String a, String b);
+
+	/**
+	 * Measures the distance between the code points of strings a and b. The
+	 * result is the same as measuring the distance between the strings
+	 * themselves.
+	 * <p>
+	 * Distances that compare strings by code point can avoid decoding the
+	 * strings again on each comparison. The default implementation measures
+	 * the distance between the strings the code points were decoded from.
+	 * 
+	 * @param a
+	 *            code points of string a to compare
+	 * @param b
+	 *            code points of string b to compare
+	 * @return a non-negative value
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	default float distance(CodePoints a, CodePoints b) {
+		return distance(a.toString(), b.toString());
+	}
+
+	/**
+	 * Measures the distance between the code points of strings a and b when it
+	 * does not exceed {@code maxDistance}. When the distance does exceed
+	 * {@code maxDistance} {@link Float#POSITIVE_INFINITY} is returned instead.
+	 * <p>
+	 * The default implementation measures the distance between the strings the
+	 * code points were decoded from.
+	 * 
+	 * @param a
+	 *            code points of string a to compare
+	 * @param b
+	 *            code points of string b to compare
+	 * @param maxDistance
+	 *            the largest distance of interest
+	 * @return the distance between a and b or {@code Float.POSITIVE_INFINITY}
+	 *         when it exceeds {@code maxDistance}
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	default float distance(CodePoints a, CodePoints b, float maxDistance) {
+		return distance(a.toString(), b.toString(), maxDistance);
+	}
 }
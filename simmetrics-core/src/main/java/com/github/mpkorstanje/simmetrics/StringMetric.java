@@ -21,6 +21,10 @@
 
 package com.github.mpkorstanje.simmetrics;
 
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+
 /**
  * Measures the similarity between two strings. The measurement results in a
  * value between 0 and 1 (inclusive). A value of zero indicates that the strings
@@ -54,4 +58,51 @@ public interface StringMetric extends Metric<String> {
 	@Override
 	float compare(String a, String b);
 
+	/**
+	 * Measures the similarity between the code points of strings a and b. The
+	 * result is the same as comparing the strings themselves.
+	 * <p>
+	 * Metrics that compare strings by code point can avoid decoding the strings
+	 * again on each comparison. The default implementation compares the
+	 * strings the code points were decoded from.
+	 * 
+	 * @param a
+	 *            code points of string a to compare
+	 * @param b
+	 *            code points of string b to compare
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	default float compare(CodePoints a, CodePoints b) {
+		return compare(a.toString(), b.toString());
+	}
+
+	/**
+	 * Measures the similarity between a query and each candidate. The result
+	 * is the same as comparing the query with each candidate in turn.
+	 * <p>
+	 * Metrics can prepare the query once rather than once for every
+	 * candidate. The default implementation compares the query with each
+	 * candidate in turn.
+	 * 
+	 * @param query
+	 *            string to compare against each candidate
+	 * @param candidates
+	 *            strings to compare against the query
+	 * @return an array with the similarity between the query and the
+	 *         candidate at the same index
+	 * @throws NullPointerException
+	 *             when the query, the candidates or any candidate is null
+	 */
+	default float[] compareAll(String query, List<String> candidates) {
+		requireNonNull(query);
+		final float[] similarities = new float[candidates.size()];
+		int i = 0;
+		for (String candidate : candidates) {
+			similarities[i++] = compare(query, candidate);
+		}
+		return similarities;
+	}
+
 }
@@ -20,6 +20,9 @@
 
 package com.github.mpkorstanje.simmetrics.builders;
 
+import com.github.mpkorstanje.simmetrics.caches.Caches;
+import com.github.mpkorstanje.simmetrics.caches.ComputingCache;
+import com.github.mpkorstanje.simmetrics.caches.StringPair;
 import com.google.common.cache.Cache;
 import com.google.common.collect.Multiset;
 import com.github.mpkorstanje.simmetrics.Distance;
@@ -27,8 +30,12 @@ import com.github.mpkorstanje.simmetrics.ListDistance;
 import com.github.mpkorstanje.simmetrics.MultisetDistance;
 import com.github.mpkorstanje.simmetrics.SetDistance;
 import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.simplifiers.CompiledSimplifier;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedSet;
+import com.github.mpkorstanje.simmetrics.tokenizers.TokenDictionary;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
 
@@ -36,7 +43,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -50,6 +56,13 @@ import static com.github.mpkorstanje.simmetrics.builders.StringDistances.*;
  * Supports the addition of simplification, tokenization, token-filtering,
  * token-transformation and caching to a distance.
  * <p>
+ * The created distance metrics pass the bound of
+ * {@link StringDistance#distance(Object, Object, float)} on to the distance
+ * they were built with.
+ * <p>
+ * Simplifiers and tokenizers are compiled as by the
+ * {@link StringMetricBuilder}.
+ * <p>
  * The created distance metrics are immutable and thread-safe provided all their components
  * are also immutable and thread-safe.
  * <p>
@@ -109,6 +122,22 @@ public final class StringDistanceBuilder {
 	}
 
 	public interface BuildStep {
+		/**
+		 * Sets a cache for the results of the distance. The cache will store
+		 * the distance of each pair of strings compared. Because distances are
+		 * symmetric the pair is cached regardless of the order in which its
+		 * strings are compared.
+		 * <p>
+		 * Caching results pays off for expensive distances that compare the same
+		 * pairs of strings many times over.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * @see StringPair#unordered(String, String)
+		 */
+		BuildStep cacheResults(ComputingCache<StringPair, Float> cache);
+
 		/**
 		 * Builds a distance with the given steps.
 		 * 
@@ -157,6 +186,18 @@ public final class StringDistanceBuilder {
 		 *            a cache to add
 		 * @return this for fluent chaining
 		 */
+		BuildStep cacheStrings(ComputingCache<String, String> cache);
+
+		/**
+		 * Sets a cache for simplification chain. The cache will store the
+		 * result of all previous simplification steps.
+		 * <p>
+		 * The cache is adapted with {@link Caches#guava(Cache)}.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 */
 		BuildStep cacheStrings(Cache<String, String> cache);
 
 		/**
@@ -210,6 +251,18 @@ public final class StringDistanceBuilder {
 		 *            a cache to add
 		 * @return this for fluent chaining
 		 */
+		CollectionDistanceInitialTokenizerStep<T> cacheStrings(ComputingCache<String, String> cache);
+
+		/**
+		 * Sets a cache for simplification chain. The cache will store the
+		 * result of all previous simplification steps.
+		 * <p>
+		 * The cache is adapted with {@link Caches#guava(Cache)}.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 */
 		CollectionDistanceInitialTokenizerStep<T> cacheStrings(Cache<String, String> cache);
 
 		/**
@@ -277,8 +330,42 @@ public final class StringDistanceBuilder {
 		 * @return this for fluent chaining
 		 * 
 		 */
+		BuildStep cacheTokens(ComputingCache<String, T> cache);
+
+		/**
+		 * Sets a cache for tokenization chain. The cache will store the result
+		 * of all previous tokenization steps.
+		 * <p>
+		 * The cache is adapted with {@link Caches#guava(Cache)}.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * 
+		 */
 		BuildStep cacheTokens(Cache<String, T> cache);
 
+		/**
+		 * Sets a cache for tokenization chain. The cache will store the result
+		 * of all previous tokenization steps interned by the dictionary.
+		 * <p>
+		 * Interned tokens are stored as arrays of int ids rather than as
+		 * collections of strings. This takes about four bytes per token, so
+		 * the same amount of memory holds several times more entries. Each
+		 * distinct token is kept once by the dictionary. The dictionary grows
+		 * with the number of distinct tokens and is never evicted.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @param dictionary
+		 *            a dictionary to intern tokens with
+		 * @return this for fluent chaining
+		 * 
+		 * @see Tokenizers#interning(Tokenizer, TokenDictionary)
+		 */
+		BuildStep cacheTokens(ComputingCache<String, T> cache,
+				TokenDictionary dictionary);
+
 		/**
 		 * Builds a string distance metric that will use the given
 		 * simplification, tokenization and filtering steps.
@@ -295,6 +382,7 @@ public final class StringDistanceBuilder {
 		private final Distance<String> distance;
 
 		private final List<Simplifier> simplifiers = new ArrayList<>();
+		private ComputingCache<StringPair, Float> resultCache;
 
 		CompositeStringDistanceBuilder(Distance<String> distance) {
 			requireNonNull(distance);
@@ -305,9 +393,24 @@ public final class StringDistanceBuilder {
 		public StringDistance build() {
 
 			if (simplifiers.isEmpty()) {
-				return create(distance);
+				return cacheResults(create(distance));
 			}
-			return create(distance, chainSimplifiers());
+			return cacheResults(create(distance,
+					Simplifiers.compile(chainSimplifiers())));
+		}
+
+		@Override
+		public BuildStep cacheResults(ComputingCache<StringPair, Float> cache) {
+			requireNonNull(cache);
+			this.resultCache = cache;
+			return this;
+		}
+
+		private StringDistance cacheResults(StringDistance distance) {
+			if (resultCache == null) {
+				return distance;
+			}
+			return new CachingStringDistance(resultCache, distance);
 		}
 
 		private Simplifier chainSimplifiers() {
@@ -319,6 +422,11 @@ public final class StringDistanceBuilder {
 
 		@Override
 		public BuildStep cacheStrings(Cache<String, String> cache) {
+			return cacheStrings(Caches.guava(cache));
+		}
+
+		@Override
+		public BuildStep cacheStrings(ComputingCache<String, String> cache) {
 			requireNonNull(cache);
 			CachingSimplifier cachingSimplifier = new CachingSimplifier(cache, chainSimplifiers());
 			this.simplifiers.add(cachingSimplifier);
@@ -341,6 +449,7 @@ public final class StringDistanceBuilder {
 
 		private final List<Simplifier> simplifiers = new ArrayList<>();
 		private final List<Tokenizer> tokenizers = new ArrayList<>();
+		private ComputingCache<StringPair, Float> resultCache;
 
 		CompositeCollectionDistanceBuilder(Distance<T> distance) {
 			requireNonNull(distance);
@@ -353,10 +462,34 @@ public final class StringDistanceBuilder {
 			Tokenizer tokenizer = chainTokenizers();
 
 			if (simplifiers.isEmpty()) {
-				return build(distance, tokenizer);
+				return cacheResults(build(distance, tokenizer));
+			}
+
+			return cacheResults(compile(distance, chainSimplifiers(), tokenizer));
+		}
+
+		@Override
+		public final BuildStep cacheResults(ComputingCache<StringPair, Float> cache) {
+			requireNonNull(cache);
+			this.resultCache = cache;
+			return this;
+		}
+
+		private StringDistance cacheResults(StringDistance distance) {
+			if (resultCache == null) {
+				return distance;
 			}
+			return new CachingStringDistance(resultCache, distance);
+		}
 
-			return build(distance, chainSimplifiers(), tokenizer);
+		private StringDistance compile(Distance<T> distance, Simplifier simplifier,
+				Tokenizer tokenizer) {
+			// Simplify in a single pass and tokenize in the same pass if possible
+			final Simplifier compiled = Simplifiers.compile(simplifier);
+			if (compiled instanceof CompiledSimplifier && Tokenizers.isFusible(tokenizer)) {
+				return build(distance, Tokenizers.fuse((CompiledSimplifier) compiled, tokenizer));
+			}
+			return build(distance, compiled, tokenizer);
 		}
 
 		abstract StringDistance build(Distance<T> distance, Simplifier simplifier, Tokenizer tokenizer);
@@ -365,15 +498,35 @@ public final class StringDistanceBuilder {
 
 		@Override
 		public final BuildStep cacheTokens(Cache<String, T> cache) {
+			return cacheTokens(Caches.guava(cache));
+		}
+
+		@Override
+		public final BuildStep cacheTokens(ComputingCache<String, T> cache) {
 			requireNonNull(cache);
 			tokenizers.add(createCachingTokenizer(cache, chainTokenizers()));
 			return this;
 		}
 
-		protected abstract Tokenizer createCachingTokenizer(Cache<String, T> cache, Tokenizer tokenizer);
+		@Override
+		public final BuildStep cacheTokens(ComputingCache<String, T> cache,
+				TokenDictionary dictionary) {
+			requireNonNull(cache);
+			requireNonNull(dictionary);
+			tokenizers.add(createCachingTokenizer(cache,
+					Tokenizers.interning(chainTokenizers(), dictionary)));
+			return this;
+		}
+
+		protected abstract Tokenizer createCachingTokenizer(ComputingCache<String, T> cache, Tokenizer tokenizer);
 
 		@Override
 		public final CollectionDistanceInitialTokenizerStep<T> cacheStrings(Cache<String, String> cache) {
+			return cacheStrings(Caches.guava(cache));
+		}
+
+		@Override
+		public final CollectionDistanceInitialTokenizerStep<T> cacheStrings(ComputingCache<String, String> cache) {
 			requireNonNull(cache);
 
 			CachingSimplifier cachingSimplifier = new CachingSimplifier(cache, chainSimplifiers());
@@ -447,7 +600,7 @@ public final class StringDistanceBuilder {
 		}
 
 		@Override
-		protected Tokenizer createCachingTokenizer(Cache<String, List<String>> cache, Tokenizer tokenizer) {
+		protected Tokenizer createCachingTokenizer(ComputingCache<String, List<String>> cache, Tokenizer tokenizer) {
 			return new CachingListTokenizer(cache, tokenizer);
 		}
 
@@ -470,7 +623,7 @@ public final class StringDistanceBuilder {
 		}
 
 		@Override
-		protected Tokenizer createCachingTokenizer(Cache<String, Set<String>> cache, Tokenizer tokenizer) {
+		protected Tokenizer createCachingTokenizer(ComputingCache<String, Set<String>> cache, Tokenizer tokenizer) {
 			return new CachingSetTokenizer(cache, tokenizer);
 		}
 
@@ -494,7 +647,7 @@ public final class StringDistanceBuilder {
 		}
 
 		@Override
-		protected Tokenizer createCachingTokenizer(Cache<String, Multiset<String>> cache, Tokenizer tokenizer) {
+		protected Tokenizer createCachingTokenizer(ComputingCache<String, Multiset<String>> cache, Tokenizer tokenizer) {
 			return new CachingMultisetTokenizer(cache, tokenizer);
 		}
 
@@ -502,22 +655,17 @@ public final class StringDistanceBuilder {
 
 	static final class CachingSimplifier implements Simplifier {
 
-		private final Cache<String, String> cache;
+		private final ComputingCache<String, String> cache;
 		final Simplifier simplifier;
 
-		CachingSimplifier(Cache<String, String> cache, Simplifier simplifier) {
+		CachingSimplifier(ComputingCache<String, String> cache, Simplifier simplifier) {
 			this.cache = cache;
 			this.simplifier = simplifier;
 		}
 
 		@Override
 		public String simplify(final String input) {
-			try {
-				return cache.get(input, () -> simplifier.simplify(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Simplifier may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, simplifier::simplify);
 		}
 
 		@Override
@@ -529,10 +677,10 @@ public final class StringDistanceBuilder {
 
 	static final class CachingMultisetTokenizer implements Tokenizer {
 
-		private final Cache<String, Multiset<String>> cache;
+		private final ComputingCache<String, Multiset<String>> cache;
 		final Tokenizer tokenizer;
 
-		CachingMultisetTokenizer(Cache<String, Multiset<String>> cache, Tokenizer tokenizer) {
+		CachingMultisetTokenizer(ComputingCache<String, Multiset<String>> cache, Tokenizer tokenizer) {
 			this.cache = cache;
 			this.tokenizer = tokenizer;
 		}
@@ -549,12 +697,12 @@ public final class StringDistanceBuilder {
 
 		@Override
 		public Multiset<String> tokenizeToMultiset(final String input) {
-			try {
-				return cache.get(input, () -> tokenizer.tokenizeToMultiset(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Tokenizer may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, tokenizer::tokenizeToMultiset);
+		}
+
+		@Override
+		public HashedMultiset tokenizeToHashedMultiset(final String input) {
+			return HashedMultiset.of(tokenizeToMultiset(input));
 		}
 
 		@Override
@@ -565,10 +713,10 @@ public final class StringDistanceBuilder {
 
 	static final class CachingSetTokenizer implements Tokenizer {
 
-		private final Cache<String, Set<String>> cache;
+		private final ComputingCache<String, Set<String>> cache;
 		final Tokenizer tokenizer;
 
-		CachingSetTokenizer(Cache<String, Set<String>> cache, Tokenizer tokenizer) {
+		CachingSetTokenizer(ComputingCache<String, Set<String>> cache, Tokenizer tokenizer) {
 			this.cache = cache;
 			this.tokenizer = tokenizer;
 		}
@@ -580,12 +728,12 @@ public final class StringDistanceBuilder {
 
 		@Override
 		public Set<String> tokenizeToSet(final String input) {
-			try {
-				return cache.get(input, () -> tokenizer.tokenizeToSet(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Tokenizer may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, tokenizer::tokenizeToSet);
+		}
+
+		@Override
+		public HashedSet tokenizeToHashedSet(final String input) {
+			return HashedSet.of(tokenizeToSet(input));
 		}
 
 		@Override
@@ -601,22 +749,17 @@ public final class StringDistanceBuilder {
 
 	static final class CachingListTokenizer implements Tokenizer {
 
-		private final Cache<String, List<String>> cache;
+		private final ComputingCache<String, List<String>> cache;
 		final Tokenizer tokenizer;
 
-		CachingListTokenizer(Cache<String, List<String>> cache, Tokenizer tokenizer) {
+		CachingListTokenizer(ComputingCache<String, List<String>> cache, Tokenizer tokenizer) {
 			this.cache = cache;
 			this.tokenizer = tokenizer;
 		}
 
 		@Override
 		public List<String> tokenizeToList(final String input) {
-			try {
-				return cache.get(input, () -> tokenizer.tokenizeToList(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Tokenizer may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, tokenizer::tokenizeToList);
 		}
 
 		@Override
@@ -635,4 +778,25 @@ public final class StringDistanceBuilder {
 		}
 	}
 
+	static final class CachingStringDistance implements StringDistance {
+
+		private final ComputingCache<StringPair, Float> cache;
+		final StringDistance distance;
+
+		CachingStringDistance(ComputingCache<StringPair, Float> cache, StringDistance distance) {
+			this.cache = cache;
+			this.distance = distance;
+		}
+
+		@Override
+		public float distance(final String a, final String b) {
+			return cache.get(StringPair.unordered(a, b), pair -> distance.distance(a, b));
+		}
+
+		@Override
+		public String toString() {
+			return "CachingStringDistance [" + cache + ", " + distance + "]";
+		}
+	}
+
 }
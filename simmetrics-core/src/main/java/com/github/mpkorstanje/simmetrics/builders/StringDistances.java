@@ -112,6 +112,11 @@ final class StringDistances {
 			return distance.distance(tokenizer.tokenizeToList(a), tokenizer.tokenizeToList(b));
 		}
 
+		@Override
+		public float distance(String a, String b, float maxDistance) {
+			return distance.distance(tokenizer.tokenizeToList(a), tokenizer.tokenizeToList(b), maxDistance);
+		}
+
 		Distance<List<String>> getDistance() {
 			return distance;
 		}
@@ -148,6 +153,12 @@ final class StringDistances {
 					tokenizer.tokenizeToList(simplifier.simplify(b)));
 		}
 
+		@Override
+		public float distance(String a, String b, float maxDistance) {
+			return distance.distance(tokenizer.tokenizeToList(simplifier.simplify(a)),
+					tokenizer.tokenizeToList(simplifier.simplify(b)), maxDistance);
+		}
+
 		Distance<List<String>> getDistance() {
 			return distance;
 		}
@@ -184,6 +195,11 @@ final class StringDistances {
 			return distance.distance(tokenizer.tokenizeToSet(a), tokenizer.tokenizeToSet(b));
 		}
 
+		@Override
+		public float distance(String a, String b, float maxDistance) {
+			return distance.distance(tokenizer.tokenizeToSet(a), tokenizer.tokenizeToSet(b), maxDistance);
+		}
+
 		Distance<Set<String>> getDistance() {
 			return distance;
 		}
@@ -221,6 +237,12 @@ final class StringDistances {
 					tokenizer.tokenizeToSet(simplifier.simplify(b)));
 		}
 
+		@Override
+		public float distance(String a, String b, float maxDistance) {
+			return distance.distance(tokenizer.tokenizeToSet(simplifier.simplify(a)),
+					tokenizer.tokenizeToSet(simplifier.simplify(b)), maxDistance);
+		}
+
 		Distance<Set<String>> getDistance() {
 			return distance;
 		}
@@ -257,6 +279,11 @@ final class StringDistances {
 			return distance.distance(tokenizer.tokenizeToMultiset(a), tokenizer.tokenizeToMultiset(b));
 		}
 
+		@Override
+		public float distance(String a, String b, float maxDistance) {
+			return distance.distance(tokenizer.tokenizeToMultiset(a), tokenizer.tokenizeToMultiset(b), maxDistance);
+		}
+
 		Distance<Multiset<String>> getDistance() {
 			return distance;
 		}
@@ -294,6 +321,12 @@ final class StringDistances {
 					tokenizer.tokenizeToMultiset(simplifier.simplify(b)));
 		}
 
+		@Override
+		public float distance(String a, String b, float maxDistance) {
+			return distance.distance(tokenizer.tokenizeToMultiset(simplifier.simplify(a)),
+					tokenizer.tokenizeToMultiset(simplifier.simplify(b)), maxDistance);
+		}
+
 		Distance<Multiset<String>> getDistance() {
 			return distance;
 		}
@@ -324,6 +357,11 @@ final class StringDistances {
 			return distance.distance(a, b);
 		}
 
+		@Override
+		public float distance(String a, String b, float maxDistance) {
+			return distance.distance(a, b, maxDistance);
+		}
+
 		@Override
 		public String toString() {
 			return distance.toString();
@@ -354,6 +392,11 @@ final class StringDistances {
 			return distance.distance(simplifier.simplify(a), simplifier.simplify(b));
 		}
 
+		@Override
+		public float distance(String a, String b, float maxDistance) {
+			return distance.distance(simplifier.simplify(a), simplifier.simplify(b), maxDistance);
+		}
+
 		Distance<String> getDistance() {
 			return distance;
 		}
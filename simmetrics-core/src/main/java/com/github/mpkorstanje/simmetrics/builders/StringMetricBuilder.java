@@ -20,6 +20,9 @@
 
 package com.github.mpkorstanje.simmetrics.builders;
 
+import com.github.mpkorstanje.simmetrics.caches.Caches;
+import com.github.mpkorstanje.simmetrics.caches.ComputingCache;
+import com.github.mpkorstanje.simmetrics.caches.StringPair;
 import com.google.common.cache.Cache;
 import com.google.common.collect.Multiset;
 import com.github.mpkorstanje.simmetrics.ListMetric;
@@ -27,8 +30,12 @@ import com.github.mpkorstanje.simmetrics.Metric;
 import com.github.mpkorstanje.simmetrics.MultisetMetric;
 import com.github.mpkorstanje.simmetrics.SetMetric;
 import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.simplifiers.CompiledSimplifier;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedSet;
+import com.github.mpkorstanje.simmetrics.tokenizers.TokenDictionary;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
 
@@ -36,7 +43,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -53,6 +59,10 @@ import static com.github.mpkorstanje.simmetrics.builders.StringMetrics.createFor
  * Supports the addition of simplification, tokenization, token-filtering,
  * token-transformation and caching to a metric.
  * <p>
+ * Chains of lower-case and non-word simplifiers are compiled into a single
+ * pass over the input when the metric is built. When followed by a whitespace
+ * or q-gram tokenizer they are fused with the tokenizer.
+ * <p>
  * The created similarity metrics are immutable and thread-safe provided all
  * their components are also immutable and thread-safe.
  * <p>
@@ -115,6 +125,22 @@ public final class StringMetricBuilder {
 	}
 
 	public interface BuildStep {
+		/**
+		 * Sets a cache for the results of the metric. The cache will store
+		 * the similarity of each pair of strings compared. Because metrics are
+		 * symmetric the pair is cached regardless of the order in which its
+		 * strings are compared.
+		 * <p>
+		 * Caching results pays off for expensive metrics that compare the same
+		 * pairs of strings many times over.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * @see StringPair#unordered(String, String)
+		 */
+		BuildStep cacheResults(ComputingCache<StringPair, Float> cache);
+
 		/**
 		 * Builds a metric with the given steps.
 		 * 
@@ -164,6 +190,18 @@ public final class StringMetricBuilder {
 		 *            a cache to add
 		 * @return this for fluent chaining
 		 */
+		BuildStep cacheStrings(ComputingCache<String, String> cache);
+
+		/**
+		 * Sets a cache for simplification chain. The cache will store the
+		 * result of all previous simplification steps.
+		 * <p>
+		 * The cache is adapted with {@link Caches#guava(Cache)}.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 */
 		BuildStep cacheStrings(Cache<String, String> cache);
 
 		/**
@@ -217,6 +255,19 @@ public final class StringMetricBuilder {
 		 *            a cache to add
 		 * @return this for fluent chaining
 		 */
+		CollectionMetricInitialTokenizerStep<T> cacheStrings(
+				ComputingCache<String, String> cache);
+
+		/**
+		 * Sets a cache for simplification chain. The cache will store the
+		 * result of all previous simplification steps.
+		 * <p>
+		 * The cache is adapted with {@link Caches#guava(Cache)}.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 */
 		CollectionMetricInitialTokenizerStep<T> cacheStrings(
 				Cache<String, String> cache);
 
@@ -286,8 +337,42 @@ public final class StringMetricBuilder {
 		 * @return this for fluent chaining
 		 * 
 		 */
+		BuildStep cacheTokens(ComputingCache<String, T> cache);
+
+		/**
+		 * Sets a cache for tokenization chain. The cache will store the result
+		 * of all previous tokenization steps.
+		 * <p>
+		 * The cache is adapted with {@link Caches#guava(Cache)}.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * 
+		 */
 		BuildStep cacheTokens(Cache<String, T> cache);
 
+		/**
+		 * Sets a cache for tokenization chain. The cache will store the result
+		 * of all previous tokenization steps interned by the dictionary.
+		 * <p>
+		 * Interned tokens are stored as arrays of int ids rather than as
+		 * collections of strings. This takes about four bytes per token, so
+		 * the same amount of memory holds several times more entries. Each
+		 * distinct token is kept once by the dictionary. The dictionary grows
+		 * with the number of distinct tokens and is never evicted.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @param dictionary
+		 *            a dictionary to intern tokens with
+		 * @return this for fluent chaining
+		 * 
+		 * @see Tokenizers#interning(Tokenizer, TokenDictionary)
+		 */
+		BuildStep cacheTokens(ComputingCache<String, T> cache,
+				TokenDictionary dictionary);
+
 		/**
 		 * Builds a similarity metric that will use the given simplification,
 		 * tokenization and filtering steps.
@@ -305,6 +390,7 @@ public final class StringMetricBuilder {
 		private final Metric<String> metric;
 
 		private final List<Simplifier> simplifiers = new ArrayList<>();
+		private ComputingCache<StringPair, Float> resultCache;
 
 		CompositeStringMetricBuilder(Metric<String> metric) {
 			requireNonNull(metric);
@@ -315,9 +401,24 @@ public final class StringMetricBuilder {
 		public StringMetric build() {
 
 			if (simplifiers.isEmpty()) {
-				return StringMetrics.create(metric);
+				return cacheResults(StringMetrics.create(metric));
+			}
+			return cacheResults(StringMetrics.create(metric,
+					Simplifiers.compile(chainSimplifiers())));
+		}
+
+		@Override
+		public BuildStep cacheResults(ComputingCache<StringPair, Float> cache) {
+			requireNonNull(cache);
+			this.resultCache = cache;
+			return this;
+		}
+
+		private StringMetric cacheResults(StringMetric metric) {
+			if (resultCache == null) {
+				return metric;
 			}
-			return StringMetrics.create(metric, chainSimplifiers());
+			return new CachingStringMetric(resultCache, metric);
 		}
 
 		private Simplifier chainSimplifiers() {
@@ -329,6 +430,11 @@ public final class StringMetricBuilder {
 
 		@Override
 		public BuildStep cacheStrings(Cache<String, String> cache) {
+			return cacheStrings(Caches.guava(cache));
+		}
+
+		@Override
+		public BuildStep cacheStrings(ComputingCache<String, String> cache) {
 			requireNonNull(cache);
 			CachingSimplifier cachingSimplifier = new CachingSimplifier(cache,
 					chainSimplifiers());
@@ -353,6 +459,7 @@ public final class StringMetricBuilder {
 
 		private final List<Simplifier> simplifiers = new ArrayList<>();
 		private final List<Tokenizer> tokenizers = new ArrayList<>();
+		private ComputingCache<StringPair, Float> resultCache;
 
 		CompositeCollectionMetricBuilder(Metric<T> metric) {
 			requireNonNull(metric);
@@ -365,10 +472,34 @@ public final class StringMetricBuilder {
 			Tokenizer tokenizer = chainTokenizers();
 
 			if (simplifiers.isEmpty()) {
-				return build(metric, tokenizer);
+				return cacheResults(build(metric, tokenizer));
+			}
+
+			return cacheResults(compile(metric, chainSimplifiers(), tokenizer));
+		}
+
+		@Override
+		public final BuildStep cacheResults(ComputingCache<StringPair, Float> cache) {
+			requireNonNull(cache);
+			this.resultCache = cache;
+			return this;
+		}
+
+		private StringMetric cacheResults(StringMetric metric) {
+			if (resultCache == null) {
+				return metric;
 			}
+			return new CachingStringMetric(resultCache, metric);
+		}
 
-			return build(metric, chainSimplifiers(), tokenizer);
+		private StringMetric compile(Metric<T> metric, Simplifier simplifier,
+				Tokenizer tokenizer) {
+			// Simplify in a single pass and tokenize in the same pass if possible
+			final Simplifier compiled = Simplifiers.compile(simplifier);
+			if (compiled instanceof CompiledSimplifier && Tokenizers.isFusible(tokenizer)) {
+				return build(metric, Tokenizers.fuse((CompiledSimplifier) compiled, tokenizer));
+			}
+			return build(metric, compiled, tokenizer);
 		}
 
 		abstract StringMetric build(Metric<T> metric, Simplifier simplifier,
@@ -378,17 +509,37 @@ public final class StringMetricBuilder {
 
 		@Override
 		public final BuildStep cacheTokens(Cache<String, T> cache) {
+			return cacheTokens(Caches.guava(cache));
+		}
+
+		@Override
+		public final BuildStep cacheTokens(ComputingCache<String, T> cache) {
 			requireNonNull(cache);
 			tokenizers.add(createCachingTokenizer(cache, chainTokenizers()));
 			return this;
 		}
 
+		@Override
+		public final BuildStep cacheTokens(ComputingCache<String, T> cache,
+				TokenDictionary dictionary) {
+			requireNonNull(cache);
+			requireNonNull(dictionary);
+			tokenizers.add(createCachingTokenizer(cache,
+					Tokenizers.interning(chainTokenizers(), dictionary)));
+			return this;
+		}
+
 		protected abstract Tokenizer createCachingTokenizer(
-				Cache<String, T> cache, Tokenizer tokenizer);
+				ComputingCache<String, T> cache, Tokenizer tokenizer);
+
+		@Override
+		public final CollectionMetricInitialTokenizerStep<T> cacheStrings(Cache<String, String> cache) {
+			return cacheStrings(Caches.guava(cache));
+		}
 
 		@Override
 		public final CollectionMetricInitialTokenizerStep<T> cacheStrings(
-				Cache<String, String> cache) {
+				ComputingCache<String, String> cache) {
 			requireNonNull(cache);
 
 			CachingSimplifier cachingSimplifier = new CachingSimplifier(cache,
@@ -472,7 +623,7 @@ public final class StringMetricBuilder {
 
 		@Override
 		protected Tokenizer createCachingTokenizer(
-				Cache<String, List<String>> cache, Tokenizer tokenizer) {
+				ComputingCache<String, List<String>> cache, Tokenizer tokenizer) {
 			return new CachingListTokenizer(cache, tokenizer);
 		}
 
@@ -498,7 +649,7 @@ public final class StringMetricBuilder {
 
 		@Override
 		protected Tokenizer createCachingTokenizer(
-				Cache<String, Set<String>> cache, Tokenizer tokenizer) {
+				ComputingCache<String, Set<String>> cache, Tokenizer tokenizer) {
 			return new CachingSetTokenizer(cache, tokenizer);
 		}
 
@@ -524,7 +675,7 @@ public final class StringMetricBuilder {
 
 		@Override
 		protected Tokenizer createCachingTokenizer(
-				Cache<String, Multiset<String>> cache, Tokenizer tokenizer) {
+				ComputingCache<String, Multiset<String>> cache, Tokenizer tokenizer) {
 			return new CachingMultisetTokenizer(cache, tokenizer);
 		}
 
@@ -532,22 +683,17 @@ public final class StringMetricBuilder {
 
 	static final class CachingSimplifier implements Simplifier {
 
-		private final Cache<String, String> cache;
+		private final ComputingCache<String, String> cache;
 		final Simplifier simplifier;
 
-		CachingSimplifier(Cache<String, String> cache, Simplifier simplifier) {
+		CachingSimplifier(ComputingCache<String, String> cache, Simplifier simplifier) {
 			this.cache = cache;
 			this.simplifier = simplifier;
 		}
 
 		@Override
 		public String simplify(final String input) {
-			try {
-				return cache.get(input, () -> simplifier.simplify(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Simplifier may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, simplifier::simplify);
 		}
 
 		@Override
@@ -559,10 +705,10 @@ public final class StringMetricBuilder {
 
 	static final class CachingMultisetTokenizer implements Tokenizer {
 
-		private final Cache<String, Multiset<String>> cache;
+		private final ComputingCache<String, Multiset<String>> cache;
 		final Tokenizer tokenizer;
 
-		CachingMultisetTokenizer(Cache<String, Multiset<String>> cache,
+		CachingMultisetTokenizer(ComputingCache<String, Multiset<String>> cache,
 				Tokenizer tokenizer) {
 			this.cache = cache;
 			this.tokenizer = tokenizer;
@@ -580,12 +726,12 @@ public final class StringMetricBuilder {
 
 		@Override
 		public Multiset<String> tokenizeToMultiset(final String input) {
-			try {
-				return cache.get(input, () -> tokenizer.tokenizeToMultiset(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Tokenizer may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, tokenizer::tokenizeToMultiset);
+		}
+
+		@Override
+		public HashedMultiset tokenizeToHashedMultiset(final String input) {
+			return HashedMultiset.of(tokenizeToMultiset(input));
 		}
 
 		@Override
@@ -597,10 +743,10 @@ public final class StringMetricBuilder {
 
 	static final class CachingSetTokenizer implements Tokenizer {
 
-		private final Cache<String, Set<String>> cache;
+		private final ComputingCache<String, Set<String>> cache;
 		final Tokenizer tokenizer;
 
-		CachingSetTokenizer(Cache<String, Set<String>> cache,
+		CachingSetTokenizer(ComputingCache<String, Set<String>> cache,
 				Tokenizer tokenizer) {
 			this.cache = cache;
 			this.tokenizer = tokenizer;
@@ -613,12 +759,12 @@ public final class StringMetricBuilder {
 
 		@Override
 		public Set<String> tokenizeToSet(final String input) {
-			try {
-				return cache.get(input, () -> tokenizer.tokenizeToSet(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Tokenizer may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, tokenizer::tokenizeToSet);
+		}
+
+		@Override
+		public HashedSet tokenizeToHashedSet(final String input) {
+			return HashedSet.of(tokenizeToSet(input));
 		}
 
 		@Override
@@ -634,10 +780,10 @@ public final class StringMetricBuilder {
 
 	static final class CachingListTokenizer implements Tokenizer {
 
-		private final Cache<String, List<String>> cache;
+		private final ComputingCache<String, List<String>> cache;
 		final Tokenizer tokenizer;
 
-		CachingListTokenizer(Cache<String, List<String>> cache,
+		CachingListTokenizer(ComputingCache<String, List<String>> cache,
 				Tokenizer tokenizer) {
 			this.cache = cache;
 			this.tokenizer = tokenizer;
@@ -645,12 +791,7 @@ public final class StringMetricBuilder {
 
 		@Override
 		public List<String> tokenizeToList(final String input) {
-			try {
-				return cache.get(input, () -> tokenizer.tokenizeToList(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Tokenizer may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, tokenizer::tokenizeToList);
 		}
 
 		@Override
@@ -669,4 +810,26 @@ public final class StringMetricBuilder {
 		}
 	}
 
+	static final class CachingStringMetric implements StringMetric {
+
+		private final ComputingCache<StringPair, Float> cache;
+		final StringMetric metric;
+
+		CachingStringMetric(ComputingCache<StringPair, Float> cache,
+				StringMetric metric) {
+			this.cache = cache;
+			this.metric = metric;
+		}
+
+		@Override
+		public float compare(final String a, final String b) {
+			return cache.get(StringPair.unordered(a, b), pair -> metric.compare(a, b));
+		}
+
+		@Override
+		public String toString() {
+			return "CachingStringMetric [" + cache + ", " + metric + "]";
+		}
+	}
+
 }
@@ -25,11 +25,16 @@ import java.util.Set;
 
 import com.github.mpkorstanje.simmetrics.Metric;
 import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.EuclideanDistance;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.NormedMultiset;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
 
 import com.google.common.collect.Multiset;
 
+import static com.google.common.collect.Lists.transform;
 import static java.util.Objects.requireNonNull;
 import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.chain;
 
@@ -132,6 +137,17 @@ final class StringMetrics {
 					tokenizer.tokenizeToList(b));
 		}
 
+		@Override
+		public float[] compareAll(String query, List<String> candidates) {
+			final List<String> queryTokens = tokenizer.tokenizeToList(query);
+			final float[] similarities = new float[candidates.size()];
+			int i = 0;
+			for (String candidate : candidates) {
+				similarities[i++] = metric.compare(queryTokens, tokenizer.tokenizeToList(candidate));
+			}
+			return similarities;
+		}
+
 		Metric<List<String>> getMetric() {
 			return metric;
 		}
@@ -170,6 +186,17 @@ final class StringMetrics {
 					tokenizer.tokenizeToList(simplifier.simplify(b)));
 		}
 
+		@Override
+		public float[] compareAll(String query, List<String> candidates) {
+			final List<String> queryTokens = tokenizer.tokenizeToList(simplifier.simplify(query));
+			final float[] similarities = new float[candidates.size()];
+			int i = 0;
+			for (String candidate : candidates) {
+				similarities[i++] = metric.compare(queryTokens, tokenizer.tokenizeToList(simplifier.simplify(candidate)));
+			}
+			return similarities;
+		}
+
 		Metric<List<String>> getMetric() {
 			return metric;
 		}
@@ -207,6 +234,17 @@ final class StringMetrics {
 					tokenizer.tokenizeToSet(b));
 		}
 
+		@Override
+		public float[] compareAll(String query, List<String> candidates) {
+			final Set<String> queryTokens = tokenizer.tokenizeToSet(query);
+			final float[] similarities = new float[candidates.size()];
+			int i = 0;
+			for (String candidate : candidates) {
+				similarities[i++] = metric.compare(queryTokens, tokenizer.tokenizeToSet(candidate));
+			}
+			return similarities;
+		}
+
 		Metric<Set<String>> getMetric() {
 			return metric;
 		}
@@ -246,6 +284,17 @@ final class StringMetrics {
 					tokenizer.tokenizeToSet(simplifier.simplify(b)));
 		}
 
+		@Override
+		public float[] compareAll(String query, List<String> candidates) {
+			final Set<String> queryTokens = tokenizer.tokenizeToSet(simplifier.simplify(query));
+			final float[] similarities = new float[candidates.size()];
+			int i = 0;
+			for (String candidate : candidates) {
+				similarities[i++] = metric.compare(queryTokens, tokenizer.tokenizeToSet(simplifier.simplify(candidate)));
+			}
+			return similarities;
+		}
+
 		Metric<Set<String>> getMetric() {
 			return metric;
 		}
@@ -265,6 +314,19 @@ final class StringMetrics {
 
 	}
 
+	/*
+	 * The cosine similarity and Euclidean distance use the norm of both
+	 * multisets. Computing the norm of the query in advance saves iterating it
+	 * again for every candidate. Interned multisets already carry their norm.
+	 */
+	private static Multiset<String> withNorm(Metric<Multiset<String>> metric, Multiset<String> tokens) {
+		if (!(metric instanceof CosineSimilarity || metric instanceof EuclideanDistance)
+				|| tokens instanceof IdMultiset) {
+			return tokens;
+		}
+		return NormedMultiset.of(tokens);
+	}
+
 	static final class ForMultiset implements StringMetric {
 
 		private final Metric<Multiset<String>> metric;
@@ -284,6 +346,17 @@ final class StringMetrics {
 					tokenizer.tokenizeToMultiset(b));
 		}
 
+		@Override
+		public float[] compareAll(String query, List<String> candidates) {
+			final Multiset<String> queryTokens = withNorm(metric, tokenizer.tokenizeToMultiset(query));
+			final float[] similarities = new float[candidates.size()];
+			int i = 0;
+			for (String candidate : candidates) {
+				similarities[i++] = metric.compare(queryTokens, tokenizer.tokenizeToMultiset(candidate));
+			}
+			return similarities;
+		}
+
 		Metric<Multiset<String>> getMetric() {
 			return metric;
 		}
@@ -323,6 +396,18 @@ final class StringMetrics {
 					tokenizer.tokenizeToMultiset(simplifier.simplify(b)));
 		}
 
+		@Override
+		public float[] compareAll(String query, List<String> candidates) {
+			final Multiset<String> queryTokens = withNorm(metric,
+					tokenizer.tokenizeToMultiset(simplifier.simplify(query)));
+			final float[] similarities = new float[candidates.size()];
+			int i = 0;
+			for (String candidate : candidates) {
+				similarities[i++] = metric.compare(queryTokens, tokenizer.tokenizeToMultiset(simplifier.simplify(candidate)));
+			}
+			return similarities;
+		}
+
 		Metric<Multiset<String>> getMetric() {
 			return metric;
 		}
@@ -385,6 +470,16 @@ final class StringMetrics {
 					simplifier.simplify(b));
 		}
 
+		@Override
+		public float[] compareAll(String query, List<String> candidates) {
+			if (!(metric instanceof StringMetric)) {
+				return StringMetric.super.compareAll(query, candidates);
+			}
+			// Simplify the query once, candidates as they are compared
+			return ((StringMetric) metric).compareAll(simplifier.simplify(query),
+					transform(candidates, simplifier::simplify));
+		}
+
 		Metric<String> getMetric() {
 			return metric;
 		}
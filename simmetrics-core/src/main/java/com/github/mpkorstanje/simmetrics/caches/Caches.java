@@ -0,0 +1,93 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.caches;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Adapts caches to {@link ComputingCache}.
+ * <p>
+ * The simmetrics-caffeine module provides an adapter for Caffeine. It does not
+ * lock segments on reads and is better suited to many concurrent threads.
+ */
+public final class Caches {
+
+	private Caches() {
+		// Utility class
+	}
+
+	/**
+	 * Returns a computing cache backed by a Guava cache. To collect
+	 * statistics the cache must be built with
+	 * {@link com.google.common.cache.CacheBuilder#recordStats()}.
+	 * 
+	 * @param cache
+	 *            the cache to adapt
+	 * @param <K>
+	 *            type of the key
+	 * @param <V>
+	 *            type of the value
+	 * @return a computing cache
+	 */
+	public static <K, V> ComputingCache<K, V> guava(Cache<K, V> cache) {
+		return new Guava<>(cache);
+	}
+
+	static final class Guava<K, V> implements ComputingCache<K, V> {
+
+		private final Cache<K, V> cache;
+
+		Guava(Cache<K, V> cache) {
+			this.cache = requireNonNull(cache);
+		}
+
+		@Override
+		public V get(K key, Function<? super K, ? extends V> function) {
+			try {
+				return cache.get(key, () -> function.apply(key));
+			} catch (ExecutionException e) {
+				// Can't happen. Functions may not throw checked exceptions
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public CacheStats getStats() {
+			return cache.stats();
+		}
+
+		Cache<K, V> getCache() {
+			return cache;
+		}
+
+		@Override
+		public String toString() {
+			return cache.toString();
+		}
+
+	}
+
+}
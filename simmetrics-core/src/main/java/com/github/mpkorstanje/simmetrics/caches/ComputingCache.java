@@ -0,0 +1,63 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.caches;
+
+import java.util.function.Function;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * A cache that computes missing values from their key. Used by the
+ * {@code StringMetricBuilder} and {@code StringDistanceBuilder} to cache the
+ * result of simplification and tokenization.
+ * <p>
+ * Implementations must be thread-safe. Values are computed by pure functions
+ * of their key so a cached value never becomes stale.
+ * 
+ * @see Caches
+ * @param <K>
+ *            type of the key
+ * @param <V>
+ *            type of the value
+ */
+public interface ComputingCache<K, V> {
+
+	/**
+	 * Returns the value associated with the key, computing and caching it
+	 * when absent.
+	 * 
+	 * @param key
+	 *            the key to look up
+	 * @param function
+	 *            computes the value of an absent key, may not return null
+	 * @return the value associated with the key
+	 */
+	V get(K key, Function<? super K, ? extends V> function);
+
+	/**
+	 * Returns a snapshot of the statistics of the cache. The hit rate and
+	 * average load penalty are derived from these statistics. When the cache
+	 * does not record statistics all counts are zero.
+	 * 
+	 * @return the statistics of the cache
+	 */
+	CacheStats getStats();
+
+}
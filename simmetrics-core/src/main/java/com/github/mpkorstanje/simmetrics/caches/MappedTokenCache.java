@@ -0,0 +1,667 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.caches;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdList;
+import com.github.mpkorstanje.simmetrics.tokenizers.TokenDictionary;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Multiset;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * A persistent token cache backed by a memory-mapped file. The file is written
+ * once by {@link #write(Path, Simplifier, Tokenizer, Iterable)} and can then be
+ * opened read-only by any number of processes. The operating system shares the
+ * mapped pages between them.
+ * <p>
+ * The file stores the tokens of every input as ids into a dictionary that is
+ * stored alongside. Records are located by a 64-bit hash of their input and
+ * verified against the input itself. Only the dictionary is loaded on the heap
+ * when the file is opened; records are read from the mapping on each lookup
+ * and returned as an {@link IdList}, {@link com.github.mpkorstanje.simmetrics.tokenizers.IdSet IdSet}
+ * or {@link com.github.mpkorstanje.simmetrics.tokenizers.IdMultiset IdMultiset}.
+ * <p>
+ * The file is read-only. Inputs that were not written are tokenized on each
+ * lookup and are not added to the cache. The simplifier and tokenizer used to
+ * write the file are recorded by their {@code toString} and must match those
+ * used to open it. Filters and transforms built from lambdas do not have a
+ * stable {@code toString} and can not be used.
+ * 
+ * <pre>
+ * <code>
+ * if (!Files.exists(file)) {
+ * 	MappedTokenCache.write(file, simplifier, tokenizer, references);
+ * }
+ * MappedTokenCache&lt;Multiset&lt;String&gt;&gt; cache = MappedTokenCache.openMultisets(file, simplifier, tokenizer);
+ * StringMetric metric = with(new CosineSimilarity&lt;String&gt;())
+ * 		.simplify(simplifier)
+ * 		.tokenize(tokenizer)
+ * 		.cacheTokens(cache)
+ * 		.build();
+ * </code>
+ * </pre>
+ * <p>
+ * This class is thread-safe.
+ * 
+ * @param <T>
+ *            type of the tokens
+ */
+public final class MappedTokenCache<T extends Collection<String>> implements ComputingCache<String, T> {
+
+	private static final int MAGIC = 0x534D5443;
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 64;
+
+	private static final int INDEX_ENTRY_SIZE = 16;
+
+	private static final int SEGMENT_SHIFT = 30;
+
+	private static final HashFunction HASH = Hashing.murmur3_128();
+
+	private final Path file;
+
+	private final TokenDictionary dictionary;
+
+	private final Function<int[], T> decoder;
+
+	private final MappedByteBuffer[] segments;
+
+	private final int segmentShift;
+
+	private final long records;
+
+	private final long indexOffset;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder loadSuccesses = new LongAdder();
+
+	private final LongAdder loadExceptions = new LongAdder();
+
+	private final LongAdder loadTime = new LongAdder();
+
+	private MappedTokenCache(Path file, Header header, MappedByteBuffer[] segments, TokenDictionary dictionary,
+			Function<TokenDictionary, Function<int[], T>> decoder) {
+		this.file = file;
+		this.segments = segments;
+		this.segmentShift = header.segmentShift;
+		this.records = header.records;
+		this.indexOffset = header.indexOffset;
+		this.dictionary = dictionary;
+		this.decoder = decoder.apply(dictionary);
+	}
+
+	/**
+	 * Writes a token cache. The inputs are simplified and then tokenized. The
+	 * tokens are stored under the simplified input, as the cache would be
+	 * queried by a metric that simplifies before it tokenizes.
+	 * <p>
+	 * The file is written to a temporary file first and then moved into
+	 * place. On POSIX systems processes that have the file open keep reading
+	 * the old file.
+	 * 
+	 * @param file
+	 *            the file to write
+	 * @param simplifier
+	 *            the simplifier applied to the inputs
+	 * @param tokenizer
+	 *            the tokenizer applied to the simplified inputs
+	 * @param inputs
+	 *            the inputs to cache
+	 * @throws IOException
+	 *             when the file could not be written
+	 */
+	public static void write(Path file, Simplifier simplifier, Tokenizer tokenizer, Iterable<String> inputs)
+			throws IOException {
+		requireNonNull(simplifier);
+		write(file, configuration(simplifier, tokenizer), simplifier::simplify, tokenizer, inputs, SEGMENT_SHIFT);
+	}
+
+	/**
+	 * Writes a token cache. The inputs are tokenized without simplification.
+	 * 
+	 * @param file
+	 *            the file to write
+	 * @param tokenizer
+	 *            the tokenizer applied to the inputs
+	 * @param inputs
+	 *            the inputs to cache
+	 * @throws IOException
+	 *             when the file could not be written
+	 * @see #write(Path, Simplifier, Tokenizer, Iterable)
+	 */
+	public static void write(Path file, Tokenizer tokenizer, Iterable<String> inputs) throws IOException {
+		write(file, configuration(null, tokenizer), Function.identity(), tokenizer, inputs, SEGMENT_SHIFT);
+	}
+
+	static void write(Path file, String configuration, Function<String, String> simplifier, Tokenizer tokenizer,
+			Iterable<String> inputs, int segmentShift) throws IOException {
+		requireNonNull(tokenizer);
+		requireNonNull(inputs);
+		final Path directory = file.toAbsolutePath().getParent();
+		final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+		try {
+			new Writer(segmentShift).write(temporary, configuration, simplifier, tokenizer, inputs);
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Opens a token cache that returns lists of tokens.
+	 * 
+	 * @param file
+	 *            the file to open
+	 * @param simplifier
+	 *            the simplifier the file was written with
+	 * @param tokenizer
+	 *            the tokenizer the file was written with
+	 * @return a token cache
+	 * @throws IOException
+	 *             when the file could not be read
+	 * @throws IllegalArgumentException
+	 *             when the file is not a token cache or was written with a
+	 *             different simplifier or tokenizer
+	 */
+	public static MappedTokenCache<List<String>> openLists(Path file, Simplifier simplifier, Tokenizer tokenizer)
+			throws IOException {
+		requireNonNull(simplifier);
+		return open(file, configuration(simplifier, tokenizer), dictionary -> dictionary::listOf);
+	}
+
+	/**
+	 * Opens a token cache that returns lists of tokens.
+	 * 
+	 * @param file
+	 *            the file to open
+	 * @param tokenizer
+	 *            the tokenizer the file was written with
+	 * @return a token cache
+	 * @throws IOException
+	 *             when the file could not be read
+	 * @throws IllegalArgumentException
+	 *             when the file is not a token cache or was written with a
+	 *             simplifier or a different tokenizer
+	 */
+	public static MappedTokenCache<List<String>> openLists(Path file, Tokenizer tokenizer) throws IOException {
+		return open(file, configuration(null, tokenizer), dictionary -> dictionary::listOf);
+	}
+
+	/**
+	 * Opens a token cache that returns sets of tokens.
+	 * 
+	 * @param file
+	 *            the file to open
+	 * @param simplifier
+	 *            the simplifier the file was written with
+	 * @param tokenizer
+	 *            the tokenizer the file was written with
+	 * @return a token cache
+	 * @throws IOException
+	 *             when the file could not be read
+	 * @throws IllegalArgumentException
+	 *             when the file is not a token cache or was written with a
+	 *             different simplifier or tokenizer
+	 */
+	public static MappedTokenCache<Set<String>> openSets(Path file, Simplifier simplifier, Tokenizer tokenizer)
+			throws IOException {
+		requireNonNull(simplifier);
+		return open(file, configuration(simplifier, tokenizer), dictionary -> dictionary::setOf);
+	}
+
+	/**
+	 * Opens a token cache that returns sets of tokens.
+	 * 
+	 * @param file
+	 *            the file to open
+	 * @param tokenizer
+	 *            the tokenizer the file was written with
+	 * @return a token cache
+	 * @throws IOException
+	 *             when the file could not be read
+	 * @throws IllegalArgumentException
+	 *             when the file is not a token cache or was written with a
+	 *             simplifier or a different tokenizer
+	 */
+	public static MappedTokenCache<Set<String>> openSets(Path file, Tokenizer tokenizer) throws IOException {
+		return open(file, configuration(null, tokenizer), dictionary -> dictionary::setOf);
+	}
+
+	/**
+	 * Opens a token cache that returns multisets of tokens.
+	 * 
+	 * @param file
+	 *            the file to open
+	 * @param simplifier
+	 *            the simplifier the file was written with
+	 * @param tokenizer
+	 *            the tokenizer the file was written with
+	 * @return a token cache
+	 * @throws IOException
+	 *             when the file could not be read
+	 * @throws IllegalArgumentException
+	 *             when the file is not a token cache or was written with a
+	 *             different simplifier or tokenizer
+	 */
+	public static MappedTokenCache<Multiset<String>> openMultisets(Path file, Simplifier simplifier,
+			Tokenizer tokenizer) throws IOException {
+		requireNonNull(simplifier);
+		return open(file, configuration(simplifier, tokenizer), dictionary -> dictionary::multisetOf);
+	}
+
+	/**
+	 * Opens a token cache that returns multisets of tokens.
+	 * 
+	 * @param file
+	 *            the file to open
+	 * @param tokenizer
+	 *            the tokenizer the file was written with
+	 * @return a token cache
+	 * @throws IOException
+	 *             when the file could not be read
+	 * @throws IllegalArgumentException
+	 *             when the file is not a token cache or was written with a
+	 *             simplifier or a different tokenizer
+	 */
+	public static MappedTokenCache<Multiset<String>> openMultisets(Path file, Tokenizer tokenizer)
+			throws IOException {
+		return open(file, configuration(null, tokenizer), dictionary -> dictionary::multisetOf);
+	}
+
+	private static <T extends Collection<String>> MappedTokenCache<T> open(Path file, String configuration,
+			Function<TokenDictionary, Function<int[], T>> decoder) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final Header header = Header.read(channel, file);
+
+			channel.position(header.dictionaryOffset);
+			final DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+			final String written = readString(in);
+			checkArgument(configuration.equals(written), "%s was written for %s not %s", file, written,
+					configuration);
+			final TokenDictionary dictionary = TokenDictionary.create();
+			final int tokens = in.readInt();
+			for (int i = 0; i < tokens; i++) {
+				dictionary.intern(readString(in));
+			}
+
+			// The mappings remain valid after the channel is closed
+			final long segmentSize = 1L << header.segmentShift;
+			final MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((header.dictionaryOffset
+					+ segmentSize - 1) >>> header.segmentShift)];
+			for (int i = 0; i < segments.length; i++) {
+				final long position = (long) i << header.segmentShift;
+				segments[i] = channel.map(MapMode.READ_ONLY, position,
+						Math.min(segmentSize, header.dictionaryOffset - position));
+			}
+			return new MappedTokenCache<>(file, header, segments, dictionary, decoder);
+		}
+	}
+
+	private static String configuration(Simplifier simplifier, Tokenizer tokenizer) {
+		requireNonNull(tokenizer);
+		return simplifier == null ? tokenizer.toString() : simplifier + " " + tokenizer;
+	}
+
+	private static long hash(String input) {
+		return HASH.hashUnencodedChars(input).asLong();
+	}
+
+	/**
+	 * Returns the dictionary of the tokens in the file. Tokens returned by
+	 * this cache are interned by this dictionary.
+	 * 
+	 * @return the dictionary of the tokens
+	 */
+	public TokenDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * Returns the number of records in the file.
+	 * 
+	 * @return the number of records
+	 */
+	public long size() {
+		return records;
+	}
+
+	/**
+	 * Returns the tokens of the key. When the key is not in the file the
+	 * tokens are computed by the function. These are not cached.
+	 */
+	@Override
+	public T get(String key, Function<? super String, ? extends T> function) {
+		final long record = find(key);
+		if (record >= 0) {
+			hits.increment();
+			return decoder.apply(readIds(record + 4 + 2L * key.length()));
+		}
+
+		final long start = System.nanoTime();
+		try {
+			final T value = function.apply(key);
+			loadSuccesses.increment();
+			return value;
+		} catch (RuntimeException e) {
+			loadExceptions.increment();
+			throw e;
+		} finally {
+			loadTime.add(System.nanoTime() - start);
+		}
+	}
+
+	private long find(String key) {
+		final long hash = hash(key);
+		long low = 0;
+		long high = records - 1;
+		while (low <= high) {
+			final long middle = (low + high) >>> 1;
+			final long middleHash = getLong(indexOffset + middle * INDEX_ENTRY_SIZE);
+			if (middleHash < hash) {
+				low = middle + 1;
+			} else if (middleHash > hash) {
+				high = middle - 1;
+			} else {
+				// Different keys with the same hash are adjacent
+				long entry = middle;
+				while (entry > 0 && getLong(indexOffset + (entry - 1) * INDEX_ENTRY_SIZE) == hash) {
+					entry--;
+				}
+				for (; entry < records && getLong(indexOffset + entry * INDEX_ENTRY_SIZE) == hash; entry++) {
+					final long record = getLong(indexOffset + entry * INDEX_ENTRY_SIZE + 8);
+					if (keyEquals(record, key)) {
+						return record;
+					}
+				}
+				return -1;
+			}
+		}
+		return -1;
+	}
+
+	private boolean keyEquals(long record, String key) {
+		if (getInt(record) != key.length()) {
+			return false;
+		}
+		for (int i = 0; i < key.length(); i++) {
+			if (getChar(record + 4 + 2L * i) != key.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int[] readIds(long position) {
+		final int[] ids = new int[getInt(position)];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = getInt(position + 4 + 4L * i);
+		}
+		return ids;
+	}
+
+	// Records and index entries never cross a segment boundary
+
+	private int getInt(long position) {
+		return segments[(int) (position >>> segmentShift)].getInt(offset(position));
+	}
+
+	private long getLong(long position) {
+		return segments[(int) (position >>> segmentShift)].getLong(offset(position));
+	}
+
+	private char getChar(long position) {
+		return segments[(int) (position >>> segmentShift)].getChar(offset(position));
+	}
+
+	private int offset(long position) {
+		return (int) (position & ((1L << segmentShift) - 1));
+	}
+
+	@Override
+	public CacheStats getStats() {
+		final long loads = loadSuccesses.sum();
+		final long exceptions = loadExceptions.sum();
+		return new CacheStats(hits.sum(), loads + exceptions, loads, exceptions, loadTime.sum(), 0);
+	}
+
+	@Override
+	public String toString() {
+		return "MappedTokenCache [" + file + "]";
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		final char[] chars = new char[in.readInt()];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = in.readChar();
+		}
+		return new String(chars);
+	}
+
+	private static final class Header {
+
+		final int segmentShift;
+
+		final long records;
+
+		final long indexOffset;
+
+		final long dictionaryOffset;
+
+		Header(int segmentShift, long records, long indexOffset, long dictionaryOffset) {
+			this.segmentShift = segmentShift;
+			this.records = records;
+			this.indexOffset = indexOffset;
+			this.dictionaryOffset = dictionaryOffset;
+		}
+
+		static Header read(FileChannel channel, Path file) throws IOException {
+			final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+			while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+				// Read the whole header
+			}
+			buffer.flip();
+			checkArgument(buffer.remaining() == HEADER_SIZE && buffer.getInt() == MAGIC, "%s is not a token cache",
+					file);
+			final int version = buffer.getInt();
+			checkArgument(version == VERSION, "%s has unsupported version %s", file, version);
+			final Header header = new Header(buffer.getInt(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+			checkArgument(header.dictionaryOffset <= channel.size(), "%s is truncated", file);
+			return header;
+		}
+
+		void write(FileChannel channel) throws IOException {
+			final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putInt(segmentShift);
+			buffer.putLong(records);
+			buffer.putLong(indexOffset);
+			buffer.putLong(dictionaryOffset);
+			buffer.rewind();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer, buffer.position());
+			}
+		}
+
+	}
+
+	private static final class Writer {
+
+		private final int segmentShift;
+
+		private final TokenDictionary dictionary = TokenDictionary.create();
+
+		private long[] hashes = new long[1024];
+
+		private long[] offsets = new long[1024];
+
+		private int records;
+
+		private DataOutputStream out;
+
+		private long position;
+
+		Writer(int segmentShift) {
+			checkArgument(segmentShift >= 6 && segmentShift <= 30, "segmentShift must be in [6, 30]");
+			this.segmentShift = segmentShift;
+		}
+
+		void write(Path file, String configuration, Function<String, String> simplifier, Tokenizer tokenizer,
+				Iterable<String> inputs) throws IOException {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+				this.out = out;
+				pad(HEADER_SIZE);
+				for (String input : inputs) {
+					final String key = simplifier.apply(input);
+					writeRecord(key, dictionary.internList(tokenizer.tokenizeToList(key)));
+				}
+
+				sort(hashes, offsets, 0, records - 1);
+				pad((INDEX_ENTRY_SIZE - position % INDEX_ENTRY_SIZE) % INDEX_ENTRY_SIZE);
+				final long indexOffset = position;
+				for (int i = 0; i < records; i++) {
+					out.writeLong(hashes[i]);
+					out.writeLong(offsets[i]);
+				}
+				position += (long) records * INDEX_ENTRY_SIZE;
+
+				final long dictionaryOffset = position;
+				writeString(configuration);
+				out.writeInt(dictionary.size());
+				for (int i = 0; i < dictionary.size(); i++) {
+					writeString(dictionary.getToken(i));
+				}
+				out.flush();
+
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+					new Header(segmentShift, records, indexOffset, dictionaryOffset).write(channel);
+				}
+			}
+		}
+
+		private void writeRecord(String key, IdList tokens) throws IOException {
+			final long size = 4 + 2L * key.length() + 4 + 4L * tokens.size();
+			final long segmentSize = 1L << segmentShift;
+			checkArgument(size <= segmentSize, "record of %s bytes exceeds segment of %s bytes", size, segmentSize);
+			final long remaining = segmentSize - (position & (segmentSize - 1));
+			if (size > remaining) {
+				pad(remaining);
+			}
+
+			if (records == hashes.length) {
+				hashes = Arrays.copyOf(hashes, records * 2);
+				offsets = Arrays.copyOf(offsets, records * 2);
+			}
+			hashes[records] = hash(key);
+			offsets[records] = position;
+			records++;
+
+			out.writeInt(key.length());
+			out.writeChars(key);
+			out.writeInt(tokens.size());
+			for (int i = 0; i < tokens.size(); i++) {
+				out.writeInt(tokens.idAt(i));
+			}
+			position += size;
+		}
+
+		private void writeString(String string) throws IOException {
+			out.writeInt(string.length());
+			out.writeChars(string);
+			position += 4 + 2L * string.length();
+		}
+
+		private void pad(long bytes) throws IOException {
+			for (long i = 0; i < bytes; i++) {
+				out.write(0);
+			}
+			position += bytes;
+		}
+
+		private static void sort(long[] hashes, long[] offsets, int from, int to) {
+			// Quicksort on hashes, moving offsets along
+			while (from < to) {
+				final long pivot = hashes[(from + to) >>> 1];
+				int i = from;
+				int j = to;
+				while (i <= j) {
+					while (hashes[i] < pivot) {
+						i++;
+					}
+					while (hashes[j] > pivot) {
+						j--;
+					}
+					if (i <= j) {
+						swap(hashes, i, j);
+						swap(offsets, i, j);
+						i++;
+						j--;
+					}
+				}
+				// Recurse into the smaller half to bound the stack
+				if (j - from < to - i) {
+					sort(hashes, offsets, from, j);
+					from = i;
+				} else {
+					sort(hashes, offsets, i, to);
+					to = j;
+				}
+			}
+		}
+
+		private static void swap(long[] array, int i, int j) {
+			final long tmp = array[i];
+			array[i] = array[j];
+			array[j] = tmp;
+		}
+
+	}
+
+}
@@ -0,0 +1,132 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.caches;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A pair of strings used as the key of a cache of comparison results.
+ * <p>
+ * Similarity and distance measures are symmetric, so an unordered pair is
+ * equal to the pair of the same strings in reverse order. This halves the
+ * number of entries when pairs are compared in either order.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see ComputingCache
+ */
+public final class StringPair {
+
+	private final String first;
+
+	private final String second;
+
+	private final int hashCode;
+
+	private StringPair(String first, String second) {
+		this.first = first;
+		this.second = second;
+		this.hashCode = 31 * first.hashCode() + second.hashCode();
+	}
+
+	/**
+	 * Creates a pair of strings in the given order.
+	 * 
+	 * @param first
+	 *            the first string
+	 * @param second
+	 *            the second string
+	 * @return an ordered pair of strings
+	 */
+	public static StringPair of(String first, String second) {
+		return new StringPair(requireNonNull(first), requireNonNull(second));
+	}
+
+	/**
+	 * Creates a pair of strings in a canonical order, such that
+	 * {@code unordered(a, b).equals(unordered(b, a))}.
+	 * 
+	 * @param a
+	 *            a string
+	 * @param b
+	 *            another string
+	 * @return a pair of strings in canonical order
+	 */
+	public static StringPair unordered(String a, String b) {
+		// Cached hash codes decide the order of most pairs without comparing
+		// the strings
+		final int byHash = Integer.compare(a.hashCode(), b.hashCode());
+		if (byHash < 0 || (byHash == 0 && a.compareTo(b) <= 0)) {
+			return new StringPair(a, b);
+		}
+		return new StringPair(b, a);
+	}
+
+	/**
+	 * Returns the first string of the pair.
+	 * 
+	 * @return the first string
+	 */
+	public String getFirst() {
+		return first;
+	}
+
+	/**
+	 * Returns the second string of the pair.
+	 * 
+	 * @return the second string
+	 */
+	public String getSecond() {
+		return second;
+	}
+
+	/**
+	 * Returns the combined length of both strings. Useful to weigh entries in
+	 * a cache.
+	 * 
+	 * @return the combined length of both strings
+	 */
+	public int length() {
+		return first.length() + second.length();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof StringPair)) {
+			return false;
+		}
+		final StringPair other = (StringPair) o;
+		return hashCode == other.hashCode && first.equals(other.first) && second.equals(other.second);
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public String toString() {
+		return "StringPair [first=" + first + ", second=" + second + "]";
+	}
+
+}
@@ -19,11 +19,14 @@
  */
 
 package com.github.mpkorstanje.simmetrics.metrics;
-import static com.github.mpkorstanje.simmetrics.metrics.Math.union;
+import static com.github.mpkorstanje.simmetrics.metrics.Math.dotProduct;
+import static com.github.mpkorstanje.simmetrics.metrics.Math.squaredNorm;
 import static java.lang.Math.sqrt;
 
 import com.github.mpkorstanje.simmetrics.MultisetDistance;
 import com.github.mpkorstanje.simmetrics.MultisetMetric;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.NormedMultiset;
 
 import com.google.common.collect.Multiset;
 
@@ -45,6 +48,9 @@ import com.google.common.collect.Multiset;
  * identical when compared with Tanimoto but are dissimilar when the cosine
  * similarity is used.
  * <p>
+ * The norm of a {@link NormedMultiset} or {@link IdMultiset} is computed in
+ * advance and reused across comparisons.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see TanimotoCoefficient
@@ -67,18 +73,11 @@ public final class CosineSimilarity<T> implements MultisetMetric<T>, MultisetDis
 			return 0.0f;
 		}
 
-		float dotProduct = 0;
-		float magnitudeA = 0;
-		float magnitudeB = 0;
-
-		for (T entry : union(a, b).elementSet()) {
-			float aCount = a.count(entry);
-			float bCount = b.count(entry);
-
-			dotProduct += aCount * bCount;
-			magnitudeA += aCount * aCount;
-			magnitudeB += bCount * bCount;
-		}
+		// Each multiset is iterated once for its norm and the smaller once more
+		// for the dot product. Norms computed in advance are reused.
+		final double dotProduct = dotProduct(a, b);
+		final double magnitudeA = squaredNorm(a);
+		final double magnitudeB = squaredNorm(b);
 
 		//  a·b / (||a|| * ||b||)
 		return (float) (dotProduct / (sqrt(magnitudeA) * sqrt(magnitudeB)));
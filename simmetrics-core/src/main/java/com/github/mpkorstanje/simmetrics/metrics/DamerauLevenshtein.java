@@ -21,11 +21,15 @@
 package com.github.mpkorstanje.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.abs;
 import static java.lang.Math.max;
+import static com.github.mpkorstanje.simmetrics.metrics.Math.bandWidth;
 import static com.github.mpkorstanje.simmetrics.metrics.Math.max;
 import static com.github.mpkorstanje.simmetrics.metrics.Math.min;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
 
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.CodePoints;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
@@ -80,64 +84,187 @@ public final class DamerauLevenshtein implements StringMetric, StringDistance {
 
 	@Override
 	public float compare(final String a, final String b) {
-		if (a.isEmpty() && b.isEmpty()) {
+		if (a.equals(b)) {
 			return 1.0f;
 		}
 
-		return 1.0f - (distance(a, b) / (maxCost * max(codePointLength(a), codePointLength(b))));
+		final ScratchSpace scratch = new ScratchSpace();
+		final int aLength = scratch.decode(0, a);
+		final int bLength = scratch.decode(1, b);
+
+		return 1.0f - (distance(aLength, bLength, Float.POSITIVE_INFINITY, scratch) / (maxCost * max(aLength, bLength)));
+	}
+
+	@Override
+	public float compare(final CodePoints a, final CodePoints b) {
+		if (a.equals(b)) {
+			return 1.0f;
+		}
+
+		final ScratchSpace scratch = new ScratchSpace();
+		final int aLength = scratch.copy(0, a);
+		final int bLength = scratch.copy(1, b);
+
+		return 1.0f - (distance(aLength, bLength, Float.POSITIVE_INFINITY, scratch) / (maxCost * max(aLength, bLength)));
+	}
+
+	@Override
+	public float[] compareAll(final String query, final List<String> candidates) {
+		final ScratchSpace scratch = new ScratchSpace();
+		final int queryLength = scratch.decode(0, query);
+
+		final float[] similarities = new float[candidates.size()];
+		int i = 0;
+		for (String candidate : candidates) {
+			if (query.equals(candidate)) {
+				similarities[i++] = 1.0f;
+				continue;
+			}
+			final int candidateLength = scratch.decode(1, candidate);
+			similarities[i++] = 1.0f - (distance(queryLength, candidateLength, Float.POSITIVE_INFINITY, scratch)
+					/ (maxCost * max(queryLength, candidateLength)));
+		}
+		return similarities;
 	}
 
 	@Override
 	public float distance(final String s, final String t) {
+		return distance(s, t, Float.POSITIVE_INFINITY);
+	}
 
-		if (s.isEmpty())
-			return codePointLength(t) * insertDelete;
-		if (t.isEmpty())
-			return codePointLength(s) * insertDelete;
-		if (s.equals(t))
-			return 0;
+	@Override
+	public float distance(final CodePoints s, final CodePoints t) {
+		return distance(s, t, Float.POSITIVE_INFINITY);
+	}
 
-		final int tLength = codePointLength(t);
-		final int sLength = codePointLength(s);
+	/**
+	 * Measures the distance between string a and b when it does not exceed
+	 * {@code maxDistance}. Only cells of the dynamic programming matrix within
+	 * {@code maxDistance / insertDelete} of the diagonal are computed and the
+	 * computation stops as soon as every cell in two consecutive rows exceeds
+	 * the bound.
+	 * 
+	 * @param s
+	 *            string a to compare
+	 * @param t
+	 *            string b to compare
+	 * @param maxDistance
+	 *            the largest distance of interest
+	 * @return the distance between a and b or {@code Float.POSITIVE_INFINITY}
+	 *         when it exceeds {@code maxDistance}
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	@Override
+	public float distance(final String s, final String t, final float maxDistance) {
+		if (s.equals(t)) {
+			return 0.0f <= maxDistance ? 0.0f : Float.POSITIVE_INFINITY;
+		}
+
+		final ScratchSpace scratch = new ScratchSpace();
+		final int sLength = scratch.decode(0, s);
+		final int tLength = scratch.decode(1, t);
+
+		final float distance = distance(sLength, tLength, maxDistance, scratch);
+		return distance <= maxDistance ? distance : Float.POSITIVE_INFINITY;
+	}
+
+	@Override
+	public float distance(final CodePoints s, final CodePoints t, final float maxDistance) {
+		if (s.equals(t)) {
+			return 0.0f <= maxDistance ? 0.0f : Float.POSITIVE_INFINITY;
+		}
+
+		final ScratchSpace scratch = new ScratchSpace();
+		final int sLength = scratch.copy(0, s);
+		final int tLength = scratch.copy(1, t);
+
+		final float distance = distance(sLength, tLength, maxDistance, scratch);
+		return distance <= maxDistance ? distance : Float.POSITIVE_INFINITY;
+	}
+
+	/*
+	 * Returns the distance between the code points of s and t in slot 0 and 1
+	 * of the scratch space when it does not exceed maxDistance. Otherwise
+	 * returns a value larger than maxDistance. Equal strings must be handled
+	 * by the caller.
+	 */
+	private float distance(final int sLength, final int tLength, final float maxDistance,
+			final ScratchSpace scratch) {
+
+		if (sLength == 0)
+			return tLength * insertDelete;
+		if (tLength == 0)
+			return sLength * insertDelete;
+
+		final int[] sCodePoints = scratch.codePoints(0);
+		final int[] tCodePoints = scratch.codePoints(1);
+
+		// Cells further than bandWidth from the diagonal cost more than
+		// maxDistance to reach. Transpositions stay on their diagonal.
+		final int bandWidth = bandWidth(maxDistance, insertDelete, sLength + tLength);
+		if (abs(sLength - tLength) > bandWidth)
+			return Float.POSITIVE_INFINITY;
 
 		float[] swap;
-		float[] v0 = new float[tLength + 1];
-		float[] v1 = new float[tLength + 1];
-		float[] v2 = new float[tLength + 1];
+		float[] v0 = scratch.row(0, tLength + 1);
+		float[] v1 = scratch.row(1, tLength + 1);
+		float[] v2 = scratch.row(2, tLength + 1);
 
 		// initialize v1 (the previous row of distances)
 		// this row is A[0][i]: edit distance for an empty s
 		// the distance is just the number of characters to delete from t
-		for (int i = 0; i < v1.length; i++) {
-			v1[i] = i * insertDelete;
+		for (int i = 0; i <= tLength; i++) {
+			v1[i] = i <= bandWidth ? i * insertDelete : Float.POSITIVE_INFINITY;
 		}
 
+		float previousRowMin = 0;
 		for (int i = 0; i < sLength; i++) {
 
 			// first element of v2 is A[i+1][0]
 			// edit distance is delete (i+1) chars from s to match empty t
-			v2[0] = (i + 1) * insertDelete;
+			v2[0] = i + 1 <= bandWidth ? (i + 1) * insertDelete : Float.POSITIVE_INFINITY;
 
-			for (int j = 0; j < tLength; j++) {
+			// Only compute A[i+1][j+1] within the band. Cells directly
+			// outside the band are read by this and the next row.
+			final int from = max(0, i - bandWidth);
+			final int to = java.lang.Math.min(tLength, i + 1 + bandWidth);
+			if (from > 0) {
+				v2[from] = Float.POSITIVE_INFINITY;
+			}
+			if (to < tLength) {
+				v2[to + 1] = Float.POSITIVE_INFINITY;
+			}
+
+			float rowMin = v2[0];
+			for (int j = from; j < to; j++) {
 				final boolean match =
 						j > 0 && i > 0
-								&& s.codePointAt(i - 1) == t.codePointAt(j)
-								&& s.codePointAt(i) == t.codePointAt(j - 1);
+								&& sCodePoints[i - 1] == tCodePoints[j]
+								&& sCodePoints[i] == tCodePoints[j - 1];
 				if (match) {
 					v2[j + 1] = min(
 							v2[j] + insertDelete,
 							v1[j + 1] + insertDelete,
-							v1[j] + (s.codePointAt(i) == t.codePointAt(j) ? 0.0f : substitute),
+							v1[j] + (sCodePoints[i] == tCodePoints[j] ? 0.0f : substitute),
 							v0[j - 1] + transpose
 					);
 				} else {
 					v2[j + 1] = min(
 							v2[j] + insertDelete,
 							v1[j + 1] + insertDelete,
-							v1[j] + (s.codePointAt(i) == t.codePointAt(j) ? 0.0f : substitute)
+							v1[j] + (sCodePoints[i] == tCodePoints[j] ? 0.0f : substitute)
 					);
 				}
+				rowMin = java.lang.Math.min(rowMin, v2[j + 1]);
+			}
+
+			// A transposition skips a row but every path to
+			// A[sLength][tLength] crosses one of two consecutive rows
+			if (rowMin > maxDistance && previousRowMin > maxDistance) {
+				return Float.POSITIVE_INFINITY;
 			}
+			previousRowMin = rowMin;
 
 			swap = v0;
 			v0 = v1;
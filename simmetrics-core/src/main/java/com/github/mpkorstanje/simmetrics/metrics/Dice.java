@@ -20,7 +20,7 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
-import static com.github.mpkorstanje.simmetrics.metrics.Math.intersection;
+import static com.github.mpkorstanje.simmetrics.metrics.Math.intersectionSize;
 
 import java.util.Set;
 
@@ -77,7 +77,7 @@ public final class Dice<T> implements SetMetric<T>, SetDistance<T> {
 		}
 
 		// 2 * ∣a ∩ b∣ / (∣a∣ + ∣b∣)
-		return (2.0f * Math.intersection(a, b).size()) / (a.size() + b.size());
+		return (2.0f * Math.intersectionSize(a, b)) / (a.size() + b.size());
 	}
 
 	@Override
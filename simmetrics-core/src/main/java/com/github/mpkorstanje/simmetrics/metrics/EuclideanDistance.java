@@ -20,10 +20,14 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
+import static com.github.mpkorstanje.simmetrics.metrics.Math.dotProduct;
+import static com.github.mpkorstanje.simmetrics.metrics.Math.squaredNorm;
 import static java.lang.Math.sqrt;
 
 import com.github.mpkorstanje.simmetrics.MultisetDistance;
 import com.github.mpkorstanje.simmetrics.MultisetMetric;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.NormedMultiset;
 
 import com.google.common.collect.Multiset;
 
@@ -36,6 +40,10 @@ import com.google.common.collect.Multiset;
  * distance(a,b) = ∣∣a - b∣∣  
  * </code>
  * <p>
+ * The squared distance is expanded into the squared norms and the dot product
+ * of the multisets. The norm of a {@link NormedMultiset} or
+ * {@link IdMultiset} is computed in advance and reused across comparisons.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a href="https://en.wikipedia.org/wiki/Euclidean_distance">Wikipedia - Euclidean Distance</a>
@@ -59,14 +67,8 @@ public final class EuclideanDistance<T> implements MultisetMetric<T>, MultisetDi
 	@Override
 	public float distance(Multiset<T> a, Multiset<T> b) {
 
-		float distance = 0.0f;
-
-		for (T token : Math.union(a, b).elementSet()) {
-			float frequencyInA = a.count(token);
-			float frequencyInB = b.count(token);
-
-			distance += ((frequencyInA - frequencyInB) * (frequencyInA - frequencyInB));
-		}
+		// ||a - b||² = ||a||² + ||b||² - 2 a·b
+		final long distance = squaredNorm(a) + squaredNorm(b) - 2 * dotProduct(a, b);
 
 		return (float) sqrt(distance);
 	}
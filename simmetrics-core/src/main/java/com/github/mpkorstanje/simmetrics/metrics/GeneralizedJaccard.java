@@ -20,7 +20,7 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
-import static com.github.mpkorstanje.simmetrics.metrics.Math.intersection;
+import static com.github.mpkorstanje.simmetrics.metrics.Math.intersectionSize;
 
 import com.github.mpkorstanje.simmetrics.MultisetDistance;
 import com.github.mpkorstanje.simmetrics.MultisetMetric;
@@ -70,7 +70,7 @@ public final class GeneralizedJaccard<T> implements MultisetMetric<T>,
 			return 0.0f;
 		}
 
-		final int intersection = intersection(a, b).size();
+		final int intersection = intersectionSize(a, b);
 
 		// ∣a ∩ b∣ / ∣a ∪ b∣
 		// Implementation note: The size of the union of two sets is equal to
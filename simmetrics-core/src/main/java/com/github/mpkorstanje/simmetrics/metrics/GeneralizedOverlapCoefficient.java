@@ -20,7 +20,7 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
-import static com.github.mpkorstanje.simmetrics.metrics.Math.intersection;
+import static com.github.mpkorstanje.simmetrics.metrics.Math.intersectionSize;
 import static java.lang.Math.min;
 
 import com.github.mpkorstanje.simmetrics.MultisetMetric;
@@ -65,7 +65,7 @@ public final class GeneralizedOverlapCoefficient<T> implements
 		}
 
 		// ∣q ∩ r∣ / min{∣q∣, ∣r∣}
-		return intersection(a, b).size() / (float) min(a.size(), b.size());
+		return intersectionSize(a, b) / (float) min(a.size(), b.size());
 	}
 
 	@Override
@@ -28,6 +28,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
+import com.github.mpkorstanje.simmetrics.CodePoints;
 import com.github.mpkorstanje.simmetrics.ListDistance;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 
@@ -145,6 +146,24 @@ public final class HammingDistance {
 				return 0;
 			}
 
+			int distance = 0;
+			for (int i = 0, j = 0; i < a.length(); ) {
+				final int aCodePoint = a.codePointAt(i);
+				final int bCodePoint = b.codePointAt(j);
+				if (aCodePoint != bCodePoint) {
+					distance++;
+				}
+				i += Character.charCount(aCodePoint);
+				j += Character.charCount(bCodePoint);
+			}
+			return distance;
+		}
+
+		@Override
+		public float distance(CodePoints a, CodePoints b) {
+			int length = a.length();
+			checkArgument(length == b.length());
+
 			int distance = 0;
 			for (int i = 0; i < length; i++) {
 				if (a.codePointAt(i) != b.codePointAt(i)) {
@@ -0,0 +1,85 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ * #L%
+ */
+
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.lang.Math.abs;
+
+import com.github.mpkorstanje.simmetrics.Distance;
+import com.github.mpkorstanje.simmetrics.Metric;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedMultiset;
+
+/**
+ * Calculates the block distance and similarity over two multisets of hashed
+ * tokens. Equivalent to {@link BlockDistance} but visits the union of the
+ * multisets by merging their sorted hashes.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see BlockDistance
+ * @see HashedMultiset
+ */
+public final class HashedBlockDistance implements Metric<HashedMultiset>, Distance<HashedMultiset> {
+
+	@Override
+	public float compare(HashedMultiset a, HashedMultiset b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		return 1.0f - distance(a, b) / (a.size() + b.size());
+	}
+
+	@Override
+	public float distance(HashedMultiset a, HashedMultiset b) {
+
+		float distance = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.distinctSize() || j < b.distinctSize()) {
+			final float frequencyInA;
+			final float frequencyInB;
+			if (j == b.distinctSize() || i < a.distinctSize() && a.hashAt(i) < b.hashAt(j)) {
+				frequencyInA = a.countAt(i++);
+				frequencyInB = 0;
+			} else if (i == a.distinctSize() || a.hashAt(i) > b.hashAt(j)) {
+				frequencyInA = 0;
+				frequencyInB = b.countAt(j++);
+			} else {
+				frequencyInA = a.countAt(i++);
+				frequencyInB = b.countAt(j++);
+			}
+
+			distance += abs(frequencyInA - frequencyInB);
+		}
+		return distance;
+	}
+
+	@Override
+	public String toString() {
+		return "HashedBlockDistance";
+	}
+
+}
@@ -0,0 +1,90 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ * #L%
+ */
+
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.lang.Math.sqrt;
+
+import com.github.mpkorstanje.simmetrics.Distance;
+import com.github.mpkorstanje.simmetrics.Metric;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedMultiset;
+
+/**
+ * Calculates the cosine similarity over two multisets of hashed tokens.
+ * Equivalent to {@link CosineSimilarity} but computes the dot product by
+ * merging the sorted hashes of the multisets.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see CosineSimilarity
+ * @see HashedMultiset
+ */
+public final class HashedCosineSimilarity implements Metric<HashedMultiset>, Distance<HashedMultiset> {
+
+	@Override
+	public float compare(HashedMultiset a, HashedMultiset b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		long dotProduct = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.distinctSize() && j < b.distinctSize()) {
+			final long aHash = a.hashAt(i);
+			final long bHash = b.hashAt(j);
+			if (aHash < bHash) {
+				i++;
+			} else if (aHash > bHash) {
+				j++;
+			} else {
+				dotProduct += (long) a.countAt(i++) * b.countAt(j++);
+			}
+		}
+
+		//  a·b / (||a|| * ||b||)
+		return (float) (dotProduct / (sqrt(squaredNorm(a)) * sqrt(squaredNorm(b))));
+	}
+
+	private static double squaredNorm(HashedMultiset a) {
+		long squaredNorm = 0;
+		for (int i = 0; i < a.distinctSize(); i++) {
+			final long count = a.countAt(i);
+			squaredNorm += count * count;
+		}
+		return squaredNorm;
+	}
+
+	@Override
+	public float distance(HashedMultiset a, HashedMultiset b) {
+		return 1.0f - compare(a, b);
+	}
+
+	@Override
+	public String toString() {
+		return "HashedCosineSimilarity";
+	}
+
+}
@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ * #L%
+ */
+
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import com.github.mpkorstanje.simmetrics.Distance;
+import com.github.mpkorstanje.simmetrics.Metric;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedSet;
+
+/**
+ * Calculates the Jaccard distance and similarity coefficient over two sets of
+ * hashed tokens. Equivalent to {@link Jaccard} but intersects the sets by
+ * merging their sorted hashes.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see Jaccard
+ * @see HashedSet
+ */
+public final class HashedJaccard implements Metric<HashedSet>, Distance<HashedSet> {
+
+	@Override
+	public float compare(HashedSet a, HashedSet b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		final int intersection = Math.intersectionSize(a, b);
+
+		// ∣a ∩ b∣ / ∣a ∪ b∣
+		return intersection / (float) (a.size() + b.size() - intersection);
+	}
+
+	@Override
+	public float distance(HashedSet a, HashedSet b) {
+		return 1.0f - compare(a, b);
+	}
+
+	@Override
+	public String toString() {
+		return "HashedJaccard";
+	}
+
+}
@@ -0,0 +1,64 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ * #L%
+ */
+
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import com.github.mpkorstanje.simmetrics.Distance;
+import com.github.mpkorstanje.simmetrics.Metric;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedMultiset;
+
+/**
+ * Calculates the Simon White distance and similarity coefficient over two
+ * multisets of hashed tokens. Equivalent to {@link SimonWhite} but intersects
+ * the multisets by merging their sorted hashes.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see SimonWhite
+ * @see HashedMultiset
+ */
+public final class HashedSimonWhite implements Metric<HashedMultiset>, Distance<HashedMultiset> {
+
+	@Override
+	public float compare(HashedMultiset a, HashedMultiset b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		// 2 * ∣a ∩ b∣ / (∣a∣ + ∣b∣)
+		return (2.0f * Math.intersectionSize(a, b)) / (a.size() + b.size());
+	}
+
+	@Override
+	public float distance(HashedMultiset a, HashedMultiset b) {
+		return 1.0f - compare(a, b);
+	}
+
+	@Override
+	public String toString() {
+		return "HashedSimonWhite";
+	}
+
+}
@@ -20,7 +20,7 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
-import static com.github.mpkorstanje.simmetrics.metrics.Math.intersection;
+import static com.github.mpkorstanje.simmetrics.metrics.Math.intersectionSize;
 
 import java.util.Set;
 
@@ -78,7 +78,7 @@ public final class Jaccard<T> implements SetMetric<T>, SetDistance<T> {
 			return 0.0f;
 		}
 		
-		final int intersection = Math.intersection(a, b).size();
+		final int intersection = Math.intersectionSize(a, b);
 
 		// ∣a ∩ b∣ / ∣a ∪ b∣
 		// Implementation note: The size of the union of two sets is equal to
@@ -23,6 +23,9 @@ package com.github.mpkorstanje.simmetrics.metrics;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.CodePoints;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
@@ -51,6 +54,11 @@ public final class Jaro implements StringMetric, StringDistance {
 	public float distance(String a, String b) {
 		return 1.0f - compare(a, b);
 	}
+
+	@Override
+	public float distance(CodePoints a, CodePoints b) {
+		return 1.0f - compare(a, b);
+	}
 	
 	@Override
 	public float compare(final String a, final String b) {
@@ -63,14 +71,36 @@ public final class Jaro implements StringMetric, StringDistance {
 			return 0.0f;
 		}
 
-		final int[] charsA = a.codePoints().toArray();
-		final int[] charsB = b.codePoints().toArray();
+		final ScratchSpace scratch = new ScratchSpace();
+		final int aLength = scratch.decode(0, a);
+		final int bLength = scratch.decode(1, b);
+		return jaro(scratch.codePoints(0), aLength, scratch.codePoints(1), bLength);
+	}
+
+	@Override
+	public float compare(final CodePoints a, final CodePoints b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		final ScratchSpace scratch = new ScratchSpace();
+		final int aLength = scratch.copy(0, a);
+		final int bLength = scratch.copy(1, b);
+		return jaro(scratch.codePoints(0), aLength, scratch.codePoints(1), bLength);
+	}
+
+	private static float jaro(final int[] charsA, final int aLength, final int[] charsB, final int bLength) {
 
 		// Intentional integer division to round down.
-		final int halfLength = max(0, max(charsA.length, charsB.length) / 2 - 1);
+		final int halfLength = max(0, max(aLength, bLength) / 2 - 1);
 
-		final int[] commonA = getCommonCodePoints(charsA, charsB, halfLength);
-		final int[] commonB = getCommonCodePoints(charsB, charsA, halfLength);
+		final int[] commonA = getCommonCodePoints(charsA, aLength, charsB, bLength, halfLength);
+		final int[] commonB = getCommonCodePoints(charsB, bLength, charsA, aLength, halfLength);
 
 		// commonA and commonB will always contain the same multi-set of
 		// characters. Because getCommonCharacters has been optimized, commonA
@@ -89,29 +119,50 @@ public final class Jaro implements StringMetric, StringDistance {
 			return 0.0f;
 		}
 
-		float aCommonRatio = commonCharacters / (float) charsA.length;
-		float bCommonRatio = commonCharacters / (float) charsB.length;
+		float aCommonRatio = commonCharacters / (float) aLength;
+		float bCommonRatio = commonCharacters / (float) bLength;
 		float transpositionRatio = (commonCharacters - transpositions / 2.0f) / commonCharacters;
 
 		return (aCommonRatio + bCommonRatio + transpositionRatio) / 3.0f;
 	}
 
+	@Override
+	public float[] compareAll(final String query, final List<String> candidates) {
+		final ScratchSpace scratch = new ScratchSpace();
+		final int queryLength = scratch.decode(0, query);
+
+		final float[] similarities = new float[candidates.size()];
+		int i = 0;
+		for (String candidate : candidates) {
+			final int candidateLength = scratch.decode(1, candidate);
+			if (queryLength == 0 && candidateLength == 0) {
+				similarities[i++] = 1.0f;
+			} else if (queryLength == 0 || candidateLength == 0) {
+				similarities[i++] = 0.0f;
+			} else {
+				similarities[i++] = jaro(scratch.codePoints(0), queryLength, scratch.codePoints(1), candidateLength);
+			}
+		}
+		return similarities;
+	}
+
 	/*
 	 * Returns an array of code points from a within b. A character in b is
 	 * counted as common when it is within separation distance from the position
 	 * in a.
 	 */
-	private static int[] getCommonCodePoints(final int[] charsA, final int[] charsB, final int separation) {
-		final int[] common = new int[min(charsA.length, charsB.length)];
-		final boolean[] matched = new boolean[charsB.length];
+	private static int[] getCommonCodePoints(final int[] charsA, final int aLength, final int[] charsB,
+			final int bLength, final int separation) {
+		final int[] common = new int[min(aLength, bLength)];
+		final boolean[] matched = new boolean[bLength];
 
 		// Iterate of string a and find all characters that occur in b within
 		// the separation distance. Mark any matches found to avoid
 		// duplicate matchings.
 		int commonIndex = 0;
-		for (int i = 0, length = charsA.length; i < length; i++) {
+		for (int i = 0; i < aLength; i++) {
 			final int character = charsA[i];
-			final int index = indexOf(character, charsB, i - separation, i
+			final int index = indexOf(character, charsB, bLength, i - separation, i
 					+ separation + 1, matched);
 			if (index > -1) {
 				common[commonIndex++] = character;
@@ -133,10 +184,11 @@ public final class Jaro implements StringMetric, StringDistance {
 	 * 
 	 * Returns -1 when not found.
 	 */
-	private static int indexOf(int character, int[] buffer, int fromIndex, int toIndex, boolean[] matched) {
+	private static int indexOf(int character, int[] buffer, int bufferLength, int fromIndex, int toIndex,
+			boolean[] matched) {
 
 		// compare char with range of characters to either side
-		for (int j = max(0, fromIndex), length = min(toIndex, buffer.length); j < length; j++) {
+		for (int j = max(0, fromIndex), length = min(toIndex, bufferLength); j < length; j++) {
 			// check if found
 			if (buffer[j] == character && !matched[j]) {
 				return j;
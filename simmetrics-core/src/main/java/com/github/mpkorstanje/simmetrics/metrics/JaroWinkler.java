@@ -25,6 +25,7 @@ import static com.google.common.base.Strings.commonPrefix;
 import static java.lang.Math.min;
 import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
 
+import com.github.mpkorstanje.simmetrics.CodePoints;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
@@ -120,6 +121,28 @@ public final class JaroWinkler implements StringMetric, StringDistance {
 		return jaroScore + (prefixLength * prefixScale * (1.0f - jaroScore));
 	}
 
+	@Override
+	public float distance(CodePoints a, CodePoints b) {
+		return 1.0f - compare(a, b);
+	}
+
+	@Override
+	public float compare(final CodePoints a, final CodePoints b) {
+		final float jaroScore = jaro.compare(a, b);
+
+		if (jaroScore < boostThreshold) {
+			return jaroScore;
+		}
+
+		int prefixLength = 0;
+		for (int length = min(min(a.length(), b.length()), maxPrefixLength); prefixLength < length
+				&& a.codePointAt(prefixLength) == b.codePointAt(prefixLength); prefixLength++) {
+			// Count common prefix
+		}
+
+		return jaroScore + (prefixLength * prefixScale * (1.0f - jaroScore));
+	}
+
 	@Override
 	public String toString() {
 		return "JaroWinkler [boostThreshold=" + boostThreshold
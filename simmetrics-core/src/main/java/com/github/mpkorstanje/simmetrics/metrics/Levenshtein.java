@@ -21,10 +21,14 @@
 package com.github.mpkorstanje.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.abs;
 import static java.lang.Math.max;
+import static com.github.mpkorstanje.simmetrics.metrics.Math.bandWidth;
 import static com.github.mpkorstanje.simmetrics.metrics.Math.min;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
 
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.CodePoints;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
@@ -34,6 +38,14 @@ import com.github.mpkorstanje.simmetrics.StringMetric;
  * Insert/delete and substitute operations can be weighted. When the cost for
  * substitution is zero Levenshtein does not satisfy the coincidence property.
  * <p>
+ * With unit costs for all operations the distance is computed with the
+ * bit-parallel algorithm by Myers and Hyyrö. This takes {@code O(⌈m/64⌉·n)}
+ * rather than {@code O(m·n)} operations.
+ * <p>
+ * By default each comparison allocates its own buffers. When comparing many
+ * strings use {@link #createWithReusableBuffers()} to reuse thread confined
+ * buffers instead.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a href="http://en.wikipedia.org/wiki/Levenshtein_distance">Wikipedia -
@@ -46,6 +58,8 @@ public final class Levenshtein implements StringMetric, StringDistance {
 	private final float maxCost;
 	private final float insertDelete;
 	private final float substitute;
+	private final boolean reuseBuffers;
+	private final boolean unitCost;
 
 	/**
 	 * Constructs a new weighted Levenshtein metric. When the cost for
@@ -58,64 +72,246 @@ public final class Levenshtein implements StringMetric, StringDistance {
 	 *            positive cost of a substitute operation
 	 */
 	public Levenshtein(float insertDelete, float substitute) {
+		this(insertDelete, substitute, false);
+	}
+
+	/**
+	 * Constructs a new Levenshtein metric.
+	 */
+	public Levenshtein() {
+		this(1.0f, 1.0f);
+	}
+
+	private Levenshtein(float insertDelete, float substitute, boolean reuseBuffers) {
 		checkArgument(insertDelete > 0);
 		checkArgument(substitute >= 0);
 		this.maxCost = max(insertDelete, substitute);
 		this.insertDelete = insertDelete;
 		this.substitute = substitute;
+		this.reuseBuffers = reuseBuffers;
+		this.unitCost = insertDelete == 1.0f && substitute == 1.0f;
 	}
 
 	/**
-	 * Constructs a new Levenshtein metric.
+	 * Constructs a new Levenshtein metric that reuses its buffers. Buffers are
+	 * confined to the calling thread and grow to fit the longest string
+	 * compared on that thread.
+	 * 
+	 * @return a new Levenshtein metric
 	 */
-	public Levenshtein() {
-		this(1.0f, 1.0f);
+	public static Levenshtein createWithReusableBuffers() {
+		return createWithReusableBuffers(1.0f, 1.0f);
+	}
+
+	/**
+	 * Constructs a new weighted Levenshtein metric that reuses its buffers.
+	 * Buffers are confined to the calling thread and grow to fit the longest
+	 * string compared on that thread.
+	 * 
+	 * @param insertDelete
+	 *            positive non-zero cost of an insert or deletion operation
+	 * @param substitute
+	 *            positive cost of a substitute operation
+	 * @return a new Levenshtein metric
+	 */
+	public static Levenshtein createWithReusableBuffers(float insertDelete, float substitute) {
+		return new Levenshtein(insertDelete, substitute, true);
 	}
 
 	@Override
 	public float compare(final String a, final String b) {
-		if (a.isEmpty() && b.isEmpty()) {
+		if (a.equals(b)) {
 			return 1.0f;
 		}
 
-		return 1.0f - (distance(a, b) / (maxCost * max(codePointLength(a), codePointLength(b))));
+		final ScratchSpace scratch = scratchSpace();
+		final int aLength = scratch.decode(0, a);
+		final int bLength = scratch.decode(1, b);
+
+		return 1.0f - (distance(aLength, bLength, Float.POSITIVE_INFINITY, scratch) / (maxCost * max(aLength, bLength)));
+	}
+
+	@Override
+	public float compare(final CodePoints a, final CodePoints b) {
+		if (a.equals(b)) {
+			return 1.0f;
+		}
+
+		final ScratchSpace scratch = scratchSpace();
+		final int aLength = scratch.copy(0, a);
+		final int bLength = scratch.copy(1, b);
+
+		return 1.0f - (distance(aLength, bLength, Float.POSITIVE_INFINITY, scratch) / (maxCost * max(aLength, bLength)));
+	}
+
+	@Override
+	public float[] compareAll(final String query, final List<String> candidates) {
+		final ScratchSpace scratch = scratchSpace();
+		final int queryLength = scratch.decode(0, query);
+
+		final float[] similarities = new float[candidates.size()];
+		int i = 0;
+		for (String candidate : candidates) {
+			if (query.equals(candidate)) {
+				similarities[i++] = 1.0f;
+				continue;
+			}
+			final int candidateLength = scratch.decode(1, candidate);
+			similarities[i++] = 1.0f - (distance(queryLength, candidateLength, Float.POSITIVE_INFINITY, scratch)
+					/ (maxCost * max(queryLength, candidateLength)));
+		}
+		return similarities;
 	}
 
 	@Override
 	public float distance(final String s, final String t) {
+		if (s.equals(t)) {
+			return 0.0f;
+		}
+
+		final ScratchSpace scratch = scratchSpace();
+		final int sLength = scratch.decode(0, s);
+		final int tLength = scratch.decode(1, t);
+
+		return distance(sLength, tLength, Float.POSITIVE_INFINITY, scratch);
+	}
+
+	@Override
+	public float distance(final CodePoints s, final CodePoints t) {
+		if (s.equals(t)) {
+			return 0.0f;
+		}
+
+		final ScratchSpace scratch = scratchSpace();
+		final int sLength = scratch.copy(0, s);
+		final int tLength = scratch.copy(1, t);
+
+		return distance(sLength, tLength, Float.POSITIVE_INFINITY, scratch);
+	}
+
+	/**
+	 * Measures the distance between string a and b when it does not exceed
+	 * {@code maxDistance}. Only cells of the dynamic programming matrix within
+	 * {@code maxDistance / insertDelete} of the diagonal are computed and the
+	 * computation stops as soon as every cell in a row exceeds the bound.
+	 * 
+	 * @param s
+	 *            string a to compare
+	 * @param t
+	 *            string b to compare
+	 * @param maxDistance
+	 *            the largest distance of interest
+	 * @return the distance between a and b or {@code Float.POSITIVE_INFINITY}
+	 *         when it exceeds {@code maxDistance}
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	@Override
+	public float distance(final String s, final String t, final float maxDistance) {
+		if (s.equals(t)) {
+			return 0.0f <= maxDistance ? 0.0f : Float.POSITIVE_INFINITY;
+		}
+
+		final ScratchSpace scratch = scratchSpace();
+		final int sLength = scratch.decode(0, s);
+		final int tLength = scratch.decode(1, t);
+
+		final float distance = distance(sLength, tLength, maxDistance, scratch);
+		return distance <= maxDistance ? distance : Float.POSITIVE_INFINITY;
+	}
 
-		if (s.isEmpty())
-			return codePointLength(t);
-		if (t.isEmpty())
-			return codePointLength(s);
-		if (s.equals(t))
-			return 0;
+	@Override
+	public float distance(final CodePoints s, final CodePoints t, final float maxDistance) {
+		if (s.equals(t)) {
+			return 0.0f <= maxDistance ? 0.0f : Float.POSITIVE_INFINITY;
+		}
+
+		final ScratchSpace scratch = scratchSpace();
+		final int sLength = scratch.copy(0, s);
+		final int tLength = scratch.copy(1, t);
+
+		final float distance = distance(sLength, tLength, maxDistance, scratch);
+		return distance <= maxDistance ? distance : Float.POSITIVE_INFINITY;
+	}
+
+	private ScratchSpace scratchSpace() {
+		return reuseBuffers ? ScratchSpace.threadLocal() : new ScratchSpace();
+	}
+
+	/*
+	 * Returns the distance between the code points of s and t in slot 0 and 1
+	 * of the scratch space when it does not exceed maxDistance. Otherwise
+	 * returns a value larger than maxDistance. Equal strings must be handled
+	 * by the caller.
+	 */
+	private float distance(final int sLength, final int tLength, final float maxDistance,
+			final ScratchSpace scratch) {
+
+		if (sLength == 0)
+			return tLength;
+		if (tLength == 0)
+			return sLength;
 
-		final int tLength = codePointLength(t);
-		final int sLength = codePointLength(s);
+		// Cells further than bandWidth from the diagonal cost more than
+		// maxDistance to reach.
+		final int bandWidth = bandWidth(maxDistance, insertDelete, sLength + tLength);
+		if (abs(sLength - tLength) > bandWidth)
+			return Float.POSITIVE_INFINITY;
+
+		final int[] sCodePoints = scratch.codePoints(0);
+		final int[] tCodePoints = scratch.codePoints(1);
+
+		if (unitCost) {
+			// Unit cost distances are integers
+			final int maxUnitDistance = maxDistance >= bandWidth ? bandWidth : (int) maxDistance;
+			// Use the shorter string as the pattern to minimize the number of blocks
+			if (sLength <= tLength) {
+				return MyersLevenshtein.distance(sCodePoints, sLength, tCodePoints, tLength, maxUnitDistance, scratch);
+			}
+			return MyersLevenshtein.distance(tCodePoints, tLength, sCodePoints, sLength, maxUnitDistance, scratch);
+		}
 
 		float[] swap;
-		float[] v0 = new float[tLength + 1];
-		float[] v1 = new float[tLength + 1];
+		float[] v0 = scratch.row(0, tLength + 1);
+		float[] v1 = scratch.row(1, tLength + 1);
 
 		// initialize v0 (the previous row of distances)
 		// this row is A[0][i]: edit distance for an empty s
 		// the distance is just the number of characters to delete from t
-		for (int i = 0; i < v0.length; i++) {
-			v0[i] = i * insertDelete;
+		for (int i = 0; i <= tLength; i++) {
+			v0[i] = i <= bandWidth ? i * insertDelete : Float.POSITIVE_INFINITY;
 		}
 
 		for (int i = 0; i < sLength; i++) {
 
 			// first element of v1 is A[i+1][0]
 			// edit distance is delete (i+1) chars from s to match empty t
-			v1[0] = (i + 1) * insertDelete;
+			v1[0] = i + 1 <= bandWidth ? (i + 1) * insertDelete : Float.POSITIVE_INFINITY;
 
-			for (int j = 0; j < tLength; j++) {
+			// Only compute A[i+1][j+1] within the band. Cells directly
+			// outside the band are read by this and the next row.
+			final int from = max(0, i - bandWidth);
+			final int to = java.lang.Math.min(tLength, i + 1 + bandWidth);
+			if (from > 0) {
+				v1[from] = Float.POSITIVE_INFINITY;
+			}
+			if (to < tLength) {
+				v1[to + 1] = Float.POSITIVE_INFINITY;
+			}
+
+			float rowMin = v1[0];
+			final int sCodePoint = sCodePoints[i];
+			for (int j = from; j < to; j++) {
 				v1[j + 1] = min(
 						v1[j] + insertDelete,
 						v0[j + 1] + insertDelete,
-						v0[j] + (s.codePointAt(i) == t.codePointAt(j) ? 0.0f : substitute));
+						v0[j] + (sCodePoint == tCodePoints[j] ? 0.0f : substitute));
+				rowMin = java.lang.Math.min(rowMin, v1[j + 1]);
+			}
+
+			// Every path to A[sLength][tLength] crosses this row
+			if (rowMin > maxDistance) {
+				return Float.POSITIVE_INFINITY;
 			}
 
 			swap = v0;
@@ -19,9 +19,14 @@
  */
 package com.github.mpkorstanje.simmetrics.metrics;
 
+import static java.lang.Math.abs;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
 
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.CodePoints;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
@@ -55,7 +60,47 @@ public final class LongestCommonSubSequence implements StringMetric,
 			return 0.0f;
 		}
 
-		return lcs(a, b) / (float)max(codePointLength(a), codePointLength(b));
+		final ScratchSpace scratch = new ScratchSpace();
+		final int n = scratch.decode(0, a);
+		final int m = scratch.decode(1, b);
+		return lcs(n, m, scratch) / (float) max(n, m);
+	}
+
+	@Override
+	public float compare(CodePoints a, CodePoints b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		final ScratchSpace scratch = new ScratchSpace();
+		final int n = scratch.copy(0, a);
+		final int m = scratch.copy(1, b);
+		return lcs(n, m, scratch) / (float) max(n, m);
+	}
+
+	@Override
+	public float[] compareAll(String query, List<String> candidates) {
+		final ScratchSpace scratch = new ScratchSpace();
+		final int n = scratch.decode(0, query);
+
+		final float[] similarities = new float[candidates.size()];
+		int i = 0;
+		for (String candidate : candidates) {
+			final int m = scratch.decode(1, candidate);
+			if (n == 0 && m == 0) {
+				similarities[i++] = 1.0f;
+			} else if (n == 0 || m == 0) {
+				similarities[i++] = 0.0f;
+			} else {
+				similarities[i++] = lcs(n, m, scratch) / (float) max(n, m);
+			}
+		}
+		return similarities;
 	}
 
 	@Override
@@ -70,13 +115,67 @@ public final class LongestCommonSubSequence implements StringMetric,
 		if (b.isEmpty()) {
 			return codePointLength(a);
 		}
-		return codePointLength(a) + codePointLength(b) - 2 * lcs(a, b);
+
+		final ScratchSpace scratch = new ScratchSpace();
+		final int n = scratch.decode(0, a);
+		final int m = scratch.decode(1, b);
+		return n + m - 2 * lcs(n, m, scratch);
+	}
+
+	@Override
+	public float distance(CodePoints a, CodePoints b) {
+
+		final ScratchSpace scratch = new ScratchSpace();
+		final int n = scratch.copy(0, a);
+		final int m = scratch.copy(1, b);
+		return n + m - 2 * lcs(n, m, scratch);
 	}
 
-	private static int lcs(String a, String b) {
+	/**
+	 * Measures the distance between string a and b when it does not exceed
+	 * {@code maxDistance}. The distance is computed as the number of inserts
+	 * and deletes needed to transform a into b. Only cells of the dynamic
+	 * programming matrix within {@code maxDistance} of the diagonal are computed
+	 * and the computation stops as soon as every cell in a row exceeds the
+	 * bound.
+	 * 
+	 * @param a
+	 *            string a to compare
+	 * @param b
+	 *            string b to compare
+	 * @param maxDistance
+	 *            the largest distance of interest
+	 * @return the distance between a and b or {@code Float.POSITIVE_INFINITY}
+	 *         when it exceeds {@code maxDistance}
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	@Override
+	public float distance(String a, String b, float maxDistance) {
+		final ScratchSpace scratch = new ScratchSpace();
+		final int n = scratch.decode(0, a);
+		final int m = scratch.decode(1, b);
+		final float distance = indelDistance(n, m, maxDistance, scratch);
+		return distance <= maxDistance ? distance : Float.POSITIVE_INFINITY;
+	}
 
-		final int n = codePointLength(a);
-		final int m = codePointLength(b);
+	@Override
+	public float distance(CodePoints a, CodePoints b, float maxDistance) {
+		final ScratchSpace scratch = new ScratchSpace();
+		final int n = scratch.copy(0, a);
+		final int m = scratch.copy(1, b);
+		final float distance = indelDistance(n, m, maxDistance, scratch);
+		return distance <= maxDistance ? distance : Float.POSITIVE_INFINITY;
+	}
+
+	/*
+	 * Returns the length of the longest common subsequence of the code points
+	 * in slot 0 and 1 of the scratch space.
+	 */
+	private static int lcs(int n, int m, ScratchSpace scratch) {
+
+		final int[] aCodePoints = scratch.codePoints(0);
+		final int[] bCodePoints = scratch.codePoints(1);
 
 		// We're only interested in the actual longest common subsequence This
 		// means we don't have to backtrack through the n-by-m matrix and can
@@ -86,7 +185,7 @@ public final class LongestCommonSubSequence implements StringMetric,
 
 		for (int i = 1; i <= n; i++) {
 			for (int j = 1; j <= m; j++) {
-				if (a.codePointAt(i - 1) == b.codePointAt(j - 1)) {
+				if (aCodePoints[i - 1] == bCodePoints[j - 1]) {
 					v1[j] = v0[j - 1] + 1;
 				} else {
 					v1[j] = max(v1[j - 1], v0[j]);
@@ -99,6 +198,67 @@ public final class LongestCommonSubSequence implements StringMetric,
 		return v0[m];
 	}
 
+	/*
+	 * Returns |a| + |b| - 2 * |lcs(a,b)| for the code points in slot 0 and 1 of
+	 * the scratch space when it does not exceed maxDistance. Otherwise returns
+	 * a value larger than maxDistance.
+	 * 
+	 * Computes the insert/delete distance directly. A matching code point is
+	 * never worse than an insert or delete so the recurrence simplifies to
+	 * D[i][j] = a[i] == b[j] ? D[i-1][j-1] : min(D[i-1][j], D[i][j-1]) + 1.
+	 */
+	private static float indelDistance(int n, int m, float maxDistance, ScratchSpace scratch) {
+		final int[] aCodePoints = scratch.codePoints(0);
+		final int[] bCodePoints = scratch.codePoints(1);
+
+		// Distances are integers, every step away from the diagonal costs one
+		final int bandWidth = maxDistance >= n + m ? n + m : (int) maxDistance;
+		if (!(maxDistance >= 0) || abs(n - m) > bandWidth) {
+			return Float.POSITIVE_INFINITY;
+		}
+
+		// Larger than any distance, small enough not to overflow
+		final int outside = n + m + 1;
+
+		int[] v0 = new int[m + 1];
+		int[] v1 = new int[m + 1];
+		for (int j = 0; j <= m; j++) {
+			v0[j] = j <= bandWidth ? j : outside;
+		}
+
+		for (int i = 1; i <= n; i++) {
+			v1[0] = i <= bandWidth ? i : outside;
+
+			final int from = max(1, i - bandWidth);
+			final int to = min(m, i + bandWidth);
+			if (from > 1) {
+				v1[from - 1] = outside;
+			}
+			if (to < m) {
+				v1[to + 1] = outside;
+			}
+
+			int rowMin = v1[0];
+			for (int j = from; j <= to; j++) {
+				if (aCodePoints[i - 1] == bCodePoints[j - 1]) {
+					v1[j] = v0[j - 1];
+				} else {
+					v1[j] = min(v0[j], v1[j - 1]) + 1;
+				}
+				rowMin = min(rowMin, v1[j]);
+			}
+
+			// Every path to D[n][m] crosses this row
+			if (rowMin > bandWidth) {
+				return Float.POSITIVE_INFINITY;
+			}
+
+			int[] swap = v0; v0 = v1; v1 = swap;
+		}
+
+		return v0[m];
+	}
+
 	@Override
 	public String toString() {
 		return "LongestCommonSubSequence";
@@ -22,6 +22,9 @@ package com.github.mpkorstanje.simmetrics.metrics;
 import static java.lang.Math.max;
 import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
 
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.CodePoints;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
@@ -55,7 +58,47 @@ public final class LongestCommonSubstring implements StringMetric,
 			return 0.0f;
 		}
 
-		return lcs(a, b) / (float) max(codePointLength(a), codePointLength(b));
+		final ScratchSpace scratch = new ScratchSpace();
+		final int m = scratch.decode(0, a);
+		final int n = scratch.decode(1, b);
+		return lcs(m, n, scratch) / (float) max(m, n);
+	}
+
+	@Override
+	public float compare(CodePoints a, CodePoints b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		final ScratchSpace scratch = new ScratchSpace();
+		final int m = scratch.copy(0, a);
+		final int n = scratch.copy(1, b);
+		return lcs(m, n, scratch) / (float) max(m, n);
+	}
+
+	@Override
+	public float[] compareAll(String query, List<String> candidates) {
+		final ScratchSpace scratch = new ScratchSpace();
+		final int m = scratch.decode(0, query);
+
+		final float[] similarities = new float[candidates.size()];
+		int i = 0;
+		for (String candidate : candidates) {
+			final int n = scratch.decode(1, candidate);
+			if (m == 0 && n == 0) {
+				similarities[i++] = 1.0f;
+			} else if (m == 0 || n == 0) {
+				similarities[i++] = 0.0f;
+			} else {
+				similarities[i++] = lcs(m, n, scratch) / (float) max(m, n);
+			}
+		}
+		return similarities;
 	}
 
 	@Override
@@ -70,13 +113,30 @@ public final class LongestCommonSubstring implements StringMetric,
 		if (b.isEmpty()) {
 			return codePointLength(a);
 		}
-		return codePointLength(a) + codePointLength(b) - 2 * lcs(a, b);
+
+		final ScratchSpace scratch = new ScratchSpace();
+		final int m = scratch.decode(0, a);
+		final int n = scratch.decode(1, b);
+		return m + n - 2 * lcs(m, n, scratch);
+	}
+
+	@Override
+	public float distance(CodePoints a, CodePoints b) {
+
+		final ScratchSpace scratch = new ScratchSpace();
+		final int m = scratch.copy(0, a);
+		final int n = scratch.copy(1, b);
+		return m + n - 2 * lcs(m, n, scratch);
 	}
 
-	private static int lcs(String a, String b) {
+	/*
+	 * Returns the length of the longest common substring of the code points
+	 * in slot 0 and 1 of the scratch space.
+	 */
+	private static int lcs(int m, int n, ScratchSpace scratch) {
 
-		final int m = codePointLength(a);
-		final int n = codePointLength(b);
+		final int[] a = scratch.codePoints(0);
+		final int[] b = scratch.codePoints(1);
 
 		int[] v0 = new int[n];
 		int[] v1 = new int[n];
@@ -84,7 +144,7 @@ public final class LongestCommonSubstring implements StringMetric,
 		int z = 0;
 		for (int i = 0; i < m; i++) {
 			for (int j = 0; j < n; j++) {
-				if (a.codePointAt(i) == b.codePointAt(j)) {
+				if (a[i] == b[j]) {
 					if (i == 0 || j == 0) {
 						v1[j] = 1;
 					} else {
@@ -23,6 +23,12 @@ package com.github.mpkorstanje.simmetrics.metrics;
 
 import java.util.Set;
 
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedSet;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdSet;
+import com.github.mpkorstanje.simmetrics.tokenizers.NormedMultiset;
+
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Multisets;
 import com.google.common.collect.Sets;
@@ -70,9 +76,22 @@ final class Math {
 				java.lang.Math.min(java.lang.Math.min(a, b), c), d);
 	}
 
+	/*
+	 * Returns the number of operations of the given cost that fit within
+	 * maxDistance, capped at limit. Errs on the side of a wider band to
+	 * account for rounding in accumulated float costs.
+	 */
+	static int bandWidth(float maxDistance, float cost, int limit) {
+		if (!(maxDistance >= 0)) {
+			return -1;
+		}
+		final double operations = java.lang.Math.floor(maxDistance / (double) cost * (1 + 0x1p-10)) + 1;
+		return operations >= limit ? limit : (int) operations;
+	}
+
 	static <T> Multiset<T> union(Multiset<T> a, Multiset<T> b) {
 		// Lager set first for performance improvement.
-		// See: MathCaliper
+		// See: CollectionMetricBenchmark
 		if (a.size() < b.size()) {
 			return Multisets.union(b, a);
 		}
@@ -82,7 +101,7 @@ final class Math {
 
 	static <T> Multiset<T> intersection(Multiset<T> a, Multiset<T> b) {
 		// Smaller set first for performance improvement.
-		// See: MathCaliper
+		// See: CollectionMetricBenchmark
 		if (a.size() < b.size()) {
 			return Multisets.intersection(a, b);
 		}
@@ -92,11 +111,130 @@ final class Math {
 
 	static <T> Set<T> intersection(Set<T> a, Set<T> b) {
 		// Smaller set first for performance improvement.
-		// See: MathCaliper and note at Sets.intersection
+		// See: CollectionMetricBenchmark and note at Sets.intersection
 		if (a.size() < b.size()) {
 			return Sets.intersection(a, b);
 		}
 
 		return Sets.intersection(b, a);
 	}
+
+	static <T> int intersectionSize(Multiset<T> a, Multiset<T> b) {
+		// Sorted ids from the same dictionary are merged
+		if (a instanceof IdMultiset && b instanceof IdMultiset) {
+			final IdMultiset x = (IdMultiset) a;
+			final IdMultiset y = (IdMultiset) b;
+			if (x.getDictionary() == y.getDictionary()) {
+				return x.intersectionSize(y);
+			}
+		}
+		return intersection(a, b).size();
+	}
+
+	static <T> int intersectionSize(Set<T> a, Set<T> b) {
+		// Sorted ids from the same dictionary are merged
+		if (a instanceof IdSet && b instanceof IdSet) {
+			final IdSet x = (IdSet) a;
+			final IdSet y = (IdSet) b;
+			if (x.getDictionary() == y.getDictionary()) {
+				return x.intersectionSize(y);
+			}
+		}
+		return intersection(a, b).size();
+	}
+
+	/*
+	 * Returns the sum of the squared count of each element. Iterates the
+	 * entries once unless the norm was computed in advance.
+	 */
+	static long squaredNorm(Multiset<?> a) {
+		if (a instanceof NormedMultiset) {
+			return ((NormedMultiset<?>) a).getSquaredNorm();
+		}
+		if (a instanceof IdMultiset) {
+			return ((IdMultiset) a).getSquaredNorm();
+		}
+		long squaredNorm = 0;
+		for (Multiset.Entry<?> entry : a.entrySet()) {
+			final long count = entry.getCount();
+			squaredNorm += count * count;
+		}
+		return squaredNorm;
+	}
+
+	/*
+	 * Returns the sum of the product of the counts of each element in both
+	 * multisets. Iterates the entries of the smaller multiset once and looks up
+	 * their counts in the larger.
+	 */
+	static <T> long dotProduct(Multiset<T> a, Multiset<T> b) {
+		// Sorted ids from the same dictionary are merged
+		if (a instanceof IdMultiset && b instanceof IdMultiset) {
+			final IdMultiset x = (IdMultiset) a;
+			final IdMultiset y = (IdMultiset) b;
+			if (x.getDictionary() == y.getDictionary()) {
+				return x.dotProduct(y);
+			}
+		}
+		if (a.size() > b.size()) {
+			return dotProduct(b, a);
+		}
+		long dotProduct = 0;
+		for (Multiset.Entry<T> entry : a.entrySet()) {
+			dotProduct += (long) entry.getCount() * b.count(entry.getElement());
+		}
+		return dotProduct;
+	}
+
+	/*
+	 * Returns the number of hashes in both sets by merging their sorted
+	 * hashes.
+	 */
+	static int intersectionSize(HashedSet a, HashedSet b) {
+		final int aSize = a.size();
+		final int bSize = b.size();
+		int intersection = 0;
+		int i = 0;
+		int j = 0;
+		while (i < aSize && j < bSize) {
+			final long aHash = a.hashAt(i);
+			final long bHash = b.hashAt(j);
+			if (aHash < bHash) {
+				i++;
+			} else if (aHash > bHash) {
+				j++;
+			} else {
+				intersection++;
+				i++;
+				j++;
+			}
+		}
+		return intersection;
+	}
+
+	/*
+	 * Returns the sum of the smallest count of each hash in both multisets by
+	 * merging their sorted hashes.
+	 */
+	static int intersectionSize(HashedMultiset a, HashedMultiset b) {
+		final int aSize = a.distinctSize();
+		final int bSize = b.distinctSize();
+		int intersection = 0;
+		int i = 0;
+		int j = 0;
+		while (i < aSize && j < bSize) {
+			final long aHash = a.hashAt(i);
+			final long bHash = b.hashAt(j);
+			if (aHash < bHash) {
+				i++;
+			} else if (aHash > bHash) {
+				j++;
+			} else {
+				intersection += java.lang.Math.min(a.countAt(i), b.countAt(j));
+				i++;
+				j++;
+			}
+		}
+		return intersection;
+	}
 }
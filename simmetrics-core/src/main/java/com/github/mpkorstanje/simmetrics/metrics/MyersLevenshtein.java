@@ -0,0 +1,210 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.util.Arrays.fill;
+
+/**
+ * Computes the unit cost Levenshtein distance using the bit-parallel algorithm
+ * by Myers as extended to edit distance and multiple words by Hyyrö.
+ * <p>
+ * Each column of the dynamic programming matrix is represented by bit vectors
+ * of vertical positive and negative deltas. The pattern is split into blocks of
+ * 64 code points, so a column is computed in {@code ⌈m/64⌉} word operations
+ * rather than {@code m} cell updates.
+ *
+ * @see <a href="https://doi.org/10.1145/316542.316550">Myers - A fast
+ *      bit-vector algorithm for approximate string matching based on dynamic
+ *      programming</a>
+ * @see <a href="http://www.dcc.uchile.cl/~gnavarro/ps/jda04.pdf">Hyyrö -
+ *      Explaining and extending the bit-parallel approximate string matching
+ *      algorithm of Myers</a>
+ */
+final class MyersLevenshtein {
+
+	private static final long HIGH_BIT = 1L << 63;
+
+	// Key of an empty hash table slot. Code points are never negative.
+	private static final int EMPTY = -1;
+
+	// Equivalence class of code points that do not occur in the pattern
+	private static final int ABSENT = 0;
+
+	// Patterns below this code point use a direct lookup table
+	private static final int LATIN_1 = 256;
+
+	private MyersLevenshtein() {
+		// Utility class
+	}
+
+	/*
+	 * Returns the unit cost Levenshtein distance between the first m code points
+	 * of pattern and the first n code points of text. Both m and n must be
+	 * positive. Prefer the shorter input as the pattern.
+	 */
+	static int distance(int[] pattern, int m, int[] text, int n, ScratchSpace scratch) {
+		return distance(pattern, m, text, n, Integer.MAX_VALUE, scratch);
+	}
+
+	/*
+	 * As above but returns Integer.MAX_VALUE as soon as the distance is known
+	 * to exceed maxDistance.
+	 */
+	static int distance(int[] pattern, int m, int[] text, int n, int maxDistance, ScratchSpace scratch) {
+		final int blocks = (m + 63) >>> 6;
+
+		int nextClass = ABSENT + 1;
+
+		// Maps code points to equivalence classes. Latin-1 patterns use a
+		// table indexed by code point. Other patterns use an open addressing
+		// hash table with a capacity of at least twice the number of distinct
+		// code points.
+		final boolean latin1 = isLatin1(pattern, m);
+		final int capacity = latin1 ? LATIN_1 : Integer.highestOneBit(m) << 2;
+		final int mask = capacity - 1;
+		final int[] keys = scratch.ints(0, capacity);
+		final int[] classes = scratch.ints(1, capacity);
+		// Equivalence class of each pattern position
+		final int[] positions = scratch.ints(2, m);
+
+		if (latin1) {
+			fill(classes, 0, capacity, ABSENT);
+			for (int i = 0; i < m; i++) {
+				if (classes[pattern[i]] == ABSENT) {
+					classes[pattern[i]] = nextClass++;
+				}
+				positions[i] = classes[pattern[i]];
+			}
+		} else {
+			fill(keys, 0, capacity, EMPTY);
+			for (int i = 0; i < m; i++) {
+				int slot = slot(pattern[i], mask);
+				while (keys[slot] != EMPTY && keys[slot] != pattern[i]) {
+					slot = (slot + 1) & mask;
+				}
+				if (keys[slot] == EMPTY) {
+					keys[slot] = pattern[i];
+					classes[slot] = nextClass++;
+				}
+				positions[i] = classes[slot];
+			}
+		}
+
+		// Pattern match vectors, one row of blocks per class. Row zero is the
+		// class of absent code points and never matches. Only distinct code
+		// points have a row, so the table holds σ·⌈m/64⌉ words for an
+		// alphabet of σ code points rather than m·⌈m/64⌉.
+		final int rows = nextClass * blocks;
+		final long[] peq = scratch.longs(0, rows);
+		fill(peq, 0, rows, 0L);
+		for (int i = 0; i < m; i++) {
+			peq[positions[i] * blocks + (i >>> 6)] |= 1L << (i & 63);
+		}
+
+		final long[] pv = scratch.longs(1, blocks);
+		final long[] mv = scratch.longs(2, blocks);
+		fill(pv, 0, blocks, -1L);
+		fill(mv, 0, blocks, 0L);
+
+		final int lastBlock = blocks - 1;
+		final long lastBit = 1L << ((m - 1) & 63);
+		int score = m;
+
+		for (int j = 0; j < n; j++) {
+			final int codePoint = text[j];
+			final int equivalenceClass;
+			if (latin1) {
+				equivalenceClass = codePoint < LATIN_1 ? classes[codePoint] : ABSENT;
+			} else {
+				equivalenceClass = lookup(keys, classes, mask, codePoint);
+			}
+			final int offset = equivalenceClass * blocks;
+
+			// The top row of the matrix is D[0][j] = j, so the horizontal
+			// delta entering the first block is always +1.
+			int hin = 1;
+			for (int b = 0; b < blocks; b++) {
+				long eq = peq[offset + b];
+				final long pvb = pv[b];
+				final long mvb = mv[b];
+
+				final long xv = eq | mvb;
+				if (hin < 0) {
+					eq |= 1L;
+				}
+				final long xh = (((eq & pvb) + pvb) ^ pvb) | eq;
+				long ph = mvb | ~(xh | pvb);
+				long mh = pvb & xh;
+
+				final long high = b == lastBlock ? lastBit : HIGH_BIT;
+				final int hout = (ph & high) != 0 ? 1 : (mh & high) != 0 ? -1 : 0;
+
+				ph <<= 1;
+				mh <<= 1;
+				if (hin < 0) {
+					mh |= 1L;
+				} else if (hin > 0) {
+					ph |= 1L;
+				}
+
+				pv[b] = mh | ~(xv | ph);
+				mv[b] = ph & xv;
+				hin = hout;
+			}
+
+			// Horizontal delta leaving the last block is the change in the
+			// bottom row, D[m][j+1] - D[m][j]
+			score += hin;
+
+			// The bottom row decreases by at most one per remaining column
+			if (score - (n - 1 - j) > maxDistance) {
+				return Integer.MAX_VALUE;
+			}
+		}
+
+		return score;
+	}
+
+	private static boolean isLatin1(int[] codePoints, int length) {
+		for (int i = 0; i < length; i++) {
+			if (codePoints[i] >= LATIN_1) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int lookup(int[] keys, int[] classes, int mask, int codePoint) {
+		int slot = slot(codePoint, mask);
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == codePoint) {
+				return classes[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		return ABSENT;
+	}
+
+	private static int slot(int codePoint, int mask) {
+		final int hash = codePoint * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+}
@@ -21,22 +21,35 @@
 package com.github.mpkorstanje.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.abs;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 import static com.github.mpkorstanje.simmetrics.metrics.Math.min;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
-
-import java.util.Objects;
 
 import com.github.mpkorstanje.simmetrics.metrics.functions.MatchMismatch;
 import com.github.mpkorstanje.simmetrics.metrics.functions.Substitution;
+import com.github.mpkorstanje.simmetrics.CodePoints;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
 /**
  * Applies the Needleman-Wunsch algorithm to calculate the similarity
  * between two strings. This implementation uses linear space.
  * <p>
+ * The alignment can be restricted to a band around the diagonal. Only cells
+ * within {@code bandWidth} of the diagonal are evaluated, reducing the cost
+ * from {@code O(n·m)} to {@code O(bandWidth·max(n,m))}. The band is widened to
+ * at least the difference in length between both strings so that a global
+ * alignment always exists.
+ * <p>
+ * The banded score equals the exact score when an optimal alignment stays
+ * within the band. An alignment that leaves the band contains more than
+ * {@code bandWidth} gaps. So when the substitution function never rewards a
+ * match (i.e. its maximum is at most zero), the banded score is exact whenever
+ * its penalty does not exceed {@code bandWidth} times the smaller of the gap
+ * penalty and 1, the cost of a leading gap. Otherwise the banded similarity
+ * may be lower than the exact similarity.
+ * <p>
  * This class is immutable and thread-safe if its substitution function is.
  * 
  * @see SmithWatermanGotoh
@@ -50,10 +63,14 @@ public final class NeedlemanWunch implements StringMetric {
 	private static final Substitution MATCH_0_MISMATCH_1 = new MatchMismatch(
 			0.0f, -1.0f);
 
+	private static final int UNBANDED = Integer.MAX_VALUE;
+
 	private final Substitution substitution;
 
 	private final float gapValue;
 
+	private final int bandWidth;
+
 	/**
 	 * Constructs a new Needleman-Wunch metric. Uses an gap of <code>-2.0</code>
 	 * a <code>-1.0</code> substitution penalty for mismatches, <code>0</code>
@@ -73,21 +90,43 @@ public final class NeedlemanWunch implements StringMetric {
 	 *            a substitution function for mismatched characters
 	 */
 	public NeedlemanWunch(float gapValue, Substitution substitution) {
+		this(gapValue, substitution, UNBANDED);
+	}
+
+	/**
+	 * Constructs a new banded Needleman-Wunch metric. Only cells within
+	 * {@code bandWidth} of the diagonal are evaluated.
+	 * 
+	 * @param gapValue
+	 *            a non-positive penalty for gaps
+	 * @param substitution
+	 *            a substitution function for mismatched characters
+	 * @param bandWidth
+	 *            a non-negative maximum distance from the diagonal
+	 */
+	public NeedlemanWunch(float gapValue, Substitution substitution, int bandWidth) {
 		checkArgument(gapValue <= 0.0f);
 		requireNonNull(substitution);
+		checkArgument(bandWidth >= 0);
 		this.gapValue = gapValue;
 		this.substitution = substitution;
+		this.bandWidth = bandWidth;
 	}
 
 	@Override
 	public float compare(String a, String b) {
+		return compare(CodePoints.of(a), CodePoints.of(b));
+	}
+
+	@Override
+	public float compare(CodePoints a, CodePoints b) {
 
 		if (a.isEmpty() && b.isEmpty()) {
 			return 1.0f;
 		}
 
-		int aLength = codePointLength(a);
-		int bLength = codePointLength(b);
+		int aLength = a.length();
+		int bLength = b.length();
 
 		float maxDistance = max(aLength, bLength) * max(substitution.max(), gapValue);
 		float minDistance = max(aLength, bLength) * min(substitution.min(), gapValue);
@@ -96,21 +135,24 @@ public final class NeedlemanWunch implements StringMetric {
 
 	}
 
-	private float needlemanWunch(final String s, final String t) {
+	private float needlemanWunch(final CodePoints s, final CodePoints t) {
 
-		if (Objects.equals(s, t)) {
+		if (s.equals(t)) {
 			return 0;
 		}
 
 		if (s.isEmpty()) {
-			return -gapValue * codePointLength(t);
+			return -gapValue * t.length();
 		}
 		if (t.isEmpty()) {
-			return -gapValue * codePointLength(s);
+			return -gapValue * s.length();
 		}
 		
-		final int n = codePointLength(s);
-		final int m = codePointLength(t);
+		final int n = s.length();
+		final int m = t.length();
+
+		// Cells outside the band are never part of the alignment
+		final int k = min(n + m, max(bandWidth, abs(n - m)));
 
 		// We're only interested in the alignment penalty between s and t
 		// and not their actual alignment. This means we don't have to backtrack
@@ -120,13 +162,22 @@ public final class NeedlemanWunch implements StringMetric {
 		float[] v1 = new float[m + 1];
 
 		for (int j = 0; j <= m; j++) {
-			v0[j] = j;
+			v0[j] = j <= k ? j : Float.POSITIVE_INFINITY;
 		}
 
 		for (int i = 1; i <= n; i++) {
-			v1[0] = i;
+			v1[0] = i <= k ? i : Float.POSITIVE_INFINITY;
+
+			final int from = max(1, i - k);
+			final int to = min(m, i + k);
+			if (from > 1) {
+				v1[from - 1] = Float.POSITIVE_INFINITY;
+			}
+			if (to < m) {
+				v1[to + 1] = Float.POSITIVE_INFINITY;
+			}
 
-			for (int j = 1; j <= m; j++) {
+			for (int j = from; j <= to; j++) {
 				v1[j] = min(
 						v0[j]     - gapValue, 
 						v1[j - 1] - gapValue, 
@@ -144,7 +195,7 @@ public final class NeedlemanWunch implements StringMetric {
 	@Override
 	public String toString() {
 		return "NeedlemanWunch [costFunction=" + substitution + ", gapCost="
-				+ gapValue + "]";
+				+ gapValue + (bandWidth == UNBANDED ? "" : ", bandWidth=" + bandWidth) + "]";
 	}
 
 }
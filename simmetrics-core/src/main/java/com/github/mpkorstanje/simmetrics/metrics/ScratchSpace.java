@@ -0,0 +1,118 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import com.github.mpkorstanje.simmetrics.CodePoints;
+
+/**
+ * Scratch space for metrics that decode strings into code points and fill rows
+ * of a dynamic programming matrix or bit vectors.
+ * <p>
+ * A scratch space can either be created for a single computation or be
+ * obtained from a thread local. Thread local scratch space is reused between
+ * computations on the same thread to avoid allocating buffers for each
+ * computation. Buffers grow to fit the longest input seen by the thread and are
+ * never shrunk.
+ * <p>
+ * Scratch space must not be shared between threads or be held on to after a
+ * computation completes.
+ */
+final class ScratchSpace {
+
+	private static final int[] EMPTY_CODE_POINTS = new int[0];
+	private static final float[] EMPTY_ROW = new float[0];
+	private static final long[] EMPTY_LONGS = new long[0];
+
+	private static final ThreadLocal<ScratchSpace> THREAD_LOCAL = ThreadLocal.withInitial(ScratchSpace::new);
+
+	private final int[][] codePoints = { EMPTY_CODE_POINTS, EMPTY_CODE_POINTS };
+	private final float[][] rows = { EMPTY_ROW, EMPTY_ROW, EMPTY_ROW };
+	private final int[][] ints = { EMPTY_CODE_POINTS, EMPTY_CODE_POINTS, EMPTY_CODE_POINTS };
+	private final long[][] longs = { EMPTY_LONGS, EMPTY_LONGS, EMPTY_LONGS };
+
+	static ScratchSpace threadLocal() {
+		return THREAD_LOCAL.get();
+	}
+
+	/*
+	 * Decodes s into the code point buffer of the given slot. Returns the
+	 * number of code points in s.
+	 */
+	int decode(int slot, String s) {
+		if (codePoints[slot].length < s.length()) {
+			codePoints[slot] = new int[s.length()];
+		}
+		return Unicode.decode(s, codePoints[slot]);
+	}
+
+	/*
+	 * Copies the code points of s into the code point buffer of the given
+	 * slot. Returns the number of code points in s.
+	 */
+	int copy(int slot, CodePoints s) {
+		if (codePoints[slot].length < s.length()) {
+			codePoints[slot] = new int[s.length()];
+		}
+		s.getCodePoints(0, s.length(), codePoints[slot], 0);
+		return s.length();
+	}
+
+	/*
+	 * Returns the code point buffer of the given slot. Only the code points
+	 * decoded by the last call to decode or copy are valid.
+	 */
+	int[] codePoints(int slot) {
+		return codePoints[slot];
+	}
+
+	/*
+	 * Returns a row of at least the given length. The contents of the row are
+	 * undefined.
+	 */
+	float[] row(int slot, int length) {
+		if (rows[slot].length < length) {
+			rows[slot] = new float[length];
+		}
+		return rows[slot];
+	}
+
+	/*
+	 * Returns an int array of at least the given length. The contents of the
+	 * array are undefined.
+	 */
+	int[] ints(int slot, int length) {
+		if (ints[slot].length < length) {
+			ints[slot] = new int[length];
+		}
+		return ints[slot];
+	}
+
+	/*
+	 * Returns a long array of at least the given length. The contents of the
+	 * array are undefined.
+	 */
+	long[] longs(int slot, int length) {
+		if (longs[slot].length < length) {
+			longs[slot] = new long[length];
+		}
+		return longs[slot];
+	}
+
+}
@@ -0,0 +1,301 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.github.mpkorstanje.simmetrics.PairConsumer;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+
+/**
+ * All pairs similarity of a list of strings.
+ * <p>
+ * Computes the similarity of every string with every other string in a list.
+ * Because metrics are symmetric only the upper triangle of the matrix is
+ * computed. The triangle is split into square tiles which are compared in
+ * parallel on a fork join pool. Each row of a tile is compared with
+ * {@link StringMetric#compareAll(String, List)} so the row string is only
+ * prepared once per tile while the column strings of a tile stay in cache.
+ * <p>
+ * When only similar pairs are of interest, {@link #forEachPair} streams the
+ * pairs with a similarity at or above a threshold instead of materializing the
+ * full matrix.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class SimilarityMatrix {
+
+	static final int TILE_SIZE = 64;
+
+	private static final long MAX_SIZE = Integer.MAX_VALUE - 8;
+
+	private final int size;
+
+	private final float[] similarities;
+
+	private SimilarityMatrix(int size, float[] similarities) {
+		this.size = size;
+		this.similarities = similarities;
+	}
+
+	/**
+	 * Computes the similarity matrix of a list of strings using the common
+	 * fork join pool.
+	 * 
+	 * @param metric
+	 *            a symmetric metric
+	 * @param strings
+	 *            strings to compare
+	 * @return the similarity matrix
+	 */
+	public static SimilarityMatrix compute(StringMetric metric, List<String> strings) {
+		return compute(metric, strings, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the similarity matrix of a list of strings.
+	 * 
+	 * @param metric
+	 *            a symmetric metric
+	 * @param strings
+	 *            strings to compare
+	 * @param pool
+	 *            pool to compute the matrix on
+	 * @return the similarity matrix
+	 */
+	public static SimilarityMatrix compute(StringMetric metric, List<String> strings, ForkJoinPool pool) {
+		return compute(metric, strings, pool, TILE_SIZE);
+	}
+
+	static SimilarityMatrix compute(StringMetric metric, List<String> strings, ForkJoinPool pool, int tileSize) {
+		requireNonNull(metric);
+		requireNonNull(pool);
+		final List<String> copy = copyOf(strings);
+		final int n = copy.size();
+		final long cells = (long) n * (n - 1) / 2;
+		checkArgument(cells <= MAX_SIZE, "too many strings %s", n);
+
+		final float[] similarities = new float[(int) cells];
+		pool.invoke(new Tiles(metric, copy, tileSize, (i, j, similarity) -> similarities[index(n, i, j)] = similarity));
+		return new SimilarityMatrix(n, similarities);
+	}
+
+	/**
+	 * Compares every string with every other string in a list and passes the
+	 * pairs with a similarity equal to or greater than the threshold to the
+	 * consumer. Uses the common fork join pool.
+	 * <p>
+	 * The consumer is invoked concurrently from the threads of the pool and
+	 * must be thread-safe. Pairs are not passed in any particular order.
+	 * 
+	 * @param metric
+	 *            a symmetric metric
+	 * @param strings
+	 *            strings to compare
+	 * @param threshold
+	 *            minimum similarity of a pair
+	 * @param consumer
+	 *            consumer of similar pairs
+	 */
+	public static void forEachPair(StringMetric metric, List<String> strings, float threshold,
+			PairConsumer consumer) {
+		forEachPair(metric, strings, threshold, consumer, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Compares every string with every other string in a list and passes the
+	 * pairs with a similarity equal to or greater than the threshold to the
+	 * consumer.
+	 * <p>
+	 * The consumer is invoked concurrently from the threads of the pool and
+	 * must be thread-safe. Pairs are not passed in any particular order.
+	 * 
+	 * @param metric
+	 *            a symmetric metric
+	 * @param strings
+	 *            strings to compare
+	 * @param threshold
+	 *            minimum similarity of a pair
+	 * @param consumer
+	 *            consumer of similar pairs
+	 * @param pool
+	 *            pool to compare the strings on
+	 */
+	public static void forEachPair(StringMetric metric, List<String> strings, float threshold,
+			PairConsumer consumer, ForkJoinPool pool) {
+		forEachPair(metric, strings, threshold, consumer, pool, TILE_SIZE);
+	}
+
+	static void forEachPair(StringMetric metric, List<String> strings, float threshold, PairConsumer consumer,
+			ForkJoinPool pool, int tileSize) {
+		requireNonNull(metric);
+		requireNonNull(consumer);
+		requireNonNull(pool);
+		checkArgument(!Float.isNaN(threshold), "threshold may not be NaN");
+
+		pool.invoke(new Tiles(metric, copyOf(strings), tileSize, (i, j, similarity) -> {
+			if (similarity >= threshold) {
+				consumer.accept(i, j, similarity);
+			}
+		}));
+	}
+
+	/**
+	 * Returns the number of strings in the matrix.
+	 * 
+	 * @return the number of strings in the matrix
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the similarity of the i-th and j-th string. The similarity of a
+	 * string with itself is not computed.
+	 * 
+	 * @param i
+	 *            index of the first string
+	 * @param j
+	 *            index of the second string
+	 * @return the similarity of the i-th and j-th string
+	 * @throws IndexOutOfBoundsException
+	 *             when either index is out of bounds
+	 * @throws IllegalArgumentException
+	 *             when i and j are equal
+	 */
+	public float get(int i, int j) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException("i: " + i + ", size: " + size);
+		}
+		if (j < 0 || j >= size) {
+			throw new IndexOutOfBoundsException("j: " + j + ", size: " + size);
+		}
+		checkArgument(i != j, "similarity of a string with itself is not computed");
+		return i < j ? similarities[index(size, i, j)] : similarities[index(size, j, i)];
+	}
+
+	@Override
+	public String toString() {
+		return "SimilarityMatrix [size=" + size + "]";
+	}
+
+	/*
+	 * Index of (i, j) with i < j in the row major upper triangle of an n by n
+	 * matrix, excluding the diagonal.
+	 */
+	private static int index(int n, int i, int j) {
+		return (int) ((long) i * n - (long) i * (i + 1) / 2 + (j - i - 1));
+	}
+
+	private static List<String> copyOf(List<String> strings) {
+		final List<String> copy = new ArrayList<>(strings);
+		for (String s : copy) {
+			requireNonNull(s);
+		}
+		return copy;
+	}
+
+	/*
+	 * Compares the tiles of the upper triangle in the tile rows [rowFrom,
+	 * rowTo) and tile columns [columnFrom, columnTo). Tile (r, c) is in the
+	 * upper triangle when c >= r. Ranges are split on the longer side until a
+	 * single tile remains, so no tile has to be located by a flat index.
+	 */
+	private static final class Tiles extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final StringMetric metric;
+		private final List<String> strings;
+		private final int tileSize;
+		private final PairConsumer consumer;
+		private final int rowFrom;
+		private final int rowTo;
+		private final int columnFrom;
+		private final int columnTo;
+
+		Tiles(StringMetric metric, List<String> strings, int tileSize, PairConsumer consumer) {
+			this(metric, strings, tileSize, consumer, 0, tileRows(strings.size(), tileSize), 0,
+					tileRows(strings.size(), tileSize));
+		}
+
+		private Tiles(StringMetric metric, List<String> strings, int tileSize, PairConsumer consumer, int rowFrom,
+				int rowTo, int columnFrom, int columnTo) {
+			this.metric = metric;
+			this.strings = strings;
+			this.tileSize = tileSize;
+			this.consumer = consumer;
+			this.rowFrom = rowFrom;
+			this.rowTo = rowTo;
+			this.columnFrom = columnFrom;
+			this.columnTo = columnTo;
+		}
+
+		private static int tileRows(int n, int tileSize) {
+			checkArgument(tileSize > 0, "tileSize must be positive %s", tileSize);
+			return (int) ((n + (long) tileSize - 1) / tileSize);
+		}
+
+		@Override
+		protected void compute() {
+			// Every tile in the range lies below the diagonal
+			if (columnTo <= rowFrom) {
+				return;
+			}
+			final int rows = rowTo - rowFrom;
+			final int columns = columnTo - columnFrom;
+			if (rows == 1 && columns == 1) {
+				computeTile(rowFrom, columnFrom);
+			} else if (rows >= columns) {
+				final int middle = (rowFrom + rowTo) >>> 1;
+				invokeAll(new Tiles(metric, strings, tileSize, consumer, rowFrom, middle, columnFrom, columnTo),
+						new Tiles(metric, strings, tileSize, consumer, middle, rowTo, columnFrom, columnTo));
+			} else {
+				final int middle = (columnFrom + columnTo) >>> 1;
+				invokeAll(new Tiles(metric, strings, tileSize, consumer, rowFrom, rowTo, columnFrom, middle),
+						new Tiles(metric, strings, tileSize, consumer, rowFrom, rowTo, middle, columnTo));
+			}
+		}
+
+		private void computeTile(int r, int c) {
+			final int n = strings.size();
+			final int rowEnd = (int) java.lang.Math.min(n, (r + 1L) * tileSize);
+			final int columnStart = c * tileSize;
+			final int columnEnd = (int) java.lang.Math.min(n, (c + 1L) * tileSize);
+
+			for (int i = r * tileSize; i < rowEnd; i++) {
+				final int start = java.lang.Math.max(columnStart, i + 1);
+				if (start >= columnEnd) {
+					continue;
+				}
+				final float[] row = metric.compareAll(strings.get(i), strings.subList(start, columnEnd));
+				for (int k = 0; k < row.length; k++) {
+					consumer.accept(i, start + k, row[k]);
+				}
+			}
+		}
+	}
+}
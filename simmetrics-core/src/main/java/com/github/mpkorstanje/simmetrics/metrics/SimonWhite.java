@@ -20,7 +20,7 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
-import static com.github.mpkorstanje.simmetrics.metrics.Math.intersection;
+import static com.github.mpkorstanje.simmetrics.metrics.Math.intersectionSize;
 
 import com.github.mpkorstanje.simmetrics.MultisetDistance;
 import com.github.mpkorstanje.simmetrics.MultisetMetric;
@@ -85,7 +85,7 @@ public final class SimonWhite<T> implements MultisetMetric<T>, MultisetDistance<
 		}
 
 		// 2 * ∣a ∩ b∣ / (∣a∣ + ∣b∣)
-		return (2.0f * Math.intersection(a, b).size()) / (a.size() + b.size());
+		return (2.0f * Math.intersectionSize(a, b)) / (a.size() + b.size());
 
 	}
 	
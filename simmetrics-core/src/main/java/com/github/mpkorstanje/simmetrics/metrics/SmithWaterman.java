@@ -23,14 +23,17 @@ package com.github.mpkorstanje.simmetrics.metrics;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
+import static java.util.Arrays.fill;
 import static java.util.Objects.requireNonNull;
 import static com.github.mpkorstanje.simmetrics.metrics.Math.max;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
 
 import com.github.mpkorstanje.simmetrics.metrics.functions.AffineGap;
+import com.github.mpkorstanje.simmetrics.metrics.functions.ConstantGap;
 import com.github.mpkorstanje.simmetrics.metrics.functions.Gap;
+import com.github.mpkorstanje.simmetrics.metrics.functions.LinearGap;
 import com.github.mpkorstanje.simmetrics.metrics.functions.MatchMismatch;
 import com.github.mpkorstanje.simmetrics.metrics.functions.Substitution;
+import com.github.mpkorstanje.simmetrics.CodePoints;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
 /**
@@ -38,6 +41,12 @@ import com.github.mpkorstanje.simmetrics.StringMetric;
  * strings. Implementation uses the implementation as described by Smith and
  * Waterman. This implementation uses quadratic space and cubic time.
  * <p>
+ * When the gap function is an {@link AffineGap}, {@link LinearGap} or
+ * {@link ConstantGap} the penalty of a gap grows linearly with its length. In
+ * that case the best gap ending in a cell can be derived from the best gap
+ * ending in the previous cell as described by Gotoh. The similarity is then
+ * computed in linear space and quadratic time instead.
+ * <p>
  * This class is immutable and thread-safe if its substitution and gap functions
  * are.
  * 
@@ -51,6 +60,7 @@ public final class SmithWaterman implements StringMetric {
 	private final Gap gap;
 	private final Substitution substitution;
 	private final int windowSize;
+	private final boolean affineGap;
 
 	/**
 	 * Constructs a new Smith Waterman metric. Uses an affine gap of
@@ -80,10 +90,16 @@ public final class SmithWaterman implements StringMetric {
 		this.gap = gap;
 		this.substitution = substitution;
 		this.windowSize = windowSize;
+		this.affineGap = gap instanceof AffineGap || gap instanceof LinearGap || gap instanceof ConstantGap;
 	}
 
 	@Override
 	public float compare(String a, String b) {
+		return compare(CodePoints.of(a), CodePoints.of(b));
+	}
+
+	@Override
+	public float compare(CodePoints a, CodePoints b) {
 
 		if (a.isEmpty() && b.isEmpty()) {
 			return 1.0f;
@@ -91,14 +107,17 @@ public final class SmithWaterman implements StringMetric {
 		if (a.isEmpty() || b.isEmpty()) {
 			return 0.0f;
 		}
-		float maxDistance = min(codePointLength(a), codePointLength(b)) * max(substitution.max(), gap.min());
+		float maxDistance = min(a.length(), b.length()) * max(substitution.max(), gap.min());
+		if (affineGap) {
+			return smithWatermanGotoh(a, b) / maxDistance;
+		}
 		return smithWaterman(a, b) / maxDistance;
 
 	}
 
-	private float smithWaterman(String a, String b) {
-		final int n = codePointLength(a);
-		final int m = codePointLength(b);
+	private float smithWaterman(CodePoints a, CodePoints b) {
+		final int n = a.length();
+		final int m = b.length();
 
 		final float[][] d = new float[n][m];
 
@@ -164,6 +183,61 @@ public final class SmithWaterman implements StringMetric {
 		return max;
 	}
 
+	private float smithWatermanGotoh(CodePoints a, CodePoints b) {
+		final int n = a.length();
+		final int m = b.length();
+
+		// Every gap in an affine gap function costs open + extend * length
+		final float open = gap.value(0, 1);
+		final float extend = gap.value(0, 2) - open;
+
+		// Previous and current row of d
+		float[] d0 = new float[m];
+		float[] d1 = new float[m];
+
+		// Best deletion ending in each column of the current row
+		final float[] deletion = new float[m];
+		fill(deletion, Float.NEGATIVE_INFINITY);
+
+		float max = 0;
+
+		for (int i = 0; i < n; i++) {
+			// A deletion may start in row i - 1 if it is inside the window
+			final boolean openDeletion = 1 <= i - 1 && i - 1 <= windowSize;
+
+			// Best insertion ending in the current cell
+			float insertion = Float.NEGATIVE_INFINITY;
+
+			for (int j = 0; j < m; j++) {
+
+				// Find most optimal deletion
+				deletion[j] = max(deletion[j] + extend,
+						openDeletion ? d0[j] + open : Float.NEGATIVE_INFINITY);
+
+				// Find most optimal insertion
+				if (j > 0) {
+					final boolean openInsertion = 1 <= j - 1 && j - 1 <= windowSize;
+					insertion = max(insertion + extend,
+							openInsertion ? d1[j - 1] + open : Float.NEGATIVE_INFINITY);
+				}
+
+				// Cells on the edge have no predecessor to substitute from
+				final float substitute = i > 0 && j > 0
+						? d0[j - 1] + substitution.compare(a, i, b, j)
+						: substitution.compare(a, i, b, j);
+
+				// Find most optimal of insertion, deletion and substitution
+				d1[j] = max(0, deletion[j], insertion, substitute);
+
+				max = max(max, d1[j]);
+			}
+
+			final float[] swap = d0; d0 = d1; d1 = swap;
+		}
+
+		return max;
+	}
+
 	@Override
 	public String toString() {
 		return "SmithWaterman [gap=" + gap + ", substitution=" + substitution
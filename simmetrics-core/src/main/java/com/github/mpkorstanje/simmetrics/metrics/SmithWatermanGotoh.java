@@ -26,10 +26,10 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 import static com.github.mpkorstanje.simmetrics.metrics.Math.max;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
 
 import com.github.mpkorstanje.simmetrics.metrics.functions.MatchMismatch;
 import com.github.mpkorstanje.simmetrics.metrics.functions.Substitution;
+import com.github.mpkorstanje.simmetrics.CodePoints;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
 /**
@@ -37,7 +37,18 @@ import com.github.mpkorstanje.simmetrics.StringMetric;
  * strings. This implementation uses optimizations described in Osamu Gotoh
  * (1982). "An improved algorithm for matching biological sequences". Journal of
  * molecular biology 162: 705" and uses constant space and quadratic time.
- * 
+ * <p>
+ * The alignment can be restricted to a band around the diagonal. Only cells
+ * within {@code bandWidth} of the diagonal are evaluated, reducing the cost
+ * from {@code O(n·m)} to {@code O(bandWidth·max(n,m))}. Local alignments
+ * that would leave the band are cut off at its edge.
+ * <p>
+ * The banded score equals the exact score when an optimal local alignment lies
+ * entirely within the band. That is, when it starts at most {@code bandWidth}
+ * code points from the diagonal and the number of gaps, together with that
+ * offset, never moves it further than {@code bandWidth} away. This is typical
+ * for near-duplicates. Otherwise the banded score is a lower bound of the exact
+ * score.
  * <p>
  * This class is immutable and thread-safe if its substitution functions are.
  * 
@@ -53,8 +64,12 @@ public final class SmithWatermanGotoh implements StringMetric {
 	private static final Substitution MATCH_1_MISMATCH_MINUS_2 = new MatchMismatch(
 			1.0f, -2.0f);
 
+	private static final int UNBANDED = Integer.MAX_VALUE;
+
 	private final float gapValue;
 
+	private final int bandWidth;
+
 	private Substitution substitution;
 
 	/**
@@ -75,14 +90,36 @@ public final class SmithWatermanGotoh implements StringMetric {
 	 *            a substitution function
 	 */
 	public SmithWatermanGotoh(float gapValue, Substitution substitution) {
+		this(gapValue, substitution, UNBANDED);
+	}
+
+	/**
+	 * Constructs a new banded Smith Waterman metric. Only cells within
+	 * {@code bandWidth} of the diagonal are evaluated.
+	 * 
+	 * @param gapValue
+	 *            a non-positive gap penalty
+	 * @param substitution
+	 *            a substitution function
+	 * @param bandWidth
+	 *            a non-negative maximum distance from the diagonal
+	 */
+	public SmithWatermanGotoh(float gapValue, Substitution substitution, int bandWidth) {
 		checkArgument(gapValue <= 0.0f);
 		requireNonNull(substitution);
+		checkArgument(bandWidth >= 0);
 		this.gapValue = gapValue;
 		this.substitution = substitution;
+		this.bandWidth = bandWidth;
 	}
 
 	@Override
 	public float compare(final String a, final String b) {
+		return compare(CodePoints.of(a), CodePoints.of(b));
+	}
+
+	@Override
+	public float compare(final CodePoints a, final CodePoints b) {
 
 		if (a.isEmpty() && b.isEmpty()) {
 			return 1.0f;
@@ -92,38 +129,56 @@ public final class SmithWatermanGotoh implements StringMetric {
 			return 0.0f;
 		}
 
-		float maxDistance = min(codePointLength(a), codePointLength(b)) * max(substitution.max(), gapValue);
+		float maxDistance = min(a.length(), b.length()) * max(substitution.max(), gapValue);
 		return smithWatermanGotoh(a, b) / maxDistance;
 	}
 
-	private float smithWatermanGotoh(final String s, final String t) {
-		
-		float[] v0 = new float[codePointLength(t)];
-		float[] v1 = new float[v0.length];
+	private float smithWatermanGotoh(final CodePoints s, final CodePoints t) {
+		final int n = s.length();
+		final int m = t.length();
+
+		// Cells outside the band score zero, the same as a local alignment
+		// that has not started yet.
+		final int k = min(n + m, bandWidth);
+
+		float[] v0 = new float[m];
+		float[] v1 = new float[m];
 
 		float max = v0[0] = max(0, gapValue, substitution.compare(s, 0, t, 0));
 
-		for (int j = 1; j < v0.length; j++) {
+		for (int j = 1, to = min(m - 1, k); j <= to; j++) {
 			v0[j] = max(0, v0[j - 1] + gapValue,
 					substitution.compare(s, 0, t, j));
 
 			max = max(max, v0[j]);
 		}
+		if (k + 1 < m) {
+			v0[k + 1] = 0;
+		}
 
-		// Find max
-		for (int i = 1, length = codePointLength(s) ; i < length; i++) {
-			v1[0] = max(0, v0[0] + gapValue, substitution.compare(s, i, t, 0));
+		// Find max, rows below the band contain no cells
+		for (int i = 1, rows = min(n, m + k); i < rows; i++) {
+			final int from = max(1, i - k);
+			final int to = min(m - 1, i + k);
 
-			max = max(max, v1[0]);
+			if (i <= k) {
+				v1[0] = max(0, v0[0] + gapValue, substitution.compare(s, i, t, 0));
+				max = max(max, v1[0]);
+			} else {
+				v1[from - 1] = 0;
+			}
+			if (to + 1 < m) {
+				v1[to + 1] = 0;
+			}
 
-			for (int j = 1; j < v0.length; j++) {
+			for (int j = from; j <= to; j++) {
 				v1[j] = max(0, v0[j] + gapValue, v1[j - 1] + gapValue,
 						v0[j - 1] + substitution.compare(s, i, t, j));
 
 				max = max(max, v1[j]);
 			}
 
-			System.arraycopy(v1, 0, v0, 0, v0.length);
+			final float[] swap = v0; v0 = v1; v1 = swap;
 		}
 
 		return max;
@@ -132,6 +187,6 @@ public final class SmithWatermanGotoh implements StringMetric {
 	@Override
 	public String toString() {
 		return "SmithWatermanGotoh [substitution=" + substitution + ", gapValue="
-				+ gapValue + "]";
+				+ gapValue + (bandWidth == UNBANDED ? "" : ", bandWidth=" + bandWidth) + "]";
 	}
 }
@@ -20,7 +20,7 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
-import static com.github.mpkorstanje.simmetrics.metrics.Math.intersection;
+import static com.github.mpkorstanje.simmetrics.metrics.Math.intersectionSize;
 import static java.lang.Math.sqrt;
 
 import java.util.Set;
@@ -67,7 +67,7 @@ public final class TanimotoCoefficient<T> implements SetMetric<T> {
 		// a·b / (||a|| * ||b||)
 		// Dot product of two binary vectors is the intersection of two sets
 		// Magnitude of a binary vectors is square root of its size.
-		return (float) (intersection(a, b).size() / (sqrt(a.size()) * sqrt(b.size())));
+		return (float) (intersectionSize(a, b) / (sqrt(a.size()) * sqrt(b.size())));
 	}
 
 	@Override
@@ -29,4 +29,32 @@ class Unicode {
 		return s.codePointCount(0, s.length());
 	}
 
+	/*
+	 * Decodes the code points of s into the given array. The array must be at
+	 * least as long as the number of chars in s. Returns the number of code
+	 * points decoded.
+	 */
+	static int decode(String s, int[] codePoints) {
+		final int length = s.length();
+
+		// Until the first surrogate each char is a code point. For strings
+		// in the Basic Multilingual Plane this is the whole string.
+		int i = 0;
+		for (; i < length; i++) {
+			final char c = s.charAt(i);
+			if (Character.isSurrogate(c)) {
+				break;
+			}
+			codePoints[i] = c;
+		}
+
+		int decoded = i;
+		while (i < length) {
+			final int codePoint = s.codePointAt(i);
+			codePoints[decoded++] = codePoint;
+			i += Character.charCount(codePoint);
+		}
+		return decoded;
+	}
+
 }
@@ -21,6 +21,8 @@ package com.github.mpkorstanje.simmetrics.metrics.functions;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import com.github.mpkorstanje.simmetrics.CodePoints;
+
 /**
  * A substitution function that assigns one value to equal characters, another
  * value to unequal characters.
@@ -56,6 +58,13 @@ public class MatchMismatch implements Substitution {
 
 	@Override
 	public float compare(String a, int aIndex, String b, int bIndex) {
+		final int aCodePoint = a.codePointAt(a.offsetByCodePoints(0, aIndex));
+		final int bCodePoint = b.codePointAt(b.offsetByCodePoints(0, bIndex));
+		return aCodePoint == bCodePoint ? matchValue : mismatchValue;
+	}
+
+	@Override
+	public float compare(CodePoints a, int aIndex, CodePoints b, int bIndex) {
 		return a.codePointAt(aIndex) == b.codePointAt(bIndex) ? matchValue : mismatchValue;
 	}
 
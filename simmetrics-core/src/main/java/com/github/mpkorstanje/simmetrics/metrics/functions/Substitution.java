@@ -21,6 +21,8 @@
 
 package com.github.mpkorstanje.simmetrics.metrics.functions;
 
+import com.github.mpkorstanje.simmetrics.CodePoints;
+
 /**
  * A substitution function assigns value to the substitution of one character
  * for another matching against another string.
@@ -54,6 +56,27 @@ public interface Substitution {
 	 */
 	float compare(String a, int aIndex, String b, int bIndex);
 
+	/**
+	 * Rates the substitution of code point <code>a.codePointAt(aIndex)</code>
+	 * against <code>b.codePointAt(bIndex)</code>.
+	 * <p>
+	 * The default implementation rates the substitution on the strings the
+	 * code points were decoded from.
+	 * 
+	 * @param a
+	 *            code points to check in
+	 * @param aIndex
+	 *            index of code point in <code>a</code> to compare
+	 * @param b
+	 *            other code points to check in
+	 * @param bIndex
+	 *            index of code point in <code>b</code> to compare
+	 * @return a score indicating the code points (dis) similarity
+	 */
+	default float compare(CodePoints a, int aIndex, CodePoints b, int bIndex) {
+		return compare(a.toString(), aIndex, b.toString(), bIndex);
+	}
+
 	/**
 	 * Returns the maximum value a gap can have
 	 * 
@@ -0,0 +1,256 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.CodePoints;
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.metrics.HammingDistance;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.metrics.LongestCommonSubSequence;
+
+/**
+ * Burkhard-Keller tree for range queries in a metric space of strings.
+ * <p>
+ * Each node of the tree holds a record. The children of a node are keyed by
+ * their distance to it. Because the distance satisfies the triangle
+ * inequality a range query only has to visit the children whose key is
+ * within the query range of the distance between the query and the node.
+ * <p>
+ * Records are decoded into code points once when they are added and the
+ * query is decoded once per search. Nodes are compared with the bounded
+ * distance so comparisons stop early once no child can be in range.
+ * <p>
+ * The tree is only correct for distances that satisfy the triangle
+ * inequality such as {@link Levenshtein} with unit costs,
+ * {@link LongestCommonSubSequence} and {@link HammingDistance#forString()}.
+ * The Hamming distance is only defined for strings of equal length. Note that
+ * {@code DamerauLevenshtein} computes the optimal string alignment distance.
+ * This distance does not satisfy the triangle inequality and a search may
+ * miss records within range.
+ * <p>
+ * This class is not thread-safe. Concurrent searches are safe as long as no
+ * records are added.
+ * 
+ * @see <a href="https://en.wikipedia.org/wiki/BK-tree">Wikipedia - BK-tree</a>
+ */
+public final class BKTree {
+
+	private final StringDistance distance;
+
+	private Node root;
+
+	private int size;
+
+	private BKTree(StringDistance distance) {
+		this.distance = distance;
+	}
+
+	/**
+	 * Creates an empty BK-tree.
+	 * 
+	 * @param distance
+	 *            a distance that satisfies the triangle inequality
+	 * @return an empty BK-tree
+	 */
+	public static BKTree create(StringDistance distance) {
+		return new BKTree(requireNonNull(distance));
+	}
+
+	/**
+	 * Creates a BK-tree containing the records.
+	 * 
+	 * @param distance
+	 *            a distance that satisfies the triangle inequality
+	 * @param records
+	 *            records to add
+	 * @return a BK-tree containing the records
+	 */
+	public static BKTree create(StringDistance distance, Iterable<String> records) {
+		final BKTree tree = create(distance);
+		for (String record : records) {
+			tree.add(record);
+		}
+		return tree;
+	}
+
+	/**
+	 * Adds a record to the tree.
+	 * 
+	 * @param record
+	 *            the record to add
+	 * @return true if the record was added, false if the tree already
+	 *         contained it
+	 */
+	public boolean add(String record) {
+		final CodePoints codePoints = CodePoints.of(requireNonNull(record));
+		if (root == null) {
+			root = new Node(codePoints);
+			size++;
+			return true;
+		}
+
+		Node node = root;
+		while (true) {
+			if (node.record.equals(codePoints)) {
+				return false;
+			}
+			final float key = distance.distance(codePoints, node.record);
+			final Node child = node.child(key);
+			if (child == null) {
+				node.add(key, new Node(codePoints));
+				size++;
+				return true;
+			}
+			node = child;
+		}
+	}
+
+	/**
+	 * Returns all records within {@code maxDistance} of the query, nearest
+	 * first. Records at equal distance are in their natural order.
+	 * 
+	 * @param query
+	 *            the query
+	 * @param maxDistance
+	 *            the largest distance of interest
+	 * @return all records within {@code maxDistance} of the query
+	 */
+	public List<Neighbor> search(String query, float maxDistance) {
+		requireNonNull(query);
+		checkArgument(maxDistance >= 0, "maxDistance must be non-negative %s", maxDistance);
+
+		final List<Neighbor> neighbors = new ArrayList<>();
+		if (root == null) {
+			return neighbors;
+		}
+
+		final CodePoints codePoints = CodePoints.of(query);
+		final Deque<Node> nodes = new ArrayDeque<>();
+		nodes.push(root);
+		while (!nodes.isEmpty()) {
+			final Node node = nodes.pop();
+			// Children are only in range when d(q, n) <= maxDistance + key
+			final float bound = maxDistance + node.maxKey();
+			final float d = distance.distance(codePoints, node.record, bound);
+			if (d > bound) {
+				continue;
+			}
+			if (d <= maxDistance) {
+				neighbors.add(new Neighbor(node.record.toString(), d));
+			}
+			for (int i = node.lowerBound(d - maxDistance); i < node.size && node.keys[i] <= d + maxDistance; i++) {
+				nodes.push(node.children[i]);
+			}
+		}
+		neighbors.sort(Neighbor.NEAREST_FIRST);
+		return neighbors;
+	}
+
+	/**
+	 * Returns the distance used to organize the tree.
+	 * 
+	 * @return the distance
+	 */
+	public StringDistance getDistance() {
+		return distance;
+	}
+
+	/**
+	 * Returns the number of records in the tree.
+	 * 
+	 * @return the number of records in the tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "BKTree [distance=" + distance + ", size=" + size + "]";
+	}
+
+	/*
+	 * Children are stored in arrays sorted by key. Distances between strings
+	 * take few distinct values so most nodes have only a handful of children.
+	 */
+	private static final class Node {
+		private static final float[] NO_KEYS = new float[0];
+		private static final Node[] NO_CHILDREN = new Node[0];
+
+		final CodePoints record;
+		float[] keys = NO_KEYS;
+		Node[] children = NO_CHILDREN;
+		int size;
+
+		Node(CodePoints record) {
+			this.record = record;
+		}
+
+		float maxKey() {
+			return size == 0 ? 0 : keys[size - 1];
+		}
+
+		Node child(float key) {
+			final int i = lowerBound(key);
+			return i < size && keys[i] == key ? children[i] : null;
+		}
+
+		void add(float key, Node child) {
+			final int i = lowerBound(key);
+			if (size == keys.length) {
+				final int capacity = Math.max(2, size * 2);
+				keys = Arrays.copyOf(keys, capacity);
+				children = Arrays.copyOf(children, capacity);
+			}
+			System.arraycopy(keys, i, keys, i + 1, size - i);
+			System.arraycopy(children, i, children, i + 1, size - i);
+			keys[i] = key;
+			children[i] = child;
+			size++;
+		}
+
+		/*
+		 * Returns the index of the first key equal to or greater than key.
+		 */
+		int lowerBound(float key) {
+			int low = 0;
+			int high = size;
+			while (low < high) {
+				final int middle = (low + high) >>> 1;
+				if (keys[middle] < key) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+
+/**
+ * Helpers shared by the indexes and joins of this package.
+ */
+final class Indexes {
+
+	/*
+	 * Simplifier used when records and queries are not simplified.
+	 */
+	static final Simplifier IDENTITY = input -> input;
+
+	private Indexes() {
+		// Utility class
+	}
+
+	/*
+	 * Returns the index of the first element in a[from, to) that is equal to or
+	 * greater than the key. The range must be sorted.
+	 */
+	static int lowerBound(int[] a, int from, int to, int key) {
+		int low = from;
+		int high = to;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (a[middle] < key) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/*
+	 * Returns the index of the first element in a that is equal to or greater
+	 * than the key in unsigned order. The array must be sorted in unsigned
+	 * order, as by RadixSort.
+	 */
+	static int lowerBound(long[] a, long key) {
+		int low = 0;
+		int high = a.length;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (Long.compareUnsigned(a[middle], key) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+}
@@ -0,0 +1,553 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.github.mpkorstanje.simmetrics.Metric;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.Dice;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.OverlapCoefficient;
+import com.github.mpkorstanje.simmetrics.metrics.SimonWhite;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Multiset;
+
+/**
+ * Inverted index for similarity search over a corpus of strings.
+ * <p>
+ * Each record in the corpus is tokenized and every token is mapped to a
+ * posting list of the records containing it. A query only visits the posting
+ * lists of its own tokens, so records that share no token with the query are
+ * never compared. For threshold queries the posting lists are ordered by
+ * record size and records whose size rules out the threshold are skipped.
+ * <p>
+ * The index supports the set metrics {@link Jaccard}, {@link Dice} and
+ * {@link OverlapCoefficient} and the multiset metrics {@link CosineSimilarity}
+ * and {@link SimonWhite}. The similarities found are equal to those of the
+ * metric composed by the {@code StringMetricBuilder} using the same simplifier
+ * and tokenizer.
+ * <p>
+ * Records that share no token with the query have a similarity of zero and
+ * are never returned. An empty query only matches empty records.
+ * <p>
+ * This class is immutable and thread-safe provided the tokenizer and
+ * simplifier are also thread-safe.
+ */
+public final class InvertedIndex {
+
+	private static final int[] EMPTY = new int[0];
+
+	private static final long[] NO_INTERSECTIONS = new long[0];
+
+	private final Measure measure;
+
+	private final Metric<?> metric;
+
+	private final Simplifier simplifier;
+
+	private final Tokenizer tokenizer;
+
+	// Records in corpus order
+	private final List<String> records;
+
+	// Corpus position of each record ordered by size
+	private final int[] positions;
+
+	// Size of each record ordered by size
+	private final int[] sizes;
+
+	// Sum of the squared token counts of each record ordered by size
+	private final long[] magnitudes;
+
+	private final Map<String, PostingList> postings;
+
+	private InvertedIndex(Measure measure, Metric<?> metric, Simplifier simplifier, Tokenizer tokenizer,
+			List<String> records) {
+		this.measure = measure;
+		this.metric = metric;
+		this.simplifier = simplifier;
+		this.tokenizer = tokenizer;
+		this.records = records;
+
+		final int n = records.size();
+		final List<Multiset<String>> tokens = new ArrayList<>(n);
+		final Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			tokens.add(tokenize(records.get(i)));
+			order[i] = i;
+		}
+		// Stable, records of equal size stay in corpus order
+		Arrays.sort(order, (a, b) -> Integer.compare(tokens.get(a).size(), tokens.get(b).size()));
+
+		this.positions = new int[n];
+		this.sizes = new int[n];
+		this.magnitudes = new long[n];
+		final Map<String, PostingList> postings = new HashMap<>();
+		for (int id = 0; id < n; id++) {
+			final Multiset<String> recordTokens = tokens.get(order[id]);
+			positions[id] = order[id];
+			sizes[id] = recordTokens.size();
+			long magnitude = 0;
+			for (Multiset.Entry<String> entry : recordTokens.entrySet()) {
+				final int count = entry.getCount();
+				magnitude += (long) count * count;
+				postings.computeIfAbsent(entry.getElement(), token -> new PostingList()).add(id, count);
+			}
+			magnitudes[id] = magnitude;
+		}
+		for (PostingList postingList : postings.values()) {
+			postingList.trim();
+		}
+		this.postings = postings;
+	}
+
+	/**
+	 * Creates an inverted index over a corpus.
+	 * 
+	 * @param metric
+	 *            one of {@link Jaccard}, {@link Dice},
+	 *            {@link OverlapCoefficient}, {@link CosineSimilarity} or
+	 *            {@link SimonWhite}
+	 * @param tokenizer
+	 *            tokenizer for the records and queries
+	 * @param corpus
+	 *            records to index
+	 * @return an inverted index over the corpus
+	 * @throws IllegalArgumentException
+	 *             when the metric is not supported
+	 */
+	public static InvertedIndex create(Metric<?> metric, Tokenizer tokenizer, List<String> corpus) {
+		return create(metric, Indexes.IDENTITY, tokenizer, corpus);
+	}
+
+	/**
+	 * Creates an inverted index over a corpus. Records and queries are
+	 * simplified before they are tokenized.
+	 * 
+	 * @param metric
+	 *            one of {@link Jaccard}, {@link Dice},
+	 *            {@link OverlapCoefficient}, {@link CosineSimilarity} or
+	 *            {@link SimonWhite}
+	 * @param simplifier
+	 *            simplifier for the records and queries
+	 * @param tokenizer
+	 *            tokenizer for the records and queries
+	 * @param corpus
+	 *            records to index
+	 * @return an inverted index over the corpus
+	 * @throws IllegalArgumentException
+	 *             when the metric is not supported
+	 */
+	public static InvertedIndex create(Metric<?> metric, Simplifier simplifier, Tokenizer tokenizer,
+			List<String> corpus) {
+		requireNonNull(metric);
+		requireNonNull(simplifier);
+		requireNonNull(tokenizer);
+		final List<String> records = new ArrayList<>(corpus);
+		for (String record : records) {
+			requireNonNull(record);
+		}
+		return new InvertedIndex(Measure.of(metric), metric, simplifier, tokenizer,
+				Collections.unmodifiableList(records));
+	}
+
+	/**
+	 * Returns the indexed records in corpus order.
+	 * 
+	 * @return the indexed records
+	 */
+	public List<String> getRecords() {
+		return records;
+	}
+
+	/**
+	 * Returns the metric used to compute similarities.
+	 * 
+	 * @return the metric
+	 */
+	public Metric<?> getMetric() {
+		return metric;
+	}
+
+	/**
+	 * Returns the tokenizer used to tokenize records and queries.
+	 * 
+	 * @return the tokenizer
+	 */
+	public Tokenizer getTokenizer() {
+		return tokenizer;
+	}
+
+	/**
+	 * Returns the number of indexed records.
+	 * 
+	 * @return the number of indexed records
+	 */
+	public int size() {
+		return records.size();
+	}
+
+	/**
+	 * Returns the k records most similar to the query, most similar first.
+	 * Records of equal similarity are ordered by their position in the corpus.
+	 * 
+	 * @param query
+	 *            the query
+	 * @param k
+	 *            the maximum number of records to return
+	 * @return at most k records, most similar first
+	 */
+	public List<Match> topK(String query, int k) {
+		requireNonNull(query);
+		checkArgument(k >= 0, "k must be non-negative %s", k);
+		if (k == 0) {
+			return Collections.emptyList();
+		}
+
+		final PriorityQueue<Match> best = new PriorityQueue<>(Match.BEST_FIRST.reversed());
+		search(tokenize(query), 0, Integer.MAX_VALUE, (id, similarity) -> {
+			if (best.size() < k) {
+				best.add(match(id, similarity));
+			} else if (similarity >= best.peek().getSimilarity()) {
+				final Match match = match(id, similarity);
+				if (Match.BEST_FIRST.compare(match, best.peek()) < 0) {
+					best.poll();
+					best.add(match);
+				}
+			}
+		});
+		final List<Match> matches = new ArrayList<>(best);
+		matches.sort(Match.BEST_FIRST);
+		return matches;
+	}
+
+	/**
+	 * Returns all records with a similarity to the query equal to or greater
+	 * than the threshold, most similar first. Records of equal similarity are
+	 * ordered by their position in the corpus.
+	 * 
+	 * @param query
+	 *            the query
+	 * @param threshold
+	 *            the minimum similarity, in the range (0, 1]
+	 * @return all records at or above the threshold, most similar first
+	 */
+	public List<Match> above(String query, float threshold) {
+		requireNonNull(query);
+		checkArgument(0.0f < threshold && threshold <= 1.0f, "threshold must be in range (0, 1] %s", threshold);
+
+		final List<Match> matches = new ArrayList<>();
+		final Multiset<String> queryTokens = tokenize(query);
+		final int querySize = queryTokens.size();
+		search(queryTokens, measure.minSize(querySize, threshold), measure.maxSize(querySize, threshold),
+				(id, similarity) -> {
+					if (similarity >= threshold) {
+						matches.add(match(id, similarity));
+					}
+				});
+		matches.sort(Match.BEST_FIRST);
+		return matches;
+	}
+
+	@Override
+	public String toString() {
+		return "InvertedIndex [metric=" + metric + ", tokenizer=" + tokenizer + ", size=" + size() + "]";
+	}
+
+	private Match match(int id, float similarity) {
+		final int position = positions[id];
+		return new Match(position, records.get(position), similarity);
+	}
+
+	private Multiset<String> tokenize(String input) {
+		final String simplified = simplifier.simplify(input);
+		if (measure.multiset) {
+			return tokenizer.tokenizeToMultiset(simplified);
+		}
+		return ImmutableMultiset.copyOf(tokenizer.tokenizeToSet(simplified));
+	}
+
+	private interface Candidates {
+		void accept(int id, float similarity);
+	}
+
+	/*
+	 * Passes every record with a size in [minSize, maxSize] that shares a
+	 * token with the query to the candidates.
+	 */
+	private void search(Multiset<String> queryTokens, int minSize, int maxSize, Candidates candidates) {
+		final int querySize = queryTokens.size();
+
+		final int fromId = Indexes.lowerBound(sizes, 0, sizes.length, minSize);
+		final int toId = maxSize == Integer.MAX_VALUE ? sizes.length
+				: Indexes.lowerBound(sizes, fromId, sizes.length, maxSize + 1);
+
+		if (queryTokens.isEmpty()) {
+			// Empty records only match the empty query
+			for (int id = fromId; id < toId && sizes[id] == 0; id++) {
+				candidates.accept(id, 1.0f);
+			}
+			return;
+		}
+
+		final Accumulator accumulator = Accumulator.threadLocal(sizes.length);
+		try {
+			long queryMagnitude = 0;
+			for (Multiset.Entry<String> entry : queryTokens.entrySet()) {
+				final int queryCount = entry.getCount();
+				queryMagnitude += (long) queryCount * queryCount;
+
+				final PostingList postingList = postings.get(entry.getElement());
+				if (postingList == null) {
+					continue;
+				}
+				final int[] ids = postingList.ids;
+				final int[] counts = postingList.counts;
+				final int to = Indexes.lowerBound(ids, 0, ids.length, toId);
+				for (int p = Indexes.lowerBound(ids, 0, to, fromId); p < to; p++) {
+					accumulator.add(ids[p], measure.intersection(queryCount, counts[p]));
+				}
+			}
+
+			final long[] intersections = accumulator.intersections;
+			final int[] touched = accumulator.touched;
+			for (int t = 0; t < accumulator.touchedCount; t++) {
+				final int id = touched[t];
+				candidates.accept(id, measure.similarity(intersections[id], querySize, sizes[id], queryMagnitude,
+						magnitudes[id]));
+			}
+		} finally {
+			accumulator.clear();
+		}
+	}
+
+	/*
+	 * Intersections of the records that share a token with the query. Reused
+	 * by all searches on the same thread. Only the touched records are reset
+	 * after a search, so a search does not cost time in the size of the
+	 * corpus.
+	 */
+	private static final class Accumulator {
+
+		private static final ThreadLocal<Accumulator> THREAD_LOCAL = ThreadLocal.withInitial(Accumulator::new);
+
+		long[] intersections = NO_INTERSECTIONS;
+		int[] touched = EMPTY;
+		int touchedCount;
+
+		static Accumulator threadLocal(int size) {
+			final Accumulator accumulator = THREAD_LOCAL.get();
+			if (accumulator.intersections.length < size) {
+				accumulator.intersections = new long[size];
+			}
+			return accumulator;
+		}
+
+		void add(int id, long intersection) {
+			if (intersections[id] == 0) {
+				if (touchedCount == touched.length) {
+					touched = Arrays.copyOf(touched, Math.max(16, touchedCount * 2));
+				}
+				touched[touchedCount++] = id;
+			}
+			intersections[id] += intersection;
+		}
+
+		void clear() {
+			for (int t = 0; t < touchedCount; t++) {
+				intersections[touched[t]] = 0;
+			}
+			touchedCount = 0;
+		}
+	}
+
+	private static final class PostingList {
+		int[] ids = new int[4];
+		int[] counts = new int[4];
+		int length;
+
+		void add(int id, int count) {
+			if (length == ids.length) {
+				ids = Arrays.copyOf(ids, length * 2);
+				counts = Arrays.copyOf(counts, length * 2);
+			}
+			ids[length] = id;
+			counts[length] = count;
+			length++;
+		}
+
+		void trim() {
+			ids = Arrays.copyOf(ids, length);
+			counts = Arrays.copyOf(counts, length);
+		}
+	}
+
+	/*
+	 * Computes the similarity of a query and record from the size of their
+	 * intersection. Each measure replicates the arithmetic of its metric.
+	 */
+	private enum Measure {
+		JACCARD(false) {
+			@Override
+			float similarity(long intersection, int querySize, int recordSize, long queryMagnitude,
+					long recordMagnitude) {
+				return intersection / (float) (querySize + recordSize - intersection);
+			}
+
+			@Override
+			int minSize(int querySize, float threshold) {
+				return floor(querySize * (double) threshold);
+			}
+
+			@Override
+			int maxSize(int querySize, float threshold) {
+				return ceil(querySize / (double) threshold);
+			}
+		},
+		DICE(false) {
+			@Override
+			float similarity(long intersection, int querySize, int recordSize, long queryMagnitude,
+					long recordMagnitude) {
+				return (2.0f * intersection) / (querySize + recordSize);
+			}
+
+			@Override
+			int minSize(int querySize, float threshold) {
+				return floor(querySize * threshold / (2.0 - threshold));
+			}
+
+			@Override
+			int maxSize(int querySize, float threshold) {
+				return ceil(querySize * (2.0 - threshold) / threshold);
+			}
+		},
+		OVERLAP_COEFFICIENT(false) {
+			@Override
+			float similarity(long intersection, int querySize, int recordSize, long queryMagnitude,
+					long recordMagnitude) {
+				return intersection / (float) Math.min(querySize, recordSize);
+			}
+		},
+		COSINE_SIMILARITY(true) {
+			@Override
+			long intersection(int queryCount, int recordCount) {
+				return (long) queryCount * recordCount;
+			}
+
+			@Override
+			float similarity(long intersection, int querySize, int recordSize, long queryMagnitude,
+					long recordMagnitude) {
+				return (float) (intersection / (Math.sqrt(queryMagnitude) * Math.sqrt(recordMagnitude)));
+			}
+		},
+		SIMON_WHITE(true) {
+			@Override
+			long intersection(int queryCount, int recordCount) {
+				return Math.min(queryCount, recordCount);
+			}
+
+			@Override
+			float similarity(long intersection, int querySize, int recordSize, long queryMagnitude,
+					long recordMagnitude) {
+				return (2.0f * intersection) / (querySize + recordSize);
+			}
+
+			@Override
+			int minSize(int querySize, float threshold) {
+				return DICE.minSize(querySize, threshold);
+			}
+
+			@Override
+			int maxSize(int querySize, float threshold) {
+				return DICE.maxSize(querySize, threshold);
+			}
+		};
+
+		final boolean multiset;
+
+		Measure(boolean multiset) {
+			this.multiset = multiset;
+		}
+
+		static Measure of(Metric<?> metric) {
+			if (metric instanceof Jaccard) {
+				return JACCARD;
+			} else if (metric instanceof Dice) {
+				return DICE;
+			} else if (metric instanceof OverlapCoefficient) {
+				return OVERLAP_COEFFICIENT;
+			} else if (metric instanceof CosineSimilarity) {
+				return COSINE_SIMILARITY;
+			} else if (metric instanceof SimonWhite) {
+				return SIMON_WHITE;
+			}
+			throw new IllegalArgumentException("Unsupported metric " + metric);
+		}
+
+		/*
+		 * Contribution of a token that occurs in both query and record to
+		 * the intersection.
+		 */
+		long intersection(int queryCount, int recordCount) {
+			return 1;
+		}
+
+		abstract float similarity(long intersection, int querySize, int recordSize, long queryMagnitude,
+				long recordMagnitude);
+
+		/*
+		 * Smallest record size that may reach the threshold. Bounds are
+		 * widened by one to absorb rounding in the similarity.
+		 */
+		int minSize(int querySize, float threshold) {
+			return 0;
+		}
+
+		/*
+		 * Largest record size that may reach the threshold.
+		 */
+		int maxSize(int querySize, float threshold) {
+			return Integer.MAX_VALUE;
+		}
+
+		private static int floor(double size) {
+			return Math.max(0, (int) Math.floor(size) - 1);
+		}
+
+		private static int ceil(double size) {
+			final double bound = Math.ceil(size) + 1;
+			return bound >= Integer.MAX_VALUE - 1 ? Integer.MAX_VALUE : (int) bound;
+		}
+	}
+
+}
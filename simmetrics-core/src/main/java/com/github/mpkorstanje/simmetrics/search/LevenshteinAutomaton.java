@@ -0,0 +1,416 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.mpkorstanje.simmetrics.metrics.DamerauLevenshtein;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+
+/**
+ * Deterministic automaton that accepts all strings within a maximum edit
+ * distance of a query.
+ * <p>
+ * The automaton is built once per query and tells in a single pass over a
+ * string whether it is within range, without computing the edit distance.
+ * Because the automaton reads strings from left to right, a search of a
+ * sorted dictionary shares the work for common prefixes and skips every word
+ * that starts with a prefix that can no longer be within range.
+ * <p>
+ * The states of the automaton are the rows of the edit distance matrix with
+ * all values above the maximum distance capped. The automaton only
+ * distinguishes the code points of the query, all other code points share a
+ * single transition. The distances agree with {@link Levenshtein} and
+ * {@link DamerauLevenshtein} with unit costs.
+ * <p>
+ * The number of states grows quickly with the maximum distance, which is
+ * therefore limited to {@value #MAX_DISTANCE}.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see <a href="https://doi.org/10.1007/s10032-002-0082-8">Schulz, K. U.,
+ *      Mihov, S. (2002). Fast string correction with Levenshtein automata.
+ *      International Journal on Document Analysis and Recognition.</a>
+ */
+public final class LevenshteinAutomaton {
+
+	/**
+	 * Largest supported maximum distance.
+	 */
+	public static final int MAX_DISTANCE = 3;
+
+	private static final int DEAD = -1;
+
+	private final String query;
+
+	private final int maxDistance;
+
+	private final boolean transpositions;
+
+	// Distinct code points of the query in ascending order
+	private final int[] alphabet;
+
+	// transitions[state][class], classes index the alphabet, the last class
+	// holds all other code points
+	private final int[][] transitions;
+
+	// Distance to the query when the state accepts, otherwise DEAD
+	private final int[] distances;
+
+	private LevenshteinAutomaton(String query, int maxDistance, boolean transpositions) {
+		this.query = query;
+		this.maxDistance = maxDistance;
+		this.transpositions = transpositions;
+		this.alphabet = query.codePoints().distinct().sorted().toArray();
+
+		final int[] classes = query.codePoints().map(c -> Arrays.binarySearch(alphabet, c)).toArray();
+		final Builder builder = new Builder(classes, alphabet.length + 1, maxDistance, transpositions);
+		this.transitions = builder.transitions;
+		this.distances = builder.distances;
+	}
+
+	/**
+	 * Creates an automaton that accepts all strings within the Levenshtein
+	 * distance of the query.
+	 * 
+	 * @param query
+	 *            the query
+	 * @param maxDistance
+	 *            the maximum edit distance, at most {@value #MAX_DISTANCE}
+	 * @return a Levenshtein automaton
+	 */
+	public static LevenshteinAutomaton levenshtein(String query, int maxDistance) {
+		return create(query, maxDistance, false);
+	}
+
+	/**
+	 * Creates an automaton that accepts all strings within the
+	 * Damerau-Levenshtein distance of the query. Like
+	 * {@link DamerauLevenshtein} this is the optimal string alignment
+	 * distance: adjacent transpositions are allowed but a transposed pair is
+	 * never edited again.
+	 * 
+	 * @param query
+	 *            the query
+	 * @param maxDistance
+	 *            the maximum edit distance, at most {@value #MAX_DISTANCE}
+	 * @return a Damerau-Levenshtein automaton
+	 */
+	public static LevenshteinAutomaton damerauLevenshtein(String query, int maxDistance) {
+		return create(query, maxDistance, true);
+	}
+
+	private static LevenshteinAutomaton create(String query, int maxDistance, boolean transpositions) {
+		requireNonNull(query);
+		checkArgument(0 <= maxDistance && maxDistance <= MAX_DISTANCE, "maxDistance must be in range [0, %s] %s",
+				MAX_DISTANCE, maxDistance);
+		return new LevenshteinAutomaton(query, maxDistance, transpositions);
+	}
+
+	/**
+	 * Returns true if the string is within the maximum distance of the query.
+	 * 
+	 * @param s
+	 *            the string to test
+	 * @return true if the string is within the maximum distance
+	 */
+	public boolean matches(String s) {
+		return distance(s) <= maxDistance;
+	}
+
+	/**
+	 * Returns the distance between the query and the string when it does not
+	 * exceed the maximum distance. Otherwise {@link Float#POSITIVE_INFINITY}
+	 * is returned.
+	 * 
+	 * @param s
+	 *            the string to measure
+	 * @return the distance between the query and the string or
+	 *         {@code Float.POSITIVE_INFINITY}
+	 */
+	public float distance(String s) {
+		int state = 0;
+		for (int i = 0; i < s.length() && state != DEAD;) {
+			final int codePoint = s.codePointAt(i);
+			state = transitions[state][classOf(codePoint)];
+			i += Character.charCount(codePoint);
+		}
+		return state == DEAD || distances[state] == DEAD ? Float.POSITIVE_INFINITY : distances[state];
+	}
+
+	/**
+	 * Returns all words in a dictionary within the maximum distance of the
+	 * query, nearest first. Words at equal distance are in their natural
+	 * order.
+	 * <p>
+	 * The dictionary must be sorted in the natural order of strings. Words
+	 * that share a prefix are only read once up to the end of that prefix.
+	 * When a prefix can no longer be within range all words starting with it
+	 * are skipped with a binary search.
+	 * 
+	 * @param dictionary
+	 *            a sorted list of words, preferably with random access
+	 * @return all words within the maximum distance, nearest first
+	 */
+	public List<Neighbor> search(List<String> dictionary) {
+		final List<Neighbor> neighbors = new ArrayList<>();
+
+		// states[p] is the state after reading the first p chars of the
+		// previous word. Only valid on code point boundaries.
+		int[] states = new int[16];
+		String previous = "";
+
+		int index = 0;
+		while (index < dictionary.size()) {
+			final String word = dictionary.get(index);
+			if (states.length <= word.length()) {
+				states = Arrays.copyOf(states, word.length() * 2 + 1);
+			}
+
+			int p = commonPrefix(previous, word);
+			previous = word;
+
+			int state = states[p];
+			while (p < word.length()) {
+				final int codePoint = word.codePointAt(p);
+				state = transitions[state][classOf(codePoint)];
+				p += Character.charCount(codePoint);
+				if (state == DEAD) {
+					break;
+				}
+				states[p] = state;
+			}
+
+			if (state == DEAD) {
+				// Skip all words that start with the dead prefix
+				index = skip(dictionary, index + 1, word.substring(0, p));
+				// The dead prefix may not be reused
+				previous = word.substring(0, p - Character.charCount(word.codePointBefore(p)));
+				continue;
+			}
+
+			if (distances[state] != DEAD) {
+				neighbors.add(new Neighbor(word, distances[state]));
+			}
+			index++;
+		}
+
+		neighbors.sort(Neighbor.NEAREST_FIRST);
+		return neighbors;
+	}
+
+	/**
+	 * Returns the query the automaton was built for.
+	 * 
+	 * @return the query
+	 */
+	public String getQuery() {
+		return query;
+	}
+
+	/**
+	 * Returns the maximum distance of accepted strings.
+	 * 
+	 * @return the maximum distance
+	 */
+	public int getMaxDistance() {
+		return maxDistance;
+	}
+
+	/**
+	 * Returns the number of states of the automaton.
+	 * 
+	 * @return the number of states
+	 */
+	public int size() {
+		return transitions.length;
+	}
+
+	@Override
+	public String toString() {
+		return "LevenshteinAutomaton [query=" + query + ", maxDistance=" + maxDistance + ", transpositions="
+				+ transpositions + ", states=" + size() + "]";
+	}
+
+	private int classOf(int codePoint) {
+		final int i = Arrays.binarySearch(alphabet, codePoint);
+		return i >= 0 ? i : alphabet.length;
+	}
+
+	/*
+	 * Length of the common prefix of a and b that ends on a code point
+	 * boundary.
+	 */
+	private static int commonPrefix(String a, String b) {
+		final int length = Math.min(a.length(), b.length());
+		int p = 0;
+		while (p < length && a.charAt(p) == b.charAt(p)) {
+			p++;
+		}
+		if (p > 0 && Character.isHighSurrogate(a.charAt(p - 1))) {
+			p--;
+		}
+		return p;
+	}
+
+	/*
+	 * Returns the index of the first word at or after from that does not
+	 * start with the prefix. Words that start with the prefix are
+	 * consecutive in a sorted dictionary.
+	 */
+	private static int skip(List<String> dictionary, int from, String prefix) {
+		int low = from;
+		int high = dictionary.size();
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (dictionary.get(middle).startsWith(prefix)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/*
+	 * Builds the automaton by exploring all reachable rows of the edit
+	 * distance matrix. For transpositions a state also holds the previous row
+	 * and the class of the previous code point.
+	 */
+	private static final class Builder {
+
+		private final int[] query;
+		private final int classes;
+		private final int cap;
+		private final boolean transpositions;
+
+		private final Map<State, Integer> ids = new HashMap<>();
+		private final List<State> states = new ArrayList<>();
+		private final Deque<State> pending = new ArrayDeque<>();
+
+		int[][] transitions;
+		int[] distances;
+
+		Builder(int[] query, int classes, int maxDistance, boolean transpositions) {
+			this.query = query;
+			this.classes = classes;
+			this.cap = maxDistance + 1;
+			this.transpositions = transpositions;
+
+			final int n = query.length;
+			final int[] row = new int[n + 1];
+			for (int i = 0; i <= n; i++) {
+				row[i] = Math.min(i, cap);
+			}
+			final int[] none = new int[n + 1];
+			Arrays.fill(none, cap);
+			id(new State(transpositions ? none : null, row, classes - 1));
+
+			final List<int[]> rows = new ArrayList<>();
+			while (!pending.isEmpty()) {
+				final State state = pending.poll();
+				final int[] next = new int[classes];
+				for (int c = 0; c < classes; c++) {
+					next[c] = step(state, c);
+				}
+				rows.add(next);
+			}
+
+			this.transitions = rows.toArray(new int[0][]);
+			this.distances = new int[states.size()];
+			for (int s = 0; s < distances.length; s++) {
+				final int distance = states.get(s).row[n];
+				distances[s] = distance < cap ? distance : DEAD;
+			}
+		}
+
+		private int id(State state) {
+			final Integer id = ids.get(state);
+			if (id != null) {
+				return id;
+			}
+			final int newId = states.size();
+			ids.put(state, newId);
+			states.add(state);
+			pending.add(state);
+			return newId;
+		}
+
+		private int step(State state, int c) {
+			final int n = query.length;
+			final int[] previous = state.row;
+			final int[] row = new int[n + 1];
+			row[0] = Math.min(previous[0] + 1, cap);
+			int min = row[0];
+			for (int i = 1; i <= n; i++) {
+				final int cost = query[i - 1] == c ? 0 : 1;
+				int value = Math.min(Math.min(previous[i - 1] + cost, previous[i] + 1), row[i - 1] + 1);
+				if (transpositions && i > 1 && query[i - 1] == state.last && query[i - 2] == c) {
+					value = Math.min(value, state.before[i - 2] + 1);
+				}
+				row[i] = Math.min(value, cap);
+				min = Math.min(min, row[i]);
+			}
+			if (min >= cap) {
+				return DEAD;
+			}
+			return id(new State(transpositions ? previous : null, row, c));
+		}
+	}
+
+	private static final class State {
+		final int[] before;
+		final int[] row;
+		final int last;
+		private final int hashCode;
+
+		State(int[] before, int[] row, int last) {
+			this.before = before;
+			this.row = row;
+			// Without transpositions the previous code point is irrelevant
+			this.last = before == null ? 0 : last;
+			this.hashCode = 31 * (31 * Arrays.hashCode(before) + Arrays.hashCode(row)) + this.last;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof State)) {
+				return false;
+			}
+			final State other = (State) o;
+			return last == other.last && Arrays.equals(row, other.row) && Arrays.equals(before, other.before);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+}
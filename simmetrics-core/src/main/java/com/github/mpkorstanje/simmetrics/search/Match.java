@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A record found by a search together with its similarity to the query.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class Match {
+
+	/*
+	 * Orders matches from most to least similar. Ties are broken by the
+	 * position of the record in the corpus.
+	 */
+	static final Comparator<Match> BEST_FIRST = (a, b) -> {
+		final int bySimilarity = Float.compare(b.similarity, a.similarity);
+		return bySimilarity != 0 ? bySimilarity : Integer.compare(a.index, b.index);
+	};
+
+	private final int index;
+
+	private final String record;
+
+	private final float similarity;
+
+	Match(int index, String record, float similarity) {
+		this.index = index;
+		this.record = requireNonNull(record);
+		this.similarity = similarity;
+	}
+
+	/**
+	 * Returns the position of the record in the indexed corpus.
+	 * 
+	 * @return the position of the record
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns the record.
+	 * 
+	 * @return the record
+	 */
+	public String getRecord() {
+		return record;
+	}
+
+	/**
+	 * Returns the similarity of the record to the query.
+	 * 
+	 * @return the similarity of the record to the query
+	 */
+	public float getSimilarity() {
+		return similarity;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof Match)) {
+			return false;
+		}
+		final Match other = (Match) o;
+		return index == other.index && Float.compare(similarity, other.similarity) == 0
+				&& record.equals(other.record);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(index, record, similarity);
+	}
+
+	@Override
+	public String toString() {
+		return "Match [index=" + index + ", record=" + record + ", similarity=" + similarity + "]";
+	}
+
+}
@@ -0,0 +1,182 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import com.github.mpkorstanje.simmetrics.metrics.GeneralizedJaccard;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.tokenizers.TokenHashes;
+
+import com.google.common.collect.Multiset;
+
+/**
+ * MinHash signatures of token sets and multisets.
+ * <p>
+ * A signature holds for each of a number of random permutations of all
+ * tokens the smallest hash of the tokens in a set. The probability that two
+ * sets have the same smallest hash for a permutation equals their
+ * {@link Jaccard} similarity. The fraction of equal values in two signatures
+ * is therefore an estimate of the Jaccard similarity of the sets.
+ * <p>
+ * The signature of a multiset is the signature of the set that contains each
+ * occurrence of a token as a distinct element. This estimates the
+ * {@link GeneralizedJaccard} similarity of the multisets. A multiset in which
+ * every token occurs once has the same signature as the equivalent set.
+ * <p>
+ * Permutations are simulated by mixing the {@link TokenHashes#hash(String)
+ * hash} of a token with a seed per permutation. Signatures are only
+ * comparable when they are created with the same seeds.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see <a href="https://en.wikipedia.org/wiki/MinHash">Wikipedia - MinHash</a>
+ */
+public final class MinHash {
+
+	// Separates occurrences of a token in a multiset
+	private static final long OCCURRENCE = 0x9E3779B97F4A7C15L;
+
+	private final long[] seeds;
+
+	private MinHash(long[] seeds) {
+		this.seeds = seeds;
+	}
+
+	/**
+	 * Creates MinHash signatures with the given number of permutations. The
+	 * seeds of the permutations are derived from the seed.
+	 * 
+	 * @param permutations
+	 *            number of permutations, the size of a signature
+	 * @param seed
+	 *            seed to derive the seeds of the permutations from
+	 * @return MinHash signatures
+	 */
+	public static MinHash create(int permutations, long seed) {
+		checkArgument(permutations > 0, "permutations must be positive %s", permutations);
+		final SplittableRandom random = new SplittableRandom(seed);
+		final long[] seeds = new long[permutations];
+		for (int i = 0; i < permutations; i++) {
+			seeds[i] = random.nextLong();
+		}
+		return new MinHash(seeds);
+	}
+
+	/**
+	 * Creates MinHash signatures with one permutation per seed.
+	 * 
+	 * @param seeds
+	 *            seeds of the permutations
+	 * @return MinHash signatures
+	 */
+	public static MinHash create(long... seeds) {
+		checkArgument(seeds.length > 0, "seeds may not be empty");
+		return new MinHash(seeds.clone());
+	}
+
+	/**
+	 * Returns the number of permutations, the size of a signature.
+	 * 
+	 * @return the number of permutations
+	 */
+	public int getPermutations() {
+		return seeds.length;
+	}
+
+	/**
+	 * Returns the signature of a set of tokens.
+	 * 
+	 * @param tokens
+	 *            the tokens
+	 * @return the signature of the tokens
+	 */
+	public long[] signature(Set<String> tokens) {
+		final long[] signature = emptySignature();
+		for (String token : tokens) {
+			update(signature, TokenHashes.hash(requireNonNull(token)));
+		}
+		return signature;
+	}
+
+	/**
+	 * Returns the signature of a multiset of tokens.
+	 * 
+	 * @param tokens
+	 *            the tokens
+	 * @return the signature of the tokens
+	 */
+	public long[] signature(Multiset<String> tokens) {
+		final long[] signature = emptySignature();
+		for (Multiset.Entry<String> entry : tokens.entrySet()) {
+			final long hash = TokenHashes.hash(requireNonNull(entry.getElement()));
+			for (int occurrence = 0; occurrence < entry.getCount(); occurrence++) {
+				update(signature, hash + occurrence * OCCURRENCE);
+			}
+		}
+		return signature;
+	}
+
+	/**
+	 * Estimates the Jaccard similarity of two sets from their signatures.
+	 * 
+	 * @param a
+	 *            signature of set a
+	 * @param b
+	 *            signature of set b
+	 * @return the estimated similarity of a and b
+	 */
+	public static float similarity(long[] a, long[] b) {
+		checkArgument(a.length == b.length, "signatures must have the same size");
+		int equal = 0;
+		for (int i = 0; i < a.length; i++) {
+			if (a[i] == b[i]) {
+				equal++;
+			}
+		}
+		return equal / (float) a.length;
+	}
+
+	@Override
+	public String toString() {
+		return "MinHash [permutations=" + seeds.length + "]";
+	}
+
+	private long[] emptySignature() {
+		final long[] signature = new long[seeds.length];
+		Arrays.fill(signature, Long.MAX_VALUE);
+		return signature;
+	}
+
+	private void update(long[] signature, long hash) {
+		for (int i = 0; i < seeds.length; i++) {
+			final long permuted = TokenHashes.mix(hash ^ seeds[i]);
+			if (permuted < signature[i]) {
+				signature[i] = permuted;
+			}
+		}
+	}
+
+}
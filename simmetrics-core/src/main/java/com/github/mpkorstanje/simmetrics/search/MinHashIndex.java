@@ -0,0 +1,525 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.github.mpkorstanje.simmetrics.Metric;
+import com.github.mpkorstanje.simmetrics.PairConsumer;
+import com.github.mpkorstanje.simmetrics.metrics.GeneralizedJaccard;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.tokenizers.TokenHashes;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+
+import com.google.common.collect.Multiset;
+
+/**
+ * Locality sensitive hashing index over MinHash signatures.
+ * <p>
+ * The signature of each record is split into bands of consecutive rows.
+ * Records that agree on all rows of at least one band become candidates.
+ * Two records with a similarity {@code s} become candidates with a
+ * probability of {@code 1 - (1 - s^rows)^bands}. Increasing the number of
+ * rows per band makes the index more selective, increasing the number of
+ * bands makes it more sensitive.
+ * <p>
+ * Candidates can be scored in two ways. The estimated similarity is the
+ * fraction of equal values in the signatures of the records. The exact
+ * similarity is computed by the metric on the tokens of the records. In both
+ * cases the result only contains candidates, similar records that do not
+ * share a band are missed.
+ * <p>
+ * The index supports {@link Jaccard} on token sets and
+ * {@link GeneralizedJaccard} on token multisets. To limit memory use the
+ * index keeps the lower 32 bits of each value in a signature. Records are
+ * tokenized again when they are rescored.
+ * <p>
+ * Records without tokens all have the same signature. Rather than placing
+ * them in a single bucket of every band they are kept apart and only match
+ * queries and records without tokens.
+ * <p>
+ * This class is immutable and thread-safe provided the tokenizer and
+ * simplifier are also thread-safe.
+ * 
+ * @see MinHash
+ * @see <a href="http://www.mmds.org/">Leskovec, J., Rajaraman, A., Ullman, J.
+ *      D. (2014). Mining of Massive Datasets, chapter 3.</a>
+ */
+public final class MinHashIndex {
+
+	private final Metric<?> metric;
+
+	private final boolean multiset;
+
+	// Exact similarity of the tokens of two records
+	private final Metric<Multiset<String>> exact;
+
+	private final Simplifier simplifier;
+
+	private final Tokenizer tokenizer;
+
+	private final MinHash minHash;
+
+	private final int bands;
+
+	private final int rows;
+
+	private final List<String> records;
+
+	// Signatures of all records, one after the other
+	private final int[] signatures;
+
+	// Per band the keys and records with tokens sorted by key
+	private final long[][] keys;
+
+	private final int[][] ids;
+
+	// Records without tokens in ascending order
+	private final int[] empty;
+
+	private MinHashIndex(Metric<?> metric, boolean multiset, Metric<Multiset<String>> exact, Simplifier simplifier,
+			Tokenizer tokenizer, MinHash minHash, int bands, List<String> records) {
+		this.metric = metric;
+		this.multiset = multiset;
+		this.exact = exact;
+		this.simplifier = simplifier;
+		this.tokenizer = tokenizer;
+		this.minHash = minHash;
+		this.bands = bands;
+		this.rows = minHash.getPermutations() / bands;
+		this.records = records;
+
+		final int n = records.size();
+		final int permutations = minHash.getPermutations();
+		this.signatures = new int[n * permutations];
+		final int[] indexed = new int[n];
+		final int[] empty = new int[n];
+		int indexedCount = 0;
+		int emptyCount = 0;
+		for (int id = 0; id < n; id++) {
+			final Multiset<String> tokens = tokenize(records.get(id));
+			if (tokens.isEmpty()) {
+				empty[emptyCount++] = id;
+			} else {
+				indexed[indexedCount++] = id;
+			}
+			final int[] signature = signature(tokens);
+			System.arraycopy(signature, 0, signatures, id * permutations, permutations);
+		}
+		this.empty = Arrays.copyOf(empty, emptyCount);
+
+		this.keys = new long[bands][];
+		this.ids = new int[bands][];
+		for (int band = 0; band < bands; band++) {
+			final long[] bandKeys = new long[indexedCount];
+			final int[] bandIds = new int[indexedCount];
+			for (int i = 0; i < indexedCount; i++) {
+				bandKeys[i] = key(signatures, indexed[i] * permutations, band);
+				bandIds[i] = indexed[i];
+			}
+			RadixSort.sort(bandKeys, bandIds);
+			keys[band] = bandKeys;
+			ids[band] = bandIds;
+		}
+	}
+
+	/**
+	 * Creates a MinHash index over a corpus that compares the token sets of
+	 * records.
+	 * 
+	 * @param metric
+	 *            the metric to rescore candidates with
+	 * @param tokenizer
+	 *            tokenizer for the records and queries
+	 * @param minHash
+	 *            the MinHash signatures to use
+	 * @param bands
+	 *            the number of bands, must divide the number of permutations
+	 * @param corpus
+	 *            records to index
+	 * @return a MinHash index over the corpus
+	 */
+	public static MinHashIndex create(Jaccard<String> metric, Tokenizer tokenizer, MinHash minHash, int bands,
+			List<String> corpus) {
+		return create(metric, Indexes.IDENTITY, tokenizer, minHash, bands, corpus);
+	}
+
+	/**
+	 * Creates a MinHash index over a corpus that compares the token sets of
+	 * records. Records and queries are simplified before they are tokenized.
+	 * 
+	 * @param metric
+	 *            the metric to rescore candidates with
+	 * @param simplifier
+	 *            simplifier for the records and queries
+	 * @param tokenizer
+	 *            tokenizer for the records and queries
+	 * @param minHash
+	 *            the MinHash signatures to use
+	 * @param bands
+	 *            the number of bands, must divide the number of permutations
+	 * @param corpus
+	 *            records to index
+	 * @return a MinHash index over the corpus
+	 */
+	public static MinHashIndex create(Jaccard<String> metric, Simplifier simplifier, Tokenizer tokenizer,
+			MinHash minHash, int bands, List<String> corpus) {
+		requireNonNull(metric);
+		return create(metric, false, (a, b) -> metric.compare(a.elementSet(), b.elementSet()), simplifier,
+				tokenizer, minHash, bands, corpus);
+	}
+
+	/**
+	 * Creates a MinHash index over a corpus that compares the token multisets
+	 * of records.
+	 * 
+	 * @param metric
+	 *            the metric to rescore candidates with
+	 * @param tokenizer
+	 *            tokenizer for the records and queries
+	 * @param minHash
+	 *            the MinHash signatures to use
+	 * @param bands
+	 *            the number of bands, must divide the number of permutations
+	 * @param corpus
+	 *            records to index
+	 * @return a MinHash index over the corpus
+	 */
+	public static MinHashIndex create(GeneralizedJaccard<String> metric, Tokenizer tokenizer, MinHash minHash,
+			int bands, List<String> corpus) {
+		return create(metric, Indexes.IDENTITY, tokenizer, minHash, bands, corpus);
+	}
+
+	/**
+	 * Creates a MinHash index over a corpus that compares the token multisets
+	 * of records. Records and queries are simplified before they are
+	 * tokenized.
+	 * 
+	 * @param metric
+	 *            the metric to rescore candidates with
+	 * @param simplifier
+	 *            simplifier for the records and queries
+	 * @param tokenizer
+	 *            tokenizer for the records and queries
+	 * @param minHash
+	 *            the MinHash signatures to use
+	 * @param bands
+	 *            the number of bands, must divide the number of permutations
+	 * @param corpus
+	 *            records to index
+	 * @return a MinHash index over the corpus
+	 */
+	public static MinHashIndex create(GeneralizedJaccard<String> metric, Simplifier simplifier,
+			Tokenizer tokenizer, MinHash minHash, int bands, List<String> corpus) {
+		requireNonNull(metric);
+		return create(metric, true, metric::compare, simplifier, tokenizer, minHash, bands, corpus);
+	}
+
+	private static MinHashIndex create(Metric<?> metric, boolean multiset, Metric<Multiset<String>> exact,
+			Simplifier simplifier, Tokenizer tokenizer, MinHash minHash, int bands, List<String> corpus) {
+		requireNonNull(simplifier);
+		requireNonNull(tokenizer);
+		requireNonNull(minHash);
+		checkArgument(bands > 0 && minHash.getPermutations() % bands == 0,
+				"bands must divide the number of permutations %s", bands);
+		checkArgument((long) corpus.size() * minHash.getPermutations() <= Integer.MAX_VALUE - 8,
+				"corpus too large for %s permutations", minHash.getPermutations());
+		final List<String> records = new ArrayList<>(corpus);
+		for (String record : records) {
+			requireNonNull(record);
+		}
+		return new MinHashIndex(metric, multiset, exact, simplifier, tokenizer, minHash, bands,
+				Collections.unmodifiableList(records));
+	}
+
+	/**
+	 * Returns the indexed records in corpus order.
+	 * 
+	 * @return the indexed records
+	 */
+	public List<String> getRecords() {
+		return records;
+	}
+
+	/**
+	 * Returns the number of indexed records.
+	 * 
+	 * @return the number of indexed records
+	 */
+	public int size() {
+		return records.size();
+	}
+
+	/**
+	 * Returns the candidates with an exact similarity to the query equal to or
+	 * greater than the threshold, most similar first.
+	 * 
+	 * @param query
+	 *            the query
+	 * @param threshold
+	 *            the minimum similarity, in the range (0, 1]
+	 * @return the candidates at or above the threshold, most similar first
+	 */
+	public List<Match> above(String query, float threshold) {
+		requireNonNull(query);
+		checkArgument(0.0f < threshold && threshold <= 1.0f, "threshold must be in range (0, 1] %s", threshold);
+		final Multiset<String> queryTokens = tokenize(query);
+		final List<Match> matches = new ArrayList<>();
+		for (int id : candidates(signature(queryTokens), 0, queryTokens.isEmpty())) {
+			final String record = records.get(id);
+			final float similarity = exact.compare(queryTokens, tokenize(record));
+			if (similarity >= threshold) {
+				matches.add(new Match(id, record, similarity));
+			}
+		}
+		matches.sort(Match.BEST_FIRST);
+		return matches;
+	}
+
+	/**
+	 * Returns the candidates with an estimated similarity to the query equal
+	 * to or greater than the threshold, most similar first.
+	 * 
+	 * @param query
+	 *            the query
+	 * @param threshold
+	 *            the minimum estimated similarity, in the range (0, 1]
+	 * @return the candidates at or above the threshold, most similar first
+	 */
+	public List<Match> estimateAbove(String query, float threshold) {
+		requireNonNull(query);
+		checkArgument(0.0f < threshold && threshold <= 1.0f, "threshold must be in range (0, 1] %s", threshold);
+		final Multiset<String> queryTokens = tokenize(query);
+		final int[] signature = signature(queryTokens);
+		final List<Match> matches = new ArrayList<>();
+		for (int id : candidates(signature, 0, queryTokens.isEmpty())) {
+			final float similarity = estimate(signature, 0, signatures, id * minHash.getPermutations());
+			if (similarity >= threshold) {
+				matches.add(new Match(id, records.get(id), similarity));
+			}
+		}
+		matches.sort(Match.BEST_FIRST);
+		return matches;
+	}
+
+	/**
+	 * Passes every pair of candidates with an exact similarity equal to or
+	 * greater than the threshold to the consumer. Pairs are passed with the
+	 * lowest index first and in no particular order.
+	 * <p>
+	 * Each record is tokenized at most once per call and its tokens are kept
+	 * until the call returns. Use
+	 * {@link #forEachEstimatedPair(float, PairConsumer)} when the estimated
+	 * similarity suffices.
+	 * 
+	 * @param threshold
+	 *            the minimum similarity, in the range (0, 1]
+	 * @param consumer
+	 *            consumer of similar pairs
+	 */
+	public void forEachPair(float threshold, PairConsumer consumer) {
+		requireNonNull(consumer);
+		checkArgument(0.0f < threshold && threshold <= 1.0f, "threshold must be in range (0, 1] %s", threshold);
+		final int permutations = minHash.getPermutations();
+		final List<Multiset<String>> tokens = new ArrayList<>(Collections.nCopies(records.size(), null));
+		for (int a = 0; a < records.size(); a++) {
+			for (int b : candidates(signatures, a * permutations, isEmpty(a))) {
+				if (b <= a) {
+					continue;
+				}
+				final float similarity = exact.compare(tokens(tokens, a), tokens(tokens, b));
+				if (similarity >= threshold) {
+					consumer.accept(a, b, similarity);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Passes every pair of candidates with an estimated similarity equal to or
+	 * greater than the threshold to the consumer. Pairs are passed with the
+	 * lowest index first and in no particular order.
+	 * 
+	 * @param threshold
+	 *            the minimum estimated similarity, in the range (0, 1]
+	 * @param consumer
+	 *            consumer of similar pairs
+	 */
+	public void forEachEstimatedPair(float threshold, PairConsumer consumer) {
+		requireNonNull(consumer);
+		checkArgument(0.0f < threshold && threshold <= 1.0f, "threshold must be in range (0, 1] %s", threshold);
+		final int permutations = minHash.getPermutations();
+		forEachCandidate((a, b) -> {
+			final float similarity = estimate(signatures, a * permutations, signatures, b * permutations);
+			if (similarity >= threshold) {
+				consumer.accept(a, b, similarity);
+			}
+		});
+	}
+
+	@Override
+	public String toString() {
+		return "MinHashIndex [metric=" + metric + ", tokenizer=" + tokenizer + ", bands=" + bands + ", rows="
+				+ rows + ", size=" + size() + "]";
+	}
+
+	private interface CandidateConsumer {
+		void accept(int a, int b);
+	}
+
+	/*
+	 * Passes each pair of records that shares a band once, in the first band
+	 * they share, followed by each pair of records without tokens.
+	 */
+	private void forEachCandidate(CandidateConsumer consumer) {
+		final int permutations = minHash.getPermutations();
+		for (int band = 0; band < bands; band++) {
+			final long[] bandKeys = keys[band];
+			final int[] bandIds = ids[band];
+			int start = 0;
+			while (start < bandKeys.length) {
+				int end = start + 1;
+				while (end < bandKeys.length && bandKeys[end] == bandKeys[start]) {
+					end++;
+				}
+				for (int i = start; i < end; i++) {
+					for (int j = i + 1; j < end; j++) {
+						final int a = Math.min(bandIds[i], bandIds[j]);
+						final int b = Math.max(bandIds[i], bandIds[j]);
+						if (firstSharedBand(signatures, a * permutations, b * permutations) == band) {
+							consumer.accept(a, b);
+						}
+					}
+				}
+				start = end;
+			}
+		}
+		for (int i = 0; i < empty.length; i++) {
+			for (int j = i + 1; j < empty.length; j++) {
+				consumer.accept(empty[i], empty[j]);
+			}
+		}
+	}
+
+	/*
+	 * Returns the records that share at least one band with the signature.
+	 * The signature of a query or record without tokens only matches records
+	 * without tokens.
+	 */
+	private Set<Integer> candidates(int[] signature, int offset, boolean withoutTokens) {
+		final Set<Integer> candidates = new LinkedHashSet<>();
+		if (withoutTokens) {
+			for (int id : empty) {
+				candidates.add(id);
+			}
+			return candidates;
+		}
+		for (int band = 0; band < bands; band++) {
+			final long key = key(signature, offset, band);
+			final long[] bandKeys = keys[band];
+			final int[] bandIds = ids[band];
+			for (int i = Indexes.lowerBound(bandKeys, key); i < bandKeys.length && bandKeys[i] == key; i++) {
+				final int id = bandIds[i];
+				if (sameBand(signature, offset, signatures, id * minHash.getPermutations(), band)) {
+					candidates.add(id);
+				}
+			}
+		}
+		return candidates;
+	}
+
+	private boolean isEmpty(int id) {
+		return Arrays.binarySearch(empty, id) >= 0;
+	}
+
+	private int firstSharedBand(int[] signatures, int a, int b) {
+		for (int band = 0; band < bands; band++) {
+			if (sameBand(signatures, a, signatures, b, band)) {
+				return band;
+			}
+		}
+		return -1;
+	}
+
+	private boolean sameBand(int[] a, int aOffset, int[] b, int bOffset, int band) {
+		final int from = band * rows;
+		for (int row = from; row < from + rows; row++) {
+			if (a[aOffset + row] != b[bOffset + row]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private float estimate(int[] a, int aOffset, int[] b, int bOffset) {
+		final int permutations = minHash.getPermutations();
+		int equal = 0;
+		for (int i = 0; i < permutations; i++) {
+			if (a[aOffset + i] == b[bOffset + i]) {
+				equal++;
+			}
+		}
+		return equal / (float) permutations;
+	}
+
+	private long key(int[] signature, int offset, int band) {
+		long key = band;
+		final int from = band * rows;
+		for (int row = from; row < from + rows; row++) {
+			key = TokenHashes.mix(key * 31 + signature[offset + row]);
+		}
+		return key;
+	}
+
+	private int[] signature(Multiset<String> tokens) {
+		final long[] signature = multiset ? minHash.signature(tokens) : minHash.signature(tokens.elementSet());
+		final int[] truncated = new int[signature.length];
+		for (int i = 0; i < signature.length; i++) {
+			truncated[i] = (int) (signature[i] ^ (signature[i] >>> 32));
+		}
+		return truncated;
+	}
+
+	/*
+	 * Returns the tokens of a record, tokenizing it on first use.
+	 */
+	private Multiset<String> tokens(List<Multiset<String>> tokens, int id) {
+		Multiset<String> recordTokens = tokens.get(id);
+		if (recordTokens == null) {
+			recordTokens = tokenize(records.get(id));
+			tokens.set(id, recordTokens);
+		}
+		return recordTokens;
+	}
+
+	private Multiset<String> tokenize(String input) {
+		return tokenizer.tokenizeToMultiset(simplifier.simplify(input));
+	}
+
+}
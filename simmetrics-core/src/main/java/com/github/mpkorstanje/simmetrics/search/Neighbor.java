@@ -0,0 +1,92 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A record found by a search together with its distance to the query.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class Neighbor {
+
+	/*
+	 * Orders neighbors from nearest to furthest. Ties are broken by the
+	 * natural order of the records.
+	 */
+	static final Comparator<Neighbor> NEAREST_FIRST = (a, b) -> {
+		final int byDistance = Float.compare(a.distance, b.distance);
+		return byDistance != 0 ? byDistance : a.record.compareTo(b.record);
+	};
+
+	private final String record;
+
+	private final float distance;
+
+	Neighbor(String record, float distance) {
+		this.record = requireNonNull(record);
+		this.distance = distance;
+	}
+
+	/**
+	 * Returns the record.
+	 * 
+	 * @return the record
+	 */
+	public String getRecord() {
+		return record;
+	}
+
+	/**
+	 * Returns the distance of the record to the query.
+	 * 
+	 * @return the distance of the record to the query
+	 */
+	public float getDistance() {
+		return distance;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof Neighbor)) {
+			return false;
+		}
+		final Neighbor other = (Neighbor) o;
+		return Float.compare(distance, other.distance) == 0 && record.equals(other.record);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(record, distance);
+	}
+
+	@Override
+	public String toString() {
+		return "Neighbor [record=" + record + ", distance=" + distance + "]";
+	}
+
+}
@@ -0,0 +1,80 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import java.util.Arrays;
+
+/**
+ * Least significant digit radix sort of 64 bit keys in unsigned order. Values
+ * are moved along with their keys. The sort is stable.
+ */
+final class RadixSort {
+
+	private static final int BITS = 8;
+
+	private static final int BUCKETS = 1 << BITS;
+
+	private RadixSort() {
+		// Utility class
+	}
+
+	static void sort(long[] keys, int[] values) {
+		final int n = keys.length;
+		if (n == 0) {
+			return;
+		}
+		long[] sourceKeys = keys;
+		int[] sourceValues = values;
+		long[] targetKeys = new long[n];
+		int[] targetValues = new int[n];
+		final int[] counts = new int[BUCKETS + 1];
+
+		for (int shift = 0; shift < Long.SIZE; shift += BITS) {
+			Arrays.fill(counts, 0);
+			for (int i = 0; i < n; i++) {
+				counts[digit(sourceKeys[i], shift) + 1]++;
+			}
+			if (counts[digit(sourceKeys[0], shift) + 1] == n) {
+				// All keys share this digit
+				continue;
+			}
+			for (int b = 0; b < BUCKETS; b++) {
+				counts[b + 1] += counts[b];
+			}
+			for (int i = 0; i < n; i++) {
+				final int target = counts[digit(sourceKeys[i], shift)]++;
+				targetKeys[target] = sourceKeys[i];
+				targetValues[target] = sourceValues[i];
+			}
+			final long[] swapKeys = sourceKeys; sourceKeys = targetKeys; targetKeys = swapKeys;
+			final int[] swapValues = sourceValues; sourceValues = targetValues; targetValues = swapValues;
+		}
+
+		if (sourceKeys != keys) {
+			System.arraycopy(sourceKeys, 0, keys, 0, n);
+			System.arraycopy(sourceValues, 0, values, 0, n);
+		}
+	}
+
+	private static int digit(long key, int shift) {
+		return (int) (key >>> shift) & (BUCKETS - 1);
+	}
+
+}
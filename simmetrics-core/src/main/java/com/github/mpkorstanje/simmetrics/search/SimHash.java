@@ -0,0 +1,179 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.SplittableRandom;
+
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.tokenizers.TokenHashes;
+
+import com.google.common.collect.Multiset;
+
+/**
+ * SimHash fingerprints of token multisets.
+ * <p>
+ * A fingerprint holds one bit per random hyperplane. A bit is set when the
+ * term vector of a multiset lies on the positive side of the hyperplane. The
+ * probability that two vectors lie on different sides of a hyperplane is
+ * proportional to the angle between them. The Hamming distance between two
+ * fingerprints therefore estimates the angle between the vectors and thus
+ * their {@link CosineSimilarity}.
+ * <p>
+ * The coordinates of the hyperplanes are random signs derived from the
+ * {@link TokenHashes#hash(String) hash} of a token and a seed per 64
+ * hyperplanes. Fingerprints are stored in
+ * {@code long[]} arrays and compared with {@link Long#bitCount(long)}.
+ * Fingerprints are only comparable when they are created with the same seed
+ * and number of bits.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see <a href="https://doi.org/10.1145/509907.509965">Charikar, M. S. (2002).
+ *      Similarity estimation techniques from rounding algorithms. STOC.</a>
+ */
+public final class SimHash {
+
+	private final long[] seeds;
+
+	private SimHash(long[] seeds) {
+		this.seeds = seeds;
+	}
+
+	/**
+	 * Creates SimHash fingerprints of the given number of bits. The seeds of
+	 * the hyperplanes are derived from the seed.
+	 * 
+	 * @param bits
+	 *            number of bits in a fingerprint, a positive multiple of 64
+	 * @param seed
+	 *            seed to derive the hyperplanes from
+	 * @return SimHash fingerprints
+	 */
+	public static SimHash create(int bits, long seed) {
+		checkArgument(bits > 0 && bits % Long.SIZE == 0, "bits must be a positive multiple of 64 %s", bits);
+		final SplittableRandom random = new SplittableRandom(seed);
+		final long[] seeds = new long[bits / Long.SIZE];
+		for (int i = 0; i < seeds.length; i++) {
+			seeds[i] = random.nextLong();
+		}
+		return new SimHash(seeds);
+	}
+
+	/**
+	 * Returns the number of bits in a fingerprint.
+	 * 
+	 * @return the number of bits in a fingerprint
+	 */
+	public int getBits() {
+		return seeds.length * Long.SIZE;
+	}
+
+	/**
+	 * Returns the fingerprint of a multiset of tokens. The empty multiset has
+	 * a fingerprint without any bits set.
+	 * 
+	 * @param tokens
+	 *            the tokens
+	 * @return the fingerprint of the tokens
+	 */
+	public long[] fingerprint(Multiset<String> tokens) {
+		final int[] sums = new int[getBits()];
+		for (Multiset.Entry<String> entry : tokens.entrySet()) {
+			final long hash = TokenHashes.hash(requireNonNull(entry.getElement()));
+			final int count = entry.getCount();
+			for (int word = 0; word < seeds.length; word++) {
+				final long signs = TokenHashes.mix(hash ^ seeds[word]);
+				final int offset = word * Long.SIZE;
+				for (int bit = 0; bit < Long.SIZE; bit++) {
+					sums[offset + bit] += (signs >>> bit & 1L) != 0 ? count : -count;
+				}
+			}
+		}
+
+		final long[] fingerprint = new long[seeds.length];
+		for (int i = 0; i < sums.length; i++) {
+			if (sums[i] > 0) {
+				fingerprint[i / Long.SIZE] |= 1L << (i % Long.SIZE);
+			}
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Returns the number of bits in which two fingerprints differ.
+	 * 
+	 * @param a
+	 *            fingerprint a
+	 * @param b
+	 *            fingerprint b
+	 * @return the Hamming distance between a and b
+	 */
+	public static int hammingDistance(long[] a, long[] b) {
+		checkArgument(a.length == b.length, "fingerprints must have the same size");
+		int distance = 0;
+		for (int i = 0; i < a.length; i++) {
+			distance += Long.bitCount(a[i] ^ b[i]);
+		}
+		return distance;
+	}
+
+	/**
+	 * Estimates the cosine similarity of two multisets from their
+	 * fingerprints.
+	 * 
+	 * @param a
+	 *            fingerprint of multiset a
+	 * @param b
+	 *            fingerprint of multiset b
+	 * @return the estimated cosine similarity of a and b
+	 */
+	public static float similarity(long[] a, long[] b) {
+		return similarity(hammingDistance(a, b), a.length * Long.SIZE);
+	}
+
+	static float similarity(int hammingDistance, int bits) {
+		return (float) Math.cos(Math.PI * hammingDistance / bits);
+	}
+
+	/*
+	 * Largest Hamming distance with an estimated similarity equal to or
+	 * greater than the threshold.
+	 */
+	static int maxHammingDistance(float threshold, int bits) {
+		int distance = (int) Math.floor(bits * Math.acos(Math.max(-1.0, Math.min(1.0, threshold))) / Math.PI);
+		// Correct for rounding in the estimate
+		while (distance < bits && similarity(distance + 1, bits) >= threshold) {
+			distance++;
+		}
+		while (distance >= 0 && similarity(distance, bits) < threshold) {
+			distance--;
+		}
+		return distance;
+	}
+
+	@Override
+	public String toString() {
+		return "SimHash [bits=" + getBits() + "]";
+	}
+
+}
@@ -0,0 +1,426 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.PairConsumer;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+
+import com.google.common.collect.Multiset;
+
+/**
+ * Multi-probe index over SimHash fingerprints.
+ * <p>
+ * Fingerprints are split into blocks of at most 64 bits and each block is
+ * kept in a sorted table. When two fingerprints differ in at most {@code k}
+ * bits, at least one of {@code m} blocks differs in at most {@code k / m}
+ * bits. A query therefore looks up each block of its fingerprint and, when
+ * needed, every variation of that block with up to two bits flipped. As such
+ * a threshold that allows {@code k} differing bits requires more than
+ * {@code k / 3} blocks. Lower thresholds are rejected rather than served by
+ * scanning every fingerprint.
+ * <p>
+ * Candidates are found when their estimated {@link CosineSimilarity} is equal
+ * to or greater than a threshold. They can either be returned with their
+ * estimated similarity or be rescored with the exact cosine similarity of
+ * their token multisets. Records are tokenized again when they are rescored.
+ * <p>
+ * This class is immutable and thread-safe provided the tokenizer and
+ * simplifier are also thread-safe.
+ * 
+ * @see SimHash
+ * @see <a href="https://doi.org/10.1145/1242572.1242592">Manku, G. S., Jain,
+ *      A., Das Sarma, A. (2007). Detecting near-duplicates for web crawling.
+ *      WWW.</a>
+ */
+public final class SimHashIndex {
+
+	private static final int MAX_PROBE_RADIUS = 2;
+
+	private final CosineSimilarity<String> metric = new CosineSimilarity<>();
+
+	private final Simplifier simplifier;
+
+	private final Tokenizer tokenizer;
+
+	private final SimHash simHash;
+
+	private final int blocks;
+
+	private final List<String> records;
+
+	// Fingerprints of all records, one after the other
+	private final long[] fingerprints;
+
+	// Per block the keys and records sorted by key
+	private final long[][] keys;
+
+	private final int[][] ids;
+
+	private SimHashIndex(Simplifier simplifier, Tokenizer tokenizer, SimHash simHash, int blocks,
+			List<String> records) {
+		this.simplifier = simplifier;
+		this.tokenizer = tokenizer;
+		this.simHash = simHash;
+		this.blocks = blocks;
+		this.records = records;
+
+		final int n = records.size();
+		final int words = words();
+		this.fingerprints = new long[n * words];
+		for (int id = 0; id < n; id++) {
+			System.arraycopy(fingerprint(records.get(id)), 0, fingerprints, id * words, words);
+		}
+
+		this.keys = new long[blocks][];
+		this.ids = new int[blocks][];
+		for (int block = 0; block < blocks; block++) {
+			final long[] blockKeys = new long[n];
+			final int[] blockIds = new int[n];
+			for (int id = 0; id < n; id++) {
+				blockKeys[id] = block(fingerprints, id * words, block);
+				blockIds[id] = id;
+			}
+			RadixSort.sort(blockKeys, blockIds);
+			keys[block] = blockKeys;
+			ids[block] = blockIds;
+		}
+	}
+
+	/**
+	 * Creates a SimHash index over a corpus.
+	 * 
+	 * @param tokenizer
+	 *            tokenizer for the records and queries
+	 * @param simHash
+	 *            the SimHash fingerprints to use
+	 * @param blocks
+	 *            the number of blocks, at least the number of bits divided
+	 *            by 64 and at most the number of bits
+	 * @param corpus
+	 *            records to index
+	 * @return a SimHash index over the corpus
+	 */
+	public static SimHashIndex create(Tokenizer tokenizer, SimHash simHash, int blocks, List<String> corpus) {
+		return create(Indexes.IDENTITY, tokenizer, simHash, blocks, corpus);
+	}
+
+	/**
+	 * Creates a SimHash index over a corpus. Records and queries are
+	 * simplified before they are tokenized.
+	 * 
+	 * @param simplifier
+	 *            simplifier for the records and queries
+	 * @param tokenizer
+	 *            tokenizer for the records and queries
+	 * @param simHash
+	 *            the SimHash fingerprints to use
+	 * @param blocks
+	 *            the number of blocks, at least the number of bits divided
+	 *            by 64 and at most the number of bits
+	 * @param corpus
+	 *            records to index
+	 * @return a SimHash index over the corpus
+	 */
+	public static SimHashIndex create(Simplifier simplifier, Tokenizer tokenizer, SimHash simHash, int blocks,
+			List<String> corpus) {
+		requireNonNull(simplifier);
+		requireNonNull(tokenizer);
+		requireNonNull(simHash);
+		final int bits = simHash.getBits();
+		checkArgument(bits <= blocks * Long.SIZE && blocks <= bits, "blocks must be in range [%s, %s] %s",
+				bits / Long.SIZE, bits, blocks);
+		checkArgument((long) corpus.size() * (bits / Long.SIZE) <= Integer.MAX_VALUE - 8,
+				"corpus too large for %s bits", bits);
+		final List<String> records = new ArrayList<>(corpus);
+		for (String record : records) {
+			requireNonNull(record);
+		}
+		return new SimHashIndex(simplifier, tokenizer, simHash, blocks, Collections.unmodifiableList(records));
+	}
+
+	/**
+	 * Returns the indexed records in corpus order.
+	 * 
+	 * @return the indexed records
+	 */
+	public List<String> getRecords() {
+		return records;
+	}
+
+	/**
+	 * Returns the number of indexed records.
+	 * 
+	 * @return the number of indexed records
+	 */
+	public int size() {
+		return records.size();
+	}
+
+	/**
+	 * Returns the records with an estimated similarity to the query equal to
+	 * or greater than the threshold rescored with their exact similarity. Only
+	 * records with an exact similarity equal to or greater than the threshold
+	 * are returned, most similar first.
+	 * 
+	 * @param query
+	 *            the query
+	 * @param threshold
+	 *            the minimum similarity, in the range (0, 1]
+	 * @return the records at or above the threshold, most similar first
+	 * @throws IllegalArgumentException
+	 *             when the threshold allows more differing bits than the
+	 *             blocks can probe
+	 */
+	public List<Match> above(String query, float threshold) {
+		requireNonNull(query);
+		final Multiset<String> queryTokens = tokenize(query);
+		final long[] fingerprint = simHash.fingerprint(queryTokens);
+		final List<Match> matches = new ArrayList<>();
+		for (int id : candidates(fingerprint, 0, maxHammingDistance(threshold))) {
+			final String record = records.get(id);
+			final float similarity = metric.compare(queryTokens, tokenize(record));
+			if (similarity >= threshold) {
+				matches.add(new Match(id, record, similarity));
+			}
+		}
+		matches.sort(Match.BEST_FIRST);
+		return matches;
+	}
+
+	/**
+	 * Returns the records with an estimated similarity to the query equal to
+	 * or greater than the threshold, most similar first.
+	 * 
+	 * @param query
+	 *            the query
+	 * @param threshold
+	 *            the minimum estimated similarity, in the range (0, 1]
+	 * @return the records at or above the threshold, most similar first
+	 * @throws IllegalArgumentException
+	 *             when the threshold allows more differing bits than the
+	 *             blocks can probe
+	 */
+	public List<Match> estimateAbove(String query, float threshold) {
+		requireNonNull(query);
+		final long[] fingerprint = fingerprint(query);
+		final List<Match> matches = new ArrayList<>();
+		for (int id : candidates(fingerprint, 0, maxHammingDistance(threshold))) {
+			matches.add(new Match(id, records.get(id), estimate(fingerprint, 0, id)));
+		}
+		matches.sort(Match.BEST_FIRST);
+		return matches;
+	}
+
+	/**
+	 * Passes every pair of records with an estimated similarity equal to or
+	 * greater than the threshold rescored with their exact similarity to the
+	 * consumer. Only pairs with an exact similarity equal to or greater than
+	 * the threshold are passed, with the lowest index first and in no
+	 * particular order.
+	 * 
+	 * @param threshold
+	 *            the minimum similarity, in the range (0, 1]
+	 * @param consumer
+	 *            consumer of similar pairs
+	 * @throws IllegalArgumentException
+	 *             when the threshold allows more differing bits than the
+	 *             blocks can probe
+	 */
+	public void forEachPair(float threshold, PairConsumer consumer) {
+		requireNonNull(consumer);
+		final int maxDistance = maxHammingDistance(threshold);
+		for (int a = 0; a < records.size(); a++) {
+			Multiset<String> tokens = null;
+			for (int b : candidates(fingerprints, a * words(), maxDistance)) {
+				if (b <= a) {
+					continue;
+				}
+				if (tokens == null) {
+					tokens = tokenize(records.get(a));
+				}
+				final float similarity = metric.compare(tokens, tokenize(records.get(b)));
+				if (similarity >= threshold) {
+					consumer.accept(a, b, similarity);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Passes every pair of records with an estimated similarity equal to or
+	 * greater than the threshold to the consumer. Pairs are passed with the
+	 * lowest index first and in no particular order.
+	 * 
+	 * @param threshold
+	 *            the minimum estimated similarity, in the range (0, 1]
+	 * @param consumer
+	 *            consumer of similar pairs
+	 * @throws IllegalArgumentException
+	 *             when the threshold allows more differing bits than the
+	 *             blocks can probe
+	 */
+	public void forEachEstimatedPair(float threshold, PairConsumer consumer) {
+		requireNonNull(consumer);
+		final int maxDistance = maxHammingDistance(threshold);
+		for (int a = 0; a < records.size(); a++) {
+			for (int b : candidates(fingerprints, a * words(), maxDistance)) {
+				if (b > a) {
+					consumer.accept(a, b, estimate(fingerprints, a * words(), b));
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SimHashIndex [tokenizer=" + tokenizer + ", bits=" + simHash.getBits() + ", blocks=" + blocks
+				+ ", size=" + size() + "]";
+	}
+
+	private int maxHammingDistance(float threshold) {
+		checkArgument(0.0f < threshold && threshold <= 1.0f, "threshold must be in range (0, 1] %s", threshold);
+		final int maxDistance = SimHash.maxHammingDistance(threshold, simHash.getBits());
+		checkArgument(maxDistance / blocks <= MAX_PROBE_RADIUS,
+				"threshold %s allows %s differing bits which requires more than %s blocks", threshold, maxDistance,
+				maxDistance / (MAX_PROBE_RADIUS + 1));
+		return maxDistance;
+	}
+
+	/*
+	 * Returns the records within maxDistance bits of the fingerprint in
+	 * ascending order.
+	 */
+	private int[] candidates(long[] fingerprint, int offset, int maxDistance) {
+		if (maxDistance < 0) {
+			return new int[0];
+		}
+
+		final int radius = maxDistance / blocks;
+		final Candidates candidates = new Candidates();
+		for (int block = 0; block < blocks; block++) {
+			final long key = block(fingerprint, offset, block);
+			final int width = blockEnd(block) - blockStart(block);
+			probe(block, key, candidates);
+			for (int i = 0; radius >= 1 && i < width; i++) {
+				final long flipped = key ^ (1L << i);
+				probe(block, flipped, candidates);
+				for (int j = i + 1; radius >= 2 && j < width; j++) {
+					probe(block, flipped ^ (1L << j), candidates);
+				}
+			}
+		}
+
+		// A record may be found in several blocks, keep it once
+		final int[] ids = candidates.ids;
+		Arrays.sort(ids, 0, candidates.size);
+		int count = 0;
+		for (int i = 0; i < candidates.size; i++) {
+			final int id = ids[i];
+			if ((i == 0 || id != ids[i - 1]) && hammingDistance(fingerprint, offset, id) <= maxDistance) {
+				ids[count++] = id;
+			}
+		}
+		return Arrays.copyOf(ids, count);
+	}
+
+	private void probe(int block, long key, Candidates candidates) {
+		final long[] blockKeys = keys[block];
+		final int[] blockIds = ids[block];
+		for (int i = Indexes.lowerBound(blockKeys, key); i < blockKeys.length && blockKeys[i] == key; i++) {
+			candidates.add(blockIds[i]);
+		}
+	}
+
+	private int hammingDistance(long[] fingerprint, int offset, int id) {
+		final int words = words();
+		final int other = id * words;
+		int distance = 0;
+		for (int i = 0; i < words; i++) {
+			distance += Long.bitCount(fingerprint[offset + i] ^ fingerprints[other + i]);
+		}
+		return distance;
+	}
+
+	private float estimate(long[] fingerprint, int offset, int id) {
+		return SimHash.similarity(hammingDistance(fingerprint, offset, id), simHash.getBits());
+	}
+
+	private int words() {
+		return simHash.getBits() / Long.SIZE;
+	}
+
+	private int blockStart(int block) {
+		return (int) ((long) block * simHash.getBits() / blocks);
+	}
+
+	private int blockEnd(int block) {
+		return blockStart(block + 1);
+	}
+
+	/*
+	 * Returns the bits of a block of a fingerprint.
+	 */
+	private long block(long[] fingerprint, int offset, int block) {
+		final int from = blockStart(block);
+		final int length = blockEnd(block) - from;
+		final int word = from / Long.SIZE;
+		final int shift = from % Long.SIZE;
+		long value = fingerprint[offset + word] >>> shift;
+		if (shift + length > Long.SIZE) {
+			value |= fingerprint[offset + word + 1] << (Long.SIZE - shift);
+		}
+		return length == Long.SIZE ? value : value & ((1L << length) - 1);
+	}
+
+	private long[] fingerprint(String input) {
+		return simHash.fingerprint(tokenize(input));
+	}
+
+	private Multiset<String> tokenize(String input) {
+		return tokenizer.tokenizeToMultiset(simplifier.simplify(input));
+	}
+
+	/*
+	 * Records found by the probes, possibly more than once.
+	 */
+	private static final class Candidates {
+
+		int[] ids = new int[16];
+		int size;
+
+		void add(int id) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+			}
+			ids[size++] = id;
+		}
+	}
+
+}
@@ -0,0 +1,465 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.mpkorstanje.simmetrics.Metric;
+import com.github.mpkorstanje.simmetrics.PairConsumer;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.Dice;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.OverlapCoefficient;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+
+/**
+ * Set similarity join.
+ * <p>
+ * Finds all pairs of records in a corpus with a similarity equal to or greater
+ * than a threshold without comparing every record with every other record.
+ * Records are tokenized into sets and candidate pairs are generated with the
+ * length, prefix and positional filters of PPJoin. Only candidates that pass
+ * all filters are verified by computing their exact similarity.
+ * <p>
+ * The join supports {@link Jaccard}, {@link Dice}, {@link OverlapCoefficient}
+ * and {@link CosineSimilarity}. The similarities found are equal to those of
+ * the metric applied to the token sets of the records. Note that for the
+ * cosine similarity each token is counted once.
+ * <p>
+ * The filters are most effective for high thresholds and for the Jaccard,
+ * Dice and cosine similarity. The overlap coefficient admits records of any
+ * size and can only use the positional filter.
+ * 
+ * @see <a href="https://doi.org/10.1145/2000824.2000825">Xiao, C., Wang, W.,
+ *      Lin, X., Yu, J. X., Wang, G. (2011). Efficient similarity joins for
+ *      near-duplicate detection. ACM Transactions on Database Systems.</a>
+ */
+public final class SimilarityJoin {
+
+	private SimilarityJoin() {
+		// Utility class
+	}
+
+	/**
+	 * Passes every pair of records with a similarity equal to or greater than
+	 * the threshold to the consumer. Pairs are passed with the lowest index
+	 * first and in no particular order.
+	 * 
+	 * @param metric
+	 *            one of {@link Jaccard}, {@link Dice},
+	 *            {@link OverlapCoefficient} or {@link CosineSimilarity}
+	 * @param tokenizer
+	 *            tokenizer for the records
+	 * @param records
+	 *            records to join
+	 * @param threshold
+	 *            the minimum similarity, in the range (0, 1]
+	 * @param consumer
+	 *            consumer of similar pairs
+	 * @throws IllegalArgumentException
+	 *             when the metric is not supported
+	 */
+	public static void selfJoin(Metric<?> metric, Tokenizer tokenizer, List<String> records, float threshold,
+			PairConsumer consumer) {
+		selfJoin(metric, Indexes.IDENTITY, tokenizer, records, threshold, consumer);
+	}
+
+	/**
+	 * Passes every pair of records with a similarity equal to or greater than
+	 * the threshold to the consumer. Pairs are passed with the lowest index
+	 * first and in no particular order. Records are simplified before they are
+	 * tokenized.
+	 * 
+	 * @param metric
+	 *            one of {@link Jaccard}, {@link Dice},
+	 *            {@link OverlapCoefficient} or {@link CosineSimilarity}
+	 * @param simplifier
+	 *            simplifier for the records
+	 * @param tokenizer
+	 *            tokenizer for the records
+	 * @param records
+	 *            records to join
+	 * @param threshold
+	 *            the minimum similarity, in the range (0, 1]
+	 * @param consumer
+	 *            consumer of similar pairs
+	 * @throws IllegalArgumentException
+	 *             when the metric is not supported
+	 */
+	public static void selfJoin(Metric<?> metric, Simplifier simplifier, Tokenizer tokenizer, List<String> records,
+			float threshold, PairConsumer consumer) {
+		requireNonNull(simplifier);
+		requireNonNull(tokenizer);
+		requireNonNull(consumer);
+		checkArgument(0.0f < threshold && threshold <= 1.0f, "threshold must be in range (0, 1] %s", threshold);
+		final Filter filter = Filter.of(requireNonNull(metric));
+
+		final int n = records.size();
+		final List<Set<String>> tokens = new ArrayList<>(n);
+		for (String record : records) {
+			tokens.add(tokenizer.tokenizeToSet(simplifier.simplify(requireNonNull(record))));
+		}
+
+		new Join(filter, threshold, rank(tokens), consumer).run();
+	}
+
+	/*
+	 * Replaces the tokens of each record by their rank in the global token
+	 * order. Rare tokens come first so prefixes are as selective as
+	 * possible.
+	 */
+	private static int[][] rank(List<Set<String>> tokens) {
+		final Map<String, int[]> frequencies = new HashMap<>();
+		final List<String> firstSeen = new ArrayList<>();
+		for (Set<String> recordTokens : tokens) {
+			for (String token : recordTokens) {
+				final int[] frequency = frequencies.computeIfAbsent(token, t -> {
+					firstSeen.add(t);
+					return new int[1];
+				});
+				frequency[0]++;
+			}
+		}
+
+		// Stable, tokens of equal frequency stay in order of appearance
+		final String[] order = firstSeen.toArray(new String[0]);
+		Arrays.sort(order, (a, b) -> Integer.compare(frequencies.get(a)[0], frequencies.get(b)[0]));
+		final Map<String, Integer> ranks = new HashMap<>();
+		for (int r = 0; r < order.length; r++) {
+			ranks.put(order[r], r);
+		}
+
+		final int[][] ranked = new int[tokens.size()][];
+		for (int i = 0; i < ranked.length; i++) {
+			final int[] record = new int[tokens.get(i).size()];
+			int k = 0;
+			for (String token : tokens.get(i)) {
+				record[k++] = ranks.get(token);
+			}
+			Arrays.sort(record);
+			ranked[i] = record;
+		}
+		return ranked;
+	}
+
+	private static final class Join {
+
+		// Marks a candidate rejected by the positional filter
+		private static final int PRUNED = Integer.MIN_VALUE;
+
+		private final Filter filter;
+		private final float threshold;
+		private final PairConsumer consumer;
+
+		// Records ordered by size, and their position in the corpus
+		private final int[][] records;
+		private final int[] positions;
+
+		// Posting lists of indexed prefix tokens, by token rank
+		private final int[][] ids;
+		private final int[][] offsets;
+		private final int[] lengths;
+		private final int[] starts;
+
+		// Overlap accumulated per candidate during a probe
+		private final int[] overlaps;
+		private final int[] candidates;
+
+		Join(Filter filter, float threshold, int[][] ranked, PairConsumer consumer) {
+			this.filter = filter;
+			this.threshold = threshold;
+			this.consumer = consumer;
+
+			final int n = ranked.length;
+			final Integer[] order = new Integer[n];
+			int tokenCount = 0;
+			for (int i = 0; i < n; i++) {
+				order[i] = i;
+				for (int token : ranked[i]) {
+					tokenCount = Math.max(tokenCount, token + 1);
+				}
+			}
+			// Stable, records of equal size stay in corpus order
+			Arrays.sort(order, (a, b) -> Integer.compare(ranked[a].length, ranked[b].length));
+
+			this.records = new int[n][];
+			this.positions = new int[n];
+			for (int id = 0; id < n; id++) {
+				records[id] = ranked[order[id]];
+				positions[id] = order[id];
+			}
+
+			this.ids = new int[tokenCount][];
+			this.offsets = new int[tokenCount][];
+			this.lengths = new int[tokenCount];
+			this.starts = new int[tokenCount];
+			this.overlaps = new int[n];
+			this.candidates = new int[n];
+		}
+
+		void run() {
+			int id = 0;
+
+			// Empty records are only similar to each other
+			for (; id < records.length && records[id].length == 0; id++) {
+				for (int other = 0; other < id; other++) {
+					accept(other, id, 1.0f);
+				}
+			}
+
+			for (; id < records.length; id++) {
+				probe(id);
+				index(id);
+			}
+		}
+
+		private void probe(int x) {
+			final int[] record = records[x];
+			final int size = record.length;
+			final int minSize = filter.minSize(size, threshold);
+			final int prefix = prefixLength(size, filter.overlap(size, minSize, threshold));
+
+			int candidateCount = 0;
+			for (int i = 0; i < prefix; i++) {
+				final int token = record[i];
+				final int[] postingIds = ids[token];
+				final int[] postingOffsets = offsets[token];
+				final int length = lengths[token];
+
+				// Length filter, posting lists are ordered by record size
+				int p = starts[token];
+				while (p < length && records[postingIds[p]].length < minSize) {
+					p++;
+				}
+				starts[token] = p;
+
+				for (; p < length; p++) {
+					final int y = postingIds[p];
+					if (overlaps[y] == PRUNED) {
+						continue;
+					}
+					if (overlaps[y] == 0) {
+						candidates[candidateCount++] = y;
+					}
+
+					// Positional filter
+					final int otherSize = records[y].length;
+					final int remaining = Math.min(size - i - 1, otherSize - postingOffsets[p] - 1);
+					if (overlaps[y] + 1 + remaining >= filter.overlap(size, otherSize, threshold)) {
+						overlaps[y]++;
+					} else {
+						overlaps[y] = PRUNED;
+					}
+				}
+			}
+
+			for (int c = 0; c < candidateCount; c++) {
+				final int y = candidates[c];
+				if (overlaps[y] != PRUNED) {
+					verify(x, y);
+				}
+				overlaps[y] = 0;
+			}
+		}
+
+		private void verify(int x, int y) {
+			final int[] a = records[x];
+			final int[] b = records[y];
+			final int required = filter.overlap(a.length, b.length, threshold);
+
+			int overlap = 0;
+			int i = 0;
+			int j = 0;
+			while (i < a.length && j < b.length) {
+				if (overlap + Math.min(a.length - i, b.length - j) < required) {
+					return;
+				}
+				if (a[i] < b[j]) {
+					i++;
+				} else if (a[i] > b[j]) {
+					j++;
+				} else {
+					overlap++;
+					i++;
+					j++;
+				}
+			}
+
+			final float similarity = filter.similarity(overlap, a.length, b.length);
+			if (similarity >= threshold) {
+				accept(x, y, similarity);
+			}
+		}
+
+		private void index(int x) {
+			final int[] record = records[x];
+			final int size = record.length;
+			final int prefix = prefixLength(size, filter.overlap(size, size, threshold));
+			for (int i = 0; i < prefix; i++) {
+				final int token = record[i];
+				if (ids[token] == null) {
+					ids[token] = new int[4];
+					offsets[token] = new int[4];
+				} else if (lengths[token] == ids[token].length) {
+					ids[token] = Arrays.copyOf(ids[token], lengths[token] * 2);
+					offsets[token] = Arrays.copyOf(offsets[token], lengths[token] * 2);
+				}
+				ids[token][lengths[token]] = x;
+				offsets[token][lengths[token]] = i;
+				lengths[token]++;
+			}
+		}
+
+		private void accept(int x, int y, float similarity) {
+			final int a = positions[x];
+			final int b = positions[y];
+			if (a < b) {
+				consumer.accept(a, b, similarity);
+			} else {
+				consumer.accept(b, a, similarity);
+			}
+		}
+
+		/*
+		 * Two sets that share at least overlap tokens share a token in their
+		 * prefixes of size - overlap + 1 tokens.
+		 */
+		private static int prefixLength(int size, int overlap) {
+			return Math.max(0, Math.min(size, size - overlap + 1));
+		}
+	}
+
+	/*
+	 * Bounds on the size and overlap of similar sets. Bounds are computed
+	 * with a small margin so rounding in the similarity never causes a
+	 * similar pair to be filtered out.
+	 */
+	private enum Filter {
+		JACCARD {
+			@Override
+			float similarity(int overlap, int a, int b) {
+				return overlap / (float) (a + b - overlap);
+			}
+
+			@Override
+			double minSizeBound(double size, double threshold) {
+				return threshold * size;
+			}
+
+			@Override
+			double overlapBound(double a, double b, double threshold) {
+				return threshold / (1.0 + threshold) * (a + b);
+			}
+		},
+		DICE {
+			@Override
+			float similarity(int overlap, int a, int b) {
+				return (2.0f * overlap) / (a + b);
+			}
+
+			@Override
+			double minSizeBound(double size, double threshold) {
+				return threshold / (2.0 - threshold) * size;
+			}
+
+			@Override
+			double overlapBound(double a, double b, double threshold) {
+				return threshold * (a + b) / 2.0;
+			}
+		},
+		OVERLAP_COEFFICIENT {
+			@Override
+			float similarity(int overlap, int a, int b) {
+				return overlap / (float) Math.min(a, b);
+			}
+
+			@Override
+			double minSizeBound(double size, double threshold) {
+				return 1.0;
+			}
+
+			@Override
+			double overlapBound(double a, double b, double threshold) {
+				return threshold * Math.min(a, b);
+			}
+		},
+		COSINE_SIMILARITY {
+			@Override
+			float similarity(int overlap, int a, int b) {
+				return (float) (overlap / (Math.sqrt((float) a) * Math.sqrt((float) b)));
+			}
+
+			@Override
+			double minSizeBound(double size, double threshold) {
+				return threshold * threshold * size;
+			}
+
+			@Override
+			double overlapBound(double a, double b, double threshold) {
+				return threshold * Math.sqrt(a * b);
+			}
+		};
+
+		private static final double MARGIN = 1.0 - 1e-6;
+
+		static Filter of(Metric<?> metric) {
+			if (metric instanceof Jaccard) {
+				return JACCARD;
+			} else if (metric instanceof Dice) {
+				return DICE;
+			} else if (metric instanceof OverlapCoefficient) {
+				return OVERLAP_COEFFICIENT;
+			} else if (metric instanceof CosineSimilarity) {
+				return COSINE_SIMILARITY;
+			}
+			throw new IllegalArgumentException("Unsupported metric " + metric);
+		}
+
+		abstract float similarity(int overlap, int a, int b);
+
+		abstract double minSizeBound(double size, double threshold);
+
+		abstract double overlapBound(double a, double b, double threshold);
+
+		/*
+		 * Smallest set that may be similar to a set of the given size.
+		 */
+		final int minSize(int size, float threshold) {
+			return Math.max(1, (int) Math.floor(minSizeBound(size, threshold) * MARGIN));
+		}
+
+		/*
+		 * Smallest overlap of two similar sets of size a and b.
+		 */
+		final int overlap(int a, int b, float threshold) {
+			return Math.max(1, (int) Math.ceil(overlapBound(a, b, threshold) * MARGIN));
+		}
+	}
+
+}
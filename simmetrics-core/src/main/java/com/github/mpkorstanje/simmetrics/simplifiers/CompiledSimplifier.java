@@ -0,0 +1,171 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.simplifiers;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A simplifier compiled from a chain of lower-case and non-word replacement
+ * steps. The steps are applied to one code point at a time in a single pass
+ * over the input, without creating a string per step.
+ * <p>
+ * Lower-casing a code point on its own is equivalent to
+ * {@link String#toLowerCase(java.util.Locale)} except for {@code U+0130} and
+ * {@code U+03A3}, which depend on their context. Inputs that contain either
+ * are simplified by the original chain.
+ * <p>
+ * The {@code toString} of a compiled simplifier is that of the original
+ * chain.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see Simplifiers#compile(Simplifier)
+ */
+public final class CompiledSimplifier implements Simplifier {
+
+	private final Simplifier simplifier;
+
+	// Per step, the code points that replace a non-word code point or null
+	// when the step lower-cases
+	private final int[][] replacements;
+
+	// Per step, whether a run of non-word code points is replaced once
+	private final boolean[] runs;
+
+	private final boolean lowerCase;
+
+	private final int expansion;
+
+	CompiledSimplifier(Simplifier simplifier, int[][] replacements, boolean[] runs) {
+		this.simplifier = requireNonNull(simplifier);
+		this.replacements = replacements;
+		this.runs = runs;
+		boolean lowerCase = false;
+		int expansion = 1;
+		for (int[] replacement : replacements) {
+			if (replacement == null) {
+				lowerCase = true;
+			} else {
+				expansion = Math.multiplyExact(expansion, Math.max(1, replacement.length));
+			}
+		}
+		this.lowerCase = lowerCase;
+		this.expansion = expansion;
+	}
+
+	/**
+	 * Returns true when the input can be simplified one code point at a time.
+	 * 
+	 * @param input
+	 *            the input to simplify
+	 * @return true when the input can be simplified to code points
+	 * @see #simplify(String, int[], int)
+	 */
+	public boolean isSimplifiedByCodePoint(String input) {
+		return !lowerCase || input.indexOf('\u0130') < 0 && input.indexOf('\u03A3') < 0;
+	}
+
+	/**
+	 * Returns the maximum number of code points the input is simplified to.
+	 * 
+	 * @param input
+	 *            the input to simplify
+	 * @return the maximum length of the simplified input
+	 */
+	public int getMaxLength(String input) {
+		return Math.multiplyExact(input.length(), expansion);
+	}
+
+	/**
+	 * Simplifies the input into code points. The destination must have room
+	 * for {@link #getMaxLength(String)} code points after the offset.
+	 * 
+	 * @param input
+	 *            the input to simplify
+	 * @param destination
+	 *            array to write the code points to
+	 * @param offset
+	 *            index of the first code point in the destination
+	 * @return the index after the last code point
+	 * @throws IllegalArgumentException
+	 *             when the input can not be simplified one code point at a
+	 *             time
+	 * @see #isSimplifiedByCodePoint(String)
+	 */
+	public int simplify(String input, int[] destination, int offset) {
+		if (!isSimplifiedByCodePoint(input)) {
+			throw new IllegalArgumentException("input must be simplified by " + simplifier);
+		}
+		final boolean[] inRun = new boolean[runs.length];
+		int length = offset;
+		for (int i = 0; i < input.length();) {
+			final int codePoint = input.codePointAt(i);
+			length = apply(0, codePoint, inRun, destination, length);
+			i += Character.charCount(codePoint);
+		}
+		return length;
+	}
+
+	private int apply(int step, int codePoint, boolean[] inRun, int[] destination, int length) {
+		if (step == replacements.length) {
+			destination[length] = codePoint;
+			return length + 1;
+		}
+		final int[] replacement = replacements[step];
+		if (replacement == null) {
+			return apply(step + 1, Character.toLowerCase(codePoint), inRun, destination, length);
+		}
+		if (isWord(codePoint)) {
+			inRun[step] = false;
+			return apply(step + 1, codePoint, inRun, destination, length);
+		}
+		if (runs[step] && inRun[step]) {
+			return length;
+		}
+		inRun[step] = true;
+		for (int r : replacement) {
+			length = apply(step + 1, r, inRun, destination, length);
+		}
+		return length;
+	}
+
+	// The word characters of the regex \w
+	private static boolean isWord(int codePoint) {
+		return codePoint >= 'a' && codePoint <= 'z'
+				|| codePoint >= 'A' && codePoint <= 'Z'
+				|| codePoint >= '0' && codePoint <= '9'
+				|| codePoint == '_';
+	}
+
+	@Override
+	public String simplify(String input) {
+		if (!isSimplifiedByCodePoint(input)) {
+			return simplifier.simplify(input);
+		}
+		final int[] codePoints = new int[getMaxLength(input)];
+		return new String(codePoints, 0, simplify(input, codePoints, 0));
+	}
+
+	@Override
+	public String toString() {
+		return simplifier.toString();
+	}
+
+}
@@ -172,6 +172,14 @@ public final class Simplifiers {
 		public String toString() {
 			return "Replace [" + pattern + " -> '" + repplacement + "' ]";
 		}
+
+		Pattern getPattern() {
+			return pattern;
+		}
+
+		String getReplacement() {
+			return repplacement;
+		}
 	}
 
 	static final class ToLowerCase implements Simplifier {
@@ -191,6 +199,10 @@ public final class Simplifiers {
 		public String toString() {
 			return "ToLowerCase [locale=" + locale + "]";
 		}
+
+		Locale getLocale() {
+			return locale;
+		}
 	}
 
 	static final class ToUpperCase implements Simplifier {
@@ -249,6 +261,59 @@ public final class Simplifiers {
 		return chain(asList(simplifier, simplifiers));
 	}
 
+	/**
+	 * Compiles a simplifier into a single pass over the code points of the
+	 * input. Chains of {@link #toLowerCase(Locale)},
+	 * {@link #removeNonWord()} and {@link #replaceNonWord(String)} can be
+	 * compiled. Other simplifiers are returned as is.
+	 * <p>
+	 * Lower-casing is not compiled for the Turkish, Azerbaijani and
+	 * Lithuanian locales, whose rules depend on the surrounding characters.
+	 * 
+	 * @param simplifier
+	 *            the simplifier to compile
+	 * @return a {@link CompiledSimplifier} or the simplifier itself when it
+	 *         can not be compiled
+	 * 
+	 * @see StringMetricBuilder
+	 */
+	public static Simplifier compile(Simplifier simplifier) {
+		requireNonNull(simplifier);
+		if (simplifier instanceof CompiledSimplifier) {
+			return simplifier;
+		}
+		final List<Simplifier> steps = simplifier instanceof ChainSimplifier
+				? ((ChainSimplifier) simplifier).getSimplifiers()
+				: ImmutableList.of(simplifier);
+
+		final int[][] replacements = new int[steps.size()][];
+		final boolean[] runs = new boolean[steps.size()];
+		for (int i = 0; i < steps.size(); i++) {
+			final Simplifier step = steps.get(i);
+			if (step instanceof ToLowerCase) {
+				final String language = ((ToLowerCase) step).getLocale().getLanguage();
+				if ("tr".equals(language) || "az".equals(language) || "lt".equals(language)) {
+					return simplifier;
+				}
+			} else if (step instanceof ReplaceAll) {
+				final ReplaceAll replaceAll = (ReplaceAll) step;
+				final Pattern pattern = replaceAll.getPattern();
+				final String replacement = replaceAll.getReplacement();
+				if (pattern.flags() != 0
+						|| !("\\W".equals(pattern.pattern()) || "\\W+".equals(pattern.pattern()))
+						|| replacement.indexOf('$') >= 0 || replacement.indexOf('\\') >= 0
+						|| replacement.indexOf('\u0130') >= 0 || replacement.indexOf('\u03A3') >= 0) {
+					return simplifier;
+				}
+				replacements[i] = replacement.codePoints().toArray();
+				runs[i] = pattern.pattern().endsWith("+");
+			} else {
+				return simplifier;
+			}
+		}
+		return new CompiledSimplifier(simplifier, replacements, runs);
+	}
+
 	private static List<Simplifier> flatten(List<Simplifier> simplifiers) {
 		final List<Simplifier> flattend = new ArrayList<>(simplifiers.size());
 
@@ -0,0 +1,214 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A multiset of tokens represented by their 64-bit hashes. The distinct
+ * hashes are kept in a sorted array with the number of occurrences of each
+ * hash in a parallel array. Two multisets can be intersected by merging
+ * rather than by looking up each token in a hash table.
+ * <p>
+ * As with {@link HashedSet} distinct tokens may, with a negligible
+ * probability, share a hash.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see Tokenizer#tokenizeToHashedMultiset(String)
+ */
+public final class HashedMultiset {
+
+	private static final long[] EMPTY_HASHES = new long[0];
+
+	private static final int[] EMPTY_COUNTS = new int[0];
+
+	private final long[] hashes;
+
+	private final int[] counts;
+
+	private final int size;
+
+	private final int hash;
+
+	HashedMultiset(long[] hashes, int[] counts, int size) {
+		this.hashes = hashes;
+		this.counts = counts;
+		this.size = size;
+		this.hash = 31 * Arrays.hashCode(hashes) + Arrays.hashCode(counts);
+	}
+
+	/**
+	 * Creates a multiset from the hashes of the tokens.
+	 * 
+	 * @param tokens
+	 *            the tokens
+	 * @return a multiset of hashed tokens
+	 * @throws NullPointerException
+	 *             when tokens is or contains null
+	 */
+	public static HashedMultiset of(Collection<String> tokens) {
+		final long[] hashes = new long[tokens.size()];
+		int length = 0;
+		for (String token : tokens) {
+			hashes[length++] = TokenHashes.hash(requireNonNull(token));
+		}
+		return ofUnsorted(hashes, length);
+	}
+
+	/**
+	 * Creates a multiset from token hashes. Each occurrence of a hash counts
+	 * once.
+	 * 
+	 * @param hashes
+	 *            the token hashes
+	 * @return a multiset of hashed tokens
+	 */
+	public static HashedMultiset of(long... hashes) {
+		return ofUnsorted(hashes.clone(), hashes.length);
+	}
+
+	/*
+	 * Creates a multiset from the first length hashes. Takes ownership of the
+	 * array.
+	 */
+	static HashedMultiset ofUnsorted(long[] hashes, int length) {
+		if (length == 0) {
+			return new HashedMultiset(EMPTY_HASHES, EMPTY_COUNTS, 0);
+		}
+		Arrays.sort(hashes, 0, length);
+		final int[] counts = new int[length];
+		int distinct = 1;
+		counts[0] = 1;
+		for (int i = 1; i < length; i++) {
+			if (hashes[i] != hashes[distinct - 1]) {
+				hashes[distinct++] = hashes[i];
+			}
+			counts[distinct - 1]++;
+		}
+		if (distinct == hashes.length) {
+			return new HashedMultiset(hashes, counts, length);
+		}
+		return new HashedMultiset(Arrays.copyOf(hashes, distinct), Arrays.copyOf(counts, distinct), length);
+	}
+
+	/**
+	 * Returns the total number of occurrences of all hashes.
+	 * 
+	 * @return the total number of occurrences
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of distinct hashes.
+	 * 
+	 * @return the number of distinct hashes
+	 */
+	public int distinctSize() {
+		return hashes.length;
+	}
+
+	/**
+	 * Returns true if the multiset contains no hashes.
+	 * 
+	 * @return true if the multiset contains no hashes
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the distinct hash at the given index. Hashes are sorted in
+	 * ascending order.
+	 * 
+	 * @param index
+	 *            the index of the hash, less than {@link #distinctSize()}
+	 * @return the hash at the index
+	 * @throws IndexOutOfBoundsException
+	 *             when the index is negative or not less than the distinct
+	 *             size
+	 */
+	public long hashAt(int index) {
+		return hashes[index];
+	}
+
+	/**
+	 * Returns the number of occurrences of the hash at the given index.
+	 * 
+	 * @param index
+	 *            the index of the hash, less than {@link #distinctSize()}
+	 * @return the number of occurrences of the hash at the index
+	 * @throws IndexOutOfBoundsException
+	 *             when the index is negative or not less than the distinct
+	 *             size
+	 */
+	public int countAt(int index) {
+		return counts[index];
+	}
+
+	/**
+	 * Returns the number of occurrences of the hash of the token.
+	 * 
+	 * @param token
+	 *            the token
+	 * @return the number of occurrences of the hash of the token
+	 */
+	public int count(String token) {
+		final int index = Arrays.binarySearch(hashes, TokenHashes.hash(token));
+		return index >= 0 ? counts[index] : 0;
+	}
+
+	/**
+	 * Returns the distinct hashes as a set.
+	 * 
+	 * @return the distinct hashes
+	 */
+	public HashedSet elementSet() {
+		return new HashedSet(hashes);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof HashedMultiset)) {
+			return false;
+		}
+		final HashedMultiset other = (HashedMultiset) o;
+		return hash == other.hash && Arrays.equals(hashes, other.hashes) && Arrays.equals(counts, other.counts);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return "HashedMultiset [size=" + size + ", distinctSize=" + distinctSize() + "]";
+	}
+
+}
@@ -0,0 +1,175 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A set of tokens represented by their 64-bit hashes. The hashes are kept in a
+ * sorted array so two sets can be intersected by merging rather than by
+ * looking up each token in a hash table.
+ * <p>
+ * Distinct tokens may, with a probability of roughly {@code n² / 2⁶⁵} for
+ * {@code n} distinct tokens, share a hash. Metrics over hashed sets are
+ * therefore very close approximations of their counterparts over sets of
+ * strings rather than exact equivalents.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see Tokenizer#tokenizeToHashedSet(String)
+ */
+public final class HashedSet {
+
+	private static final long[] EMPTY = new long[0];
+
+	private final long[] hashes;
+
+	private final int hash;
+
+	HashedSet(long[] hashes) {
+		this.hashes = hashes;
+		this.hash = Arrays.hashCode(hashes);
+	}
+
+	/**
+	 * Creates a set from the hashes of the tokens.
+	 * 
+	 * @param tokens
+	 *            the tokens
+	 * @return a set of hashed tokens
+	 * @throws NullPointerException
+	 *             when tokens is or contains null
+	 */
+	public static HashedSet of(Collection<String> tokens) {
+		final long[] hashes = new long[tokens.size()];
+		int length = 0;
+		for (String token : tokens) {
+			hashes[length++] = TokenHashes.hash(requireNonNull(token));
+		}
+		return ofUnsorted(hashes, length);
+	}
+
+	/**
+	 * Creates a set from token hashes. Duplicate hashes are removed.
+	 * 
+	 * @param hashes
+	 *            the token hashes
+	 * @return a set of hashed tokens
+	 */
+	public static HashedSet of(long... hashes) {
+		return ofUnsorted(hashes.clone(), hashes.length);
+	}
+
+	/*
+	 * Creates a set from the first length hashes. Takes ownership of the
+	 * array.
+	 */
+	static HashedSet ofUnsorted(long[] hashes, int length) {
+		if (length == 0) {
+			return new HashedSet(EMPTY);
+		}
+		Arrays.sort(hashes, 0, length);
+		int distinct = 1;
+		for (int i = 1; i < length; i++) {
+			if (hashes[i] != hashes[distinct - 1]) {
+				hashes[distinct++] = hashes[i];
+			}
+		}
+		return new HashedSet(distinct == hashes.length ? hashes : Arrays.copyOf(hashes, distinct));
+	}
+
+	/**
+	 * Returns the number of distinct hashes.
+	 * 
+	 * @return the number of distinct hashes
+	 */
+	public int size() {
+		return hashes.length;
+	}
+
+	/**
+	 * Returns true if the set contains no hashes.
+	 * 
+	 * @return true if the set contains no hashes
+	 */
+	public boolean isEmpty() {
+		return hashes.length == 0;
+	}
+
+	/**
+	 * Returns the hash at the given index. Hashes are sorted in ascending
+	 * order.
+	 * 
+	 * @param index
+	 *            the index of the hash
+	 * @return the hash at the index
+	 * @throws IndexOutOfBoundsException
+	 *             when the index is negative or not less than the size
+	 */
+	public long hashAt(int index) {
+		return hashes[index];
+	}
+
+	/**
+	 * Returns true if the set contains the hash of the token.
+	 * 
+	 * @param token
+	 *            the token
+	 * @return true if the set contains the hash of the token
+	 */
+	public boolean contains(String token) {
+		return Arrays.binarySearch(hashes, TokenHashes.hash(token)) >= 0;
+	}
+
+	/**
+	 * Returns a copy of the hashes in ascending order.
+	 * 
+	 * @return a copy of the hashes
+	 */
+	public long[] toArray() {
+		return hashes.clone();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof HashedSet)) {
+			return false;
+		}
+		final HashedSet other = (HashedSet) o;
+		return hash == other.hash && Arrays.equals(hashes, other.hashes);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return "HashedSet [size=" + size() + "]";
+	}
+
+}
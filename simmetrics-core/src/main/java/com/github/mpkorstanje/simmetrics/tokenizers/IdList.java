@@ -0,0 +1,138 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A list of tokens interned by a {@link TokenDictionary}. The ids of the
+ * tokens are kept in an array in the order of the tokens. Tokens are looked
+ * up in the dictionary when they are read.
+ * <p>
+ * An id list uses four bytes per token, rather than a reference to a string
+ * per token and the string itself.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see TokenDictionary#internList(java.util.Collection)
+ */
+public final class IdList extends AbstractList<String> implements RandomAccess {
+
+	private final TokenDictionary dictionary;
+
+	private final int[] ids;
+
+	IdList(TokenDictionary dictionary, int[] ids) {
+		this.dictionary = dictionary;
+		this.ids = ids;
+	}
+
+	/**
+	 * Returns the dictionary that interned the tokens.
+	 * 
+	 * @return the dictionary of the list
+	 */
+	public TokenDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * Returns the id at the given index.
+	 * 
+	 * @param index
+	 *            the index of the id
+	 * @return the id at the index
+	 * @throws IndexOutOfBoundsException
+	 *             when the index is negative or not less than the size
+	 */
+	public int idAt(int index) {
+		return ids[index];
+	}
+
+	@Override
+	public String get(int index) {
+		return dictionary.getToken(ids[index]);
+	}
+
+	@Override
+	public int size() {
+		return ids.length;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return ids.length == 0;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		if (!(o instanceof String)) {
+			return -1;
+		}
+		final int id = dictionary.getId((String) o);
+		if (id < 0) {
+			return -1;
+		}
+		for (int i = 0; i < ids.length; i++) {
+			if (ids[i] == id) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		if (!(o instanceof String)) {
+			return -1;
+		}
+		final int id = dictionary.getId((String) o);
+		if (id < 0) {
+			return -1;
+		}
+		for (int i = ids.length - 1; i >= 0; i--) {
+			if (ids[i] == id) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o instanceof IdList && ((IdList) o).dictionary == dictionary) {
+			return Arrays.equals(ids, ((IdList) o).ids);
+		}
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+}
@@ -0,0 +1,219 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import java.util.Arrays;
+
+import com.google.common.collect.ForwardingMultiset;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Multiset;
+
+/**
+ * A multiset of tokens interned by a {@link TokenDictionary}. The distinct ids
+ * of the tokens are kept in a sorted array with the number of occurrences of
+ * each id in a parallel array. Two multisets from the same dictionary are
+ * intersected by merging their ids, or by galloping through the larger
+ * multiset when their sizes are skewed. The multiset metrics use this
+ * transparently.
+ * <p>
+ * The squared norm of the multiset as a vector of counts is computed on
+ * creation so the cosine similarity and Euclidean distance only compute the
+ * dot product when comparing two multisets.
+ * <p>
+ * Operations other than size, count and intersection are served by an
+ * immutable multiset that is created on first use.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see TokenDictionary#internMultiset(java.util.Collection)
+ */
+public final class IdMultiset extends ForwardingMultiset<String> {
+
+	private final TokenDictionary dictionary;
+
+	private final int[] ids;
+
+	private final int[] counts;
+
+	private final int size;
+
+	private final long squaredNorm;
+
+	private ImmutableMultiset<String> delegate;
+
+	IdMultiset(TokenDictionary dictionary, int[] ids, int[] counts, int size) {
+		this.dictionary = dictionary;
+		this.ids = ids;
+		this.counts = counts;
+		this.size = size;
+
+		long squaredNorm = 0;
+		for (int count : counts) {
+			squaredNorm += (long) count * count;
+		}
+		this.squaredNorm = squaredNorm;
+	}
+
+	@Override
+	protected Multiset<String> delegate() {
+		// Racy single check, the multiset is immutable
+		ImmutableMultiset<String> delegate = this.delegate;
+		if (delegate == null) {
+			final ImmutableMultiset.Builder<String> builder = ImmutableMultiset.builder();
+			for (int i = 0; i < ids.length; i++) {
+				builder.addCopies(dictionary.getToken(ids[i]), counts[i]);
+			}
+			delegate = builder.build();
+			this.delegate = delegate;
+		}
+		return delegate;
+	}
+
+	/**
+	 * Returns the dictionary that interned the tokens.
+	 * 
+	 * @return the dictionary of the multiset
+	 */
+	public TokenDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * Returns the number of distinct ids.
+	 * 
+	 * @return the number of distinct ids
+	 */
+	public int distinctSize() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns the distinct id at the given index. Ids are sorted in ascending
+	 * order.
+	 * 
+	 * @param index
+	 *            the index of the id, less than {@link #distinctSize()}
+	 * @return the id at the index
+	 * @throws IndexOutOfBoundsException
+	 *             when the index is negative or not less than the distinct
+	 *             size
+	 */
+	public int idAt(int index) {
+		return ids[index];
+	}
+
+	/**
+	 * Returns the number of occurrences of the id at the given index.
+	 * 
+	 * @param index
+	 *            the index of the id, less than {@link #distinctSize()}
+	 * @return the number of occurrences of the id at the index
+	 * @throws IndexOutOfBoundsException
+	 *             when the index is negative or not less than the distinct
+	 *             size
+	 */
+	public int countAt(int index) {
+		return counts[index];
+	}
+
+	/**
+	 * Returns the sum of the smallest number of occurrences of each token in
+	 * both multisets. Both multisets must be interned by the same dictionary.
+	 * 
+	 * @param other
+	 *            the other multiset
+	 * @return the size of the intersection
+	 * @throws IllegalArgumentException
+	 *             when the multisets were interned by different dictionaries
+	 */
+	public int intersectionSize(IdMultiset other) {
+		if (dictionary != other.dictionary) {
+			throw new IllegalArgumentException("multisets were interned by different dictionaries");
+		}
+		return SortedIds.intersectionSize(ids, counts, other.ids, other.counts);
+	}
+
+	/**
+	 * Returns the sum of the product of the number of occurrences of each
+	 * token in both multisets. Both multisets must be interned by the same
+	 * dictionary.
+	 * 
+	 * @param other
+	 *            the other multiset
+	 * @return the dot product of the multisets
+	 * @throws IllegalArgumentException
+	 *             when the multisets were interned by different dictionaries
+	 */
+	public long dotProduct(IdMultiset other) {
+		if (dictionary != other.dictionary) {
+			throw new IllegalArgumentException("multisets were interned by different dictionaries");
+		}
+		return SortedIds.dotProduct(ids, counts, other.ids, other.counts);
+	}
+
+	/**
+	 * Returns the sum of the squared number of occurrences of each token.
+	 * 
+	 * @return the squared norm of the multiset
+	 */
+	public long getSquaredNorm() {
+		return squaredNorm;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int count(Object element) {
+		if (!(element instanceof String)) {
+			return 0;
+		}
+		final int id = dictionary.getId((String) element);
+		final int index = id < 0 ? -1 : Arrays.binarySearch(ids, id);
+		return index < 0 ? 0 : counts[index];
+	}
+
+	@Override
+	public boolean contains(Object element) {
+		return count(element) > 0;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o instanceof IdMultiset && ((IdMultiset) o).dictionary == dictionary) {
+			final IdMultiset other = (IdMultiset) o;
+			return Arrays.equals(ids, other.ids) && Arrays.equals(counts, other.counts);
+		}
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+}
@@ -0,0 +1,144 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of tokens interned by a {@link TokenDictionary}. The ids of the tokens
+ * are kept in a sorted array. Two sets from the same dictionary are
+ * intersected by merging their ids, or by galloping through the larger set
+ * when their sizes are skewed, rather than by looking up each token in a hash
+ * table. The set metrics use this transparently.
+ * <p>
+ * An id set uses four bytes per token. Tokens are looked up in the dictionary
+ * when the set is iterated.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see TokenDictionary#internSet(java.util.Collection)
+ */
+public final class IdSet extends AbstractSet<String> {
+
+	private final TokenDictionary dictionary;
+
+	private final int[] ids;
+
+	IdSet(TokenDictionary dictionary, int[] ids) {
+		this.dictionary = dictionary;
+		this.ids = ids;
+	}
+
+	/**
+	 * Returns the dictionary that interned the tokens.
+	 * 
+	 * @return the dictionary of the set
+	 */
+	public TokenDictionary getDictionary() {
+		return dictionary;
+	}
+
+	/**
+	 * Returns the id at the given index. Ids are sorted in ascending order.
+	 * 
+	 * @param index
+	 *            the index of the id
+	 * @return the id at the index
+	 * @throws IndexOutOfBoundsException
+	 *             when the index is negative or not less than the size
+	 */
+	public int idAt(int index) {
+		return ids[index];
+	}
+
+	/**
+	 * Returns the number of tokens in both sets. Both sets must be interned
+	 * by the same dictionary.
+	 * 
+	 * @param other
+	 *            the other set
+	 * @return the size of the intersection
+	 * @throws IllegalArgumentException
+	 *             when the sets were interned by different dictionaries
+	 */
+	public int intersectionSize(IdSet other) {
+		if (dictionary != other.dictionary) {
+			throw new IllegalArgumentException("sets were interned by different dictionaries");
+		}
+		return SortedIds.intersectionSize(ids, null, other.ids, null);
+	}
+
+	@Override
+	public int size() {
+		return ids.length;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return ids.length == 0;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof String)) {
+			return false;
+		}
+		final int id = dictionary.getId((String) o);
+		return id >= 0 && Arrays.binarySearch(ids, id) >= 0;
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+		return new Iterator<String>() {
+
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < ids.length;
+			}
+
+			@Override
+			public String next() {
+				if (index == ids.length) {
+					throw new NoSuchElementException();
+				}
+				return dictionary.getToken(ids[index++]);
+			}
+		};
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o instanceof IdSet && ((IdSet) o).dictionary == dictionary) {
+			return Arrays.equals(ids, ((IdSet) o).ids);
+		}
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+}
@@ -0,0 +1,93 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ForwardingMultiset;
+import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+
+/**
+ * A multiset that carries its squared norm. The norm is the length of the
+ * multiset as a vector of counts and is computed once on creation.
+ * <p>
+ * When the same tokenized document is compared with many others, wrapping it
+ * allows the cosine similarity and Euclidean distance to reuse the norm
+ * rather than recomputing it for each comparison. The norm of the other
+ * document is still computed per comparison unless it is wrapped as well.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @param <T>
+ *            type of the token
+ */
+public final class NormedMultiset<T> extends ForwardingMultiset<T> {
+
+	private final Multiset<T> delegate;
+
+	private final long squaredNorm;
+
+	private NormedMultiset(Multiset<T> delegate, long squaredNorm) {
+		this.delegate = delegate;
+		this.squaredNorm = squaredNorm;
+	}
+
+	/**
+	 * Creates a copy of the multiset that carries its squared norm.
+	 *
+	 * @param multiset
+	 *            the multiset to copy
+	 * @param <T>
+	 *            type of the token
+	 * @return a multiset with its squared norm
+	 */
+	public static <T> NormedMultiset<T> of(Multiset<T> multiset) {
+		requireNonNull(multiset);
+		if (multiset instanceof NormedMultiset) {
+			return (NormedMultiset<T>) multiset;
+		}
+
+		// Unlike the immutable multisets this supports null tokens
+		final Multiset<T> copy = LinkedHashMultiset.create(multiset);
+		long squaredNorm = 0;
+		for (Multiset.Entry<T> entry : copy.entrySet()) {
+			final long count = entry.getCount();
+			squaredNorm += count * count;
+		}
+		return new NormedMultiset<>(Multisets.unmodifiableMultiset(copy), squaredNorm);
+	}
+
+	@Override
+	protected Multiset<T> delegate() {
+		return delegate;
+	}
+
+	/**
+	 * Returns the sum of the squared number of occurrences of each token.
+	 *
+	 * @return the squared norm of the multiset
+	 */
+	public long getSquaredNorm() {
+		return squaredNorm;
+	}
+
+}
@@ -0,0 +1,116 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import java.util.Arrays;
+
+/*
+ * Intersections of sorted arrays of distinct ids. Ids in both arrays are
+ * combined as 1 when no counts are given, or as the smallest or the product of
+ * their counts.
+ */
+final class SortedIds {
+
+	// Gallop through the larger array when it is this many times larger
+	private static final int GALLOP_RATIO = 16;
+
+	private SortedIds() {
+		// Utility class
+	}
+
+	/*
+	 * Returns the number of ids in both arrays, or when counts are given the
+	 * sum of the smallest count of each id in both arrays.
+	 */
+	static int intersectionSize(int[] a, int[] aCounts, int[] b, int[] bCounts) {
+		return (int) intersect(a, aCounts, b, bCounts, false);
+	}
+
+	/*
+	 * Returns the sum of the product of the counts of each id in both arrays.
+	 */
+	static long dotProduct(int[] a, int[] aCounts, int[] b, int[] bCounts) {
+		return intersect(a, aCounts, b, bCounts, true);
+	}
+
+	private static long intersect(int[] a, int[] aCounts, int[] b, int[] bCounts, boolean product) {
+		if (a.length > b.length) {
+			return intersect(b, bCounts, a, aCounts, product);
+		}
+		if ((long) a.length * GALLOP_RATIO < b.length) {
+			return gallop(a, aCounts, b, bCounts, product);
+		}
+		return merge(a, aCounts, b, bCounts, product);
+	}
+
+	private static long combine(int[] aCounts, int i, int[] bCounts, int j, boolean product) {
+		if (aCounts == null) {
+			return 1;
+		}
+		return product ? (long) aCounts[i] * bCounts[j] : Math.min(aCounts[i], bCounts[j]);
+	}
+
+	private static long merge(int[] a, int[] aCounts, int[] b, int[] bCounts, boolean product) {
+		long intersection = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				intersection += combine(aCounts, i, bCounts, j, product);
+				i++;
+				j++;
+			}
+		}
+		return intersection;
+	}
+
+	/*
+	 * Searches each id of the smaller array in the larger array. The search
+	 * doubles its step from the last position found until it passes the id
+	 * and then bisects the last step.
+	 */
+	private static long gallop(int[] small, int[] smallCounts, int[] large, int[] largeCounts, boolean product) {
+		long intersection = 0;
+		int low = 0;
+		for (int i = 0; i < small.length && low < large.length; i++) {
+			final int id = small[i];
+			int high = low;
+			int step = 1;
+			while (high < large.length && large[high] < id) {
+				low = high + 1;
+				high += step;
+				step <<= 1;
+			}
+			final int found = Arrays.binarySearch(large, low, Math.min(high + 1, large.length), id);
+			if (found >= 0) {
+				intersection += combine(smallCounts, i, largeCounts, found, product);
+				low = found + 1;
+			} else {
+				low = -(found + 1);
+			}
+		}
+		return intersection;
+	}
+
+}
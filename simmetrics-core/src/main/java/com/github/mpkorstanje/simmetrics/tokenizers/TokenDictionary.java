@@ -0,0 +1,266 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns a dense integer id to every distinct token. Sets and multisets of
+ * tokens interned by the same dictionary are stored as sorted arrays of ids
+ * and can be intersected by merging the arrays. Lists are stored as arrays of
+ * ids in the order of their tokens.
+ * <p>
+ * Ids are assigned in the order tokens are first seen and are never
+ * reclaimed. A dictionary grows with the vocabulary of the inputs it interns
+ * and is best shared by all records of a single corpus.
+ * <p>
+ * This class is thread-safe. Looking up a known token does not lock.
+ * 
+ * @see IdList
+ * @see IdSet
+ * @see IdMultiset
+ * @see Tokenizers#interning(Tokenizer, TokenDictionary)
+ */
+public final class TokenDictionary {
+
+	private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+	// Grown under lock, read without. Tokens are written before their id is
+	// published.
+	private volatile String[] tokens = new String[16];
+
+	private int size;
+
+	private TokenDictionary() {
+	}
+
+	/**
+	 * Creates an empty dictionary.
+	 * 
+	 * @return an empty dictionary
+	 */
+	public static TokenDictionary create() {
+		return new TokenDictionary();
+	}
+
+	/**
+	 * Returns the id of the token. Tokens that have not been seen before are
+	 * assigned the next id.
+	 * 
+	 * @param token
+	 *            the token
+	 * @return the id of the token
+	 */
+	public int intern(String token) {
+		final Integer id = ids.get(token);
+		if (id != null) {
+			return id;
+		}
+		return add(token);
+	}
+
+	private synchronized int add(String token) {
+		final Integer existing = ids.get(token);
+		if (existing != null) {
+			return existing;
+		}
+		String[] tokens = this.tokens;
+		if (size == tokens.length) {
+			tokens = Arrays.copyOf(tokens, size * 2);
+			this.tokens = tokens;
+		}
+		final int id = size++;
+		tokens[id] = token;
+		ids.put(token, id);
+		return id;
+	}
+
+	/**
+	 * Returns the id of the token or {@code -1} if the token has not been
+	 * interned.
+	 * 
+	 * @param token
+	 *            the token
+	 * @return the id of the token or {@code -1}
+	 */
+	public int getId(String token) {
+		final Integer id = ids.get(token);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Returns the token with the given id.
+	 * 
+	 * @param id
+	 *            the id of an interned token
+	 * @return the token with the id
+	 * @throws IndexOutOfBoundsException
+	 *             when no token has the id
+	 */
+	public String getToken(int id) {
+		final String[] tokens = this.tokens;
+		if (id < 0 || id >= tokens.length || tokens[id] == null) {
+			throw new IndexOutOfBoundsException("id " + id);
+		}
+		return tokens[id];
+	}
+
+	/**
+	 * Returns the number of interned tokens.
+	 * 
+	 * @return the number of interned tokens
+	 */
+	public int size() {
+		return ids.size();
+	}
+
+	/**
+	 * Interns the tokens as a list.
+	 * 
+	 * @param tokens
+	 *            the tokens
+	 * @return a list of interned tokens
+	 * @throws NullPointerException
+	 *             when tokens is or contains null
+	 */
+	public IdList internList(Collection<String> tokens) {
+		return new IdList(this, internAll(tokens));
+	}
+
+	/**
+	 * Interns the tokens as a set.
+	 * 
+	 * @param tokens
+	 *            the tokens
+	 * @return a set of interned tokens
+	 * @throws NullPointerException
+	 *             when tokens is or contains null
+	 */
+	public IdSet internSet(Collection<String> tokens) {
+		return toSet(internAll(tokens));
+	}
+
+	private IdSet toSet(int[] ids) {
+		Arrays.sort(ids);
+		int distinct = 0;
+		for (int i = 0; i < ids.length; i++) {
+			if (distinct == 0 || ids[i] != ids[distinct - 1]) {
+				ids[distinct++] = ids[i];
+			}
+		}
+		return new IdSet(this, distinct == ids.length ? ids : Arrays.copyOf(ids, distinct));
+	}
+
+	/**
+	 * Interns the tokens as a multiset.
+	 * 
+	 * @param tokens
+	 *            the tokens
+	 * @return a multiset of interned tokens
+	 * @throws NullPointerException
+	 *             when tokens is or contains null
+	 */
+	public IdMultiset internMultiset(Collection<String> tokens) {
+		return toMultiset(internAll(tokens));
+	}
+
+	private IdMultiset toMultiset(int[] ids) {
+		Arrays.sort(ids);
+		final int[] counts = new int[ids.length];
+		int distinct = 0;
+		for (int i = 0; i < ids.length; i++) {
+			if (distinct == 0 || ids[i] != ids[distinct - 1]) {
+				ids[distinct++] = ids[i];
+			}
+			counts[distinct - 1]++;
+		}
+		if (distinct == ids.length) {
+			return new IdMultiset(this, ids, counts, ids.length);
+		}
+		return new IdMultiset(this, Arrays.copyOf(ids, distinct), Arrays.copyOf(counts, distinct), ids.length);
+	}
+
+	/**
+	 * Returns the list of tokens with the given ids.
+	 * 
+	 * @param ids
+	 *            ids of interned tokens in the order of the tokens
+	 * @return a list of interned tokens
+	 * @throws IllegalArgumentException
+	 *             when no token has one of the ids
+	 */
+	public IdList listOf(int... ids) {
+		return new IdList(this, checkIds(ids));
+	}
+
+	/**
+	 * Returns the set of tokens with the given ids.
+	 * 
+	 * @param ids
+	 *            ids of interned tokens
+	 * @return a set of interned tokens
+	 * @throws IllegalArgumentException
+	 *             when no token has one of the ids
+	 */
+	public IdSet setOf(int... ids) {
+		return toSet(checkIds(ids));
+	}
+
+	/**
+	 * Returns the multiset of tokens with the given ids.
+	 * 
+	 * @param ids
+	 *            ids of interned tokens
+	 * @return a multiset of interned tokens
+	 * @throws IllegalArgumentException
+	 *             when no token has one of the ids
+	 */
+	public IdMultiset multisetOf(int... ids) {
+		return toMultiset(checkIds(ids));
+	}
+
+	private int[] checkIds(int[] ids) {
+		final int size = size();
+		for (int id : ids) {
+			checkArgument(id >= 0 && id < size, "no token has id %s", id);
+		}
+		return ids.clone();
+	}
+
+	private int[] internAll(Collection<String> tokens) {
+		final int[] ids = new int[tokens.size()];
+		int i = 0;
+		for (String token : tokens) {
+			ids[i++] = intern(requireNonNull(token));
+		}
+		return ids;
+	}
+
+	@Override
+	public String toString() {
+		return "TokenDictionary [size=" + size() + "]";
+	}
+
+}
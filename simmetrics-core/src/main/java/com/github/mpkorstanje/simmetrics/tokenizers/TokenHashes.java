@@ -0,0 +1,135 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+/**
+ * 64-bit token hashes used by {@link HashedSet} and {@link HashedMultiset}
+ * and by the MinHash and SimHash signatures of the search package.
+ * <p>
+ * A token is hashed with a polynomial over its code points, offset by one so
+ * leading zeros matter, and finished with the MurmurHash3 finalization mix.
+ * Because the polynomial can be updated one code point at a time the hash of
+ * a sliding window can be computed without creating a substring, which is
+ * how the q-gram tokenizers hash their tokens.
+ */
+public final class TokenHashes {
+
+	static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	private TokenHashes() {
+		// Utility class
+	}
+
+	/**
+	 * Returns the 64-bit hash of a token. Tokens with equal code points have
+	 * equal hashes.
+	 * 
+	 * @param token
+	 *            the token
+	 * @return the hash of the token
+	 */
+	public static long hash(String token) {
+		long polynomial = 0;
+		for (int i = 0; i < token.length();) {
+			final int codePoint = token.codePointAt(i);
+			polynomial = polynomial * MULTIPLIER + codePoint + 1;
+			i += Character.charCount(codePoint);
+		}
+		return mix(polynomial);
+	}
+
+	/*
+	 * Returns the hash of the token made up of the code points in the range.
+	 * Equal to the hash of the string of those code points.
+	 */
+	static long hash(int[] codePoints, int from, int to) {
+		long polynomial = 0;
+		for (int i = from; i < to; i++) {
+			polynomial = polynomial * MULTIPLIER + codePoints[i] + 1;
+		}
+		return mix(polynomial);
+	}
+
+	/*
+	 * Decodes the code points of the input into the destination starting at
+	 * the offset. Returns the index after the last code point.
+	 */
+	static int codePoints(String input, int[] destination, int offset) {
+		int length = offset;
+		for (int i = 0; i < input.length();) {
+			final int codePoint = input.codePointAt(i);
+			destination[length++] = codePoint;
+			i += Character.charCount(codePoint);
+		}
+		return length;
+	}
+
+	/*
+	 * Returns the hash of each window of q code points. The polynomial of a
+	 * window is derived from the previous window by removing the code point
+	 * that leaves and adding the one that enters. The hashes are equal to
+	 * those of the substrings of the windows.
+	 */
+	static long[] qGrams(int[] codePoints, int length, int q) {
+		final long[] hashes = new long[length - q + 1];
+		qGrams(codePoints, 0, length, q, hashes, 0);
+		return hashes;
+	}
+
+	/*
+	 * Writes the hash of each window of q code points in the range to the
+	 * destination starting at the offset. The range must hold at least q code
+	 * points. Returns the index after the last hash.
+	 */
+	static int qGrams(int[] codePoints, int from, int to, int q, long[] destination, int offset) {
+		long power = 1;
+		long polynomial = 0;
+		for (int i = from; i < from + q; i++) {
+			polynomial = polynomial * MULTIPLIER + codePoints[i] + 1;
+			if (i > from) {
+				power *= MULTIPLIER;
+			}
+		}
+		int length = offset;
+		destination[length++] = mix(polynomial);
+		for (int i = from + q; i < to; i++) {
+			polynomial = (polynomial - (codePoints[i - q] + 1L) * power) * MULTIPLIER + codePoints[i] + 1;
+			destination[length++] = mix(polynomial);
+		}
+		return length;
+	}
+
+	/**
+	 * Finalization mix of MurmurHash3, a bijection with good avalanche.
+	 * 
+	 * @param k
+	 *            the value to mix
+	 * @return the mixed value
+	 */
+	public static long mix(long k) {
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+
+}
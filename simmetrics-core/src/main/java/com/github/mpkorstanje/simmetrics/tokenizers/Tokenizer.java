@@ -63,4 +63,24 @@ public interface Tokenizer {
 		return new HashSet<>(tokenizeToList(input));
 	}
 
+	/**
+	 * Return tokenized version of a string as a set of token hashes.
+	 *
+	 * @param input input string to tokenize
+	 * @return tokenized version of a string as a set of hashes
+	 */
+	default HashedSet tokenizeToHashedSet(String input) {
+		return HashedSet.of(tokenizeToList(input));
+	}
+
+	/**
+	 * Return tokenized version of a string as a multiset of token hashes.
+	 *
+	 * @param input input string to tokenize
+	 * @return tokenized version of a string as a multiset of hashes
+	 */
+	default HashedMultiset tokenizeToHashedMultiset(String input) {
+		return HashedMultiset.of(tokenizeToList(input));
+	}
+
 }
@@ -19,6 +19,7 @@
  */
 package com.github.mpkorstanje.simmetrics.tokenizers;
 
+import com.github.mpkorstanje.simmetrics.simplifiers.CompiledSimplifier;
 import com.google.common.base.Joiner;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableList;
@@ -52,6 +53,10 @@ import static java.util.stream.Collectors.toSet;
  * tokenizer or creates a tokenizers that apply filters and transforms to
  * tokens.
  * <p>
+ * The q-gram tokenizers hash their q-grams with a rolling hash when
+ * tokenizing to a {@link HashedSet} or {@link HashedMultiset}, without
+ * creating a substring per q-gram.
+ * <p>
  * The created tokenizers are immutable and thread-safe provided all their
  * components are also immutable and thread-safe.
  */
@@ -244,6 +249,63 @@ public final class Tokenizers {
         return new Recursive(flatten(asList(tokenizer, tokenizers)));
     }
 
+    /**
+     * Returns true when the tokenizer can be fused with a compiled simplifier.
+     * Whitespace and q-gram tokenizers can be fused, as can a chain of a
+     * whitespace tokenizer followed by a q-gram tokenizer.
+     *
+     * @param tokenizer the tokenizer to fuse
+     * @return true when the tokenizer can be fused
+     * @see #fuse(CompiledSimplifier, Tokenizer)
+     */
+    public static boolean isFusible(Tokenizer tokenizer) {
+        return Fused.isFusible(stages(tokenizer));
+    }
+
+    /**
+     * Fuses a compiled simplifier and a tokenizer into a tokenizer that
+     * simplifies and tokenizes the input in a single pass over its code
+     * points. The input is simplified into an array of code points and split
+     * into tokens without creating intermediate strings.
+     * <p>
+     * The fused tokenizer produces the same tokens as tokenizing the
+     * simplified input.
+     *
+     * @param simplifier the simplifier applied first
+     * @param tokenizer  the tokenizer applied to the simplified input
+     * @return a fused tokenizer
+     * @throws IllegalArgumentException when the tokenizer can not be fused
+     * @see #isFusible(Tokenizer)
+     */
+    public static Tokenizer fuse(CompiledSimplifier simplifier,
+            Tokenizer tokenizer) {
+        return new Fused(simplifier, tokenizer);
+    }
+
+    private static List<Tokenizer> stages(Tokenizer tokenizer) {
+        requireNonNull(tokenizer);
+        if (tokenizer instanceof Recursive) {
+            return ((Recursive) tokenizer).getTokenizers();
+        }
+        return singletonList(tokenizer);
+    }
+
+    /**
+     * Constructs a new interning tokenizer. Tokens are interned by the
+     * dictionary when tokenizing to a list, set or multiset. The resulting
+     * {@link IdSet} and {@link IdMultiset} can be intersected with other sets
+     * and multisets from the same dictionary by merging sorted ids. The
+     * resulting {@link IdList} keeps the order of the tokens.
+     *
+     * @param tokenizer  delegate tokenizer
+     * @param dictionary dictionary to intern tokens with
+     * @return a new interning tokenizer
+     */
+    public static Tokenizer interning(Tokenizer tokenizer,
+            TokenDictionary dictionary) {
+        return new Interning(tokenizer, dictionary);
+    }
+
     /**
      * Constructs a new filtering tokenizer. After tokenization, all tokens that
      * don't match {@code predicate} are removed.
@@ -387,6 +449,259 @@ public final class Tokenizers {
 
     }
 
+    static final class Interning implements Tokenizer {
+
+        private final Tokenizer tokenizer;
+        private final TokenDictionary dictionary;
+
+        Interning(Tokenizer tokenizer, TokenDictionary dictionary) {
+            requireNonNull(tokenizer);
+            requireNonNull(dictionary);
+            this.tokenizer = tokenizer;
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public List<String> tokenizeToList(String input) {
+            return dictionary.internList(tokenizer.tokenizeToList(input));
+        }
+
+        @Override
+        public Set<String> tokenizeToSet(String input) {
+            return dictionary.internSet(tokenizer.tokenizeToList(input));
+        }
+
+        @Override
+        public Multiset<String> tokenizeToMultiset(String input) {
+            return dictionary.internMultiset(tokenizer.tokenizeToList(input));
+        }
+
+        @Override
+        public HashedSet tokenizeToHashedSet(String input) {
+            return tokenizer.tokenizeToHashedSet(input);
+        }
+
+        @Override
+        public HashedMultiset tokenizeToHashedMultiset(String input) {
+            return tokenizer.tokenizeToHashedMultiset(input);
+        }
+
+        @Override
+        public String toString() {
+            return "Interning [" + tokenizer + "]";
+        }
+
+    }
+
+    /**
+     * A compiled simplifier fused with a whitespace tokenizer, a q-gram
+     * tokenizer or both.
+     * <p>
+     * The input is simplified into an array of code points, with room for
+     * the q-gram padding on either side. Tokens are created from the array
+     * directly and hashed tokens are hashed without creating strings.
+     * <p>
+     * Inputs the simplifier can not simplify by code point are simplified
+     * and tokenized by the original simplifier and tokenizer.
+     * <p>
+     * This class is immutable and thread-safe.
+     */
+    static final class Fused implements Tokenizer {
+
+        private static final int[] NO_PADDING = new int[0];
+
+        private final CompiledSimplifier simplifier;
+        private final Tokenizer tokenizer;
+        private final boolean whitespace;
+        private final int q;
+        private final boolean filter;
+        private final int[] startPadding;
+        private final int[] endPadding;
+
+        Fused(CompiledSimplifier simplifier, Tokenizer tokenizer) {
+            requireNonNull(simplifier);
+            final List<Tokenizer> stages = stages(tokenizer);
+            checkArgument(isFusible(stages), "%s can not be fused", tokenizer);
+            this.simplifier = simplifier;
+            this.tokenizer = tokenizer;
+            this.whitespace = stages.get(0) instanceof Whitespace;
+
+            final Tokenizer last = stages.get(stages.size() - 1);
+            if (last instanceof QGram) {
+                final QGram qGram = (QGram) last;
+                this.q = qGram.getQ();
+                this.filter = qGram.isFilter();
+                this.startPadding = NO_PADDING;
+                this.endPadding = NO_PADDING;
+            } else if (last instanceof QGramExtended) {
+                final QGramExtended qGram = (QGramExtended) last;
+                this.q = qGram.getQ();
+                this.filter = false;
+                this.startPadding = qGram.startPaddingCodePoints;
+                this.endPadding = qGram.endPaddingCodePoints;
+            } else {
+                this.q = 0;
+                this.filter = false;
+                this.startPadding = NO_PADDING;
+                this.endPadding = NO_PADDING;
+            }
+        }
+
+        static boolean isFusible(List<Tokenizer> stages) {
+            if (stages.size() == 1) {
+                return stages.get(0) instanceof Whitespace || isQGram(stages.get(0));
+            }
+            return stages.size() == 2
+                    && stages.get(0) instanceof Whitespace
+                    && isQGram(stages.get(1));
+        }
+
+        private static boolean isQGram(Tokenizer tokenizer) {
+            return tokenizer instanceof QGram || tokenizer instanceof QGramExtended;
+        }
+
+        @Override
+        public List<String> tokenizeToList(String input) {
+            if (!simplifier.isSimplifiedByCodePoint(input)) {
+                return tokenizer.tokenizeToList(simplifier.simplify(input));
+            }
+            final List<String> tokens = new ArrayList<>();
+            tokenize(input, new Sink() {
+                @Override
+                void token(int[] codePoints, int from, int to) {
+                    tokens.add(new String(codePoints, from, to - from));
+                }
+            });
+            return tokens;
+        }
+
+        @Override
+        public HashedSet tokenizeToHashedSet(String input) {
+            if (!simplifier.isSimplifiedByCodePoint(input)) {
+                return tokenizer.tokenizeToHashedSet(simplifier.simplify(input));
+            }
+            final HashSink sink = new HashSink();
+            tokenize(input, sink);
+            return HashedSet.ofUnsorted(sink.hashes, sink.length);
+        }
+
+        @Override
+        public HashedMultiset tokenizeToHashedMultiset(String input) {
+            if (!simplifier.isSimplifiedByCodePoint(input)) {
+                return tokenizer.tokenizeToHashedMultiset(simplifier.simplify(input));
+            }
+            final HashSink sink = new HashSink();
+            tokenize(input, sink);
+            return HashedMultiset.ofUnsorted(sink.hashes, sink.length);
+        }
+
+        private void tokenize(String input, Sink sink) {
+            final int padding = startPadding.length + endPadding.length;
+            final int[] codePoints = new int[simplifier.getMaxLength(input) + padding];
+            final int length = simplifier.simplify(input, codePoints, startPadding.length);
+            sink.reserve((length - startPadding.length) * Math.max(q, 1));
+
+            if (!whitespace) {
+                segment(codePoints, startPadding.length, length, sink);
+                return;
+            }
+
+            // Each token is copied between the padding when padded
+            final int[] padded = padding == 0 ? codePoints : new int[codePoints.length];
+            int start = -1;
+            for (int i = startPadding.length; i <= length; i++) {
+                if (i < length && !isWhitespace(codePoints[i])) {
+                    if (start < 0) {
+                        start = i;
+                    }
+                } else if (start >= 0) {
+                    if (padding == 0) {
+                        segment(codePoints, start, i, sink);
+                    } else {
+                        System.arraycopy(codePoints, start, padded, startPadding.length, i - start);
+                        segment(padded, startPadding.length, startPadding.length + i - start, sink);
+                    }
+                    start = -1;
+                }
+            }
+        }
+
+        /*
+         * Tokenizes the code points in the range. The range is preceded and
+         * followed by room for the padding.
+         */
+        private void segment(int[] codePoints, int from, int to, Sink sink) {
+            if (from == to) {
+                return;
+            }
+            if (q == 0) {
+                sink.token(codePoints, from, to);
+                return;
+            }
+            System.arraycopy(startPadding, 0, codePoints, from - startPadding.length, startPadding.length);
+            System.arraycopy(endPadding, 0, codePoints, to, endPadding.length);
+            final int paddedFrom = from - startPadding.length;
+            final int paddedTo = to + endPadding.length;
+            if (paddedTo - paddedFrom < q) {
+                if (!filter) {
+                    sink.token(codePoints, paddedFrom, paddedTo);
+                }
+                return;
+            }
+            sink.qGrams(codePoints, paddedFrom, paddedTo, q);
+        }
+
+        // The whitespace characters of the regex \s
+        private static boolean isWhitespace(int codePoint) {
+            return codePoint == ' ' || codePoint == '\t' || codePoint == '\n'
+                    || codePoint == 0x0B || codePoint == '\f' || codePoint == '\r';
+        }
+
+        @Override
+        public String toString() {
+            return simplifier + " -> " + tokenizer;
+        }
+
+        private abstract static class Sink {
+
+            void reserve(int tokens) {
+            }
+
+            abstract void token(int[] codePoints, int from, int to);
+
+            void qGrams(int[] codePoints, int from, int to, int q) {
+                for (int i = from; i + q <= to; i++) {
+                    token(codePoints, i, i + q);
+                }
+            }
+
+        }
+
+        private static final class HashSink extends Sink {
+
+            long[] hashes;
+
+            int length;
+
+            @Override
+            void reserve(int tokens) {
+                hashes = new long[tokens];
+            }
+
+            @Override
+            void token(int[] codePoints, int from, int to) {
+                hashes[length++] = TokenHashes.hash(codePoints, from, to);
+            }
+
+            @Override
+            void qGrams(int[] codePoints, int from, int to, int q) {
+                length = TokenHashes.qGrams(codePoints, from, to, q, hashes, length);
+            }
+
+        }
+
+    }
+
     static final class Recursive implements Tokenizer {
 
         private final List<Tokenizer> tokenizers;
@@ -660,6 +975,9 @@ public final class Tokenizers {
      * The tokenizer takes care to split the string on Unicode code points, not
      * separating valid surrogate pairs.
      * <p>
+     * Hashed sets and multisets are computed with a rolling hash over the code
+     * points without creating a substring per q-gram.
+     * <p>
      * This class is immutable and thread-safe.
      */
     static class QGram implements Tokenizer {
@@ -725,6 +1043,32 @@ public final class Tokenizers {
             return ret;
         }
 
+        @Override
+        public HashedSet tokenizeToHashedSet(String input) {
+            final long[] hashes = hashQGrams(input);
+            return HashedSet.ofUnsorted(hashes, hashes.length);
+        }
+
+        @Override
+        public HashedMultiset tokenizeToHashedMultiset(String input) {
+            final long[] hashes = hashQGrams(input);
+            return HashedMultiset.ofUnsorted(hashes, hashes.length);
+        }
+
+        private long[] hashQGrams(String input) {
+            if (input.isEmpty() || filter && input.length() < q) {
+                return new long[0];
+            }
+
+            final int[] codePoints = new int[input.length()];
+            final int length = TokenHashes.codePoints(input, codePoints, 0);
+            if (length < q) {
+                return filter ? new long[0] : new long[] { TokenHashes.hash(input) };
+            }
+
+            return TokenHashes.qGrams(codePoints, length, q);
+        }
+
         @Override
         public String toString() {
             return "QGram [q=" + q + "]";
@@ -744,6 +1088,10 @@ public final class Tokenizers {
      * The tokenizer takes care to split the string on Unicode code points, not
      * separating valid surrogate pairs.
      * <p>
+     * Hashed sets and multisets are computed with a rolling hash over the
+     * padded code points without concatenating the padding or creating a
+     * substring per q-gram.
+     * <p>
      * This class is immutable and thread-safe.
      */
     static class QGramExtended implements Tokenizer {
@@ -753,6 +1101,8 @@ public final class Tokenizers {
 
         private final String endPadding;
         private final String startPadding;
+        private final int[] endPaddingCodePoints;
+        private final int[] startPaddingCodePoints;
 
         private final QGram tokenizer;
 
@@ -771,6 +1121,8 @@ public final class Tokenizers {
             this.tokenizer = new QGram(q);
             this.startPadding = repeat(startPadding, q - 1);
             this.endPadding = repeat(endPadding, q - 1);
+            this.startPaddingCodePoints = this.startPadding.codePoints().toArray();
+            this.endPaddingCodePoints = this.endPadding.codePoints().toArray();
         }
 
         /**
@@ -791,6 +1143,37 @@ public final class Tokenizers {
             return tokenizer.tokenizeToList(startPadding + input + endPadding);
         }
 
+        @Override
+        public HashedSet tokenizeToHashedSet(String input) {
+            final long[] hashes = hashQGrams(input);
+            return HashedSet.ofUnsorted(hashes, hashes.length);
+        }
+
+        @Override
+        public HashedMultiset tokenizeToHashedMultiset(String input) {
+            final long[] hashes = hashQGrams(input);
+            return HashedMultiset.ofUnsorted(hashes, hashes.length);
+        }
+
+        private long[] hashQGrams(String input) {
+            if (input.isEmpty()) {
+                return new long[0];
+            }
+
+            // Decode the padded input without concatenating strings
+            final int[] codePoints = new int[startPaddingCodePoints.length
+                    + input.length() + endPaddingCodePoints.length];
+            System.arraycopy(startPaddingCodePoints, 0, codePoints, 0,
+                    startPaddingCodePoints.length);
+            int length = TokenHashes.codePoints(input, codePoints,
+                    startPaddingCodePoints.length);
+            System.arraycopy(endPaddingCodePoints, 0, codePoints, length,
+                    endPaddingCodePoints.length);
+            length += endPaddingCodePoints.length;
+
+            return TokenHashes.qGrams(codePoints, length, tokenizer.getQ());
+        }
+
         @Override
         public String toString() {
             return "QGramExtended [startPadding=" + startPadding
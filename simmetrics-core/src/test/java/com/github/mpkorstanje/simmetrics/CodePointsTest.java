@@ -0,0 +1,91 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CodePointsTest {
+
+	private static final String GOTHIC = "a𐌰b𐌱";
+
+	@Test
+	void decodesCodePoints() {
+		final CodePoints codePoints = CodePoints.of(GOTHIC);
+		assertEquals(4, codePoints.length());
+		assertEquals('a', codePoints.codePointAt(0));
+		assertEquals(0x10330, codePoints.codePointAt(1));
+		assertEquals('b', codePoints.codePointAt(2));
+		assertEquals(0x10331, codePoints.codePointAt(3));
+		assertArrayEquals(GOTHIC.codePoints().toArray(), codePoints.toArray());
+	}
+
+	@Test
+	void empty() {
+		assertTrue(CodePoints.of("").isEmpty());
+		assertEquals(0, CodePoints.of("").length());
+	}
+
+	@Test
+	void toStringReturnsOriginal() {
+		assertEquals(GOTHIC, CodePoints.of(GOTHIC).toString());
+	}
+
+	@Test
+	void equalsAndHashCode() {
+		assertEquals(CodePoints.of(GOTHIC), CodePoints.of(new String(GOTHIC)));
+		assertEquals(CodePoints.of(GOTHIC).hashCode(), CodePoints.of(new String(GOTHIC)).hashCode());
+		assertNotEquals(CodePoints.of(GOTHIC), CodePoints.of("a𐌰b"));
+		assertNotEquals(CodePoints.of(GOTHIC), GOTHIC);
+	}
+
+	@Test
+	void toArrayIsACopy() {
+		final CodePoints codePoints = CodePoints.of(GOTHIC);
+		codePoints.toArray()[0] = 'z';
+		assertEquals('a', codePoints.codePointAt(0));
+	}
+
+	@Test
+	void getCodePoints() {
+		final int[] destination = new int[5];
+		CodePoints.of(GOTHIC).getCodePoints(1, 3, destination, 2);
+		assertArrayEquals(new int[] { 0, 0, 0x10330, 'b', 0 }, destination);
+	}
+
+	@Test
+	void getCodePointsOutOfBounds() {
+		final CodePoints codePoints = CodePoints.of(GOTHIC);
+		assertThrows(IndexOutOfBoundsException.class, () -> codePoints.getCodePoints(0, 5, new int[5], 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> codePoints.getCodePoints(2, 1, new int[5], 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> codePoints.getCodePoints(-1, 1, new int[5], 0));
+	}
+
+	@Test
+	void nullString() {
+		assertThrows(NullPointerException.class, () -> CodePoints.of(null));
+	}
+
+}
@@ -96,6 +96,20 @@ public abstract class DistanceTest<K> {
         assertEquals(expected, similarity, delta, message);
     }
 
+    private static <K> void testBoundedDistance(Distance<K> metric, K a, K b) {
+        float distance = metric.distance(a, b);
+        String message = String.format("\"%s\" vs \"%s\"", a, b);
+        assertEquals(distance, metric.distance(a, b, Float.POSITIVE_INFINITY), 0.0f, message);
+        assertEquals(distance, metric.distance(a, b, distance + 1.0f), 0.0f, message);
+        assertEquals(distance, metric.distance(a, b, distance), 0.0f, message);
+        if (distance > 0.0f) {
+            assertEquals(Float.POSITIVE_INFINITY, metric.distance(a, b, Math.nextDown(distance)), 0.0f, message);
+            assertEquals(Float.POSITIVE_INFINITY, metric.distance(a, b, distance / 2), 0.0f, message);
+            assertEquals(Float.POSITIVE_INFINITY, metric.distance(a, b, 0.0f), 0.0f, message);
+        }
+        assertEquals(Float.POSITIVE_INFINITY, metric.distance(a, b, -1.0f), 0.0f, message);
+    }
+
     private static <K> boolean testSubadditivity(Distance<K> metric, K a, K b,
             K c) {
 
@@ -232,6 +246,14 @@ public abstract class DistanceTest<K> {
         }
     }
 
+    @Test
+    final void boundedDistance() {
+        for (TestCase<K> t : tests) {
+            testBoundedDistance(metric, t.a, t.b);
+            testBoundedDistance(metric, t.b, t.a);
+        }
+    }
+
     public final void generateDistance() {
         for (TestCase<K> t : tests) {
             System.out.println(format("new T<>(%1.4ff, \"%s\", \"%s\"),",
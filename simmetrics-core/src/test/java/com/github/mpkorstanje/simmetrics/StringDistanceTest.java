@@ -19,6 +19,10 @@
  */
 package com.github.mpkorstanje.simmetrics;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
 public abstract class StringDistanceTest extends DistanceTest<String> {
 	
 	protected static final class T extends TestCase<String>{
@@ -34,4 +38,18 @@ public abstract class StringDistanceTest extends DistanceTest<String> {
 	protected final String getEmpty() {
 		return "";
 	}
+
+	@Test
+	final void codePoints() {
+		final StringDistance stringDistance = (StringDistance) metric;
+		for (T t : getTests()) {
+			final CodePoints a = CodePoints.of(t.a);
+			final CodePoints b = CodePoints.of(t.b);
+			final float distance = metric.distance(t.a, t.b);
+			assertEquals(distance, stringDistance.distance(a, b), 0.0f, t.a + " vs " + t.b);
+			assertEquals(distance, stringDistance.distance(a, b, distance), 0.0f, t.a + " vs " + t.b);
+			assertEquals(metric.distance(t.a, t.b, distance / 2), stringDistance.distance(a, b, distance / 2), 0.0f,
+					t.a + " vs " + t.b);
+		}
+	}
 }
@@ -20,6 +20,13 @@
 
 package com.github.mpkorstanje.simmetrics;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
 public abstract class StringMetricTest extends MetricTest<String> {
 
 	protected static final class T extends TestCase<String>{
@@ -36,4 +43,33 @@ public abstract class StringMetricTest extends MetricTest<String> {
 		return "";
 	}
 
+	@Test
+	final void codePoints() {
+		final StringMetric stringMetric = (StringMetric) metric;
+		for (T t : getTests()) {
+			final CodePoints a = CodePoints.of(t.a);
+			final CodePoints b = CodePoints.of(t.b);
+			assertEquals(metric.compare(t.a, t.b), stringMetric.compare(a, b), 0.0f, t.a + " vs " + t.b);
+			assertEquals(metric.compare(t.b, t.a), stringMetric.compare(b, a), 0.0f, t.b + " vs " + t.a);
+		}
+	}
+
+	@Test
+	final void compareAll() {
+		final StringMetric stringMetric = (StringMetric) metric;
+		final List<String> candidates = new ArrayList<>();
+		for (T t : getTests()) {
+			candidates.add(t.a);
+			candidates.add(t.b);
+		}
+		for (T t : getTests()) {
+			final float[] similarities = stringMetric.compareAll(t.a, candidates);
+			assertEquals(candidates.size(), similarities.length);
+			for (int i = 0; i < similarities.length; i++) {
+				final String candidate = candidates.get(i);
+				assertEquals(metric.compare(t.a, candidate), similarities[i], 0.0f, t.a + " vs " + candidate);
+			}
+		}
+	}
+
 }
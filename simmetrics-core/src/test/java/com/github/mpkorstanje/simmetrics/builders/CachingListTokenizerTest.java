@@ -22,6 +22,7 @@ package com.github.mpkorstanje.simmetrics.builders;
 
 import java.util.List;
 import static com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.CachingListTokenizer;
+import com.github.mpkorstanje.simmetrics.caches.Caches;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
 
 import com.google.common.cache.Cache;
@@ -40,6 +41,6 @@ class CachingListTokenizerTest extends CachingTokenizerTest<List<String>> {
 
 	@Override
 	public Tokenizer getTokenizer(Cache<String, List<String>> cache, Tokenizer tokenizer) {
-		return new CachingListTokenizer(cache, tokenizer);
+		return new CachingListTokenizer(Caches.guava(cache), tokenizer);
 	}
 }
@@ -21,6 +21,7 @@
 package com.github.mpkorstanje.simmetrics.builders;
 
 import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.CachingMultisetTokenizer;
+import com.github.mpkorstanje.simmetrics.caches.Caches;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
 import com.google.common.cache.Cache;
 import com.google.common.collect.Multiset;
@@ -41,6 +42,6 @@ class CachingMultisetTokenizerTest extends CachingTokenizerTest<Multiset<String>
 
 	@Override
 	public Tokenizer getTokenizer(Cache<String, Multiset<String>> cache, Tokenizer tokenizer) {
-		return new CachingMultisetTokenizer(cache, tokenizer);
+		return new CachingMultisetTokenizer(Caches.guava(cache), tokenizer);
 	}
 }
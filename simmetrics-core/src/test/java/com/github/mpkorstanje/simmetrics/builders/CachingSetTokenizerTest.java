@@ -22,6 +22,7 @@ package com.github.mpkorstanje.simmetrics.builders;
 
 import java.util.Set;
 import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.CachingSetTokenizer;
+import com.github.mpkorstanje.simmetrics.caches.Caches;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
 import com.google.common.cache.Cache;
 
@@ -39,6 +40,6 @@ class CachingSetTokenizerTest extends CachingTokenizerTest<Set<String>> {
 
 	@Override
 	public Tokenizer getTokenizer(Cache<String, Set<String>> cache, Tokenizer tokenizer) {
-		return new CachingSetTokenizer(cache,tokenizer);
+		return new CachingSetTokenizer(Caches.guava(cache), tokenizer);
 	}
 }
@@ -0,0 +1,71 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.toLowerCase;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.StringDistanceTest;
+import com.github.mpkorstanje.simmetrics.builders.StringDistanceBuilder.CachingStringDistance;
+import com.github.mpkorstanje.simmetrics.caches.Caches;
+import com.github.mpkorstanje.simmetrics.caches.ComputingCache;
+import com.github.mpkorstanje.simmetrics.caches.StringPair;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+
+import com.google.common.cache.CacheBuilder;
+
+class CachingStringDistanceTest extends StringDistanceTest {
+
+	@Override
+	protected CachingStringDistance getMetric() {
+		return new CachingStringDistance(Caches.guava(CacheBuilder.newBuilder().maximumSize(2).build()),
+				new Levenshtein());
+	}
+
+	@Override
+	protected T[] getTests() {
+		return new T[] {
+				new T(0.0f, "test", "test"),
+				new T(1.0f, "test", "tent"),
+				new T(3.0f, "kitten", "sitting"),
+				new T(4.0f, "", "test"),
+		};
+	}
+
+	@Test
+	void shouldBeBuilt() {
+		final ComputingCache<StringPair, Float> cache = Caches.guava(CacheBuilder.newBuilder().recordStats().build());
+		final StringDistance distance = StringDistanceBuilder.with(new Levenshtein())
+				.simplify(toLowerCase())
+				.cacheResults(cache)
+				.build();
+
+		assertEquals(3.0f, distance.distance("Kitten", "Sitting"), 0.0f);
+		assertEquals(3.0f, distance.distance("Sitting", "Kitten"), 0.0f);
+		assertEquals(Float.POSITIVE_INFINITY, distance.distance("Kitten", "Sitting", 2.0f), 0.0f);
+
+		assertEquals(1, cache.getStats().missCount());
+		assertEquals(2, cache.getStats().hitCount());
+	}
+
+}
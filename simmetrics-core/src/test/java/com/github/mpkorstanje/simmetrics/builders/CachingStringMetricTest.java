@@ -0,0 +1,89 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.StringMetricTest;
+import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.CachingStringMetric;
+import com.github.mpkorstanje.simmetrics.caches.Caches;
+import com.github.mpkorstanje.simmetrics.caches.ComputingCache;
+import com.github.mpkorstanje.simmetrics.caches.StringPair;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+
+import com.google.common.cache.CacheBuilder;
+
+class CachingStringMetricTest extends StringMetricTest {
+
+	@Override
+	protected CachingStringMetric getMetric() {
+		return new CachingStringMetric(Caches.guava(CacheBuilder.newBuilder().maximumSize(2).build()),
+				new Levenshtein());
+	}
+
+	@Override
+	protected T[] getTests() {
+		return new T[] {
+				new T(1.0000f, "test", "test"),
+				new T(0.7500f, "test", "tent"),
+				new T(0.5714f, "kitten", "sitting"),
+				new T(0.0000f, "", "test"),
+		};
+	}
+
+	@Test
+	void shouldComputeEachPairOnce() {
+		final AtomicInteger computed = new AtomicInteger();
+		final Levenshtein levenshtein = new Levenshtein();
+		final ComputingCache<StringPair, Float> cache = Caches.guava(CacheBuilder.newBuilder().recordStats().build());
+		final StringMetric metric = new CachingStringMetric(cache, (a, b) -> {
+			computed.incrementAndGet();
+			return levenshtein.compare(a, b);
+		});
+
+		assertEquals(0.5714f, metric.compare("kitten", "sitting"), 0.0001f);
+		assertEquals(0.5714f, metric.compare("sitting", "kitten"), 0.0001f);
+		assertEquals(0.5714f, metric.compare("kitten", "sitting"), 0.0001f);
+		assertEquals(0.7500f, metric.compare("test", "tent"), 0.0001f);
+
+		assertEquals(2, computed.get());
+		assertEquals(2, cache.getStats().hitCount());
+	}
+
+	@Test
+	void shouldBeBuilt() {
+		final ComputingCache<StringPair, Float> cache = Caches.guava(CacheBuilder.newBuilder().recordStats().build());
+		final StringMetric metric = StringMetricBuilder.with(new Levenshtein())
+				.cacheResults(cache)
+				.build();
+
+		metric.compare("kitten", "sitting");
+		metric.compare("sitting", "kitten");
+
+		assertEquals(1, cache.getStats().hitCount());
+		assertEquals(CachingStringMetric.class, metric.getClass());
+	}
+
+}
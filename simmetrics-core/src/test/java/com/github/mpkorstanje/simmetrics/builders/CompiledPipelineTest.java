@@ -0,0 +1,130 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.removeNonWord;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.replaceNonWord;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.toLowerCase;
+import static com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers.qGram;
+import static com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers.qGramWithPadding;
+import static com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers.whitespace;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.BlockDistance;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+class CompiledPipelineTest {
+
+	private static final String[][] PAIRS = {
+			{ "Hello, World!", "hello world" },
+			{ "The ##th Hour", "the 11th hour" },
+			{ "ΟΔΟΣ İstanbul", "οδος istanbul" },
+			{ "snake_case", "Snake Case" },
+			{ "", "#" },
+	};
+
+	@Test
+	void fusedMultisetMetric() {
+		final StringMetric compiled = StringMetricBuilder.with(new CosineSimilarity<String>())
+				.simplify(toLowerCase(Locale.ENGLISH))
+				.simplify(removeNonWord())
+				.tokenize(whitespace())
+				.tokenize(qGram(2))
+				.build();
+		final StringMetric expected = StringMetrics.createForMultisetMetric(new CosineSimilarity<String>(),
+				Simplifiers.chain(toLowerCase(Locale.ENGLISH), removeNonWord()),
+				Tokenizers.chain(whitespace(), qGram(2)));
+
+		assertSameResults(expected, compiled);
+	}
+
+	@Test
+	void fusedSetMetric() {
+		final StringMetric compiled = StringMetricBuilder.with(new Jaccard<String>())
+				.simplify(toLowerCase(Locale.ENGLISH))
+				.simplify(replaceNonWord())
+				.tokenize(qGramWithPadding(3))
+				.build();
+		final StringMetric expected = StringMetrics.createForSetMetric(new Jaccard<String>(),
+				Simplifiers.chain(toLowerCase(Locale.ENGLISH), replaceNonWord()), qGramWithPadding(3));
+
+		assertSameResults(expected, compiled);
+	}
+
+	@Test
+	void compiledStringMetric() {
+		final StringMetric compiled = StringMetricBuilder.with(new Levenshtein())
+				.simplify(toLowerCase(Locale.ENGLISH))
+				.simplify(replaceNonWord())
+				.build();
+		final StringMetric expected = StringMetrics.create(new Levenshtein(),
+				Simplifiers.chain(toLowerCase(Locale.ENGLISH), replaceNonWord()));
+
+		assertSameResults(expected, compiled);
+	}
+
+	@Test
+	void fusedDistance() {
+		final StringDistance compiled = StringDistanceBuilder.with(new BlockDistance<String>())
+				.simplify(toLowerCase(Locale.ENGLISH))
+				.simplify(replaceNonWord())
+				.tokenize(whitespace())
+				.tokenize(qGramWithPadding(2))
+				.build();
+		final StringDistance expected = StringDistances.createForMultisetDistance(new BlockDistance<String>(),
+				Simplifiers.chain(toLowerCase(Locale.ENGLISH), replaceNonWord()),
+				Tokenizers.chain(whitespace(), qGramWithPadding(2)));
+
+		for (String[] pair : PAIRS) {
+			assertEquals(expected.distance(pair[0], pair[1]), compiled.distance(pair[0], pair[1]), 0.0001f);
+		}
+	}
+
+	@Test
+	void keepsTokenizersThatCanNotBeFused() {
+		final StringMetric compiled = StringMetricBuilder.with(new CosineSimilarity<String>())
+				.simplify(toLowerCase(Locale.ENGLISH))
+				.tokenize(whitespace())
+				.filter(token -> token.length() > 1)
+				.build();
+		final StringMetric expected = StringMetrics.createForMultisetMetric(new CosineSimilarity<String>(),
+				toLowerCase(Locale.ENGLISH), Tokenizers.filter(whitespace(), token -> token.length() > 1));
+
+		assertSameResults(expected, compiled);
+	}
+
+	private static void assertSameResults(StringMetric expected, StringMetric actual) {
+		for (String[] pair : PAIRS) {
+			assertEquals(expected.compare(pair[0], pair[1]), actual.compare(pair[0], pair[1]), 0.0001f);
+			assertEquals(expected.compare(pair[1], pair[0]), actual.compare(pair[1], pair[0]), 0.0001f);
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.caches.Caches;
+import com.github.mpkorstanje.simmetrics.caches.ComputingCache;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.EuclideanDistance;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.Level2;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdList;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdSet;
+import com.github.mpkorstanje.simmetrics.tokenizers.TokenDictionary;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Multiset;
+
+class InternedTokenCacheTest {
+
+	private static final String[][] PAIRS = {
+			{ "a quick brown fox", "a quick brown dog" },
+			{ "the lazy dog", "a lazy dog sleeps" },
+			{ "fox", "" },
+			{ "", "" },
+	};
+
+	private final TokenDictionary dictionary = TokenDictionary.create();
+
+	@Test
+	void setMetric() {
+		final Cache<String, Set<String>> cache = CacheBuilder.newBuilder().build();
+		final StringMetric cached = StringMetricBuilder.with(new Jaccard<>())
+				.tokenize(Tokenizers.whitespace())
+				.cacheTokens(Caches.guava(cache), dictionary)
+				.build();
+		final StringMetric uncached = StringMetricBuilder.with(new Jaccard<>())
+				.tokenize(Tokenizers.whitespace())
+				.build();
+
+		assertSameResults(uncached, cached);
+		assertTrue(cache.asMap().values().stream().allMatch(IdSet.class::isInstance));
+	}
+
+	@Test
+	void multisetMetric() {
+		final Cache<String, Multiset<String>> cache = CacheBuilder.newBuilder().build();
+		final StringMetric cached = StringMetricBuilder.with(new CosineSimilarity<>())
+				.tokenize(Tokenizers.qGram(2))
+				.cacheTokens(Caches.guava(cache), dictionary)
+				.build();
+		final StringMetric uncached = StringMetricBuilder.with(new CosineSimilarity<>())
+				.tokenize(Tokenizers.qGram(2))
+				.build();
+
+		assertSameResults(uncached, cached);
+		assertTrue(cache.asMap().values().stream().allMatch(IdMultiset.class::isInstance));
+	}
+
+	@Test
+	void listMetric() {
+		final Cache<String, List<String>> cache = CacheBuilder.newBuilder().build();
+		final StringMetric cached = StringMetricBuilder.with(new Level2(new Levenshtein()))
+				.tokenize(Tokenizers.whitespace())
+				.cacheTokens(Caches.guava(cache), dictionary)
+				.build();
+		final StringMetric uncached = StringMetricBuilder.with(new Level2(new Levenshtein()))
+				.tokenize(Tokenizers.whitespace())
+				.build();
+
+		assertSameResults(uncached, cached);
+		assertTrue(cache.asMap().values().stream().allMatch(IdList.class::isInstance));
+	}
+
+	@Test
+	void multisetDistance() {
+		final Cache<String, Multiset<String>> cache = CacheBuilder.newBuilder().build();
+		final StringDistance cached = StringDistanceBuilder.with(new EuclideanDistance<>())
+				.tokenize(Tokenizers.whitespace())
+				.cacheTokens(Caches.guava(cache), dictionary)
+				.build();
+		final StringDistance uncached = StringDistanceBuilder.with(new EuclideanDistance<>())
+				.tokenize(Tokenizers.whitespace())
+				.build();
+
+		for (String[] pair : PAIRS) {
+			assertEquals(uncached.distance(pair[0], pair[1]), cached.distance(pair[0], pair[1]), 0.0001f);
+		}
+		assertTrue(cache.asMap().values().stream().allMatch(IdMultiset.class::isInstance));
+	}
+
+	@Test
+	void sharesDictionary() {
+		final ComputingCache<String, Set<String>> cache = Caches.guava(CacheBuilder.newBuilder().build());
+		final StringMetric metric = StringMetricBuilder.with(new Jaccard<>())
+				.tokenize(Tokenizers.whitespace())
+				.cacheTokens(cache, dictionary)
+				.build();
+
+		for (String[] pair : PAIRS) {
+			metric.compare(pair[0], pair[1]);
+		}
+		assertEquals(8, dictionary.size());
+	}
+
+	private static void assertSameResults(StringMetric expected, StringMetric actual) {
+		for (String[] pair : PAIRS) {
+			assertEquals(expected.compare(pair[0], pair[1]), actual.compare(pair[0], pair[1]), 0.0001f);
+			assertEquals(expected.compare(pair[1], pair[0]), actual.compare(pair[1], pair[0]), 0.0001f);
+		}
+	}
+
+}
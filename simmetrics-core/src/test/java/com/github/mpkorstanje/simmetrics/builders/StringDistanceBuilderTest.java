@@ -34,6 +34,7 @@ import com.github.mpkorstanje.simmetrics.builders.StringDistanceBuilder.CachingL
 import com.github.mpkorstanje.simmetrics.builders.StringDistanceBuilder.CachingMultisetTokenizer;
 import com.github.mpkorstanje.simmetrics.builders.StringDistanceBuilder.CachingSetTokenizer;
 import com.github.mpkorstanje.simmetrics.builders.StringDistanceBuilder.CachingSimplifier;
+import com.github.mpkorstanje.simmetrics.caches.Caches;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
 
@@ -431,7 +432,7 @@ final class StringDistanceBuilderTest {
 
 		@Override
 		public Tokenizer getTokenizer(Cache<String, List<String>> cache, Tokenizer tokenizer) {
-			return new CachingListTokenizer(cache, tokenizer);
+			return new CachingListTokenizer(Caches.guava(cache), tokenizer);
 		}
 	}
 	
@@ -449,7 +450,7 @@ final class StringDistanceBuilderTest {
 
 		@Override
 		public Tokenizer getTokenizer(Cache<String, Multiset<String>> cache, Tokenizer tokenizer) {
-			return new CachingMultisetTokenizer(cache, tokenizer);
+			return new CachingMultisetTokenizer(Caches.guava(cache), tokenizer);
 		}
 	}
 	
@@ -467,7 +468,7 @@ final class StringDistanceBuilderTest {
 
 		@Override
 		public Tokenizer getTokenizer(Cache<String, Set<String>> cache, Tokenizer tokenizer) {
-			return new CachingSetTokenizer(cache,tokenizer);
+			return new CachingSetTokenizer(Caches.guava(cache), tokenizer);
 		}
 	}
 	
@@ -476,7 +477,7 @@ final class StringDistanceBuilderTest {
 		@Override
 		protected Simplifier getCachingSimplifier(Cache<String, String> cache,
 				Simplifier innerSimplifier) {
-			return new CachingSimplifier(cache, innerSimplifier);
+			return new CachingSimplifier(Caches.guava(cache), innerSimplifier);
 		}
 	}
 }
@@ -34,6 +34,7 @@ import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.CachingLis
 import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.CachingMultisetTokenizer;
 import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.CachingSetTokenizer;
 import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.CachingSimplifier;
+import com.github.mpkorstanje.simmetrics.caches.Caches;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
 
@@ -430,7 +431,7 @@ final class StringMetricBuilderTest {
 
 		@Override
 		public Tokenizer getTokenizer(Cache<String, List<String>> cache, Tokenizer tokenizer) {
-			return new CachingListTokenizer(cache, tokenizer);
+			return new CachingListTokenizer(Caches.guava(cache), tokenizer);
 		}
 	}
 	
@@ -448,7 +449,7 @@ final class StringMetricBuilderTest {
 
 		@Override
 		public Tokenizer getTokenizer(Cache<String, Multiset<String>> cache, Tokenizer tokenizer) {
-			return new CachingMultisetTokenizer(cache, tokenizer);
+			return new CachingMultisetTokenizer(Caches.guava(cache), tokenizer);
 		}
 	}
 	
@@ -466,7 +467,7 @@ final class StringMetricBuilderTest {
 
 		@Override
 		public Tokenizer getTokenizer(Cache<String, Set<String>> cache, Tokenizer tokenizer) {
-			return new CachingSetTokenizer(cache,tokenizer);
+			return new CachingSetTokenizer(Caches.guava(cache), tokenizer);
 		}
 	}
 	
@@ -475,7 +476,7 @@ final class StringMetricBuilderTest {
 		@Override
 		protected Simplifier getCachingSimplifier(Cache<String, String> cache,
 				Simplifier innerSimplifier) {
-			return new CachingSimplifier(cache, innerSimplifier);
+			return new CachingSimplifier(Caches.guava(cache), innerSimplifier);
 		}
 	}
 }
@@ -34,6 +34,7 @@ import com.github.mpkorstanje.simmetrics.builders.StringMetrics.ForSet;
 import com.github.mpkorstanje.simmetrics.builders.StringMetrics.ForSetWithSimplifier;
 import com.github.mpkorstanje.simmetrics.builders.StringMetrics.ForString;
 import com.github.mpkorstanje.simmetrics.builders.StringMetrics.ForStringWithSimplifier;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
 import com.github.mpkorstanje.simmetrics.metrics.Identity;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
@@ -360,6 +361,30 @@ final class StringMetricsTest {
 		}
 	}
 
+	public static class ForMultisetWithNormTest extends StringMetricTest {
+
+		@Override
+		protected boolean toStringIncludesSimpleClassName() {
+			return false;
+		}
+
+		@Override
+		protected StringMetric getMetric() {
+			Metric<Multiset<String>> cosine = new CosineSimilarity<>();
+			return new StringMetrics.ForMultiset(cosine, whitespace());
+		}
+
+		@Override
+		protected T[] getTests() {
+			return new T[]{
+					new T(1.0f, "a b c","a b c"),
+					new T(0.8660f, "a b c","a b c d"),
+					new T(0.9487f, "a a b","a b"),
+					new T(0.0f, "","a b c")
+			};
+		}
+	}
+
 	public static class ForMultisetWithSimplifierTest extends StringMetricTest {
 
 		@Override
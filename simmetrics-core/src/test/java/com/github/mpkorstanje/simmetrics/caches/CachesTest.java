@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.caches;
+
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.toLowerCase;
+import static com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers.whitespace;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+class CachesTest {
+
+	@Test
+	void guavaComputesOnce() {
+		final ComputingCache<String, String> cache = Caches.guava(CacheBuilder.newBuilder().recordStats().build());
+		final AtomicInteger computed = new AtomicInteger();
+
+		assertEquals("abc", cache.get("ABC", key -> {
+			computed.incrementAndGet();
+			return key.toLowerCase();
+		}));
+		assertEquals("abc", cache.get("ABC", key -> {
+			computed.incrementAndGet();
+			return key.toLowerCase();
+		}));
+
+		assertEquals(1, computed.get());
+		final CacheStats stats = cache.getStats();
+		assertEquals(1, stats.hitCount());
+		assertEquals(1, stats.missCount());
+		assertEquals(0.5, stats.hitRate(), 0.0);
+		assertEquals(1, stats.loadSuccessCount());
+	}
+
+	@Test
+	void guavaWithoutStats() {
+		final ComputingCache<String, String> cache = Caches.guava(CacheBuilder.newBuilder().build());
+		cache.get("ABC", String::toLowerCase);
+		assertEquals(0, cache.getStats().requestCount());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void guavaShouldThrowIllegalStateException() throws ExecutionException {
+		final Cache<String, String> broken = mock(Cache.class);
+		when(broken.get(anyString(), any(Callable.class))).thenThrow(new ExecutionException(new Exception()));
+		final ComputingCache<String, String> cache = Caches.guava(broken);
+		assertThrows(IllegalStateException.class, () -> cache.get("ABC", String::toLowerCase));
+	}
+
+	@Test
+	void guavaRejectsNull() {
+		assertThrows(NullPointerException.class, () -> Caches.guava(null));
+	}
+
+	@Test
+	void usedByBuilder() {
+		final ComputingCache<String, String> strings = Caches.guava(CacheBuilder.newBuilder().recordStats().build());
+		final ComputingCache<String, Set<String>> tokens = Caches.guava(CacheBuilder.newBuilder().recordStats().build());
+
+		final StringMetric metric = StringMetricBuilder.with(new Jaccard<String>())
+				.simplify(toLowerCase())
+				.cacheStrings(strings)
+				.tokenize(whitespace())
+				.cacheTokens(tokens)
+				.build();
+
+		assertEquals(0.5f, metric.compare("A B C", "a b d"), 0.0001f);
+		assertEquals(0.5f, metric.compare("A B C", "a b d"), 0.0001f);
+
+		assertEquals(2, strings.getStats().hitCount());
+		assertEquals(2, strings.getStats().missCount());
+		assertEquals(2, tokens.getStats().hitCount());
+		assertEquals(2, tokens.getStats().missCount());
+	}
+
+}
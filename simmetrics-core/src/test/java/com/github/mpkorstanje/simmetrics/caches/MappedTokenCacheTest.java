@@ -0,0 +1,236 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.caches;
+
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.toLowerCase;
+import static com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers.qGram;
+import static com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers.whitespace;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdList;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdSet;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multiset;
+
+class MappedTokenCacheTest {
+
+	private static final List<String> INPUTS = asList("a b c", "b a b", "", "c c c d");
+
+	private final Tokenizer tokenizer = whitespace();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsLists() throws IOException {
+		final Path file = directory.resolve("tokens");
+		MappedTokenCache.write(file, tokenizer, INPUTS);
+		final MappedTokenCache<List<String>> cache = MappedTokenCache.openLists(file, tokenizer);
+
+		assertEquals(4, cache.size());
+		for (String input : INPUTS) {
+			final List<String> tokens = cache.get(input, this::fail);
+			assertEquals(tokenizer.tokenizeToList(input), tokens);
+			assertTrue(tokens instanceof IdList);
+		}
+		assertEquals(4, cache.getStats().hitCount());
+		assertEquals(0, cache.getStats().missCount());
+	}
+
+	@Test
+	void readsSets() throws IOException {
+		final Path file = directory.resolve("tokens");
+		MappedTokenCache.write(file, tokenizer, INPUTS);
+		final MappedTokenCache<Set<String>> cache = MappedTokenCache.openSets(file, tokenizer);
+
+		for (String input : INPUTS) {
+			final Set<String> tokens = cache.get(input, this::fail);
+			assertEquals(tokenizer.tokenizeToSet(input), tokens);
+			assertTrue(tokens instanceof IdSet);
+		}
+	}
+
+	@Test
+	void readsMultisets() throws IOException {
+		final Path file = directory.resolve("tokens");
+		MappedTokenCache.write(file, tokenizer, INPUTS);
+		final MappedTokenCache<Multiset<String>> cache = MappedTokenCache.openMultisets(file, tokenizer);
+
+		for (String input : INPUTS) {
+			final Multiset<String> tokens = cache.get(input, this::fail);
+			assertEquals(tokenizer.tokenizeToMultiset(input), tokens);
+			assertTrue(tokens instanceof IdMultiset);
+		}
+		assertEquals(4, cache.getDictionary().size());
+	}
+
+	@Test
+	void computesMissingKeys() throws IOException {
+		final Path file = directory.resolve("tokens");
+		MappedTokenCache.write(file, tokenizer, INPUTS);
+		final MappedTokenCache<Set<String>> cache = MappedTokenCache.openSets(file, tokenizer);
+
+		assertEquals(ImmutableSet.of("x", "y"), cache.get("x y", tokenizer::tokenizeToSet));
+		assertEquals(ImmutableSet.of("x", "y"), cache.get("x y", tokenizer::tokenizeToSet));
+		assertEquals(ImmutableSet.of("a", "b", "c"), cache.get("a b c", tokenizer::tokenizeToSet));
+		assertThrows(IllegalStateException.class, () -> cache.get("z", key -> {
+			throw new IllegalStateException();
+		}));
+
+		final CacheStats stats = cache.getStats();
+		assertEquals(1, stats.hitCount());
+		assertEquals(3, stats.missCount());
+		assertEquals(2, stats.loadSuccessCount());
+		assertEquals(1, stats.loadExceptionCount());
+	}
+
+	@Test
+	void storesSimplifiedInputs() throws IOException {
+		final Path file = directory.resolve("tokens");
+		final Simplifier simplifier = toLowerCase(Locale.ENGLISH);
+		MappedTokenCache.write(file, simplifier, tokenizer, asList("A B", "C"));
+		final MappedTokenCache<List<String>> cache = MappedTokenCache.openLists(file, simplifier, tokenizer);
+
+		assertEquals(asList("a", "b"), cache.get("a b", this::fail));
+		assertEquals(asList("c"), cache.get("c", this::fail));
+		assertEquals(asList("A", "B"), cache.get("A B", tokenizer::tokenizeToList));
+	}
+
+	@Test
+	void rejectsDifferentConfiguration() throws IOException {
+		final Path file = directory.resolve("tokens");
+		MappedTokenCache.write(file, tokenizer, INPUTS);
+
+		assertThrows(IllegalArgumentException.class, () -> MappedTokenCache.openSets(file, qGram(2)));
+		assertThrows(IllegalArgumentException.class,
+				() -> MappedTokenCache.openSets(file, toLowerCase(Locale.ENGLISH), tokenizer));
+	}
+
+	@Test
+	void rejectsOtherFiles() throws IOException {
+		final Path file = directory.resolve("tokens");
+		Files.write(file, new byte[] { 1, 2, 3 });
+		assertThrows(IllegalArgumentException.class, () -> MappedTokenCache.openSets(file, tokenizer));
+
+		Files.write(file, new byte[128]);
+		assertThrows(IllegalArgumentException.class, () -> MappedTokenCache.openSets(file, tokenizer));
+	}
+
+	@Test
+	void replacesFile() throws IOException {
+		final Path file = directory.resolve("tokens");
+		MappedTokenCache.write(file, tokenizer, INPUTS);
+		MappedTokenCache.write(file, tokenizer, asList("x y"));
+		final MappedTokenCache<List<String>> cache = MappedTokenCache.openLists(file, tokenizer);
+
+		assertEquals(1, cache.size());
+		assertEquals(asList("x", "y"), cache.get("x y", this::fail));
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	void readsRecordsAcrossSegments() throws IOException {
+		final Path file = directory.resolve("tokens");
+		final Random random = new Random(42);
+		final List<String> inputs = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			final StringBuilder input = new StringBuilder();
+			for (int j = random.nextInt(6); j > 0; j--) {
+				input.append(random.nextInt(100)).append(' ');
+			}
+			inputs.add(input.toString());
+		}
+		MappedTokenCache.write(file, tokenizer.toString(), Function.identity(), tokenizer, inputs, 7);
+		final MappedTokenCache<Multiset<String>> cache = MappedTokenCache.openMultisets(file, tokenizer);
+
+		for (String input : inputs) {
+			assertEquals(tokenizer.tokenizeToMultiset(input), cache.get(input, this::fail));
+		}
+		assertEquals(HashMultiset.create(asList("1")), cache.get("1", tokenizer::tokenizeToMultiset));
+		assertTrue(Files.size(file) > 1 << 7);
+	}
+
+	@Test
+	void rejectsRecordsLargerThanSegment() {
+		final Path file = directory.resolve("tokens");
+		assertThrows(IllegalArgumentException.class, () -> MappedTokenCache.write(file, tokenizer.toString(),
+				Function.identity(), tokenizer, asList("a b c d e f g h i j k l m n o p q r s t u v w x y z"), 6));
+	}
+
+	@Test
+	void usedByBuilder() throws IOException {
+		final Path file = directory.resolve("tokens");
+		final Simplifier simplifier = toLowerCase(Locale.ENGLISH);
+		final Tokenizer tokenizer = qGram(2);
+		final List<String> references = asList("Chicago", "Detroit", "Denver");
+		MappedTokenCache.write(file, simplifier, tokenizer, references);
+		final MappedTokenCache<Multiset<String>> cache = MappedTokenCache.openMultisets(file, simplifier,
+				tokenizer);
+
+		final StringMetric cached = StringMetricBuilder.with(new CosineSimilarity<String>())
+				.simplify(simplifier)
+				.tokenize(tokenizer)
+				.cacheTokens(cache)
+				.build();
+		final StringMetric uncached = StringMetricBuilder.with(new CosineSimilarity<String>())
+				.simplify(simplifier)
+				.tokenize(tokenizer)
+				.build();
+
+		for (String reference : references) {
+			assertEquals(uncached.compare("Chicago", reference), cached.compare("Chicago", reference), 0.0001f);
+			assertEquals(uncached.compare("Denvre", reference), cached.compare("Denvre", reference), 0.0001f);
+		}
+		assertEquals(9, cache.getStats().hitCount());
+		assertEquals(3, cache.getStats().missCount());
+	}
+
+	private <T> T fail(String key) {
+		throw new AssertionError("Computed " + key);
+	}
+
+}
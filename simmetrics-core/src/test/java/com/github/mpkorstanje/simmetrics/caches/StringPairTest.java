@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.caches;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class StringPairTest {
+
+	@Test
+	void ordered() {
+		final StringPair pair = StringPair.of("b", "a");
+		assertEquals("b", pair.getFirst());
+		assertEquals("a", pair.getSecond());
+		assertEquals(StringPair.of("b", "a"), pair);
+		assertEquals(StringPair.of("b", "a").hashCode(), pair.hashCode());
+		assertNotEquals(StringPair.of("a", "b"), pair);
+		assertEquals(2, pair.length());
+	}
+
+	@Test
+	void unordered() {
+		final String[] strings = { "", "a", "b", "Aa", "BB", "kitten", "sitting" };
+		for (String a : strings) {
+			for (String b : strings) {
+				final StringPair ab = StringPair.unordered(a, b);
+				final StringPair ba = StringPair.unordered(b, a);
+				assertEquals(ab, ba);
+				assertEquals(ab.hashCode(), ba.hashCode());
+				assertEquals(ab.getFirst(), ba.getFirst());
+				assertEquals(a.length() + b.length(), ab.length());
+			}
+		}
+		// "Aa" and "BB" share a hash code
+		assertNotEquals(StringPair.unordered("Aa", "Aa"), StringPair.unordered("Aa", "BB"));
+	}
+
+	@Test
+	void rejectsNull() {
+		assertThrows(NullPointerException.class, () -> StringPair.of(null, "a"));
+		assertThrows(NullPointerException.class, () -> StringPair.of("a", null));
+		assertThrows(NullPointerException.class, () -> StringPair.unordered(null, "a"));
+		assertThrows(NullPointerException.class, () -> StringPair.unordered("a", null));
+	}
+
+}
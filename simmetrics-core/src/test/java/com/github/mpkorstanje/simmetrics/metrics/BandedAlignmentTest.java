@@ -0,0 +1,168 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.functions.MatchMismatch;
+import com.github.mpkorstanje.simmetrics.metrics.functions.Substitution;
+
+/**
+ * Checks that banded alignments agree with the full alignment when the band
+ * is wide enough and never exceed it otherwise.
+ */
+class BandedAlignmentTest {
+
+	private static final String ALPHABET = "abcd𐇑";
+
+	private static final Substitution MATCH_0_MISMATCH_1 = new MatchMismatch(0.0f, -1.0f);
+
+	private static final Substitution MATCH_1_MISMATCH_MINUS_2 = new MatchMismatch(1.0f, -2.0f);
+
+	private final Random random = new Random(42);
+
+	@Test
+	void needlemanWunchWideBandIsExact() {
+		assertWideBandIsExact(new NeedlemanWunch(-2.0f, MATCH_0_MISMATCH_1),
+				new NeedlemanWunch(-2.0f, MATCH_0_MISMATCH_1, 200));
+		assertWideBandIsExact(new NeedlemanWunch(-0.1f, MATCH_0_MISMATCH_1),
+				new NeedlemanWunch(-0.1f, MATCH_0_MISMATCH_1, 200));
+	}
+
+	@Test
+	void needlemanWunchNarrowBandIsLowerBound() {
+		for (int bandWidth = 0; bandWidth < 4; bandWidth++) {
+			assertLowerBound(new NeedlemanWunch(-2.0f, MATCH_0_MISMATCH_1),
+					new NeedlemanWunch(-2.0f, MATCH_0_MISMATCH_1, bandWidth));
+			assertLowerBound(new NeedlemanWunch(-0.1f, MATCH_0_MISMATCH_1),
+					new NeedlemanWunch(-0.1f, MATCH_0_MISMATCH_1, bandWidth));
+		}
+	}
+
+	@Test
+	void needlemanWunchNearDuplicatesAreExact() {
+		final StringMetric exact = new NeedlemanWunch(-2.0f, MATCH_0_MISMATCH_1);
+		final int[] alphabet = ALPHABET.codePoints().toArray();
+		for (int i = 0; i < 500; i++) {
+			final String a = random(alphabet, random.nextInt(80));
+			final int[] edits = new int[1];
+			final String b = mutate(alphabet, a, edits);
+			// Each edit costs at most 2, each gap at least 1
+			final StringMetric banded = new NeedlemanWunch(-2.0f, MATCH_0_MISMATCH_1, 2 * edits[0]);
+			assertEquals(exact.compare(a, b), banded.compare(a, b), 0.0f, a + " vs " + b);
+		}
+	}
+
+	@Test
+	void needlemanWunchNegativeBandWidth() {
+		assertThrows(IllegalArgumentException.class, () -> new NeedlemanWunch(-2.0f, MATCH_0_MISMATCH_1, -1));
+	}
+
+	@Test
+	void smithWatermanGotohWideBandIsExact() {
+		assertWideBandIsExact(new SmithWatermanGotoh(-0.5f, MATCH_1_MISMATCH_MINUS_2),
+				new SmithWatermanGotoh(-0.5f, MATCH_1_MISMATCH_MINUS_2, 200));
+		assertWideBandIsExact(new SmithWatermanGotoh(-0.1f, MATCH_1_MISMATCH_MINUS_2),
+				new SmithWatermanGotoh(-0.1f, MATCH_1_MISMATCH_MINUS_2, 200));
+	}
+
+	@Test
+	void smithWatermanGotohNarrowBandIsLowerBound() {
+		for (int bandWidth = 0; bandWidth < 4; bandWidth++) {
+			assertLowerBound(new SmithWatermanGotoh(-0.5f, MATCH_1_MISMATCH_MINUS_2),
+					new SmithWatermanGotoh(-0.5f, MATCH_1_MISMATCH_MINUS_2, bandWidth));
+		}
+	}
+
+	@Test
+	void smithWatermanGotohIdenticalStringsAreExact() {
+		final StringMetric banded = new SmithWatermanGotoh(-0.5f, MATCH_1_MISMATCH_MINUS_2, 0);
+		final int[] alphabet = ALPHABET.codePoints().toArray();
+		for (int i = 0; i < 100; i++) {
+			final String a = random(alphabet, 1 + random.nextInt(80));
+			assertEquals(1.0f, banded.compare(a, a), 0.0f, a);
+		}
+	}
+
+	@Test
+	void smithWatermanGotohNegativeBandWidth() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new SmithWatermanGotoh(-0.5f, MATCH_1_MISMATCH_MINUS_2, -1));
+	}
+
+	private void assertWideBandIsExact(StringMetric exact, StringMetric banded) {
+		final int[] alphabet = ALPHABET.codePoints().toArray();
+		for (int i = 0; i < 500; i++) {
+			final String a = random(alphabet, random.nextInt(80));
+			final String b = random.nextBoolean() ? random(alphabet, random.nextInt(80)) : mutate(alphabet, a, new int[1]);
+			assertEquals(exact.compare(a, b), banded.compare(a, b), 0.0f, banded + " " + a + " vs " + b);
+		}
+	}
+
+	private void assertLowerBound(StringMetric exact, StringMetric banded) {
+		final int[] alphabet = ALPHABET.codePoints().toArray();
+		for (int i = 0; i < 500; i++) {
+			final String a = random(alphabet, random.nextInt(80));
+			final String b = random.nextBoolean() ? random(alphabet, random.nextInt(80)) : mutate(alphabet, a, new int[1]);
+			final float expected = exact.compare(a, b);
+			final float actual = banded.compare(a, b);
+			assertTrue(actual <= expected, banded + " " + a + " vs " + b + " " + actual + " > " + expected);
+		}
+	}
+
+	private String random(int[] alphabet, int length) {
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			builder.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+		}
+		return builder.toString();
+	}
+
+	private String mutate(int[] alphabet, String source, int[] edits) {
+		final StringBuilder builder = new StringBuilder();
+		source.codePoints().forEach(codePoint -> {
+			switch (random.nextInt(10)) {
+			case 0:
+				edits[0]++;
+				break;
+			case 1:
+				edits[0]++;
+				builder.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+				break;
+			case 2:
+				edits[0]++;
+				builder.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+				builder.appendCodePoint(codePoint);
+				break;
+			default:
+				builder.appendCodePoint(codePoint);
+			}
+		});
+		return builder.toString();
+	}
+
+}
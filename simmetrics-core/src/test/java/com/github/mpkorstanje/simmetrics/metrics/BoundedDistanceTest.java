@@ -0,0 +1,107 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+
+/**
+ * Checks that the banded, early exit distance computations agree with the
+ * full distance computation on random strings.
+ */
+class BoundedDistanceTest {
+
+	private static final String ALPHABET = "abcd𐇑";
+
+	private final Random random = new Random(42);
+
+	@Test
+	void levenshtein() {
+		assertBounded(new Levenshtein());
+		assertBounded(Levenshtein.createWithReusableBuffers());
+		assertBounded(new Levenshtein(0.1f, 1.0f));
+		assertBounded(new Levenshtein(1.0f, 0.1f));
+		assertBounded(new Levenshtein(1.0f, 0.0f));
+		assertBounded(Levenshtein.createWithReusableBuffers(0.3f, 0.7f));
+	}
+
+	@Test
+	void damerauLevenshtein() {
+		assertBounded(new DamerauLevenshtein());
+		assertBounded(new DamerauLevenshtein(0.1f, 1.0f, 1.0f));
+		assertBounded(new DamerauLevenshtein(1.0f, 0.3f, 0.1f));
+		assertBounded(new DamerauLevenshtein(1.0f, 2.0f, 0.0f));
+	}
+
+	@Test
+	void longestCommonSubSequence() {
+		assertBounded(new LongestCommonSubSequence());
+	}
+
+	private void assertBounded(StringDistance metric) {
+		final int[] alphabet = ALPHABET.codePoints().toArray();
+		for (int i = 0; i < 500; i++) {
+			final String a = random(alphabet, random.nextInt(80));
+			final String b = random.nextBoolean() ? random(alphabet, random.nextInt(80)) : mutate(alphabet, a);
+			final float distance = metric.distance(a, b);
+
+			for (float maxDistance : new float[] { 0.0f, 1.0f, 2.5f, distance / 2, java.lang.Math.nextDown(distance), distance,
+					distance + 1.0f, Float.POSITIVE_INFINITY }) {
+				final float expected = distance <= maxDistance ? distance : Float.POSITIVE_INFINITY;
+				assertEquals(expected, metric.distance(a, b, maxDistance), 0.0f,
+						metric + " " + a + " vs " + b + " at " + maxDistance);
+			}
+		}
+	}
+
+	private String random(int[] alphabet, int length) {
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			builder.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+		}
+		return builder.toString();
+	}
+
+	private String mutate(int[] alphabet, String source) {
+		final StringBuilder builder = new StringBuilder();
+		source.codePoints().forEach(codePoint -> {
+			switch (random.nextInt(10)) {
+			case 0:
+				break;
+			case 1:
+				builder.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+				break;
+			case 2:
+				builder.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+				builder.appendCodePoint(codePoint);
+				break;
+			default:
+				builder.appendCodePoint(codePoint);
+			}
+		});
+		return builder.toString();
+	}
+
+}
@@ -129,7 +129,9 @@ class DamerauLevenshteinTest {
 						new T(56.0000f, "Web Aplications",
 								"Structural Assessment: The Role of Large and Full-Scale Testing"),
 						new T(26.0000f, "Web Aplications",
-								"How to Find a Scholarship Online"), };
+								"How to Find a Scholarship Online"),
+						new T(1.0000f, "a\uD800\uDDD1b", "\uD800\uDDD1ab"),
+						new T(1.0000f, "\uD800\uDDD1\uD800\uDDDB\uD800\uDDDC", "\uD800\uDDD1a\uD800\uDDDC"), };
 			}
 		}
 	}
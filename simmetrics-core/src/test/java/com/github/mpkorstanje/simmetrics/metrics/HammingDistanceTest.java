@@ -74,7 +74,9 @@ final class HammingDistanceTest {
 					new T(1.0000f, "test 1", "test 2"),
 					new T(3.0000f, "aaabbb", "aaaaaa"),
 					new T(1.0000f, "abcdxy", "abcexy"),
-					new T(2.0000f, "abcdxy", "abefxy") };
+					new T(2.0000f, "abcdxy", "abefxy"),
+					new T(1.0000f, "abc\uD800\uDDD1xy", "abc\uD800\uDDDBxy"),
+					new T(2.0000f, "\uD800\uDDD1bcdxy", "b\uD800\uDDD1cdxy") };
 		}
 
 		@Test
@@ -0,0 +1,146 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.Distance;
+import com.github.mpkorstanje.simmetrics.Metric;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.HashedSet;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Multiset;
+
+/**
+ * Compares the metrics over hashed tokens with their counterparts over tokens.
+ */
+class HashedMetricsTest {
+
+	private static final float DELTA = 1e-6f;
+
+	private final Tokenizer tokenizer = Tokenizers.qGram(2);
+
+	private final List<String> strings = strings();
+
+	@Test
+	void jaccard() {
+		assertSetEquivalent(new Jaccard<>(), new HashedJaccard());
+	}
+
+	@Test
+	void dice() {
+		assertSetEquivalent(new Dice<>(), new HashedDice());
+	}
+
+	@Test
+	void overlapCoefficient() {
+		assertSetEquivalent(new OverlapCoefficient<>(), new HashedOverlapCoefficient());
+	}
+
+	@Test
+	void generalizedJaccard() {
+		assertMultisetEquivalent(new GeneralizedJaccard<>(), new HashedGeneralizedJaccard());
+	}
+
+	@Test
+	void simonWhite() {
+		assertMultisetEquivalent(new SimonWhite<>(), new HashedSimonWhite());
+	}
+
+	@Test
+	void cosineSimilarity() {
+		assertMultisetEquivalent(new CosineSimilarity<>(), new HashedCosineSimilarity());
+	}
+
+	@Test
+	void cosineSimilarityOfLargeCounts() {
+		final Multiset<String> aTokens = ImmutableMultiset.<String>builder().addCopies("x", 100003).addCopies("y", 7)
+				.build();
+		final Multiset<String> bTokens = ImmutableMultiset.<String>builder().addCopies("x", 99991).addCopies("y", 3)
+				.addCopies("z", 100001).build();
+		final HashedMultiset aHashes = HashedMultiset.of(aTokens);
+		final HashedMultiset bHashes = HashedMultiset.of(bTokens);
+		assertEquals(new CosineSimilarity<String>().compare(aTokens, bTokens),
+				new HashedCosineSimilarity().compare(aHashes, bHashes), 0.0f);
+	}
+
+	@Test
+	void euclideanDistance() {
+		assertMultisetEquivalent(new EuclideanDistance<>(), new HashedEuclideanDistance());
+	}
+
+	@Test
+	void blockDistance() {
+		assertMultisetEquivalent(new BlockDistance<>(), new HashedBlockDistance());
+	}
+
+	private <M extends Metric<Set<String>> & Distance<Set<String>>, H extends Metric<HashedSet> & Distance<HashedSet>> void assertSetEquivalent(
+			M expected, H actual) {
+		for (String a : strings) {
+			for (String b : strings) {
+				final Set<String> aTokens = tokenizer.tokenizeToSet(a);
+				final Set<String> bTokens = tokenizer.tokenizeToSet(b);
+				final HashedSet aHashes = tokenizer.tokenizeToHashedSet(a);
+				final HashedSet bHashes = tokenizer.tokenizeToHashedSet(b);
+				assertEquals(expected.compare(aTokens, bTokens), actual.compare(aHashes, bHashes), DELTA, a + " " + b);
+				assertEquals(expected.distance(aTokens, bTokens), actual.distance(aHashes, bHashes), DELTA, a + " " + b);
+			}
+		}
+	}
+
+	private <M extends Metric<Multiset<String>> & Distance<Multiset<String>>, H extends Metric<HashedMultiset> & Distance<HashedMultiset>> void assertMultisetEquivalent(
+			M expected, H actual) {
+		for (String a : strings) {
+			for (String b : strings) {
+				final Multiset<String> aTokens = tokenizer.tokenizeToMultiset(a);
+				final Multiset<String> bTokens = tokenizer.tokenizeToMultiset(b);
+				final HashedMultiset aHashes = tokenizer.tokenizeToHashedMultiset(a);
+				final HashedMultiset bHashes = tokenizer.tokenizeToHashedMultiset(b);
+				assertEquals(expected.compare(aTokens, bTokens), actual.compare(aHashes, bHashes), DELTA, a + " " + b);
+				assertEquals(expected.distance(aTokens, bTokens), actual.distance(aHashes, bHashes), DELTA, a + " " + b);
+			}
+		}
+	}
+
+	private static List<String> strings() {
+		final Random random = new Random(42);
+		final List<String> strings = new ArrayList<>(Arrays.asList("", "a", "aa", "aaaa", "abab", "𐐀𐐁"));
+		for (int i = 0; i < 40; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = random.nextInt(30);
+			for (int k = 0; k < length; k++) {
+				builder.append((char) ('a' + random.nextInt(4)));
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+}
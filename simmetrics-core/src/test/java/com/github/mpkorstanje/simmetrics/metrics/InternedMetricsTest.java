@@ -0,0 +1,147 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.MultisetMetric;
+import com.github.mpkorstanje.simmetrics.SetMetric;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdMultiset;
+import com.github.mpkorstanje.simmetrics.tokenizers.IdSet;
+import com.github.mpkorstanje.simmetrics.tokenizers.TokenDictionary;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+/**
+ * Compares the set and multiset metrics over interned tokens with the same
+ * metrics over hash based sets and multisets.
+ */
+class InternedMetricsTest {
+
+	private final Tokenizer tokenizer = Tokenizers.qGram(2);
+
+	private final TokenDictionary dictionary = TokenDictionary.create();
+
+	private final Tokenizer interning = Tokenizers.interning(tokenizer, dictionary);
+
+	private final List<String> strings = strings();
+
+	@Test
+	void jaccard() {
+		assertSetEquivalent(new Jaccard<>());
+	}
+
+	@Test
+	void dice() {
+		assertSetEquivalent(new Dice<>());
+	}
+
+	@Test
+	void overlapCoefficient() {
+		assertSetEquivalent(new OverlapCoefficient<>());
+	}
+
+	@Test
+	void tanimotoCoefficient() {
+		assertSetEquivalent(new TanimotoCoefficient<>());
+	}
+
+	@Test
+	void simonWhite() {
+		assertMultisetEquivalent(new SimonWhite<>());
+	}
+
+	@Test
+	void generalizedJaccard() {
+		assertMultisetEquivalent(new GeneralizedJaccard<>());
+	}
+
+	@Test
+	void generalizedOverlapCoefficient() {
+		assertMultisetEquivalent(new GeneralizedOverlapCoefficient<>());
+	}
+
+	@Test
+	void cosineSimilarity() {
+		assertMultisetEquivalent(new CosineSimilarity<>());
+	}
+
+	@Test
+	void euclideanDistance() {
+		assertMultisetEquivalent(new EuclideanDistance<>());
+	}
+
+	@Test
+	void mixedRepresentations() {
+		final Jaccard<String> jaccard = new Jaccard<>();
+		final TokenDictionary other = TokenDictionary.create();
+		for (String a : strings) {
+			for (String b : strings) {
+				final float expected = jaccard.compare(tokenizer.tokenizeToSet(a), tokenizer.tokenizeToSet(b));
+				assertEquals(expected, jaccard.compare(interning.tokenizeToSet(a), tokenizer.tokenizeToSet(b)), 0.0f);
+				assertEquals(expected, jaccard.compare(interning.tokenizeToSet(a),
+						other.internSet(tokenizer.tokenizeToList(b))), 0.0f);
+			}
+		}
+	}
+
+	private void assertSetEquivalent(SetMetric<String> metric) {
+		for (String a : strings) {
+			for (String b : strings) {
+				assertEquals(IdSet.class, interning.tokenizeToSet(a).getClass());
+				assertEquals(metric.compare(tokenizer.tokenizeToSet(a), tokenizer.tokenizeToSet(b)),
+						metric.compare(interning.tokenizeToSet(a), interning.tokenizeToSet(b)), 0.0f, a + " " + b);
+			}
+		}
+	}
+
+	private void assertMultisetEquivalent(MultisetMetric<String> metric) {
+		for (String a : strings) {
+			for (String b : strings) {
+				assertEquals(IdMultiset.class, interning.tokenizeToMultiset(a).getClass());
+				assertEquals(metric.compare(tokenizer.tokenizeToMultiset(a), tokenizer.tokenizeToMultiset(b)),
+						metric.compare(interning.tokenizeToMultiset(a), interning.tokenizeToMultiset(b)), 0.0f,
+						a + " " + b);
+			}
+		}
+	}
+
+	private static List<String> strings() {
+		final Random random = new Random(42);
+		final List<String> strings = new ArrayList<>();
+		strings.add("");
+		for (int i = 0; i < 40; i++) {
+			final StringBuilder builder = new StringBuilder();
+			// Include long strings so intersections gallop
+			final int length = i % 10 == 0 ? 2000 : random.nextInt(30);
+			for (int k = 0; k < length; k++) {
+				builder.append((char) ('a' + random.nextInt(6)));
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+}
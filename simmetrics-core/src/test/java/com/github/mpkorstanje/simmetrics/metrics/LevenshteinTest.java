@@ -96,7 +96,23 @@ final class LevenshteinTest {
 						new T(56.0000f, "Web Aplications",
 								"Structural Assessment: The Role of Large and Full-Scale Testing"),
 						new T(26.0000f, "Web Aplications",
-								"How to Find a Scholarship Online"), };
+								"How to Find a Scholarship Online"),
+						new T(1.0000f, "\uD800\uDDD1\uD800\uDDDB\uD800\uDDDC", "\uD800\uDDD1\uD800\uDDDB"),
+						new T(1.0000f, "\uD800\uDDD1\uD800\uDDDB\uD800\uDDDC", "\uD800\uDDD1a\uD800\uDDDC"),
+						new T(2.0000f, "a\uD800\uDDD1b", "\uD800\uDDD1ab"), };
+			}
+		}
+
+		static final class ReusableBuffers extends StringDistanceTest {
+
+			@Override
+			protected StringDistance getMetric() {
+				return Levenshtein.createWithReusableBuffers();
+			}
+
+			@Override
+			protected T[] getTests() {
+				return new UnitCost().getTests();
 			}
 		}
 
@@ -178,6 +194,32 @@ final class LevenshteinTest {
 			}
 		}
 
+		static final class ReusableBuffers extends StringMetricTest {
+
+			@Override
+			protected StringMetric getMetric() {
+				return Levenshtein.createWithReusableBuffers();
+			}
+
+			@Override
+			protected T[] getTests() {
+				return new UnitCost().getTests();
+			}
+		}
+
+		static final class ReusableBuffersLowSubstituteCost extends StringMetricTest {
+
+			@Override
+			protected StringMetric getMetric() {
+				return Levenshtein.createWithReusableBuffers(1.0f, 0.1f);
+			}
+
+			@Override
+			protected T[] getTests() {
+				return new LowSubstituteCost().getTests();
+			}
+		}
+
 		static final class InsertDeleteCost extends StringMetricTest {
 
 			@Override
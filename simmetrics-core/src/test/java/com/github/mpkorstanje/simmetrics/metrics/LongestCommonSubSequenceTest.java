@@ -75,6 +75,8 @@ final class LongestCommonSubSequenceTest {
 					new T(72.0000f, "Web Aplications", "WebRAD: Building Database Applications on the Web with Visual FoxPro and Web Connection"),
 					new T(62.0000f, "Web Aplications", "Structural Assessment: The Role of Large and Full-Scale Testing"),
 					new T(35.0000f, "Web Aplications", "How to Find a Scholarship Online"),
+					new T(2.0000f, "a\uD800\uDDD1b", "\uD800\uDDD1ab"),
+					new T(2.0000f, "\uD800\uDDD1\uD800\uDDDB\uD800\uDDDC", "\uD800\uDDD1a\uD800\uDDDC"),
 			};
 		}
 	}
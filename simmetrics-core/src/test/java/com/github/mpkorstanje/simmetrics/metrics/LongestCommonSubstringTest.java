@@ -38,6 +38,8 @@ final class LongestCommonSubstringTest   {
 			return new T[] {
 					new T(2.0000f, "test string1", "test string2"),
 					new T(8.0000f, "test", "test string2"),
+					new T(4.0000f, "a\uD800\uDDD1b", "\uD800\uDDD1ab"),
+					new T(2.0000f, "\uD800\uDDD1\uD800\uDDDBa", "\uD800\uDDD1\uD800\uDDDBb"),
 					new T(12.0000f, "", "test string2"),
 					new T(6.0000f, "aaa bbb ccc ddd", "aaa bbb ccc eee"),
 					new T(6.0000f, "aaa bbb", "aaa aaa"),
@@ -0,0 +1,139 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MyersLevenshteinTest {
+
+	private static final int[] LENGTHS = { 1, 2, 7, 31, 63, 64, 65, 100, 127, 128, 129, 200, 300 };
+
+	private static final String[] ALPHABETS = { "ab", "ACGT", "abcdefghijklmnopqrstuvwxyz ",
+			"a𐇑b𐇛", "aÿĀ" };
+
+	private final Random random = new Random(42);
+
+	@Test
+	void agreesWithDynamicProgramming() {
+		for (String alphabet : ALPHABETS) {
+			final int[] codePoints = alphabet.codePoints().toArray();
+			for (int m : LENGTHS) {
+				for (int n : LENGTHS) {
+					final int[] pattern = random(codePoints, m);
+					final int[] text = mutate(codePoints, pattern, n);
+					assertDistance(pattern, text);
+					assertDistance(pattern, random(codePoints, n));
+				}
+			}
+		}
+	}
+
+	@Test
+	void reusesScratchSpace() {
+		final ScratchSpace scratch = new ScratchSpace();
+		final int[] codePoints = "ACGT".codePoints().toArray();
+		for (int i = 0; i < 100; i++) {
+			final int[] pattern = random(codePoints, 1 + random.nextInt(200));
+			final int[] text = random(codePoints, 1 + random.nextInt(200));
+			assertEquals(expected(pattern, text),
+					MyersLevenshtein.distance(pattern, pattern.length, text, text.length, scratch));
+		}
+	}
+
+	@Test
+	void longPatternHasOneMatchVectorPerDistinctCodePoint() {
+		final ScratchSpace scratch = new ScratchSpace();
+		final int[] codePoints = "abcdefghijklmnopqrstuvwxyz ".codePoints().toArray();
+		final int m = 60000;
+		final int[] pattern = random(codePoints, m);
+		final int[] text = pattern.clone();
+		text[m / 2] = '#';
+		assertEquals(1, MyersLevenshtein.distance(pattern, m, text, m, scratch));
+
+		final int blocks = (m + 63) / 64;
+		assertTrue(scratch.longs(0, 0).length <= (codePoints.length + 1) * blocks);
+	}
+
+	@Test
+	void identical() {
+		final int[] a = "Web Database Applications".codePoints().toArray();
+		assertEquals(0, MyersLevenshtein.distance(a, a.length, a, a.length, new ScratchSpace()));
+	}
+
+	@Test
+	void latin1PatternInOtherText() {
+		final int[] a = "aÿbÿ".codePoints().toArray();
+		final int[] b = "aĀbÿ\u01FF".codePoints().toArray();
+		assertEquals(2, MyersLevenshtein.distance(a, a.length, b, b.length, new ScratchSpace()));
+	}
+
+	@Test
+	void disjoint() {
+		final int[] a = "aaaa".codePoints().toArray();
+		final int[] b = "bbbbbbbbbb".codePoints().toArray();
+		assertEquals(10, MyersLevenshtein.distance(a, a.length, b, b.length, new ScratchSpace()));
+	}
+
+	private static void assertDistance(int[] pattern, int[] text) {
+		assertEquals(expected(pattern, text),
+				MyersLevenshtein.distance(pattern, pattern.length, text, text.length, new ScratchSpace()));
+	}
+
+	private int[] random(int[] alphabet, int length) {
+		final int[] result = new int[length];
+		for (int i = 0; i < length; i++) {
+			result[i] = alphabet[random.nextInt(alphabet.length)];
+		}
+		return result;
+	}
+
+	private int[] mutate(int[] alphabet, int[] source, int length) {
+		final int[] result = new int[length];
+		for (int i = 0; i < length; i++) {
+			final boolean keep = i < source.length && random.nextInt(5) > 0;
+			result[i] = keep ? source[i] : alphabet[random.nextInt(alphabet.length)];
+		}
+		return result;
+	}
+
+	private static int expected(int[] s, int[] t) {
+		int[] v0 = new int[t.length + 1];
+		int[] v1 = new int[t.length + 1];
+		for (int j = 0; j <= t.length; j++) {
+			v0[j] = j;
+		}
+		for (int i = 0; i < s.length; i++) {
+			v1[0] = i + 1;
+			for (int j = 0; j < t.length; j++) {
+				v1[j + 1] = Math.min(v1[j] + 1, v0[j + 1] + 1, v0[j] + (s[i] == t[j] ? 0 : 1));
+			}
+			int[] swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+		return v0[t.length];
+	}
+
+}
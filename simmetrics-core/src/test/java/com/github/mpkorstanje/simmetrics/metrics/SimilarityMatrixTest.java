@@ -0,0 +1,144 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+
+class SimilarityMatrixTest {
+
+	private final Random random = new Random(42);
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@AfterEach
+	void shutdownPool() {
+		pool.shutdown();
+	}
+
+	@Test
+	void matchesNestedLoop() {
+		final List<String> strings = randomStrings(150);
+		for (StringMetric metric : asList(StringMetrics.levenshtein(), StringMetrics.jaro(),
+				StringMetrics.qGramsDistance(), StringMetrics.cosineSimilarity())) {
+			for (int tileSize : new int[] { 1, 7, 64, 200 }) {
+				final SimilarityMatrix matrix = SimilarityMatrix.compute(metric, strings, pool, tileSize);
+				assertEquals(strings.size(), matrix.size());
+				for (int i = 0; i < strings.size(); i++) {
+					for (int j = i + 1; j < strings.size(); j++) {
+						final float expected = metric.compare(strings.get(i), strings.get(j));
+						assertEquals(expected, matrix.get(i, j), 0.0f, metric + " " + i + " " + j);
+						assertEquals(expected, matrix.get(j, i), 0.0f, metric + " " + j + " " + i);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void forEachPairStreamsPairsAtOrAboveThreshold() {
+		final List<String> strings = randomStrings(150);
+		final StringMetric metric = StringMetrics.levenshtein();
+		final float threshold = 0.5f;
+
+		final ConcurrentHashMap<Long, Float> expected = new ConcurrentHashMap<>();
+		for (int i = 0; i < strings.size(); i++) {
+			for (int j = i + 1; j < strings.size(); j++) {
+				final float similarity = metric.compare(strings.get(i), strings.get(j));
+				if (similarity >= threshold) {
+					expected.put(key(i, j), similarity);
+				}
+			}
+		}
+
+		for (int tileSize : new int[] { 1, 7, 64, 200 }) {
+			final ConcurrentHashMap<Long, Float> actual = new ConcurrentHashMap<>();
+			SimilarityMatrix.forEachPair(metric, strings, threshold,
+					(i, j, similarity) -> assertEquals(null, actual.put(key(i, j), similarity)), pool, tileSize);
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	void emptyAndSingletonLists() {
+		assertEquals(0, SimilarityMatrix.compute(StringMetrics.levenshtein(), emptyList()).size());
+		final SimilarityMatrix singleton = SimilarityMatrix.compute(StringMetrics.levenshtein(), singletonList("a"));
+		assertEquals(1, singleton.size());
+		assertThrows(IllegalArgumentException.class, () -> singleton.get(0, 0));
+		SimilarityMatrix.forEachPair(StringMetrics.levenshtein(), singletonList("a"), 0.0f,
+				(i, j, similarity) -> {
+					throw new AssertionError();
+				});
+	}
+
+	@Test
+	void getChecksBounds() {
+		final SimilarityMatrix matrix = SimilarityMatrix.compute(StringMetrics.levenshtein(), asList("a", "b"));
+		assertEquals(0.0f, matrix.get(0, 1), 0.0f);
+		assertThrows(IndexOutOfBoundsException.class, () -> matrix.get(-1, 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> matrix.get(0, 2));
+	}
+
+	@Test
+	void rejectsNullStrings() {
+		assertThrows(NullPointerException.class,
+				() -> SimilarityMatrix.compute(StringMetrics.levenshtein(), asList("a", null)));
+	}
+
+	@Test
+	void rejectsNaNThreshold() {
+		assertThrows(IllegalArgumentException.class, () -> SimilarityMatrix
+				.forEachPair(StringMetrics.levenshtein(), asList("a", "b"), Float.NaN, (i, j, similarity) -> {
+				}));
+	}
+
+	private static long key(int i, int j) {
+		return ((long) i << 32) | j;
+	}
+
+	private List<String> randomStrings(int n) {
+		final String alphabet = "abc 𐇑";
+		final int[] codePoints = alphabet.codePoints().toArray();
+		final List<String> strings = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = random.nextInt(12);
+			for (int k = 0; k < length; k++) {
+				builder.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+}
@@ -0,0 +1,147 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.functions.AffineGap;
+import com.github.mpkorstanje.simmetrics.metrics.functions.ConstantGap;
+import com.github.mpkorstanje.simmetrics.metrics.functions.Gap;
+import com.github.mpkorstanje.simmetrics.metrics.functions.LinearGap;
+import com.github.mpkorstanje.simmetrics.metrics.functions.MatchMismatch;
+import com.github.mpkorstanje.simmetrics.metrics.functions.Substitution;
+
+/**
+ * Checks that the linear space Smith-Waterman used for affine gap functions
+ * agrees with the cubic Smith-Waterman used for arbitrary gap functions.
+ */
+class SmithWatermanGapTest {
+
+	private static final String ALPHABET = "abcd𐇑";
+
+	private static final int[] WINDOW_SIZES = { 0, 1, 2, 5, Integer.MAX_VALUE };
+
+	private final Random random = new Random(42);
+
+	@Test
+	void affineGap() {
+		assertEquivalent(new AffineGap(-5.0f, -1.0f), new MatchMismatch(5.0f, -3.0f));
+		assertEquivalent(new AffineGap(-0.5f, -0.25f), new MatchMismatch(1.0f, -2.0f));
+		assertEquivalent(new AffineGap(0.0f, 0.0f), new MatchMismatch(1.0f, -1.0f));
+	}
+
+	@Test
+	void linearGap() {
+		assertEquivalent(new LinearGap(-1.0f), new MatchMismatch(1.0f, -2.0f));
+		assertEquivalent(new LinearGap(-0.5f), new MatchMismatch(5.0f, -3.0f));
+	}
+
+	@Test
+	void constantGap() {
+		assertEquivalent(new ConstantGap(-1.0f), new MatchMismatch(1.0f, -2.0f));
+		assertEquivalent(new ConstantGap(-3.0f), new MatchMismatch(5.0f, -3.0f));
+	}
+
+	@Test
+	void longStrings() {
+		final StringMetric metric = new SmithWaterman();
+		final String a = random(ALPHABET.codePoints().toArray(), 2048);
+		final float similarity = metric.compare(a, mutate(ALPHABET.codePoints().toArray(), a));
+		assertTrue(0.0f < similarity && similarity < 1.0f);
+	}
+
+	private void assertEquivalent(Gap gap, Substitution substitution) {
+		final int[] alphabet = ALPHABET.codePoints().toArray();
+		for (int windowSize : WINDOW_SIZES) {
+			final StringMetric gotoh = new SmithWaterman(gap, substitution, windowSize);
+			final StringMetric cubic = new SmithWaterman(new ArbitraryGap(gap), substitution, windowSize);
+			for (int i = 0; i < 200; i++) {
+				final String a = random(alphabet, 1 + random.nextInt(40));
+				final String b = random.nextBoolean() ? random(alphabet, 1 + random.nextInt(40)) : mutate(alphabet, a);
+				assertEquals(cubic.compare(a, b), gotoh.compare(a, b), 1e-5f, gotoh + " " + a + " vs " + b);
+			}
+		}
+	}
+
+	private String random(int[] alphabet, int length) {
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			builder.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+		}
+		return builder.toString();
+	}
+
+	private String mutate(int[] alphabet, String source) {
+		final StringBuilder builder = new StringBuilder();
+		source.codePoints().forEach(codePoint -> {
+			switch (random.nextInt(10)) {
+			case 0:
+				break;
+			case 1:
+				builder.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+				break;
+			case 2:
+				builder.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+				builder.appendCodePoint(codePoint);
+				break;
+			default:
+				builder.appendCodePoint(codePoint);
+			}
+		});
+		return builder.toString();
+	}
+
+	// Hides the type of the gap to force the cubic algorithm
+	private static final class ArbitraryGap implements Gap {
+
+		private final Gap gap;
+
+		ArbitraryGap(Gap gap) {
+			this.gap = gap;
+		}
+
+		@Override
+		public float value(int fromIndex, int toIndex) {
+			return gap.value(fromIndex, toIndex);
+		}
+
+		@Override
+		public float max() {
+			return gap.max();
+		}
+
+		@Override
+		public float min() {
+			return gap.min();
+		}
+
+		@Override
+		public String toString() {
+			return gap.toString();
+		}
+	}
+
+}
@@ -0,0 +1,59 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class UnicodeTest {
+
+	@Test
+	void decodeBasicMultilingualPlane() {
+		assertDecodes("");
+		assertDecodes("Healed");
+		assertDecodes("Ünïcödé ÿ €");
+	}
+
+	@Test
+	void decodeSupplementaryPlanes() {
+		assertDecodes("𐇑");
+		assertDecodes("a𐇑b");
+		assertDecodes("ab𐇑𐇛");
+	}
+
+	@Test
+	void decodeUnpairedSurrogates() {
+		assertDecodes("a\uD800");
+		assertDecodes("a\uDDD1b");
+		assertDecodes("\uDDD1𐇑\uD800");
+	}
+
+	private static void assertDecodes(String s) {
+		final int[] codePoints = new int[s.length()];
+		final int length = Unicode.decode(s, codePoints);
+		assertEquals(Unicode.codePointLength(s), length);
+		assertArrayEquals(s.codePoints().toArray(), Arrays.copyOf(codePoints, length));
+	}
+
+}
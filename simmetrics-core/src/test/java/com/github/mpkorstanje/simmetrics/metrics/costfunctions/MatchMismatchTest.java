@@ -37,6 +37,9 @@ class MatchMismatchTest extends SubstitutionTest {
 				new T(-0.25f, "a", 0, "b", 0),
 				new T(1.000f, "ab", 0, "ba", 1),
 				new T(-0.25f, "ab", 1, "ba", 1),
+				new T(1.000f, "\uD800\uDDD1a", 1, "a", 0),
+				new T(-0.25f, "\uD800\uDDD1\uD800\uDDDB", 1, "\uD800\uDDD1", 0),
+				new T(1.000f, "a\uD800\uDDDB", 1, "\uD800\uDDD1\uD800\uDDDB", 1),
 				
 		};
 	}
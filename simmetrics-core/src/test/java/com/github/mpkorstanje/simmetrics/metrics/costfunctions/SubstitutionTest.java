@@ -20,6 +20,7 @@
 
 package com.github.mpkorstanje.simmetrics.metrics.costfunctions;
 
+import com.github.mpkorstanje.simmetrics.CodePoints;
 import com.github.mpkorstanje.simmetrics.metrics.functions.Substitution;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -89,6 +90,17 @@ public abstract class SubstitutionTest {
         }
     }
 
+    @Test
+    void testGetSimilarityOfCodePoints() {
+        for (T t : getTests()) {
+            float expected = cost.compare(t.string1, t.string1Index, t.string2,
+                    t.string2Index);
+            float actual = cost.compare(CodePoints.of(t.string1), t.string1Index,
+                    CodePoints.of(t.string2), t.string2Index);
+            assertEquals(expected, actual, 0.0f);
+        }
+    }
+
     public void generateTest() {
         for (T t : getTests()) {
             float actuall = cost.compare(t.string1, t.string1Index, t.string2,
@@ -0,0 +1,132 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.metrics.DamerauLevenshtein;
+import com.github.mpkorstanje.simmetrics.metrics.HammingDistance;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.metrics.LongestCommonSubSequence;
+
+class BKTreeTest {
+
+	private static final float[] DISTANCES = { 0.0f, 1.0f, 2.0f, 3.0f, 5.0f };
+
+	private final Random random = new Random(42);
+
+	@Test
+	void levenshtein() {
+		assertMatchesBruteForce(new Levenshtein(), randomStrings(500, 0, 10), randomStrings(50, 0, 10));
+	}
+
+	@Test
+	void longestCommonSubSequence() {
+		assertMatchesBruteForce(new LongestCommonSubSequence(), randomStrings(500, 0, 10),
+				randomStrings(50, 0, 10));
+	}
+
+	@Test
+	void hammingDistance() {
+		assertMatchesBruteForce(HammingDistance.forString(), randomStrings(500, 6, 7), randomStrings(50, 6, 7));
+	}
+
+	@Test
+	void damerauLevenshteinNeverReturnsRecordsOutOfRange() {
+		final StringDistance distance = new DamerauLevenshtein();
+		final List<String> records = randomStrings(500, 0, 10);
+		final BKTree tree = BKTree.create(distance, records);
+		for (String query : randomStrings(50, 0, 10)) {
+			for (float maxDistance : DISTANCES) {
+				for (Neighbor neighbor : tree.search(query, maxDistance)) {
+					assertEquals(distance.distance(query, neighbor.getRecord()), neighbor.getDistance(), 0.0f);
+					assertTrue(neighbor.getDistance() <= maxDistance);
+				}
+			}
+		}
+	}
+
+	@Test
+	void addIgnoresDuplicates() {
+		final BKTree tree = BKTree.create(new Levenshtein());
+		assertTrue(tree.add("hello"));
+		assertTrue(tree.add("hallo"));
+		assertFalse(tree.add("hello"));
+		assertEquals(2, tree.size());
+		assertEquals(asList(new Neighbor("hello", 0.0f), new Neighbor("hallo", 1.0f)), tree.search("hello", 1.0f));
+	}
+
+	@Test
+	void searchEmptyTree() {
+		assertEquals(asList(), BKTree.create(new Levenshtein()).search("hello", 2.0f));
+	}
+
+	@Test
+	void rejectsInvalidArguments() {
+		final BKTree tree = BKTree.create(new Levenshtein(), asList("a", "b"));
+		assertThrows(IllegalArgumentException.class, () -> tree.search("a", -1.0f));
+		assertThrows(NullPointerException.class, () -> tree.search(null, 1.0f));
+		assertThrows(NullPointerException.class, () -> tree.add(null));
+	}
+
+	private static void assertMatchesBruteForce(StringDistance distance, List<String> records,
+			List<String> queries) {
+		final BKTree tree = BKTree.create(distance, records);
+		for (String query : queries) {
+			for (float maxDistance : DISTANCES) {
+				final List<Neighbor> expected = new ArrayList<>();
+				for (String record : records) {
+					final float d = distance.distance(query, record);
+					final Neighbor neighbor = new Neighbor(record, d);
+					if (d <= maxDistance && !expected.contains(neighbor)) {
+						expected.add(neighbor);
+					}
+				}
+				expected.sort(Neighbor.NEAREST_FIRST);
+				assertEquals(expected, tree.search(query, maxDistance), query + " within " + maxDistance);
+			}
+		}
+	}
+
+	private List<String> randomStrings(int n, int minLength, int maxLength) {
+		final int[] codePoints = "abcd𐇑".codePoints().toArray();
+		final List<String> strings = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = minLength + random.nextInt(maxLength - minLength);
+			for (int k = 0; k < length; k++) {
+				builder.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+}
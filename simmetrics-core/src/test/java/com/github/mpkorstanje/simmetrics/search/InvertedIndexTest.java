@@ -0,0 +1,199 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.with;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.Dice;
+import com.github.mpkorstanje.simmetrics.metrics.GeneralizedJaccard;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.OverlapCoefficient;
+import com.github.mpkorstanje.simmetrics.metrics.SimonWhite;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+import com.google.common.base.Strings;
+
+class InvertedIndexTest {
+
+	private static final Tokenizer TOKENIZER = Tokenizers.qGramWithPadding(2);
+
+	private static final Simplifier SIMPLIFIER = Simplifiers.toLowerCase();
+
+	private static final float[] THRESHOLDS = { 0.1f, 0.3f, 0.5f, 0.7f, 0.9f, 1.0f };
+
+	private final Random random = new Random(42);
+
+	private final List<String> corpus = randomStrings(300);
+
+	private final List<String> queries = randomStrings(40);
+
+	@Test
+	void jaccard() {
+		assertMatchesBruteForce(InvertedIndex.create(new Jaccard<>(), SIMPLIFIER, TOKENIZER, corpus),
+				with(new Jaccard<String>()).simplify(SIMPLIFIER).tokenize(TOKENIZER).build());
+	}
+
+	@Test
+	void dice() {
+		assertMatchesBruteForce(InvertedIndex.create(new Dice<>(), SIMPLIFIER, TOKENIZER, corpus),
+				with(new Dice<String>()).simplify(SIMPLIFIER).tokenize(TOKENIZER).build());
+	}
+
+	@Test
+	void overlapCoefficient() {
+		assertMatchesBruteForce(InvertedIndex.create(new OverlapCoefficient<>(), SIMPLIFIER, TOKENIZER, corpus),
+				with(new OverlapCoefficient<String>()).simplify(SIMPLIFIER).tokenize(TOKENIZER).build());
+	}
+
+	@Test
+	void cosineSimilarity() {
+		assertMatchesBruteForce(InvertedIndex.create(new CosineSimilarity<>(), SIMPLIFIER, TOKENIZER, corpus),
+				with(new CosineSimilarity<String>()).simplify(SIMPLIFIER).tokenize(TOKENIZER).build());
+	}
+
+	@Test
+	void simonWhite() {
+		assertMatchesBruteForce(InvertedIndex.create(new SimonWhite<>(), SIMPLIFIER, TOKENIZER, corpus),
+				with(new SimonWhite<String>()).simplify(SIMPLIFIER).tokenize(TOKENIZER).build());
+	}
+
+	@Test
+	void withoutSimplifier() {
+		final Tokenizer whitespace = Tokenizers.whitespace();
+		assertMatchesBruteForce(InvertedIndex.create(new Jaccard<>(), whitespace, corpus),
+				with(new Jaccard<String>()).tokenize(whitespace).build());
+	}
+
+	@Test
+	void emptyQueryMatchesEmptyRecords() {
+		final InvertedIndex index = InvertedIndex.create(new Jaccard<>(), Tokenizers.whitespace(),
+				asList("a b", "", "c", ""));
+		assertEquals(asList(new Match(1, "", 1.0f), new Match(3, "", 1.0f)), index.topK("", 5));
+		assertEquals(asList(new Match(1, "", 1.0f), new Match(3, "", 1.0f)), index.above("", 1.0f));
+		assertEquals(emptyList(), index.above("d", 0.1f));
+	}
+
+	@Test
+	void topKOrdersTiesByPosition() {
+		final InvertedIndex index = InvertedIndex.create(new Jaccard<>(), Tokenizers.whitespace(),
+				asList("a b", "a c", "a", "a b"));
+		assertEquals(asList(new Match(2, "a", 1.0f), new Match(0, "a b", 0.5f)), index.topK("a", 2));
+		assertEquals(asList(new Match(0, "a b", 1.0f), new Match(3, "a b", 1.0f)), index.topK("b a", 2));
+		assertEquals(emptyList(), index.topK("a", 0));
+	}
+
+	@Test
+	void searchesOfDifferentIndexesAreIndependent() {
+		final InvertedIndex large = InvertedIndex.create(new Jaccard<>(), TOKENIZER, corpus);
+		final InvertedIndex small = InvertedIndex.create(new Jaccard<>(), Tokenizers.whitespace(),
+				asList("a b", "a c"));
+		final List<Match> expected = large.above(corpus.get(0), 0.1f);
+		assertEquals(asList(new Match(0, "a b", 0.5f), new Match(1, "a c", 0.5f)), small.topK("a", 2));
+		assertEquals(expected, large.above(corpus.get(0), 0.1f));
+		assertEquals(asList(new Match(0, "a b", 0.5f), new Match(1, "a c", 0.5f)), small.topK("a", 2));
+	}
+
+	@Test
+	void cosineSimilarityOfLargeCounts() {
+		final Tokenizer whitespace = Tokenizers.whitespace();
+		final String a = Strings.repeat("x ", 100003) + Strings.repeat("y ", 7);
+		final String b = Strings.repeat("x ", 99991) + Strings.repeat("y ", 3) + Strings.repeat("z ", 100001);
+		final InvertedIndex index = InvertedIndex.create(new CosineSimilarity<>(), whitespace, asList(a, b));
+		final StringMetric metric = with(new CosineSimilarity<String>()).tokenize(whitespace).build();
+		assertEquals(asList(new Match(0, a, 1.0f), new Match(1, b, metric.compare(a, b))), index.topK(a, 2));
+	}
+
+	@Test
+	void rejectsUnsupportedMetric() {
+		assertThrows(IllegalArgumentException.class,
+				() -> InvertedIndex.create(new GeneralizedJaccard<>(), TOKENIZER, corpus));
+	}
+
+	@Test
+	void rejectsInvalidArguments() {
+		final InvertedIndex index = InvertedIndex.create(new Jaccard<>(), TOKENIZER, corpus);
+		assertThrows(IllegalArgumentException.class, () -> index.topK("a", -1));
+		assertThrows(IllegalArgumentException.class, () -> index.above("a", 0.0f));
+		assertThrows(IllegalArgumentException.class, () -> index.above("a", 1.1f));
+		assertThrows(IllegalArgumentException.class, () -> index.above("a", Float.NaN));
+		assertThrows(NullPointerException.class,
+				() -> InvertedIndex.create(new Jaccard<>(), TOKENIZER, asList("a", null)));
+	}
+
+	private void assertMatchesBruteForce(InvertedIndex index, StringMetric metric) {
+		assertEquals(corpus.size(), index.size());
+		for (String query : queries) {
+			final List<Match> all = bruteForce(metric, query);
+			for (int k : new int[] { 1, 5, 50, 1000 }) {
+				assertEquals(all.subList(0, Math.min(k, all.size())), index.topK(query, k), query + " top " + k);
+			}
+			for (float threshold : THRESHOLDS) {
+				final List<Match> expected = new ArrayList<>();
+				for (Match match : all) {
+					if (match.getSimilarity() >= threshold) {
+						expected.add(match);
+					}
+				}
+				assertEquals(expected, index.above(query, threshold), query + " above " + threshold);
+			}
+		}
+	}
+
+	private List<Match> bruteForce(StringMetric metric, String query) {
+		final List<Match> matches = new ArrayList<>();
+		for (int i = 0; i < corpus.size(); i++) {
+			final float similarity = metric.compare(query, corpus.get(i));
+			if (similarity > 0.0f) {
+				matches.add(new Match(i, corpus.get(i), similarity));
+			}
+		}
+		matches.sort(Match.BEST_FIRST);
+		return matches;
+	}
+
+	private List<String> randomStrings(int n) {
+		final int[] codePoints = "aAbBcd 𐇑".codePoints().toArray();
+		final List<String> strings = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = random.nextInt(10);
+			for (int k = 0; k < length; k++) {
+				builder.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+}
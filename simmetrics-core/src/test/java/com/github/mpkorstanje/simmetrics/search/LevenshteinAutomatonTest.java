@@ -0,0 +1,143 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.metrics.DamerauLevenshtein;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+
+class LevenshteinAutomatonTest {
+
+	private final Random random = new Random(42);
+
+	@Test
+	void levenshteinDistance() {
+		assertAgrees(new Levenshtein(), LevenshteinAutomaton::levenshtein);
+	}
+
+	@Test
+	void damerauLevenshteinDistance() {
+		assertAgrees(new DamerauLevenshtein(), LevenshteinAutomaton::damerauLevenshtein);
+	}
+
+	@Test
+	void levenshteinSearch() {
+		assertSearchAgrees(new Levenshtein(), LevenshteinAutomaton::levenshtein);
+	}
+
+	@Test
+	void damerauLevenshteinSearch() {
+		assertSearchAgrees(new DamerauLevenshtein(), LevenshteinAutomaton::damerauLevenshtein);
+	}
+
+	@Test
+	void transpositions() {
+		assertTrue(LevenshteinAutomaton.damerauLevenshtein("abcd", 1).matches("acbd"));
+		assertFalse(LevenshteinAutomaton.levenshtein("abcd", 1).matches("acbd"));
+		assertEquals(2.0f, LevenshteinAutomaton.levenshtein("abcd", 2).distance("acbd"), 0.0f);
+		// Optimal string alignment does not edit transposed characters again
+		assertEquals(3.0f, LevenshteinAutomaton.damerauLevenshtein("ca", 3).distance("abc"), 0.0f);
+	}
+
+	@Test
+	void searchSkipsDeadPrefixes() {
+		final List<String> dictionary = asList("apple", "applesauce", "apply", "bat", "batch", "bath", "bathe", "bats",
+				"𐐀x", "𐐀y", "𐐁x");
+		assertEquals(asList(new Neighbor("bath", 0.0f), new Neighbor("bat", 1.0f), new Neighbor("batch", 1.0f),
+				new Neighbor("bathe", 1.0f), new Neighbor("bats", 1.0f)),
+				LevenshteinAutomaton.levenshtein("bath", 1).search(dictionary));
+		assertEquals(asList(new Neighbor("𐐀x", 0.0f), new Neighbor("𐐀y", 1.0f), new Neighbor("𐐁x", 1.0f)),
+				LevenshteinAutomaton.levenshtein("𐐀x", 1).search(dictionary));
+		assertEquals(asList(), LevenshteinAutomaton.levenshtein("zzzz", 1).search(dictionary));
+	}
+
+	@Test
+	void rejectsInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> LevenshteinAutomaton.levenshtein("a", -1));
+		assertThrows(IllegalArgumentException.class, () -> LevenshteinAutomaton.levenshtein("a", 4));
+		assertThrows(NullPointerException.class, () -> LevenshteinAutomaton.damerauLevenshtein(null, 1));
+	}
+
+	private void assertAgrees(StringDistance distance, BiFunction<String, Integer, LevenshteinAutomaton> factory) {
+		final List<String> words = randomStrings(300, 0, 9);
+		for (String query : randomStrings(30, 0, 9)) {
+			for (int k = 0; k <= LevenshteinAutomaton.MAX_DISTANCE; k++) {
+				final LevenshteinAutomaton automaton = factory.apply(query, k);
+				for (String word : words) {
+					final float expected = distance.distance(query, word);
+					final float actual = automaton.distance(word);
+					if (expected <= k) {
+						assertEquals(expected, actual, 0.0f, query + " " + word + " " + k);
+					} else {
+						assertEquals(Float.POSITIVE_INFINITY, actual, 0.0f, query + " " + word + " " + k);
+					}
+					assertEquals(expected <= k, automaton.matches(word));
+				}
+			}
+		}
+	}
+
+	private void assertSearchAgrees(StringDistance distance,
+			BiFunction<String, Integer, LevenshteinAutomaton> factory) {
+		final List<String> dictionary = randomStrings(2000, 0, 9);
+		Collections.sort(dictionary);
+		for (String query : randomStrings(30, 0, 9)) {
+			for (int k = 0; k <= LevenshteinAutomaton.MAX_DISTANCE; k++) {
+				final List<Neighbor> expected = new ArrayList<>();
+				for (String word : dictionary) {
+					final float d = distance.distance(query, word);
+					if (d <= k) {
+						expected.add(new Neighbor(word, d));
+					}
+				}
+				expected.sort(Neighbor.NEAREST_FIRST);
+				assertEquals(expected, factory.apply(query, k).search(dictionary), query + " " + k);
+			}
+		}
+	}
+
+	private List<String> randomStrings(int n, int minLength, int maxLength) {
+		final int[] codePoints = "abcd𐐀𐐁".codePoints().toArray();
+		final List<String> strings = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = minLength + random.nextInt(maxLength - minLength);
+			for (int k = 0; k < length; k++) {
+				builder.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+}
@@ -0,0 +1,203 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder;
+import com.github.mpkorstanje.simmetrics.metrics.GeneralizedJaccard;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+class MinHashIndexTest {
+
+	private static final Tokenizer TOKENIZER = Tokenizers.qGram(2);
+
+	private static final float THRESHOLD = 0.8f;
+
+	private final MinHash minHash = MinHash.create(64, 42);
+
+	private final Random random = new Random(42);
+
+	private final List<String> records = randomStrings(300);
+
+	@Test
+	void jaccardPairs() {
+		assertPairs(MinHashIndex.create(new Jaccard<>(), TOKENIZER, minHash, 32, records),
+				StringMetricBuilder.with(new Jaccard<String>()).tokenize(TOKENIZER).build());
+	}
+
+	@Test
+	void generalizedJaccardPairs() {
+		assertPairs(MinHashIndex.create(new GeneralizedJaccard<>(), TOKENIZER, minHash, 32, records),
+				StringMetricBuilder.with(new GeneralizedJaccard<String>()).tokenize(TOKENIZER).build());
+	}
+
+	@Test
+	void jaccardQueries() {
+		final MinHashIndex index = MinHashIndex.create(new Jaccard<>(), TOKENIZER, minHash, 32, records);
+		final StringMetric metric = StringMetricBuilder.with(new Jaccard<String>()).tokenize(TOKENIZER).build();
+		for (int q = 0; q < 50; q++) {
+			final String query = records.get(q);
+			final List<Match> matches = index.above(query, THRESHOLD);
+			for (Match match : matches) {
+				assertEquals(metric.compare(query, match.getRecord()), match.getSimilarity(), 0.0f);
+			}
+			for (int i = 0; i < records.size(); i++) {
+				final float similarity = metric.compare(query, records.get(i));
+				if (similarity >= THRESHOLD) {
+					assertTrue(matches.contains(new Match(i, records.get(i), similarity)), query);
+				}
+			}
+			assertTrue(index.estimateAbove(query, 1.0f).contains(new Match(q, query, 1.0f)));
+		}
+	}
+
+	@Test
+	void recordsWithoutTokens() {
+		final MinHashIndex index = MinHashIndex.create(new Jaccard<>(), Tokenizers.whitespace(), minHash, 32,
+				asList("", " ", "a b", "", "a b"));
+		final List<Match> empty = asList(new Match(0, "", 1.0f), new Match(1, " ", 1.0f), new Match(3, "", 1.0f));
+		assertEquals(empty, index.above("", 1.0f));
+		assertEquals(empty, index.estimateAbove("  ", 1.0f));
+		assertEquals(asList(new Match(2, "a b", 1.0f), new Match(4, "a b", 1.0f)), index.above("a b", 0.1f));
+
+		final Map<Long, Float> pairs = new HashMap<>();
+		index.forEachPair(1.0f, (i, j, similarity) -> assertNull(pairs.put(key(i, j), similarity)));
+		final Map<Long, Float> estimated = new HashMap<>();
+		index.forEachEstimatedPair(1.0f, (i, j, similarity) -> assertNull(estimated.put(key(i, j), similarity)));
+
+		final Map<Long, Float> expected = new HashMap<>();
+		expected.put(key(0, 1), 1.0f);
+		expected.put(key(0, 3), 1.0f);
+		expected.put(key(1, 3), 1.0f);
+		expected.put(key(2, 4), 1.0f);
+		assertEquals(expected, pairs);
+		assertEquals(expected, estimated);
+	}
+
+	@Test
+	void rescoringTokenizesEachRecordOnce() {
+		final AtomicInteger tokenizations = new AtomicInteger();
+		final Tokenizer counting = input -> {
+			tokenizations.incrementAndGet();
+			return TOKENIZER.tokenizeToList(input);
+		};
+		final List<String> duplicates = Collections.nCopies(20, "abcdefghij");
+		final MinHashIndex index = MinHashIndex.create(new Jaccard<>(), counting, minHash, 32, duplicates);
+		tokenizations.set(0);
+
+		final AtomicInteger pairs = new AtomicInteger();
+		index.forEachPair(THRESHOLD, (i, j, similarity) -> pairs.incrementAndGet());
+		assertEquals(20 * 19 / 2, pairs.get());
+		assertEquals(20, tokenizations.get());
+	}
+
+	@Test
+	void rejectsInvalidArguments() {
+		assertThrows(IllegalArgumentException.class,
+				() -> MinHashIndex.create(new Jaccard<>(), TOKENIZER, minHash, 10, records));
+		assertThrows(IllegalArgumentException.class,
+				() -> MinHashIndex.create(new Jaccard<>(), TOKENIZER, minHash, 0, records));
+		final MinHashIndex index = MinHashIndex.create(new Jaccard<>(), TOKENIZER, minHash, 32, records);
+		assertThrows(IllegalArgumentException.class, () -> index.above("a", 0.0f));
+		assertThrows(IllegalArgumentException.class, () -> index.above("a", 1.1f));
+		assertThrows(IllegalArgumentException.class, () -> index.estimateAbove("a", -0.5f));
+		assertThrows(IllegalArgumentException.class, () -> index.estimateAbove("a", Float.NaN));
+		assertThrows(IllegalArgumentException.class, () -> index.forEachPair(0.0f, (i, j, similarity) -> {
+		}));
+		assertThrows(IllegalArgumentException.class, () -> index.forEachEstimatedPair(2.0f, (i, j, similarity) -> {
+		}));
+	}
+
+	private void assertPairs(MinHashIndex index, StringMetric exact) {
+		assertEquals(records.size(), index.size());
+
+		final Map<Long, Float> pairs = new HashMap<>();
+		index.forEachPair(THRESHOLD, (i, j, similarity) -> {
+			assertTrue(i < j);
+			assertNull(pairs.put(key(i, j), similarity));
+		});
+
+		// With 32 bands of 2 rows similar pairs are candidates with near
+		// certainty
+		final Map<Long, Float> expected = new HashMap<>();
+		for (int i = 0; i < records.size(); i++) {
+			for (int j = i + 1; j < records.size(); j++) {
+				final float similarity = exact.compare(records.get(i), records.get(j));
+				if (similarity >= THRESHOLD) {
+					expected.put(key(i, j), similarity);
+				}
+			}
+		}
+		assertTrue(!expected.isEmpty());
+		assertEquals(expected, pairs);
+
+		final Map<Long, Float> estimated = new HashMap<>();
+		index.forEachEstimatedPair(0.5f, (i, j, similarity) -> {
+			assertTrue(i < j);
+			assertTrue(similarity >= 0.5f);
+			assertNull(estimated.put(key(i, j), similarity));
+		});
+		for (Map.Entry<Long, Float> entry : estimated.entrySet()) {
+			final int i = (int) (entry.getKey() >>> 32);
+			final int j = (int) (long) entry.getKey();
+			assertEquals(exact.compare(records.get(i), records.get(j)), entry.getValue(), 0.3f);
+		}
+	}
+
+	private static long key(int i, int j) {
+		return ((long) i << 32) | j;
+	}
+
+	private List<String> randomStrings(int n) {
+		final List<String> strings = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			final StringBuilder builder = new StringBuilder();
+			for (int k = 0; k < 20; k++) {
+				builder.append((char) ('a' + random.nextInt(20)));
+			}
+			strings.add(builder.toString());
+		}
+		// Near duplicates
+		for (int i = 0; i < n / 3; i++) {
+			final StringBuilder builder = new StringBuilder(strings.get(random.nextInt(n)));
+			builder.setCharAt(random.nextInt(builder.length()), 'z');
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+}
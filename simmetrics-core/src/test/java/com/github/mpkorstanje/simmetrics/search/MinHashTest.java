@@ -0,0 +1,120 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Collections.singleton;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.metrics.GeneralizedJaccard;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Multiset;
+
+class MinHashTest {
+
+	private final MinHash minHash = MinHash.create(1024, 42);
+
+	private final Random random = new Random(42);
+
+	@Test
+	void estimatesJaccard() {
+		final Jaccard<String> jaccard = new Jaccard<>();
+		for (int i = 0; i < 20; i++) {
+			final Set<String> a = randomSet(100);
+			final Set<String> b = randomSet(100);
+			final float estimate = MinHash.similarity(minHash.signature(a), minHash.signature(b));
+			assertEquals(jaccard.compare(a, b), estimate, 0.1f);
+		}
+	}
+
+	@Test
+	void estimatesGeneralizedJaccard() {
+		final GeneralizedJaccard<String> jaccard = new GeneralizedJaccard<>();
+		for (int i = 0; i < 20; i++) {
+			final Multiset<String> a = randomMultiset(100);
+			final Multiset<String> b = randomMultiset(100);
+			final float estimate = MinHash.similarity(minHash.signature(a), minHash.signature(b));
+			assertEquals(jaccard.compare(a, b), estimate, 0.1f);
+		}
+	}
+
+	@Test
+	void identicalSetsHaveIdenticalSignatures() {
+		final Set<String> a = randomSet(50);
+		assertArrayEquals(minHash.signature(a), minHash.signature(new HashSet<>(a)));
+		assertArrayEquals(minHash.signature(a), minHash.signature(ImmutableMultiset.copyOf(a)));
+		assertEquals(1.0f, MinHash.similarity(minHash.signature(a), minHash.signature(a)), 0.0f);
+	}
+
+	@Test
+	void emptySets() {
+		final long[] empty = minHash.signature(Collections.<String>emptySet());
+		assertEquals(1.0f, MinHash.similarity(empty, empty), 0.0f);
+		assertEquals(0.0f, MinHash.similarity(empty, minHash.signature(randomSet(10))), 0.0f);
+	}
+
+	@Test
+	void tokensWithEqualStringHashesHaveDifferentSignatures() {
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		assertEquals(0.0f, MinHash.similarity(minHash.signature(singleton("Aa")), minHash.signature(singleton("BB"))),
+				0.0f);
+		assertEquals(0.0f,
+				MinHash.similarity(minHash.signature(singleton("xaa")), minHash.signature(singleton("xc#"))), 0.0f);
+	}
+
+	@Test
+	void seeds() {
+		final Set<String> set = randomSet(10);
+		final MinHash a = MinHash.create(1L, 2L, 3L);
+		assertEquals(3, a.getPermutations());
+		assertArrayEquals(a.signature(set), MinHash.create(1L, 2L, 3L).signature(set));
+		assertArrayEquals(MinHash.create(3, 7).signature(set), MinHash.create(3, 7).signature(set));
+		assertThrows(IllegalArgumentException.class, () -> MinHash.create(0, 42));
+		assertThrows(IllegalArgumentException.class, () -> MinHash.create(new long[0]));
+		assertThrows(IllegalArgumentException.class, () -> MinHash.similarity(new long[1], new long[2]));
+	}
+
+	private Set<String> randomSet(int size) {
+		final Set<String> set = new HashSet<>();
+		while (set.size() < size) {
+			set.add(Integer.toString(random.nextInt(300)));
+		}
+		return set;
+	}
+
+	private Multiset<String> randomMultiset(int size) {
+		final Multiset<String> multiset = HashMultiset.create();
+		while (multiset.size() < size) {
+			multiset.add(Integer.toString(random.nextInt(100)));
+		}
+		return multiset;
+	}
+}
@@ -0,0 +1,68 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RadixSortTest {
+
+	private final Random random = new Random(42);
+
+	@Test
+	void sortsUnsignedAndMovesValues() {
+		for (int n : new int[] { 0, 1, 2, 100, 5000 }) {
+			final long[] keys = new long[n];
+			final int[] values = new int[n];
+			for (int i = 0; i < n; i++) {
+				// Few distinct keys to exercise stability
+				keys[i] = random.nextBoolean() ? random.nextLong() : random.nextInt(4) - 2;
+				values[i] = i;
+			}
+			final long[] original = keys.clone();
+
+			RadixSort.sort(keys, values);
+
+			final Long[] expected = Arrays.stream(original).boxed().toArray(Long[]::new);
+			Arrays.sort(expected, Long::compareUnsigned);
+			for (int i = 0; i < n; i++) {
+				assertEquals((long) expected[i], keys[i]);
+				assertEquals(original[values[i]], keys[i]);
+				if (i > 0 && keys[i] == keys[i - 1]) {
+					assertEquals(true, values[i - 1] < values[i]);
+				}
+			}
+		}
+	}
+
+	@Test
+	void sortsEqualDigits() {
+		final long[] keys = { 0x0100L, 0x0000L, 0x0200L };
+		final int[] values = { 0, 1, 2 };
+		RadixSort.sort(keys, values);
+		assertArrayEquals(new long[] { 0x0000L, 0x0100L, 0x0200L }, keys);
+		assertArrayEquals(new int[] { 1, 0, 2 }, values);
+	}
+}
@@ -0,0 +1,188 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+class SimHashIndexTest {
+
+	private static final Tokenizer TOKENIZER = Tokenizers.qGram(2);
+
+	private static final float THRESHOLD = 0.8f;
+
+	private final Random random = new Random(42);
+
+	private final List<String> records = randomStrings(300);
+
+	@Test
+	void exactProbes() {
+		// 64 bits at 0.8 allow 13 bits, so one block in 16 is identical
+		assertCandidates(SimHash.create(64, 42), 16);
+	}
+
+	@Test
+	void probesWithOneBitFlipped() {
+		assertCandidates(SimHash.create(64, 42), 8);
+	}
+
+	@Test
+	void probesWithTwoBitsFlipped() {
+		assertCandidates(SimHash.create(64, 42), 6);
+	}
+
+	@Test
+	void blocksSpanningWords() {
+		assertCandidates(SimHash.create(128, 42), 9);
+		assertCandidates(SimHash.create(192, 42), 20);
+	}
+
+	@Test
+	void rejectsThresholdsBeyondProbeRadius() {
+		// 64 bits at 0.8 allow 13 bits, 4 blocks can probe at most 11
+		final SimHashIndex index = SimHashIndex.create(TOKENIZER, SimHash.create(64, 42), 4, records);
+		assertThrows(IllegalArgumentException.class, () -> index.above("a", THRESHOLD));
+		assertThrows(IllegalArgumentException.class, () -> index.estimateAbove("a", THRESHOLD));
+		assertThrows(IllegalArgumentException.class, () -> index.forEachPair(THRESHOLD, (i, j, similarity) -> {
+		}));
+		assertThrows(IllegalArgumentException.class,
+				() -> index.forEachEstimatedPair(THRESHOLD, (i, j, similarity) -> {
+				}));
+		// 0.9 allows 9 bits and 5 blocks can probe the 13 bits of 0.8
+		assertDoesNotThrow(() -> index.estimateAbove("a", 0.9f));
+		final SimHashIndex wider = SimHashIndex.create(TOKENIZER, SimHash.create(64, 42), 5, records);
+		assertDoesNotThrow(() -> wider.estimateAbove("a", THRESHOLD));
+	}
+
+	@Test
+	void exactSimilarity() {
+		final SimHashIndex index = SimHashIndex.create(TOKENIZER, SimHash.create(64, 42), 8, records);
+		final StringMetric metric = StringMetricBuilder.with(new CosineSimilarity<String>()).tokenize(TOKENIZER)
+				.build();
+		for (int q = 0; q < 50; q++) {
+			final String query = records.get(q);
+			final List<Match> matches = index.above(query, THRESHOLD);
+			assertTrue(matches.contains(new Match(q, query, 1.0f)));
+			for (Match match : matches) {
+				assertEquals(metric.compare(query, match.getRecord()), match.getSimilarity(), 0.0f);
+				assertTrue(match.getSimilarity() >= THRESHOLD);
+			}
+		}
+
+		final Map<Long, Float> pairs = new HashMap<>();
+		index.forEachPair(THRESHOLD, (i, j, similarity) -> {
+			assertTrue(i < j);
+			assertTrue(similarity >= THRESHOLD);
+			assertEquals(metric.compare(records.get(i), records.get(j)), similarity, 0.0f);
+			assertNull(pairs.put(key(i, j), similarity));
+		});
+		assertTrue(!pairs.isEmpty());
+	}
+
+	@Test
+	void rejectsInvalidArguments() {
+		final SimHash simHash = SimHash.create(128, 42);
+		assertThrows(IllegalArgumentException.class, () -> SimHashIndex.create(TOKENIZER, simHash, 1, records));
+		assertThrows(IllegalArgumentException.class, () -> SimHashIndex.create(TOKENIZER, simHash, 129, records));
+		final SimHashIndex index = SimHashIndex.create(TOKENIZER, simHash, 4, records);
+		assertThrows(IllegalArgumentException.class, () -> index.above("a", 0.0f));
+		assertThrows(IllegalArgumentException.class, () -> index.estimateAbove("a", 1.1f));
+	}
+
+	private void assertCandidates(SimHash simHash, int blocks) {
+		final SimHashIndex index = SimHashIndex.create(TOKENIZER, simHash, blocks, records);
+		assertEquals(records.size(), index.size());
+
+		final List<long[]> fingerprints = new ArrayList<>();
+		for (String record : records) {
+			fingerprints.add(simHash.fingerprint(TOKENIZER.tokenizeToMultiset(record)));
+		}
+
+		final Map<Long, Float> expected = new HashMap<>();
+		for (int i = 0; i < records.size(); i++) {
+			for (int j = i + 1; j < records.size(); j++) {
+				final float similarity = SimHash.similarity(fingerprints.get(i), fingerprints.get(j));
+				if (similarity >= THRESHOLD) {
+					expected.put(key(i, j), similarity);
+				}
+			}
+		}
+		assertTrue(!expected.isEmpty());
+
+		final Map<Long, Float> pairs = new HashMap<>();
+		index.forEachEstimatedPair(THRESHOLD, (i, j, similarity) -> {
+			assertTrue(i < j);
+			assertNull(pairs.put(key(i, j), similarity));
+		});
+		assertEquals(expected, pairs);
+
+		for (int q = 0; q < 20; q++) {
+			final List<Match> matches = index.estimateAbove(records.get(q), THRESHOLD);
+			for (int i = 0; i < records.size(); i++) {
+				final float similarity = SimHash.similarity(fingerprints.get(q), fingerprints.get(i));
+				if (similarity >= THRESHOLD) {
+					assertTrue(matches.contains(new Match(i, records.get(i), similarity)));
+				}
+			}
+			for (Match match : matches) {
+				assertTrue(match.getSimilarity() >= THRESHOLD);
+			}
+		}
+	}
+
+	private static long key(int i, int j) {
+		return ((long) i << 32) | j;
+	}
+
+	private List<String> randomStrings(int n) {
+		final List<String> strings = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			final StringBuilder builder = new StringBuilder();
+			for (int k = 0; k < 20; k++) {
+				builder.append((char) ('a' + random.nextInt(20)));
+			}
+			strings.add(builder.toString());
+		}
+		// Near duplicates
+		for (int i = 0; i < n / 3; i++) {
+			final StringBuilder builder = new StringBuilder(strings.get(random.nextInt(n)));
+			builder.setCharAt(random.nextInt(builder.length()), 'z');
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+}
@@ -0,0 +1,120 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Multiset;
+
+class SimHashTest {
+
+	private final SimHash simHash = SimHash.create(1024, 42);
+
+	private final Random random = new Random(42);
+
+	@Test
+	void estimatesCosineSimilarity() {
+		final CosineSimilarity<String> cosine = new CosineSimilarity<>();
+		for (int i = 0; i < 20; i++) {
+			final Multiset<String> a = randomMultiset(100);
+			final Multiset<String> b = randomMultiset(100);
+			final float estimate = SimHash.similarity(simHash.fingerprint(a), simHash.fingerprint(b));
+			assertEquals(cosine.compare(a, b), estimate, 0.1f);
+		}
+	}
+
+	@Test
+	void identicalMultisetsHaveIdenticalFingerprints() {
+		final Multiset<String> a = randomMultiset(50);
+		assertArrayEquals(simHash.fingerprint(a), simHash.fingerprint(ImmutableMultiset.copyOf(a)));
+		assertEquals(0, SimHash.hammingDistance(simHash.fingerprint(a), simHash.fingerprint(a)));
+		assertEquals(1.0f, SimHash.similarity(simHash.fingerprint(a), simHash.fingerprint(a)), 0.0f);
+	}
+
+	@Test
+	void scaledMultisetsHaveIdenticalFingerprints() {
+		final Multiset<String> a = randomMultiset(50);
+		final Multiset<String> b = HashMultiset.create();
+		for (Multiset.Entry<String> entry : a.entrySet()) {
+			b.add(entry.getElement(), entry.getCount() * 3);
+		}
+		assertArrayEquals(simHash.fingerprint(a), simHash.fingerprint(b));
+	}
+
+	@Test
+	void emptyMultiset() {
+		assertArrayEquals(new long[16], simHash.fingerprint(HashMultiset.create()));
+	}
+
+	@Test
+	void tokensWithEqualStringHashesHaveDifferentFingerprints() {
+		assertTrue(SimHash.hammingDistance(simHash.fingerprint(ImmutableMultiset.of("Aa")),
+				simHash.fingerprint(ImmutableMultiset.of("BB"))) > 0);
+		assertTrue(SimHash.hammingDistance(simHash.fingerprint(ImmutableMultiset.of("xaa")),
+				simHash.fingerprint(ImmutableMultiset.of("xc#"))) > 0);
+	}
+
+	@Test
+	void hammingDistance() {
+		assertEquals(0, SimHash.hammingDistance(new long[] { 5L, -1L }, new long[] { 5L, -1L }));
+		assertEquals(65, SimHash.hammingDistance(new long[] { 1L, -1L }, new long[] { 0L, 0L }));
+		assertEquals(-1.0f, SimHash.similarity(new long[] { -1L }, new long[] { 0L }), 0.0f);
+		assertThrows(IllegalArgumentException.class, () -> SimHash.hammingDistance(new long[1], new long[2]));
+	}
+
+	@Test
+	void maxHammingDistance() {
+		for (int bits : new int[] { 64, 128, 1024 }) {
+			for (float threshold : new float[] { 0.1f, 0.5f, 0.8f, 0.9f, 0.95f, 1.0f }) {
+				final int distance = SimHash.maxHammingDistance(threshold, bits);
+				assertTrue(SimHash.similarity(distance, bits) >= threshold);
+				assertTrue(SimHash.similarity(distance + 1, bits) < threshold);
+			}
+		}
+		assertEquals(0, SimHash.maxHammingDistance(1.0f, 64));
+	}
+
+	@Test
+	void bits() {
+		assertEquals(1024, simHash.getBits());
+		assertEquals(2, SimHash.create(128, 1).fingerprint(randomMultiset(10)).length);
+		assertThrows(IllegalArgumentException.class, () -> SimHash.create(0, 42));
+		assertThrows(IllegalArgumentException.class, () -> SimHash.create(100, 42));
+	}
+
+	private Multiset<String> randomMultiset(int size) {
+		final Multiset<String> multiset = HashMultiset.create();
+		while (multiset.size() < size) {
+			multiset.add(Integer.toString(random.nextInt(100)));
+		}
+		return multiset;
+	}
+}
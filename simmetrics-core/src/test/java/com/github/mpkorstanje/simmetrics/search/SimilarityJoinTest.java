@@ -0,0 +1,164 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.Metric;
+import com.github.mpkorstanje.simmetrics.SetMetric;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.Dice;
+import com.github.mpkorstanje.simmetrics.metrics.GeneralizedJaccard;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.OverlapCoefficient;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+import com.google.common.collect.HashMultiset;
+
+class SimilarityJoinTest {
+
+	private static final Tokenizer TOKENIZER = Tokenizers.qGram(2);
+
+	private static final Simplifier SIMPLIFIER = Simplifiers.toLowerCase();
+
+	private static final float[] THRESHOLDS = { 0.1f, 0.3f, 0.5f, 0.7f, 0.8f, 0.9f, 1.0f };
+
+	private final Random random = new Random(42);
+
+	private final List<String> records = randomStrings(400);
+
+	@Test
+	void jaccard() {
+		assertMatchesBruteForce(new Jaccard<>(), new Jaccard<>());
+	}
+
+	@Test
+	void dice() {
+		assertMatchesBruteForce(new Dice<>(), new Dice<>());
+	}
+
+	@Test
+	void overlapCoefficient() {
+		assertMatchesBruteForce(new OverlapCoefficient<>(), new OverlapCoefficient<>());
+	}
+
+	@Test
+	void cosineSimilarity() {
+		final CosineSimilarity<String> cosine = new CosineSimilarity<>();
+		assertMatchesBruteForce(cosine, (a, b) -> cosine.compare(HashMultiset.create(a), HashMultiset.create(b)));
+	}
+
+	@Test
+	void emptyRecordsAreSimilarToEachOther() {
+		final Map<Long, Float> pairs = new HashMap<>();
+		SimilarityJoin.selfJoin(new Jaccard<>(), Tokenizers.whitespace(), asList("", "a", "", "a b", "a"), 0.5f,
+				(i, j, similarity) -> pairs.put(key(i, j), similarity));
+
+		final Map<Long, Float> expected = new HashMap<>();
+		expected.put(key(0, 2), 1.0f);
+		expected.put(key(1, 4), 1.0f);
+		expected.put(key(1, 3), 0.5f);
+		expected.put(key(3, 4), 0.5f);
+		assertEquals(expected, pairs);
+	}
+
+	@Test
+	void rejectsInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> SimilarityJoin.selfJoin(new GeneralizedJaccard<>(),
+				TOKENIZER, records, 0.5f, (i, j, similarity) -> {
+				}));
+		assertThrows(IllegalArgumentException.class, () -> SimilarityJoin.selfJoin(new Jaccard<>(), TOKENIZER,
+				records, 0.0f, (i, j, similarity) -> {
+				}));
+		assertThrows(IllegalArgumentException.class, () -> SimilarityJoin.selfJoin(new Jaccard<>(), TOKENIZER,
+				records, Float.NaN, (i, j, similarity) -> {
+				}));
+		assertThrows(NullPointerException.class, () -> SimilarityJoin.selfJoin(new Jaccard<>(), TOKENIZER,
+				asList("a", null), 0.5f, (i, j, similarity) -> {
+				}));
+	}
+
+	private void assertMatchesBruteForce(Metric<?> metric, SetMetric<String> exact) {
+		final List<Set<String>> tokens = new ArrayList<>();
+		for (String record : records) {
+			tokens.add(TOKENIZER.tokenizeToSet(SIMPLIFIER.simplify(record)));
+		}
+
+		for (float threshold : THRESHOLDS) {
+			final Map<Long, Float> expected = new HashMap<>();
+			for (int i = 0; i < records.size(); i++) {
+				for (int j = i + 1; j < records.size(); j++) {
+					final float similarity = exact.compare(tokens.get(i), tokens.get(j));
+					if (similarity >= threshold) {
+						expected.put(key(i, j), similarity);
+					}
+				}
+			}
+
+			final Map<Long, Float> actual = new HashMap<>();
+			SimilarityJoin.selfJoin(metric, SIMPLIFIER, TOKENIZER, records, threshold, (i, j, similarity) -> {
+				assertEquals(true, i < j);
+				assertEquals(null, actual.put(key(i, j), similarity));
+			});
+			assertEquals(expected, actual, metric + " " + threshold);
+		}
+	}
+
+	private static long key(int i, int j) {
+		return ((long) i << 32) | j;
+	}
+
+	private List<String> randomStrings(int n) {
+		final int[] codePoints = "aAbBcde 𐇑".codePoints().toArray();
+		final List<String> strings = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = random.nextInt(14);
+			for (int k = 0; k < length; k++) {
+				builder.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+			}
+			strings.add(builder.toString());
+		}
+		// Near duplicates so high thresholds find pairs
+		for (int i = 0; i < n / 4; i++) {
+			final String s = strings.get(random.nextInt(strings.size()));
+			if (s.isEmpty()) {
+				strings.add(s);
+			} else {
+				strings.add(s.substring(0, s.offsetByCodePoints(0, s.codePointCount(0, s.length()) - 1)) + "e");
+			}
+		}
+		return strings;
+	}
+}
@@ -0,0 +1,142 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.simplifiers;
+
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.chain;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.compile;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.removeDiacritics;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.removeNonWord;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.replaceAll;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.replaceNonWord;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.toLowerCase;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+class CompiledSimplifierTest extends SimplifierTest {
+
+	// Includes characters that change class when lower-cased, surrogate
+	// pairs, a lone surrogate and characters that lower-case by context
+	static final String ALPHABET = "aZ_9 \t#-KÄßǅİΣ𐐀𝐀\uD800";
+
+	@Override
+	protected Simplifier getSimplifier() {
+		return compile(chain(toLowerCase(Locale.ENGLISH), replaceNonWord()));
+	}
+
+	@Override
+	protected T[] getTests() {
+		return new T[] {
+				new T("", ""),
+				new T("The ##th Hour", "the   th hour"),
+				new T("Snake_Case", "snake_case"),
+				new T("Kelvin", "kelvin"),
+				new T("İstanbul", "i stanbul"),
+				new T("ΟΔΟΣ", "    "),
+				new T("𐐀", " "),
+		};
+	}
+
+	@Test
+	void compilesLowerCaseAndNonWordSteps() {
+		assertTrue(simplifier instanceof CompiledSimplifier);
+		assertTrue(compile(removeNonWord()) instanceof CompiledSimplifier);
+		assertTrue(compile(toLowerCase(Locale.ENGLISH)) instanceof CompiledSimplifier);
+		assertTrue(compile(chain(replaceNonWord("--"), removeNonWord(), toLowerCase())) instanceof CompiledSimplifier);
+		assertSame(simplifier, compile(simplifier));
+	}
+
+	@Test
+	void doesNotCompileOtherSteps() {
+		final Simplifier turkish = toLowerCase(new Locale("tr"));
+		assertSame(turkish, compile(turkish));
+		final Simplifier lithuanian = chain(removeNonWord(), toLowerCase(new Locale("lt")));
+		assertSame(lithuanian, compile(lithuanian));
+		final Simplifier diacritics = chain(toLowerCase(Locale.ENGLISH), removeDiacritics());
+		assertSame(diacritics, compile(diacritics));
+		final Simplifier group = replaceAll("\\W", "$0");
+		assertSame(group, compile(group));
+		final Simplifier regex = replaceAll("\\W+", " ");
+		assertTrue(compile(regex) instanceof CompiledSimplifier);
+		final Simplifier flags = Simplifiers.removeAll(Pattern.compile("\\W", Pattern.UNICODE_CHARACTER_CLASS));
+		assertSame(flags, compile(flags));
+	}
+
+	@Test
+	void keepsToString() {
+		final Simplifier chain = chain(toLowerCase(Locale.ENGLISH), removeNonWord());
+		assertEquals(chain.toString(), compile(chain).toString());
+	}
+
+	@Test
+	void simplifiesLikeTheChain() {
+		assertSimplifiesLikeTheChain(toLowerCase(Locale.ENGLISH));
+		assertSimplifiesLikeTheChain(toLowerCase(Locale.ROOT));
+		assertSimplifiesLikeTheChain(removeNonWord());
+		assertSimplifiesLikeTheChain(replaceNonWord());
+		assertSimplifiesLikeTheChain(replaceAll("\\W+", "__"));
+		assertSimplifiesLikeTheChain(chain(toLowerCase(Locale.ENGLISH), removeNonWord()));
+		assertSimplifiesLikeTheChain(chain(removeNonWord(), toLowerCase(Locale.ENGLISH)));
+		assertSimplifiesLikeTheChain(chain(replaceNonWord("A"), toLowerCase(Locale.ENGLISH), replaceAll("\\W+", "")));
+		assertSimplifiesLikeTheChain(chain(replaceAll("\\W+", "K"), toLowerCase(Locale.GERMAN)));
+	}
+
+	@Test
+	void simplifiesToCodePoints() {
+		final CompiledSimplifier compiled = (CompiledSimplifier) compile(replaceNonWord("<>"));
+		final int[] codePoints = new int[compiled.getMaxLength("a#") + 1];
+		assertEquals(4, compiled.simplify("a#", codePoints, 1));
+		assertEquals("a<>", new String(codePoints, 1, 3));
+		assertTrue(compiled.isSimplifiedByCodePoint("İ"));
+
+		final CompiledSimplifier lowerCase = (CompiledSimplifier) compile(toLowerCase(Locale.ENGLISH));
+		assertFalse(lowerCase.isSimplifiedByCodePoint("İ"));
+		assertFalse(lowerCase.isSimplifiedByCodePoint("Σ"));
+		assertThrows(IllegalArgumentException.class, () -> lowerCase.simplify("Σ", new int[1], 0));
+	}
+
+	static void assertSimplifiesLikeTheChain(Simplifier chain) {
+		final Simplifier compiled = compile(chain);
+		assertTrue(compiled instanceof CompiledSimplifier, chain.toString());
+		final Random random = new Random(42);
+		for (int i = 0; i < 500; i++) {
+			final String input = randomString(random, i % 12);
+			assertEquals(chain.simplify(input), compiled.simplify(input), input);
+		}
+	}
+
+	static String randomString(Random random, int length) {
+		final int[] alphabet = ALPHABET.codePoints().toArray();
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			builder.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+		}
+		return builder.toString();
+	}
+
+}
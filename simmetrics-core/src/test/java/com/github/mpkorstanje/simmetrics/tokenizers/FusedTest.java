@@ -0,0 +1,126 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.chain;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.compile;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.removeNonWord;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.replaceNonWord;
+import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.toLowerCase;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.simplifiers.CompiledSimplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+
+final class FusedTest extends TokenizerTest {
+
+	private static final String ALPHABET = "aZ_9  \t\n#-KßİΣ𐐀\uD800";
+
+	@Override
+	protected Tokenizer getTokenizer() {
+		return Tokenizers.fuse(compiled(chain(toLowerCase(Locale.ENGLISH), replaceNonWord())),
+				Tokenizers.chain(Tokenizers.whitespace(), Tokenizers.qGram(2)));
+	}
+
+	@Override
+	protected T[] getTests() {
+		return new T[] {
+				new T(""),
+				new T(" "),
+				new T("#"),
+				new T("A B", "a", "b"),
+				new T("Hello, World!", "he", "el", "ll", "lo", "wo", "or", "rl", "ld"),
+				new T("ΟΔΟΣ ab", "ab"),
+		};
+	}
+
+	@Test
+	void fusesWhitespaceAndQGrams() {
+		assertTrue(Tokenizers.isFusible(Tokenizers.whitespace()));
+		assertTrue(Tokenizers.isFusible(Tokenizers.qGram(3)));
+		assertTrue(Tokenizers.isFusible(Tokenizers.qGramWithFilter(3)));
+		assertTrue(Tokenizers.isFusible(Tokenizers.qGramWithPadding(3)));
+		assertTrue(Tokenizers.isFusible(Tokenizers.chain(Tokenizers.whitespace(), Tokenizers.qGramWithPadding(2))));
+		assertFalse(Tokenizers.isFusible(Tokenizers.pattern("a")));
+		assertFalse(Tokenizers.isFusible(Tokenizers.chain(Tokenizers.qGram(2), Tokenizers.whitespace())));
+		assertFalse(Tokenizers.isFusible(Tokenizers.chain(Tokenizers.whitespace(), Tokenizers.qGram(2), Tokenizers.qGram(1))));
+		assertFalse(Tokenizers.isFusible(Tokenizers.filter(Tokenizers.whitespace(), token -> true)));
+		assertThrows(IllegalArgumentException.class,
+				() -> Tokenizers.fuse(compiled(removeNonWord()), Tokenizers.pattern("a")));
+	}
+
+	@Test
+	void tokenizesLikeTheSimplifierAndTokenizer() {
+		final Simplifier[] simplifiers = {
+				toLowerCase(Locale.ENGLISH),
+				removeNonWord(),
+				replaceNonWord(),
+				chain(toLowerCase(Locale.ENGLISH), replaceNonWord()),
+				chain(replaceNonWord("ab"), toLowerCase(Locale.ENGLISH)),
+		};
+		final Tokenizer[] tokenizers = {
+				Tokenizers.whitespace(),
+				Tokenizers.qGram(1),
+				Tokenizers.qGram(3),
+				Tokenizers.qGramWithFilter(3),
+				Tokenizers.qGramWithPadding(1),
+				Tokenizers.qGramWithPadding(3),
+				Tokenizers.qGramWithPadding(2, "<", ">"),
+				Tokenizers.chain(Tokenizers.whitespace(), Tokenizers.qGram(2)),
+				Tokenizers.chain(Tokenizers.whitespace(), Tokenizers.qGramWithFilter(3)),
+				Tokenizers.chain(Tokenizers.whitespace(), Tokenizers.qGramWithPadding(3)),
+		};
+		final Random random = new Random(42);
+		final int[] alphabet = ALPHABET.codePoints().toArray();
+		for (Simplifier simplifier : simplifiers) {
+			for (Tokenizer tokenizer : tokenizers) {
+				final Tokenizer fused = Tokenizers.fuse(compiled(simplifier), tokenizer);
+				for (int i = 0; i < 200; i++) {
+					final StringBuilder builder = new StringBuilder();
+					for (int j = i % 10; j > 0; j--) {
+						builder.appendCodePoint(alphabet[random.nextInt(alphabet.length)]);
+					}
+					final String input = builder.toString();
+					final String simplified = simplifier.simplify(input);
+					final String message = fused + " " + input;
+					assertEquals(tokenizer.tokenizeToList(simplified), fused.tokenizeToList(input), message);
+					assertEquals(tokenizer.tokenizeToSet(simplified), fused.tokenizeToSet(input), message);
+					assertEquals(tokenizer.tokenizeToMultiset(simplified), fused.tokenizeToMultiset(input), message);
+					assertEquals(tokenizer.tokenizeToHashedSet(simplified), fused.tokenizeToHashedSet(input), message);
+					assertEquals(tokenizer.tokenizeToHashedMultiset(simplified), fused.tokenizeToHashedMultiset(input),
+							message);
+				}
+			}
+		}
+	}
+
+	private static CompiledSimplifier compiled(Simplifier simplifier) {
+		return (CompiledSimplifier) compile(simplifier);
+	}
+
+}
@@ -0,0 +1,76 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableMultiset;
+
+class HashedMultisetTest {
+
+	@Test
+	void countsOccurrences() {
+		final HashedMultiset multiset = HashedMultiset.of(asList("a", "b", "a", "c", "a"));
+		assertEquals(5, multiset.size());
+		assertEquals(3, multiset.distinctSize());
+		assertEquals(3, multiset.count("a"));
+		assertEquals(1, multiset.count("b"));
+		assertEquals(0, multiset.count("d"));
+		assertEquals(HashedSet.of(asList("a", "b", "c")), multiset.elementSet());
+		assertEquals(multiset, HashedMultiset.of(ImmutableMultiset.of("c", "b", "a", "a", "a")));
+		assertNotEquals(multiset, HashedMultiset.of(asList("a", "b", "c")));
+	}
+
+	@Test
+	void sortsHashes() {
+		final HashedMultiset multiset = HashedMultiset.of(3L, -1L, 3L, 2L);
+		assertEquals(4, multiset.size());
+		assertEquals(-1L, multiset.hashAt(0));
+		assertEquals(1, multiset.countAt(0));
+		assertEquals(3L, multiset.hashAt(2));
+		assertEquals(2, multiset.countAt(2));
+		assertThrows(IndexOutOfBoundsException.class, () -> multiset.countAt(3));
+	}
+
+	@Test
+	void empty() {
+		final HashedMultiset multiset = HashedMultiset.of(Collections.<String>emptyList());
+		assertTrue(multiset.isEmpty());
+		assertEquals(0, multiset.distinctSize());
+		assertEquals(multiset, HashedMultiset.of());
+	}
+
+	@Test
+	void tokenizer() {
+		final Tokenizer tokenizer = Tokenizers.qGram(2);
+		assertEquals(HashedMultiset.of(tokenizer.tokenizeToList("abab")), tokenizer.tokenizeToHashedMultiset("abab"));
+		assertEquals(HashedSet.of(tokenizer.tokenizeToSet("abab")), tokenizer.tokenizeToHashedSet("abab"));
+		assertEquals(2, tokenizer.tokenizeToHashedMultiset("abab").count("ab"));
+	}
+
+}
@@ -0,0 +1,78 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+class HashedSetTest {
+
+	@Test
+	void removesDuplicates() {
+		final HashedSet set = HashedSet.of(asList("a", "b", "a", "c"));
+		assertEquals(3, set.size());
+		assertTrue(set.contains("a"));
+		assertTrue(set.contains("c"));
+		assertFalse(set.contains("d"));
+		assertEquals(set, HashedSet.of(asList("c", "b", "a")));
+		assertEquals(set.hashCode(), HashedSet.of(asList("c", "b", "a")).hashCode());
+		assertNotEquals(set, HashedSet.of(asList("a", "b")));
+	}
+
+	@Test
+	void sortsHashes() {
+		final HashedSet set = HashedSet.of(3L, -1L, 3L, 2L);
+		assertArrayEquals(new long[] { -1L, 2L, 3L }, set.toArray());
+		assertEquals(-1L, set.hashAt(0));
+		assertEquals(3L, set.hashAt(2));
+		assertThrows(IndexOutOfBoundsException.class, () -> set.hashAt(3));
+	}
+
+	@Test
+	void empty() {
+		final HashedSet set = HashedSet.of(Collections.<String>emptyList());
+		assertTrue(set.isEmpty());
+		assertEquals(0, set.size());
+		assertEquals(set, HashedSet.of());
+	}
+
+	@Test
+	void hashesCodePoints() {
+		// Tokens that differ only in leading zeros or surrogates are distinct
+		assertEquals(4, HashedSet.of(asList("", "\u0000", "\u0000\u0000", "𐐀")).size());
+		assertNotEquals(TokenHashes.hash("ab"), TokenHashes.hash("ba"));
+		assertEquals(TokenHashes.hash(new String("abc")), TokenHashes.hash("abc"));
+	}
+
+	@Test
+	void rejectsNullTokens() {
+		assertThrows(NullPointerException.class, () -> HashedSet.of(asList("a", null)));
+	}
+
+}
@@ -0,0 +1,90 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class IdListTest {
+
+	private final TokenDictionary dictionary = TokenDictionary.create();
+
+	@Test
+	void behavesAsList() {
+		final IdList list = dictionary.internList(asList("b", "a", "b", "c"));
+		final List<String> expected = asList("b", "a", "b", "c");
+		assertEquals(4, list.size());
+		assertEquals(expected, list);
+		assertEquals(list, expected);
+		assertEquals(expected.hashCode(), list.hashCode());
+		assertEquals(expected, new ArrayList<>(list));
+		assertEquals("a", list.get(1));
+		assertTrue(list.contains("c"));
+		assertFalse(list.contains("d"));
+		assertFalse(list.contains(1));
+		assertFalse(list.contains(null));
+		assertEquals(0, list.indexOf("b"));
+		assertEquals(2, list.lastIndexOf("b"));
+		assertEquals(-1, list.indexOf("d"));
+		assertEquals(-1, list.lastIndexOf("d"));
+		assertThrows(UnsupportedOperationException.class, () -> list.add("d"));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(4));
+	}
+
+	@Test
+	void keepsOrderOfIds() {
+		final IdList list = dictionary.internList(asList("b", "a", "b", "c"));
+		assertEquals(0, list.idAt(0));
+		assertEquals(1, list.idAt(1));
+		assertEquals(0, list.idAt(2));
+		assertEquals(2, list.idAt(3));
+		assertEquals(list, dictionary.internList(asList("b", "a", "b", "c")));
+		assertFalse(list.equals(dictionary.internList(asList("a", "b", "b", "c"))));
+	}
+
+	@Test
+	void equalsAcrossDictionaries() {
+		final IdList a = dictionary.internList(asList("a", "b"));
+		final IdList b = TokenDictionary.create().internList(asList("a", "b"));
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+	}
+
+	@Test
+	void empty() {
+		final IdList list = dictionary.internList(asList());
+		assertTrue(list.isEmpty());
+		assertEquals(asList(), list);
+	}
+
+	@Test
+	void rejectsNull() {
+		assertThrows(NullPointerException.class, () -> dictionary.internList(asList("a", null)));
+	}
+
+}
@@ -0,0 +1,123 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+
+class IdMultisetTest {
+
+	private final TokenDictionary dictionary = TokenDictionary.create();
+
+	private final Random random = new Random(42);
+
+	@Test
+	void behavesAsMultiset() {
+		final IdMultiset multiset = dictionary.internMultiset(asList("b", "a", "b", "c"));
+		final Multiset<String> expected = ImmutableMultiset.of("a", "b", "b", "c");
+		assertEquals(4, multiset.size());
+		assertEquals(3, multiset.distinctSize());
+		assertEquals(2, multiset.count("b"));
+		assertEquals(0, multiset.count("d"));
+		assertEquals(0, multiset.count(null));
+		assertTrue(multiset.contains("a"));
+		assertFalse(multiset.contains("d"));
+		assertEquals(expected, multiset);
+		assertEquals(multiset, expected);
+		assertEquals(expected.hashCode(), multiset.hashCode());
+		assertEquals(expected.elementSet(), multiset.elementSet());
+		assertThrows(UnsupportedOperationException.class, () -> multiset.add("d"));
+	}
+
+	@Test
+	void sortsIds() {
+		final IdMultiset multiset = dictionary.internMultiset(asList("b", "a", "b", "c"));
+		assertEquals(0, multiset.idAt(0));
+		assertEquals(2, multiset.countAt(0));
+		assertEquals(1, multiset.idAt(1));
+		assertEquals(1, multiset.countAt(1));
+		assertEquals(multiset, dictionary.internMultiset(asList("c", "b", "a", "b")));
+	}
+
+	@Test
+	void intersectionSize() {
+		for (int large : new int[] { 0, 10, 100, 2000 }) {
+			for (int small : new int[] { 0, 1, 10, 100 }) {
+				final Multiset<String> a = randomMultiset(small);
+				final Multiset<String> b = randomMultiset(large);
+				final int expected = Multisets.intersection(a, b).size();
+				assertEquals(expected, dictionary.internMultiset(a).intersectionSize(dictionary.internMultiset(b)));
+				assertEquals(expected, dictionary.internMultiset(b).intersectionSize(dictionary.internMultiset(a)));
+			}
+		}
+	}
+
+	@Test
+	void dotProduct() {
+		for (int large : new int[] { 0, 10, 100, 2000 }) {
+			for (int small : new int[] { 0, 1, 10, 100 }) {
+				final Multiset<String> a = randomMultiset(small);
+				final Multiset<String> b = randomMultiset(large);
+				long expected = 0;
+				for (String token : a.elementSet()) {
+					expected += (long) a.count(token) * b.count(token);
+				}
+				assertEquals(expected, dictionary.internMultiset(a).dotProduct(dictionary.internMultiset(b)));
+				assertEquals(expected, dictionary.internMultiset(b).dotProduct(dictionary.internMultiset(a)));
+			}
+		}
+	}
+
+	@Test
+	void squaredNorm() {
+		assertEquals(0, dictionary.internMultiset(asList()).getSquaredNorm());
+		assertEquals(4 + 1 + 9, dictionary.internMultiset(asList("a", "b", "a", "c", "c", "c")).getSquaredNorm());
+	}
+
+	@Test
+	void intersectionSizeRequiresSameDictionary() {
+		final IdMultiset a = dictionary.internMultiset(asList("a"));
+		final IdMultiset b = TokenDictionary.create().internMultiset(asList("a"));
+		assertThrows(IllegalArgumentException.class, () -> a.intersectionSize(b));
+		assertThrows(IllegalArgumentException.class, () -> a.dotProduct(b));
+		assertEquals(a, b);
+	}
+
+	private Multiset<String> randomMultiset(int size) {
+		final Multiset<String> multiset = HashMultiset.create();
+		while (multiset.size() < size) {
+			multiset.add(Integer.toString(random.nextInt(size * 2)));
+		}
+		return multiset;
+	}
+
+}
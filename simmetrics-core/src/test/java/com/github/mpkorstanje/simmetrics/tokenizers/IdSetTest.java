@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+class IdSetTest {
+
+	private final TokenDictionary dictionary = TokenDictionary.create();
+
+	private final Random random = new Random(42);
+
+	@Test
+	void behavesAsSet() {
+		final IdSet set = dictionary.internSet(asList("b", "a", "b", "c"));
+		final Set<String> expected = ImmutableSet.of("a", "b", "c");
+		assertEquals(3, set.size());
+		assertEquals(expected, set);
+		assertEquals(set, expected);
+		assertEquals(expected.hashCode(), set.hashCode());
+		assertEquals(expected, new HashSet<>(set));
+		assertTrue(set.contains("a"));
+		assertFalse(set.contains("d"));
+		assertFalse(set.contains(1));
+		assertFalse(set.contains(null));
+		assertThrows(UnsupportedOperationException.class, () -> set.add("d"));
+	}
+
+	@Test
+	void sortsIds() {
+		final IdSet set = dictionary.internSet(asList("b", "a", "b", "c"));
+		assertEquals(0, set.idAt(0));
+		assertEquals(1, set.idAt(1));
+		assertEquals(2, set.idAt(2));
+		assertEquals(set, dictionary.internSet(asList("c", "a", "b")));
+	}
+
+	@Test
+	void intersectionSize() {
+		for (int large : new int[] { 0, 10, 100, 2000 }) {
+			for (int small : new int[] { 0, 1, 10, 100 }) {
+				final Set<String> a = randomSet(small);
+				final Set<String> b = randomSet(large);
+				final int expected = Sets.intersection(a, b).size();
+				assertEquals(expected, dictionary.internSet(a).intersectionSize(dictionary.internSet(b)));
+				assertEquals(expected, dictionary.internSet(b).intersectionSize(dictionary.internSet(a)));
+			}
+		}
+	}
+
+	@Test
+	void intersectionSizeRequiresSameDictionary() {
+		final IdSet a = dictionary.internSet(asList("a"));
+		final IdSet b = TokenDictionary.create().internSet(asList("a"));
+		assertThrows(IllegalArgumentException.class, () -> a.intersectionSize(b));
+		assertEquals(a, b);
+	}
+
+	private Set<String> randomSet(int size) {
+		final Set<String> set = new HashSet<>();
+		while (set.size() < size) {
+			set.add(Integer.toString(random.nextInt(size * 4)));
+		}
+		return set;
+	}
+
+}
@@ -0,0 +1,40 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+final class InterningTest extends TokenizerTest {
+
+	@Override
+	protected Tokenizer getTokenizer() {
+		return new Tokenizers.Interning(new Tokenizers.Whitespace(), TokenDictionary.create());
+	}
+
+	@Override
+	protected T[] getTests() {
+
+		return new T[] {
+				new T(""),
+				new T(" "),
+				new T("A B C", "A", "B", "C"),
+				new T("A B A", "A", "B", "A"),
+				new T("C B A A", "C", "B", "A", "A"),
+		};
+	}
+}
@@ -0,0 +1,84 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.EuclideanDistance;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.Multiset;
+
+class NormedMultisetTest {
+
+	@Test
+	void computesSquaredNorm() {
+		final NormedMultiset<String> multiset = NormedMultiset.of(HashMultiset.create(asList("a", "b", "a", null)));
+		assertEquals(4 + 1 + 1, multiset.getSquaredNorm());
+		assertEquals(0, NormedMultiset.of(HashMultiset.create()).getSquaredNorm());
+	}
+
+	@Test
+	void copies() {
+		final Multiset<String> tokens = HashMultiset.create(asList("a", "b", "a"));
+		final NormedMultiset<String> multiset = NormedMultiset.of(tokens);
+		tokens.add("c");
+		assertEquals(ImmutableMultiset.of("a", "a", "b"), multiset);
+		assertEquals(multiset, ImmutableMultiset.of("a", "a", "b"));
+		assertEquals(5, multiset.getSquaredNorm());
+		assertSame(multiset, NormedMultiset.of(multiset));
+		assertThrows(UnsupportedOperationException.class, () -> multiset.add("d"));
+	}
+
+	@Test
+	void reusedByMetrics() {
+		final Random random = new Random(42);
+		final CosineSimilarity<Integer> cosine = new CosineSimilarity<>();
+		final EuclideanDistance<Integer> euclidean = new EuclideanDistance<>();
+		for (int i = 0; i < 100; i++) {
+			final Multiset<Integer> a = randomMultiset(random);
+			final Multiset<Integer> b = randomMultiset(random);
+			final NormedMultiset<Integer> normed = NormedMultiset.of(a);
+			assertEquals(cosine.compare(a, b), cosine.compare(normed, b), 0.0f);
+			assertEquals(cosine.compare(b, a), cosine.compare(b, normed), 0.0f);
+			assertEquals(euclidean.distance(a, b), euclidean.distance(normed, b), 0.0f);
+			assertEquals(euclidean.compare(a, b), euclidean.compare(normed, NormedMultiset.of(b)), 0.0f);
+		}
+	}
+
+	private static Multiset<Integer> randomMultiset(Random random) {
+		final Multiset<Integer> multiset = HashMultiset.create();
+		final int size = random.nextInt(50);
+		for (int i = 0; i < size; i++) {
+			multiset.add(random.nextInt(20));
+		}
+		return multiset;
+	}
+
+}
@@ -20,6 +20,14 @@
 
 package com.github.mpkorstanje.simmetrics.tokenizers;
 
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
 class QGramTest {
 
     private static String fromCodePoints(int... codePoints){
@@ -230,4 +238,45 @@ class QGramTest {
             };
         }
     }
+
+    static final class RollingHash {
+
+        private final Random random = new Random(42);
+
+        @Test
+        void equalsHashOfSubstrings() {
+            for (int q = 1; q <= 5; q++) {
+                final List<Tokenizer> tokenizers = asList(
+                        new Tokenizers.QGram(q),
+                        new Tokenizers.QGram(q, true),
+                        new Tokenizers.QGramExtended(q),
+                        new Tokenizers.QGramExtended(q, "<" + linearAOne, linearATwo + ">"));
+                for (Tokenizer tokenizer : tokenizers) {
+                    for (int i = 0; i < 50; i++) {
+                        final String input = randomString(random.nextInt(20));
+                        final List<String> tokens = tokenizer.tokenizeToList(input);
+                        assertEquals(HashedMultiset.of(tokens), tokenizer.tokenizeToHashedMultiset(input), input);
+                        assertEquals(HashedSet.of(tokens), tokenizer.tokenizeToHashedSet(input), input);
+                    }
+                }
+            }
+        }
+
+        private String randomString(int length) {
+            final StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                switch (random.nextInt(4)) {
+                case 0:
+                    builder.append(linearAOne);
+                    break;
+                case 1:
+                    builder.append(acute_accent);
+                    break;
+                default:
+                    builder.append((char) ('a' + random.nextInt(3)));
+                }
+            }
+            return builder.toString();
+        }
+    }
 }
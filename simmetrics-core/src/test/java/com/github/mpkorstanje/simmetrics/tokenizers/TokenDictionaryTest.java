@@ -0,0 +1,114 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class TokenDictionaryTest {
+
+	@Test
+	void assignsIdsInOrder() {
+		final TokenDictionary dictionary = TokenDictionary.create();
+		assertEquals(0, dictionary.intern("a"));
+		assertEquals(1, dictionary.intern("b"));
+		assertEquals(0, dictionary.intern("a"));
+		assertEquals(2, dictionary.size());
+		assertEquals(1, dictionary.getId("b"));
+		assertEquals(-1, dictionary.getId("c"));
+		assertEquals("b", dictionary.getToken(1));
+		assertThrows(IndexOutOfBoundsException.class, () -> dictionary.getToken(2));
+		assertThrows(IndexOutOfBoundsException.class, () -> dictionary.getToken(-1));
+	}
+
+	@Test
+	void grows() {
+		final TokenDictionary dictionary = TokenDictionary.create();
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, dictionary.intern(Integer.toString(i)));
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(Integer.toString(i), dictionary.getToken(i));
+		}
+	}
+
+	@Test
+	void internsConcurrently() throws Exception {
+		final TokenDictionary dictionary = TokenDictionary.create();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<int[]>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				futures.add(executor.submit(() -> {
+					final int[] ids = new int[2000];
+					for (int i = 0; i < ids.length; i++) {
+						ids[i] = dictionary.intern(Integer.toString(i));
+						assertEquals(Integer.toString(i), dictionary.getToken(ids[i]));
+					}
+					return ids;
+				}));
+			}
+			final int[] expected = futures.get(0).get();
+			for (Future<int[]> future : futures) {
+				assertEquals(asList(boxed(expected)), asList(boxed(future.get())));
+			}
+			assertEquals(2000, dictionary.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void collectsIds() {
+		final TokenDictionary dictionary = TokenDictionary.create();
+		dictionary.internList(asList("a", "b", "c"));
+		final int[] ids = { 2, 0, 2 };
+		assertEquals(asList("c", "a", "c"), dictionary.listOf(ids));
+		assertEquals(dictionary.internSet(asList("a", "c")), dictionary.setOf(ids));
+		assertEquals(dictionary.internMultiset(asList("c", "a", "c")), dictionary.multisetOf(ids));
+		assertEquals(asList("c", "a", "c"), dictionary.listOf(ids));
+		assertThrows(IllegalArgumentException.class, () -> dictionary.setOf(0, 3));
+		assertThrows(IllegalArgumentException.class, () -> dictionary.listOf(-1));
+	}
+
+	@Test
+	void rejectsNullTokens() {
+		final TokenDictionary dictionary = TokenDictionary.create();
+		assertThrows(NullPointerException.class, () -> dictionary.internSet(asList("a", null)));
+	}
+
+	private static Integer[] boxed(int[] ids) {
+		final Integer[] boxed = new Integer[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			boxed[i] = ids[i];
+		}
+		return boxed;
+	}
+
+}
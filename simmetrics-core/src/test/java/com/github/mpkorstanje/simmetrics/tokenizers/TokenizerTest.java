@@ -181,4 +181,26 @@ public abstract class TokenizerTest {
 		}
 	}
 
+	@Test
+	final void shouldTokenizeToHashedSet() {
+		if (!supportsTokenizeToList()) {
+			return;
+		}
+		for (T t : tests) {
+			assertEquals(HashedSet.of(t.tokensAsList()), tokenizer.tokenizeToHashedSet(t.string()),
+					t.string() + " did not tokenize correctly");
+		}
+	}
+
+	@Test
+	final void shouldTokenizeToHashedMultiset() {
+		if (!supportsTokenizeToList()) {
+			return;
+		}
+		for (T t : tests) {
+			assertEquals(HashedMultiset.of(t.tokensAsList()), tokenizer.tokenizeToHashedMultiset(t.string()),
+					t.string() + " did not tokenize correctly");
+		}
+	}
+
 }